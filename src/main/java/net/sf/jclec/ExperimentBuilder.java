@@ -1,9 +1,13 @@
 package net.sf.jclec;
 
 import java.io.File;
+import java.util.List;
 import java.util.ArrayList;
+import java.util.AbstractList;
 
+import org.apache.commons.configuration.ConfigurationException;
 import org.apache.commons.configuration.XMLConfiguration;
+import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
@@ -11,23 +15,36 @@ import org.w3c.dom.NodeList;
 
 /**
  * Experiments builder
- * 
+ *
+ * An experiment file may contain multi-valued elements (elements with a
+ * <code>multi</code> attribute, whose alternatives are child elements with
+ * the same name) and multi-valued attributes (attributes whose value is
+ * <code>multi</code>, whose alternatives are child elements with the name of
+ * the attribute). Alternatives may contain other multi-valued elements and
+ * attributes. An experiment is expanded into one job configuration for each
+ * combination of alternatives.
+ *
+ * The experiment file is parsed only once, and each job configuration is
+ * created in memory when it is requested. Job files are only written to disk
+ * by the buildExperiment() method.
+ *
  * @author Sebastian Ventura
- * @author Jose M. Luna 
- * @author Alberto Cano 
+ * @author Jose M. Luna
+ * @author Alberto Cano
  * @author Juan Luis Olmo
  * @author Amelia Zafra
  */
 
-public class ExperimentBuilder 
+public class ExperimentBuilder
 {
 	/////////////////////////////////////////////////////////////////
 	// --------------------------------------------------- Properties
 	/////////////////////////////////////////////////////////////////
 
-	/** Control the depth size */
-	private ArrayList<Integer> combinationBase;
-	
+	/** Directory for the expanded job files */
+
+	private String experimentsDirectory = "experiments";
+
 	/////////////////////////////////////////////////////////////////
 	// -------------------------------------------------- Constructor
 	/////////////////////////////////////////////////////////////////
@@ -35,446 +52,311 @@ public class ExperimentBuilder
 	/**
 	 * Empty constructor
 	 */
-	
+
 	public ExperimentBuilder() {
-		
+
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	// Setting and getting properties
+
+	public final String getExperimentsDirectory()
+	{
+		return experimentsDirectory;
+	}
+
+	public final void setExperimentsDirectory(String experimentsDirectory)
+	{
+		this.experimentsDirectory = experimentsDirectory;
+	}
+
+	/**
+	 * Expands the experiments for the configuration file. Job configurations
+	 * are created when they are accessed, and they are not saved. The file
+	 * name of each configuration is the one used by buildExperiment().
+	 *
+	 * @param experimentFileName Experiment file
+	 *
+	 * @return Job configurations
+	 *
+	 * @throws ConfigurationException If the experiment file cannot be read
+	 */
+
+	public List<XMLConfiguration> expandExperiment(String experimentFileName) throws ConfigurationException
+	{
+		Document document = new XMLConfiguration(new File(experimentFileName)).getDocument();
+		return new Expansion(experimentFileName, document, experimentsDirectory);
 	}
-	
+
 	/**
-	 * Expands the experiments for the configuration file
+	 * Expands the experiments for the configuration file, and saves the job
+	 * files in the experiments directory.
+	 *
+	 * @param experimentFileName Experiment file
+	 *
+	 * @return Job file names
+	 *
+	 * @see #saveExperiment(List)
 	 */
-	
+
 	public ArrayList<String> buildExperiment(String experimentFileName)
 	{
-		ArrayList<String> configurations = expandElements(experimentFileName);
-		ArrayList<String> allCreatedExperiments = new ArrayList<String>();
-		int numberExperiments = 1;
-		
-		allCreatedExperiments.addAll(configurations);
-		
-		/** Expand multi-valued elements */
-		do
-		{
-			numberExperiments = configurations.size();
-			
-			ArrayList<String> createdExperiments = new ArrayList<String>();
-			
-			for(String experiment : configurations)
-				createdExperiments.addAll(expandElements(experiment));
-			
-			allCreatedExperiments.addAll(createdExperiments);
-			
-			configurations = createdExperiments;
-			
-		}while(configurations.size() != numberExperiments);
-		
-		/** Expand multi-valued attributes */
-		do
-		{
-			numberExperiments = configurations.size();
-			
-			ArrayList<String> createdExperiments = new ArrayList<String>();
-			
-			for(String experiment : configurations)
-				createdExperiments.addAll(expandAttributes(experiment));
-			
-			allCreatedExperiments.addAll(createdExperiments);
-			
-			configurations = createdExperiments;
-			
-		}while(configurations.size() != numberExperiments);
-		
-		allCreatedExperiments.removeAll(configurations);
-		
-		/** Remove temp files */
-		for(String temp : allCreatedExperiments)
-		{
-			if(!temp.equals(experimentFileName))
-				new File(temp).delete();
+		if (!new File(experimentFileName).exists()) {
+			System.out.println("Job file not found");
+			System.exit(1);
 		}
-		
-		/** Move the expanded configuration files to the experiments folder */
-		if(configurations.size() > 1)
+
+		try {
+			return saveExperiment(expandExperiment(experimentFileName));
+		}
+		catch (ConfigurationException e) {
+			e.printStackTrace();
+			return new ArrayList<String>();
+		}
+	}
+
+	/**
+	 * Saves the job files of an expanded experiment in the experiments
+	 * directory (which is previously emptied). If the experiment has only
+	 * one job, no files are written.
+	 *
+	 * @param configurations Job configurations
+	 *
+	 * @return Job file names
+	 *
+	 * @throws ConfigurationException If a job file cannot be written
+	 */
+
+	public ArrayList<String> saveExperiment(List<XMLConfiguration> configurations) throws ConfigurationException
+	{
+		ArrayList<String> configurationFileNames = new ArrayList<String>();
+
+		/** Empty the experiments folder */
+		if (configurations.size() > 1)
 		{
-			File dir = new File("experiments");
-			
+			File dir = new File(experimentsDirectory);
+
 			/** If the directory exists, delete all files */
 			if(dir.exists()){
 				File [] experimentFiles = dir.listFiles();
 				for(File f: experimentFiles)
 					f.delete();
 			}
-			
+
 			/** Else, create the directory */
 			else{
-				dir.mkdir();
+				dir.mkdirs();
 			}
+		}
 
-			for(int i = 0; i < configurations.size(); i++)
-			{
-				File file = new File(configurations.get(i));
-				file.renameTo(new File(dir, file.getName()));
-				String[] files = configurations.get(i).split("/");
-				String fileName = files[files.length-1];
-				configurations.set(i, dir.getPath() + "/" + fileName);
-			}
+		for (XMLConfiguration configuration : configurations)
+		{
+			if (configurations.size() > 1)
+				configuration.save();
+
+			configurationFileNames.add(configuration.getFile().getPath());
 		}
-		
+
 		/** Return the configuration filenames */
-		return configurations;
+		return configurationFileNames;
 	}
-	
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
 	/**
-	 * Expands the multi-valued elements for the jobFilename configuration file
+	 * Number of combinations of a node.
 	 */
-	
-	private ArrayList<String> expandElements(String jobFilename)
+
+	private static int combinations(Element element)
 	{
-		combinationBase = new ArrayList<Integer>();
-		
-		ArrayList<String> configurationFileNames = new ArrayList<String>();
-		
-		// Try open job file
-		File jobFile = new File(jobFilename);
-		
-		if (jobFile.exists()) {
-			try {
-				
-				// Find the number of combinations to perform
-				expandElementsIterateElements(new XMLConfiguration(jobFile).getDocument().getChildNodes());
-				
-				int numberCombinations = 1;
-				
-				// Calculate the amount of combinations
-				for(Integer i : combinationBase)
-					numberCombinations *= i;
-				
-				int[][] configurationSchema = new int[numberCombinations][];
-				
-				for(int i = 0; i < numberCombinations; i++)
-					configurationSchema[i] = new int[combinationBase.size()];
-				
-				int consecutiveElements = numberCombinations;
-				int accProduct = 1;
-				
-				// Calculate the combinations of each element
-				for(int i = 0; i < combinationBase.size(); i++)
-				{
-					consecutiveElements /= combinationBase.get(i);
-					
-					for(int j = 0; j < combinationBase.get(i); j++)
-					{
-						for(int k = 0; k < consecutiveElements; k++)
-						{
-							for(int r = 0; r < accProduct; r++)
-							{
-								int step = consecutiveElements*combinationBase.get(i);
-								configurationSchema[r*step + j*consecutiveElements + k][i] = j;
-							}
-						}
-					}
-					
-					accProduct *= combinationBase.get(i);
-				}
-				
-				XMLConfiguration[] configurations = new XMLConfiguration[numberCombinations];
-				
-				for(int i = 0; i < numberCombinations; i++)
-				{
-					configurations[i] = new XMLConfiguration(jobFile);
-					
-					expandElementsIterateElements(configurations[i].getDocument().getChildNodes(), configurationSchema[i].clone());
-				}
-				
-				for(int i = 0; i < numberCombinations; i++)
-				{
-					String fileName = jobFilename;
-					
-					for(int j = 0; j < configurationSchema[i].length; j++)
-						fileName += "_" + configurationSchema[i][j];
-					
-					if(!fileName.equals(jobFilename))
-						configurations[i].save(new File(fileName));
-					
-					configurationFileNames.add(fileName);
-				}
-			}
-			catch (Exception e) {
-				e.printStackTrace();
-			}
+		if (isMultiElement(element)) {
+			int combinations = 0;
+			for (Element alternative : alternatives(element, element.getNodeName()))
+				combinations += combinations(alternative);
+			return combinations;
 		}
 		else {
-			System.out.println("Job file not found");
-			System.exit(1);			
+			int combinations = 1;
+			for (Node attribute : multiAttributes(element))
+				combinations *= alternatives(element, attribute.getNodeName()).size();
+			for (Element child : children(element))
+				combinations *= combinations(child);
+			return combinations;
 		}
-		
-		return configurationFileNames;
 	}
-	
-	private int expandElementsIterateElements(NodeList elements)
+
+	/**
+	 * Sets the alternatives of a node that correspond to a combination.
+	 *
+	 * @param element Node to expand
+	 * @param combination Combination index
+	 */
+
+	private static void expand(Element element, int combination)
 	{
-		for(int i = 0; i < elements.getLength(); i++)
-		{
-			if(elements.item(i) instanceof Element)
-			{
-				Element element = (Element) elements.item(i);
-				
-				if(expandElementsIterateAttributes(element) == 1)
-					return 1;
-				
-				expandElementsIterateElements(element.getChildNodes());
+		if (isMultiElement(element)) {
+			for (Element alternative : alternatives(element, element.getNodeName())) {
+				int combinations = combinations(alternative);
+				if (combination < combinations) {
+					element.getParentNode().replaceChild(alternative, element);
+					expand(alternative, combination);
+					return;
+				}
+				combination -= combinations;
 			}
 		}
-		
-		return 0;
-	}
-	
-	private int expandElementsIterateAttributes(Element element)
-	{
-		NamedNodeMap attributes = element.getAttributes();
-		
-		for(int i = 0; i < attributes.getLength(); i++)
-		{
-			Node attribute = attributes.item(i);
-		
-			if(attribute.getNodeName().equals("multi"))
-			{
-				combinationBase.add(element.getElementsByTagName(element.getNodeName()).getLength());
-				return 1;
+		else {
+			List<Node> attributes = multiAttributes(element);
+			List<Element> children = children(element);
+			// Combination digits (the first node varies the slowest)
+			int [] attributeIndexes = new int[attributes.size()];
+			int [] childIndexes = new int[children.size()];
+			for (int i = children.size()-1; i >= 0; i--) {
+				int combinations = combinations(children.get(i));
+				childIndexes[i] = combination % combinations;
+				combination /= combinations;
+			}
+			for (int i = attributes.size()-1; i >= 0; i--) {
+				int combinations = alternatives(element, attributes.get(i).getNodeName()).size();
+				attributeIndexes[i] = combination % combinations;
+				combination /= combinations;
 			}
+			// Expand attributes
+			for (int i = 0; i < attributes.size(); i++) {
+				Node attribute = attributes.get(i);
+				List<Element> alternatives = alternatives(element, attribute.getNodeName());
+				attribute.setNodeValue(alternatives.get(attributeIndexes[i]).getTextContent().trim());
+				for (Element alternative : alternatives)
+					element.removeChild(alternative);
+			}
+			// Expand children
+			for (int i = 0; i < children.size(); i++)
+				expand(children.get(i), childIndexes[i]);
 		}
-		
-		return 0;
 	}
-	
-	private int expandElementsIterateElements(NodeList elements, int[] configurationSchema)
+
+	private static boolean isMultiElement(Element element)
 	{
-		for(int i = 0; i < elements.getLength(); i++)
-		{
-			if(elements.item(i) instanceof Element)
-			{
-				Element element = (Element) elements.item(i);
-				
-				if(expandElementsIterateAtributes(element, configurationSchema) == 1)
-					return 1;
-				
-				expandElementsIterateElements(element.getChildNodes(), configurationSchema);
-			}
-		}
-		
-		return 0;
+		return element.hasAttribute("multi");
 	}
-	
-	private int expandElementsIterateAtributes(Element element, int[] configurationSchema)
+
+	private static List<Node> multiAttributes(Element element)
 	{
+		List<Node> result = new ArrayList<Node>();
 		NamedNodeMap attributes = element.getAttributes();
-		
-		for(int i = 0; i < attributes.getLength(); i++)
-		{
-			Node attribute = attributes.item(i);
-			
-			if(attribute.getNodeName().equals("multi"))
-			{
-				NodeList list = element.getElementsByTagName(element.getNodeName());
-				
-				for(int j = 0; j < configurationSchema.length; j++)
-					if(configurationSchema[j] != -1)
-					{
-						element.getParentNode().replaceChild(list.item(configurationSchema[j]), element);
-						
-						configurationSchema[j] = -1;
-						break;
-					}
-				
-				list = element.getChildNodes();
-				
-				for(int j = 0; j < list.getLength(); j++)
-				{
-					if(list.item(j).getNodeName().equals(attribute.getNodeName()))
-					{
-						element.removeChild(list.item(j));
-					}
-				}
-				
-				return 1;
-			}
-		}
-		
-		return 0;
+		for (int i = 0; i < attributes.getLength(); i++)
+			if (attributes.item(i).getNodeValue().equals("multi"))
+				result.add(attributes.item(i));
+		return result;
 	}
-	
-	private ArrayList<String> expandAttributes(String jobFilename)
+
+	/**
+	 * Child elements with the given name.
+	 */
+
+	private static List<Element> alternatives(Element element, String name)
 	{
-		combinationBase = new ArrayList<Integer>();
-		
-		ArrayList<String> configurationFileNames = new ArrayList<String>();
-		
-		// Try open job file
-		File jobFile = new File(jobFilename);
-		
-		if (jobFile.exists()) {
-			try {
-				
-				// Find the number of combinations to perform
-				expandAttributesIterateElements(new XMLConfiguration(jobFile).getDocument().getChildNodes());
-				
-				int numberCombinations = 1;
-				
-				// Calculate the amount of combinations
-				for(Integer i : combinationBase)
-					numberCombinations *= i;
-				
-				int[][] configurationSchema = new int[numberCombinations][];
-				
-				for(int i = 0; i < numberCombinations; i++)
-					configurationSchema[i] = new int[combinationBase.size()];
-				
-				int consecutiveElements = numberCombinations;
-				int accProduct = 1;
-				
-				// Calculate the combinations of each element
-				for(int i = 0; i < combinationBase.size(); i++)
-				{
-					consecutiveElements /= combinationBase.get(i);
-					
-					for(int j = 0; j < combinationBase.get(i); j++)
-					{
-						for(int k = 0; k < consecutiveElements; k++)
-						{
-							for(int r = 0; r < accProduct; r++)
-							{
-								int step = consecutiveElements*combinationBase.get(i);
-								configurationSchema[r*step + j*consecutiveElements + k][i] = j;
-							}
-						}
-					}
-					
-					accProduct *= combinationBase.get(i);
-				}
-				
-				XMLConfiguration[] configurations = new XMLConfiguration[numberCombinations];
-				
-				for(int i = 0; i < numberCombinations; i++)
-				{
-					configurations[i] = new XMLConfiguration(jobFile);
-					
-					//Build the document for each combination
-					expandAttributesIterateElements(configurations[i].getDocument().getChildNodes(), configurationSchema[i].clone());
-				}
-				
-				for(int i = 0; i < numberCombinations; i++)
-				{
-					String fileName = jobFilename;
-					
-					for(int j = 0; j < configurationSchema[i].length; j++)
-						fileName += "_" + configurationSchema[i][j];
-					
-					if(!fileName.equals(jobFilename))
-						configurations[i].save(new File(fileName));
-					
-					configurationFileNames.add(fileName);
-				}
-			}
-			catch (Exception e) {
-				e.printStackTrace();
-			}
-		}
-		else {
-			System.out.println("Job file not found");
-			System.exit(1);			
-		}
-		
-		return configurationFileNames;
+		List<Element> result = new ArrayList<Element>();
+		for (Element child : childElements(element))
+			if (child.getNodeName().equals(name))
+				result.add(child);
+		return result;
 	}
-	
-	private int expandAttributesIterateElements(NodeList elements)
+
+	/**
+	 * Child elements that are not alternatives of a multi-valued attribute.
+	 */
+
+	private static List<Element> children(Element element)
 	{
-		for(int i = 0; i < elements.getLength(); i++)
-		{
-			if(elements.item(i) instanceof Element)
-			{
-				Element element = (Element) elements.item(i);
-				
-				if(expandAttributesIterateAttributes(element) == 1)
-					return 1;
-				
-				expandAttributesIterateElements(element.getChildNodes());
-			}
-		}
-		
-		return 0;
+		List<Element> result = childElements(element);
+		for (Node attribute : multiAttributes(element))
+			result.removeAll(alternatives(element, attribute.getNodeName()));
+		return result;
 	}
-	
-	private int expandAttributesIterateAttributes(Element element)
+
+	private static List<Element> childElements(Element element)
 	{
-		NamedNodeMap attributes = element.getAttributes();
-		
-		for(int i = 0; i < attributes.getLength(); i++)
-		{
-			Node attribute = attributes.item(i);
-		
-			if(attribute.getNodeValue().equals("multi"))
-			{
-				combinationBase.add(element.getElementsByTagName(attribute.getNodeName()).getLength());
-				return 1;
-			}
-		}
-		
-		return 0;
+		List<Element> result = new ArrayList<Element>();
+		NodeList nodes = element.getChildNodes();
+		for (int i = 0; i < nodes.getLength(); i++)
+			if (nodes.item(i) instanceof Element)
+				result.add((Element) nodes.item(i));
+		return result;
 	}
-	
-	private int expandAttributesIterateElements(NodeList elements, int[] configurationSchema)
+
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------------- Private classes
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Job configurations of an experiment, created on demand from the parsed
+	 * experiment document.
+	 */
+
+	private static class Expansion extends AbstractList<XMLConfiguration>
 	{
-		for(int i = 0; i < elements.getLength(); i++)
+		/** Experiment file */
+
+		private final String experimentFileName;
+
+		/** Experiment document */
+
+		private final Document document;
+
+		/** Directory for job files */
+
+		private final String experimentsDirectory;
+
+		/** Number of job configurations */
+
+		private final int size;
+
+		Expansion(String experimentFileName, Document document, String experimentsDirectory)
 		{
-			if(elements.item(i) instanceof Element)
-			{
-				Element element = (Element) elements.item(i);
-				
-				if(expandAttributesIterateAtributes(element, configurationSchema) == 1)
-					return 1;
-				
-				expandAttributesIterateElements(element.getChildNodes(), configurationSchema);
+			super();
+			this.experimentFileName = experimentFileName;
+			this.document = document;
+			this.experimentsDirectory = experimentsDirectory;
+			this.size = combinations(document.getDocumentElement());
+		}
+
+		@Override
+		public synchronized XMLConfiguration get(int index)
+		{
+			if (index < 0 || index >= size) {
+				throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
 			}
+			Document job = (Document) document.cloneNode(true);
+			expand(job.getDocumentElement(), index);
+			XMLConfiguration configuration = new XMLConfiguration();
+			configuration.initProperties(job, false);
+			configuration.setRootElementName(job.getDocumentElement().getNodeName());
+			configuration.setFile(new File(jobFileName(index)));
+			return configuration;
 		}
-		
-		return 0;
-	}
-	
-	private int expandAttributesIterateAtributes(Element element, int[] configurationSchema)
-	{
-		NamedNodeMap attributes = element.getAttributes();
-		
-		for(int i = 0; i < attributes.getLength(); i++)
+
+		@Override
+		public int size()
 		{
-			Node attribute = attributes.item(i);
-			
-			if(attribute.getNodeValue().equals("multi"))
-			{
-				NodeList list = element.getElementsByTagName(attribute.getNodeName());
-				
-				for(int j = 0; j < configurationSchema.length; j++)
-					if(configurationSchema[j] != -1)
-					{
-						attribute.setNodeValue(list.item(configurationSchema[j]).getFirstChild().getNodeValue());
-						configurationSchema[j] = -1;
-						break;
-					}
-			
-				list = element.getChildNodes();
-				
-				for(int j = 0; j < list.getLength(); j++)
-				{
-					if(list.item(j).getNodeName().equals(attribute.getNodeName()))
-					{
-						element.removeChild(list.item(j));
-					}
-				}
-				
-				return 1;
+			return size;
+		}
+
+		private String jobFileName(int index)
+		{
+			if (size == 1) {
+				return experimentFileName;
+			}
+			String name = new File(experimentFileName).getName();
+			if (name.endsWith(".xml")) {
+				name = name.substring(0, name.length()-4);
 			}
+			return new File(experimentsDirectory, name + "_" + index + ".xml").getPath();
 		}
-		
-		return 0;
 	}
-}
\ No newline at end of file
+}
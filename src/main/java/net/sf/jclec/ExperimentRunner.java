@@ -0,0 +1,275 @@
+package net.sf.jclec;
+
+import java.io.File;
+import java.io.PrintStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.FileOutputStream;
+import java.io.BufferedOutputStream;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.configuration.XMLConfiguration;
+
+/**
+ * Executes the jobs of an experiment in parallel.
+ *
+ * Jobs are executed by a bounded pool of threads. The console output of each
+ * job (including the output of the threads it creates) is written to its own
+ * log file, next to the job file and with extension <code>.log</code>. A job
+ * that fails, by throwing an exception or an error, is reported and the
+ * rest of the jobs go on. A message is printed on the console each time a job
+ * finishes. Reporters and checkpoint writers prefix their output files with
+ * the job file name (see getJobPrefix()), so jobs that share a report title
+ * or a checkpoint file do not overwrite each other outputs.
+ *
+ * Each job creates its own algorithm and random generators factory from its
+ * configuration file, so that its results do not depend on the number of
+ * threads or on the order in which jobs are executed.
+ *
+ * @see net.sf.jclec.RunExperiment
+ */
+
+public class ExperimentRunner
+{
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------------------- Properties
+	/////////////////////////////////////////////////////////////////
+
+	/** Maximum number of jobs executed at the same time */
+
+	private int numberOfThreads;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------- Internal variables
+	/////////////////////////////////////////////////////////////////
+
+	/** Number of finished jobs */
+
+	private final AtomicInteger finishedJobs = new AtomicInteger();
+
+	/** Number of failed jobs */
+
+	private final AtomicInteger failedJobs = new AtomicInteger();
+
+	/** Output prefix of the current job (inherited by the threads it creates) */
+
+	private static final InheritableThreadLocal<String> jobPrefix = new InheritableThreadLocal<String>();
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Constructor that sets the number of threads.
+	 *
+	 * @param numberOfThreads Maximum number of jobs executed at the same
+	 *        time (0 means one per available processor)
+	 */
+
+	public ExperimentRunner(int numberOfThreads)
+	{
+		super();
+		if (numberOfThreads <= 0) {
+			numberOfThreads = Runtime.getRuntime().availableProcessors();
+		}
+		this.numberOfThreads = numberOfThreads;
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	public final int getNumberOfThreads()
+	{
+		return numberOfThreads;
+	}
+
+	/**
+	 * Access to the prefix for the output files of the job executed by the
+	 * current thread. It is the job file name without extension followed
+	 * by a dot, so that job outputs are written next to the job log.
+	 *
+	 * @return Job output prefix (empty string outside jobs)
+	 */
+
+	public static String getJobPrefix()
+	{
+		String prefix = jobPrefix.get();
+		return prefix != null ? prefix : "";
+	}
+
+	/**
+	 * Executes a set of jobs and waits until all of them have finished.
+	 * Each job configuration is obtained from the list by the thread that
+	 * executes it, so that lazy lists (as the ones returned by
+	 * ExperimentBuilder.expandExperiment()) are expanded in parallel.
+	 *
+	 * @param jobs Job configurations
+	 *
+	 * @return Number of failed jobs
+	 */
+
+	public int run(final List<XMLConfiguration> jobs)
+	{
+		finishedJobs.set(0);
+		failedJobs.set(0);
+		final int numberOfJobs = jobs.size();
+		final PrintStream console = System.out;
+		PrintStream consoleErr = System.err;
+		// Job output is routed by thread
+		JobOutput out = new JobOutput(console);
+		JobOutput err = new JobOutput(consoleErr);
+		System.setOut(new PrintStream(out, true));
+		System.setErr(new PrintStream(err, true));
+		ExecutorService executor = Executors.newFixedThreadPool(numberOfThreads, new ThreadFactory() {
+			private final AtomicInteger counter = new AtomicInteger();
+			public Thread newThread(Runnable runnable) {
+				return new Thread(runnable, "experiment-job-" + counter.incrementAndGet());
+			}
+		});
+		try {
+			for (int i=0; i<numberOfJobs; i++) {
+				final int index = i;
+				executor.execute(new Runnable() {
+					public void run() {
+						runJob(jobs, index, console);
+					}
+				});
+			}
+			executor.shutdown();
+			while (!executor.awaitTermination(1, TimeUnit.SECONDS));
+		}
+		catch (InterruptedException e) {
+			executor.shutdownNow();
+			Thread.currentThread().interrupt();
+		}
+		finally {
+			System.setOut(console);
+			System.setErr(consoleErr);
+		}
+		return failedJobs.get();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Executes a job with its output redirected to its log file.
+	 */
+
+	private void runJob(List<XMLConfiguration> jobs, int index, PrintStream console)
+	{
+		String jobName = "job " + index;
+		long start = System.currentTimeMillis();
+		boolean failed = false;
+		PrintStream log = null;
+		try {
+			XMLConfiguration jobConf = jobs.get(index);
+			jobName = jobConf.getFile().getPath();
+			File logFile = new File(jobFilename(jobName) + ".log");
+			if (logFile.getParentFile() != null) {
+				logFile.getParentFile().mkdirs();
+			}
+			log = new PrintStream(new BufferedOutputStream(new FileOutputStream(logFile)), true);
+			JobOutput.target.set(log);
+			jobPrefix.set(jobFilename(jobName) + ".");
+			RunExperiment.runJob(jobConf);
+		}
+		catch (Throwable t) {
+			failed = true;
+			if (log != null) {
+				t.printStackTrace(log);
+			}
+			else {
+				t.printStackTrace(console);
+			}
+		}
+		finally {
+			JobOutput.target.remove();
+			jobPrefix.remove();
+			if (log != null) {
+				log.close();
+			}
+		}
+		if (failed) {
+			failedJobs.incrementAndGet();
+		}
+		// Progress report
+		long elapsed = System.currentTimeMillis() - start;
+		synchronized (console) {
+			console.println("[" + finishedJobs.incrementAndGet() + "/" + jobs.size() + "] "
+					+ jobName + (failed ? " FAILED" : " finished") + " (" + elapsed + " ms)");
+		}
+	}
+
+	/**
+	 * Job file name without extension.
+	 */
+
+	private static String jobFilename(String jobFilename)
+	{
+		if (jobFilename.endsWith(".xml")) {
+			return jobFilename.substring(0, jobFilename.length()-4);
+		}
+		else {
+			return jobFilename;
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------------- Private classes
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Standard output replacement that writes to the log of the job executed
+	 * by the current thread, or to the console outside jobs.
+	 */
+
+	private static class JobOutput extends OutputStream
+	{
+		/** Log of the current job (inherited by the threads it creates) */
+
+		static final InheritableThreadLocal<PrintStream> target = new InheritableThreadLocal<PrintStream>();
+
+		/** Output for threads that do not run a job */
+
+		private final PrintStream console;
+
+		JobOutput(PrintStream console)
+		{
+			super();
+			this.console = console;
+		}
+
+		private PrintStream stream()
+		{
+			PrintStream stream = target.get();
+			return stream != null ? stream : console;
+		}
+
+		@Override
+		public void write(int b) throws IOException
+		{
+			stream().write(b);
+		}
+
+		@Override
+		public void write(byte [] b, int off, int len) throws IOException
+		{
+			stream().write(b, off, len);
+		}
+
+		@Override
+		public void flush() throws IOException
+		{
+			stream().flush();
+		}
+	}
+}
@@ -0,0 +1,39 @@
+package net.sf.jclec;
+
+import java.util.concurrent.Future;
+
+/**
+ * Individuals evaluator that works asynchronously.
+ * 
+ * Individuals are submitted one by one and evaluated in background. Each
+ * submission returns a completion handle, and an optional callback is notified
+ * as soon as the evaluation finishes, so the caller does not have to wait for
+ * the slowest individual of a set.
+ * 
+ * @see net.sf.jclec.IEvaluationCallback
+ */
+
+public interface IAsyncEvaluator extends IEvaluator
+{
+	/**
+	 * Asynchronous evaluation method. If the individual already has a
+	 * fitness, it is not evaluated again.
+	 * 
+	 * @param ind Individual to evaluate
+	 * 
+	 * @return Completion handle, that returns the evaluated individual
+	 */
+	
+	public Future<IIndividual> submit(IIndividual ind);
+	
+	/**
+	 * Asynchronous evaluation method with completion callback.
+	 * 
+	 * @param ind Individual to evaluate
+	 * @param callback Object notified when evaluation finishes (can be null)
+	 * 
+	 * @return Completion handle, that returns the evaluated individual
+	 */
+	
+	public Future<IIndividual> submit(IIndividual ind, IEvaluationCallback callback);
+}
@@ -0,0 +1,30 @@
+package net.sf.jclec;
+
+/**
+ * Evaluator able to compute the fitness of a mutant from the fitness of its
+ * parent and the loci changed by the mutation.
+ *
+ * AbstractEvaluator subclasses that implement this interface are asked first
+ * to update the fitness of the individuals created by array mutators; only if
+ * the update is not possible, individuals are evaluated from scratch.
+ *
+ * @see net.sf.jclec.base.MutationRecord
+ */
+
+public interface IDeltaEvaluator extends IEvaluator
+{
+	/**
+	 * Delta evaluation method. On success, this method sets the fitness of
+	 * the mutant individual.
+	 *
+	 * @param ind Mutant individual
+	 * @param parent Parent individual (already evaluated)
+	 * @param changedLoci Loci of the mutant that differ from those of the
+	 *        parent, in ascending order and without repetitions
+	 *
+	 * @return true if the fitness has been updated, false if the mutant has
+	 *         to be evaluated from scratch
+	 */
+
+	public boolean evaluateDelta(IIndividual ind, IIndividual parent, int [] changedLoci);
+}
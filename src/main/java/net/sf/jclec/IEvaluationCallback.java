@@ -0,0 +1,30 @@
+package net.sf.jclec;
+
+/**
+ * Receives the result of asynchronous evaluations.
+ * 
+ * Callback methods are invoked by the thread that performed the evaluation,
+ * so implementations should be thread-safe and return quickly.
+ * 
+ * @see net.sf.jclec.IAsyncEvaluator
+ */
+
+public interface IEvaluationCallback
+{
+	/**
+	 * This method is called when an individual has been evaluated.
+	 * 
+	 * @param ind Evaluated individual
+	 */
+	
+	public void evaluationCompleted(IIndividual ind);
+	
+	/**
+	 * This method is called when an evaluation fails or is cancelled.
+	 * 
+	 * @param ind Individual that was being evaluated
+	 * @param cause Failure cause
+	 */
+	
+	public void evaluationFailed(IIndividual ind, Throwable cause);
+}
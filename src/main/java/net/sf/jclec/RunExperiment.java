@@ -2,6 +2,12 @@ package net.sf.jclec;
 
 import java.io.File;
 
+import java.util.List;
+
+import net.sf.jclec.algorithm.Checkpoint;
+import net.sf.jclec.algorithm.PopulationAlgorithm;
+import net.sf.jclec.util.ComponentRegistry;
+
 import org.apache.commons.configuration.ConfigurationException;
 import org.apache.commons.configuration.XMLConfiguration;
 
@@ -15,32 +21,88 @@ public class RunExperiment
 {
 	/** Usage message error */
 	
-	private static final String USAGE_MES = "\tnet.sf.jclec.RunExperiment <experiment file>\t\t(Execute experiment)";
+	private static final String USAGE_MES = "\tnet.sf.jclec.RunExperiment [-j <threads>] [-s] <experiment file>\t\t(Execute experiment)";
 	
 	/**
-	 * Main method
+	 * Main method. The jobs of the experiment are expanded in memory. With
+	 * the <code>-s</code> option, job files are also saved in the
+	 * experiments directory. With the <code>-j</code> option, jobs are
+	 * executed in parallel by the given number of threads (0 means one per
+	 * available processor), each one with its output in its own log file.
 	 * 
 	 * @param args Configuration File
+	 * 
+	 * @see ExperimentBuilder
+	 * @see ExperimentRunner
 	 */
 	
 	public static void main(String[] args) 
 	{
-		if (args.length == 0) {
+		int numberOfThreads = 1;
+		boolean saveJobs = false;
+		String experimentFileName = null;
+		try {
+			for (int i=0; i<args.length; i++) {
+				if (args[i].equals("-j")) {
+					numberOfThreads = Integer.parseInt(args[++i]);
+				}
+				else if (args[i].equals("-s")) {
+					saveJobs = true;
+				}
+				else if (experimentFileName == null) {
+					experimentFileName = args[i];
+				}
+				else {
+					experimentFileName = null;
+					break;
+				}
+			}
+		}
+		catch (RuntimeException e) {
+			experimentFileName = null;
+		}
+		if (experimentFileName == null) {
 			System.out.println("Usage:" + USAGE_MES);
 			System.exit(1);
 		}
 		// First arg must be a filename
+		else if (!new File(experimentFileName).exists()) {
+			System.out.println("Job file not found");
+			System.exit(1);
+		}
 		else {
 			ExperimentBuilder builder = new ExperimentBuilder();
 			
 			System.out.println("Initializing job");
 			
-			// Expand the processes and execute them
-			for(String experiment : builder.buildExperiment(args[0]))
-			{
-				System.out.println("Algorithm started");
-				executeJob(experiment);
-				System.out.println("Algorithm finished");
+			List<XMLConfiguration> experiments;
+			try {
+				experiments = builder.expandExperiment(experimentFileName);
+				if (saveJobs) {
+					builder.saveExperiment(experiments);
+				}
+			}
+			catch (ConfigurationException e) {
+				System.out.println("Configuration exception ");
+				return;
+			}
+			
+			if (numberOfThreads == 1) {
+				// Expand the processes and execute them
+				for(XMLConfiguration experiment : experiments)
+				{
+					System.out.println("Algorithm started");
+					executeJob(experiment);
+					System.out.println("Algorithm finished");
+				}
+			}
+			else {
+				// Execute the processes in parallel
+				ExperimentRunner runner = new ExperimentRunner(numberOfThreads);
+				int failedJobs = runner.run(experiments);
+				if (failedJobs > 0) {
+					System.out.println(failedJobs + " of " + experiments.size() + " jobs failed");
+				}
 			}
 			
 			System.out.println("Job finished");
@@ -50,41 +112,51 @@ public class RunExperiment
 	/**
 	 * Execute experiment
 	 * 
-	 * @param jobFilename
+	 * @param jobConf Job configuration
+	 */
+	
+	private static void executeJob(XMLConfiguration jobConf) 
+	{
+		try {
+			runJob(jobConf);
+		}
+		catch (Exception e) {
+			e.printStackTrace();
+		}			
+	}
+	
+	/**
+	 * Creates, configures and executes the algorithm of a job.
+	 * 
+	 * @param jobConf Job configuration
+	 * 
+	 * @throws Exception If the job cannot be created or fails
 	 */
 	
 	@SuppressWarnings("unchecked")
-	private static void executeJob(String jobFilename) 
+	static void runJob(XMLConfiguration jobConf) throws Exception
 	{
-		// Try open job file
-		File jobFile = new File(jobFilename);		
-		if (jobFile.exists()) {
-			try {
-				// Job configuration
-				XMLConfiguration jobConf = new XMLConfiguration(jobFile);
-				// Process header
-				String header = "process";
-				// Create and configure algorithms
-				String aname = jobConf.getString(header+"[@algorithm-type]");
-				Class<IAlgorithm> aclass = (Class<IAlgorithm>) Class.forName(aname);
-				IAlgorithm algorithm = aclass.newInstance();
-				// Configure runner
-				if (algorithm instanceof IConfigure) {
-					((IConfigure) algorithm).configure(jobConf.subset(header));
-				}
-				// Execute algorithm runner
-				algorithm.execute();
-			}
-			catch (ConfigurationException e) {
-				System.out.println("Configuration exception ");
-			}			
-			catch (Exception e) {
-				e.printStackTrace();
-			}			
+		// Process header
+		String header = "process";
+		// Create and configure algorithms
+		String aname = jobConf.getString(header+"[@algorithm-type]");
+		Class<IAlgorithm> aclass = (Class<IAlgorithm>) ComponentRegistry.forName(aname);
+		IAlgorithm algorithm = aclass.newInstance();
+		// Configure runner
+		if (algorithm instanceof IConfigure) {
+			((IConfigure) algorithm).configure(ComponentRegistry.subset(jobConf, header));
 		}
-		else {
-			System.out.println("Job file not found");
-			System.exit(1);			
+		// Resume from checkpoint, if any (prefixed as CheckpointWriter does)
+		String checkpoint = jobConf.getString(header+"[@resume-from]");
+		if (checkpoint != null) {
+			checkpoint = ExperimentRunner.getJobPrefix() + checkpoint;
+		}
+		if (checkpoint != null && new File(checkpoint).exists()
+				&& algorithm instanceof PopulationAlgorithm) {
+			System.out.println("Resuming from " + checkpoint);
+			Checkpoint.restore((PopulationAlgorithm) algorithm, new File(checkpoint));
 		}
+		// Execute algorithm runner
+		algorithm.execute();
 	}
 }
\ No newline at end of file
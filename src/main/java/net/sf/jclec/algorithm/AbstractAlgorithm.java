@@ -6,6 +6,7 @@ import net.sf.jclec.IConfigure;
 import net.sf.jclec.IAlgorithm;
 import net.sf.jclec.AlgorithmEvent;
 import net.sf.jclec.IAlgorithmListener;
+import net.sf.jclec.util.ComponentRegistry;
 
 import org.apache.commons.configuration.Configuration;
 import org.apache.commons.configuration.ConfigurationRuntimeException;
@@ -146,6 +147,8 @@ public abstract class AbstractAlgorithm implements IAlgorithm, IConfigure
 		{
 			// Fire algorithm terminated event
 			fireAlgorithmFinished();
+			// Release algorithm resources
+			doClose();
 			// Change current state
 			state = NEW;
 			// Finish this switch
@@ -156,6 +159,8 @@ public abstract class AbstractAlgorithm implements IAlgorithm, IConfigure
 		{
 			// Fire algorithm terminated event
 			fireAlgorithmTerminated();
+			// Release algorithm resources
+			doClose();
 			// Change current state
 			state = NEW;
 			// Finish this switch
@@ -171,8 +176,20 @@ public abstract class AbstractAlgorithm implements IAlgorithm, IConfigure
 	 * This method register one or several algorithm listeners to this algorithm.
 	 */
 	
-	@SuppressWarnings("unchecked")
 	public void configure(Configuration configuration)
+	{
+		// Algorithm listeners
+		setListenerSettings(configuration);
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// -------------------------------------------- Protected methods
+	/////////////////////////////////////////////////////////////////
+
+	// Configuration methods
+
+	@SuppressWarnings("unchecked")
+	protected void setListenerSettings(Configuration configuration)
 	{
 		// Number of defined listeners
 		int numberOfListeners = configuration.getList("listener[@type]").size();
@@ -185,12 +202,12 @@ public abstract class AbstractAlgorithm implements IAlgorithm, IConfigure
 					configuration.getString(header+"[@type]");
 				// Listener class
 				Class<? extends IAlgorithmListener> listenerClass =
-					(Class<? extends IAlgorithmListener>) Class.forName(listenerClassname);
+					(Class<? extends IAlgorithmListener>) ComponentRegistry.forName(listenerClassname);
 				// Listener instance
-				IAlgorithmListener listener = listenerClass.newInstance();
+				IAlgorithmListener listener = ComponentRegistry.newInstance(listenerClass);
 				// Configure listener (if necessary)
 				if (listener instanceof IConfigure) {
-					((IConfigure) listener).configure(configuration.subset(header));
+					((IConfigure) listener).configure(ComponentRegistry.subset(configuration, header));
 				}
 				// Add this listener to the algorithm
 				addListener(listener);
@@ -207,10 +224,6 @@ public abstract class AbstractAlgorithm implements IAlgorithm, IConfigure
 		}
 	}
 
-	/////////////////////////////////////////////////////////////////
-	// -------------------------------------------- Protected methods
-	/////////////////////////////////////////////////////////////////
-
 	// Algorithm execution
 	
 	/**
@@ -225,6 +238,16 @@ public abstract class AbstractAlgorithm implements IAlgorithm, IConfigure
 	
 	protected abstract void doIterate();	
 	
+	/**
+	 * Release the resources held by this algorithm. This method is
+	 * called once the algorithm has finished or has been terminated.
+	 * Default implementation does nothing.
+	 */
+	
+	protected void doClose()
+	{
+	}
+	
 	// Fire events
 	
 	protected final void fireAlgorithmStarted()
@@ -0,0 +1,275 @@
+package net.sf.jclec.algorithm;
+
+import java.io.File;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+
+import java.util.List;
+import java.util.ArrayList;
+
+import net.sf.jclec.IEvaluator;
+import net.sf.jclec.IIndividual;
+
+import net.sf.jclec.base.AbstractEvaluator;
+import net.sf.jclec.base.AbstractIndividual;
+import net.sf.jclec.base.DecoratedEvaluator;
+
+import net.sf.jclec.util.GenotypeCodec;
+import net.sf.jclec.util.random.AbstractRandGenFactory;
+import net.sf.jclec.util.ComponentRegistry;
+
+/**
+ * Binary checkpoints of PopulationAlgorithm runs.
+ *
+ * A checkpoint contains the generation, the number of evaluations, the genotype
+ * and fitness of all individuals in <code>bset</code> (encoded by GenotypeCodec),
+ * and the state of the random generators factory and of all the generators it
+ * has created. A run restored from a checkpoint into an algorithm configured in
+ * the same way continues exactly as the original run would have done.
+ *
+ * Only this state is saved: algorithms or evaluators that keep additional state
+ * between generations (archives, caches, ...) start with it empty.
+ *
+ * @see net.sf.jclec.listener.CheckpointWriter
+ */
+
+public class Checkpoint
+{
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Class variables
+	/////////////////////////////////////////////////////////////////
+
+	/** File signature */
+
+	private static final int MAGIC = 0x4a434b50;
+
+	/** Format version */
+
+	private static final int VERSION = 1;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	private Checkpoint()
+	{
+		super();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Encodes the state of an algorithm.
+	 *
+	 * @param algorithm Algorithm
+	 *
+	 * @return Checkpoint contents
+	 */
+
+	public static byte [] encode(PopulationAlgorithm algorithm)
+	{
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		try {
+			write(algorithm, new DataOutputStream(buffer));
+		}
+		catch (IOException e) {
+			// Never thrown by byte array streams
+			throw new IllegalStateException(e);
+		}
+		return buffer.toByteArray();
+	}
+
+	/**
+	 * Writes the state of an algorithm.
+	 *
+	 * @param algorithm Algorithm
+	 * @param out Output stream
+	 *
+	 * @throws IOException If an I/O error occurs
+	 */
+
+	public static void write(PopulationAlgorithm algorithm, DataOutput out) throws IOException
+	{
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+		// Counters
+		out.writeInt(algorithm.getGeneration());
+		out.writeInt(algorithm.getEvaluator().getNumberOfEvaluations());
+		// Individuals
+		List<IIndividual> inhabitants = algorithm.getInhabitants();
+		out.writeInt(inhabitants.size());
+		Class<?> indClass = null;
+		for (IIndividual ind : inhabitants) {
+			// Class name, only if it changes
+			if (ind.getClass() != indClass) {
+				indClass = ind.getClass();
+				out.writeBoolean(true);
+				out.writeUTF(indClass.getName());
+			}
+			else {
+				out.writeBoolean(false);
+			}
+			GenotypeCodec.writeGenotype(out, ((AbstractIndividual<?>) ind).getGenotype());
+			GenotypeCodec.writeFitness(out, ind.getFitness());
+		}
+		// Random generators
+		if (algorithm.getRandGenFactory() instanceof AbstractRandGenFactory) {
+			out.writeBoolean(true);
+			((AbstractRandGenFactory) algorithm.getRandGenFactory()).writeState(out);
+		}
+		else {
+			out.writeBoolean(false);
+		}
+	}
+
+	/**
+	 * Restores the state of an algorithm. The algorithm must be configured
+	 * in the same way than the one that wrote the state. After this call,
+	 * the algorithm resumes the run when executed, instead of creating a
+	 * new population.
+	 *
+	 * @param algorithm Algorithm
+	 * @param in Input stream
+	 *
+	 * @throws IOException If an I/O error occurs or the checkpoint is
+	 *         not valid
+	 */
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public static void read(PopulationAlgorithm algorithm, DataInput in) throws IOException
+	{
+		if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+			throw new IOException("Not a checkpoint (or unsupported version)");
+		}
+		// Counters
+		int generation = in.readInt();
+		int numberOfEvaluations = in.readInt();
+		// Individuals
+		int size = in.readInt();
+		List<IIndividual> inhabitants = new ArrayList<IIndividual>(size);
+		Class<?> indClass = null;
+		try {
+			for (int i=0; i<size; i++) {
+				if (in.readBoolean()) {
+					indClass = ComponentRegistry.forName(in.readUTF());
+				}
+				AbstractIndividual ind = (AbstractIndividual) ComponentRegistry.newInstance(indClass);
+				ind.setGenotype(GenotypeCodec.readGenotype(in));
+				ind.setFitness(GenotypeCodec.readFitness(in));
+				inhabitants.add(ind);
+			}
+		}
+		catch (ClassNotFoundException e) {
+			throw new IOException("Unknown individual class", e);
+		}
+		catch (InstantiationException e) {
+			throw new IOException("Problems creating an individual", e);
+		}
+		catch (IllegalAccessException e) {
+			throw new IOException("Problems creating an individual", e);
+		}
+		// Random generators
+		if (in.readBoolean()) {
+			if (!(algorithm.getRandGenFactory() instanceof AbstractRandGenFactory)) {
+				throw new IOException("Random generators factory cannot be restored");
+			}
+			((AbstractRandGenFactory) algorithm.getRandGenFactory()).readState(in);
+		}
+		// Restore algorithm
+		algorithm.setGeneration(generation);
+		algorithm.setInhabitants(inhabitants);
+		setNumberOfEvaluations(algorithm.getEvaluator(), numberOfEvaluations);
+		algorithm.state = AbstractAlgorithm.READY;
+	}
+
+	/**
+	 * Saves the state of an algorithm in a file. The file is replaced
+	 * only when the new checkpoint is completely written.
+	 *
+	 * @param algorithm Algorithm
+	 * @param file Checkpoint file
+	 *
+	 * @throws IOException If an I/O error occurs
+	 */
+
+	public static void save(PopulationAlgorithm algorithm, File file) throws IOException
+	{
+		save(encode(algorithm), file);
+	}
+
+	/**
+	 * Saves an encoded checkpoint in a file. The file is replaced only when
+	 * the new checkpoint is completely written.
+	 *
+	 * @param checkpoint Checkpoint contents
+	 * @param file Checkpoint file
+	 *
+	 * @throws IOException If an I/O error occurs
+	 */
+
+	public static void save(byte [] checkpoint, File file) throws IOException
+	{
+		File temp = new File(file.getPath() + ".tmp");
+		FileOutputStream out = new FileOutputStream(temp);
+		try {
+			out.write(checkpoint);
+			out.getFD().sync();
+		}
+		finally {
+			out.close();
+		}
+		if (!temp.renameTo(file)) {
+			// Some platforms do not replace existing files
+			file.delete();
+			if (!temp.renameTo(file)) {
+				throw new IOException("Cannot rename " + temp + " to " + file);
+			}
+		}
+	}
+
+	/**
+	 * Restores the state of an algorithm from a file.
+	 *
+	 * @param algorithm Algorithm
+	 * @param file Checkpoint file
+	 *
+	 * @throws IOException If an I/O error occurs or the checkpoint is
+	 *         not valid
+	 *
+	 * @see #read(PopulationAlgorithm, DataInput)
+	 */
+
+	public static void restore(PopulationAlgorithm algorithm, File file) throws IOException
+	{
+		DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+		try {
+			read(algorithm, in);
+		}
+		finally {
+			in.close();
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	private static void setNumberOfEvaluations(IEvaluator evaluator, int numberOfEvaluations)
+	{
+		if (evaluator instanceof AbstractEvaluator) {
+			((AbstractEvaluator) evaluator).setNumberOfEvaluations(numberOfEvaluations);
+		}
+		else if (evaluator instanceof DecoratedEvaluator) {
+			((DecoratedEvaluator) evaluator).setNumberOfEvaluations(numberOfEvaluations);
+		}
+	}
+}
@@ -0,0 +1,988 @@
+package net.sf.jclec.algorithm;
+
+import java.util.List;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import net.sf.jclec.IFitness;
+import net.sf.jclec.IConfigure;
+import net.sf.jclec.IEvaluator;
+import net.sf.jclec.ISelector;
+import net.sf.jclec.IIndividual;
+
+import net.sf.jclec.util.random.IRandGen;
+import net.sf.jclec.util.ComponentRegistry;
+
+import org.apache.commons.configuration.Configuration;
+import org.apache.commons.configuration.ConfigurationRuntimeException;
+import org.apache.commons.lang.builder.EqualsBuilder;
+
+/**
+ * Island model (coarse-grained parallel) algorithm.
+ *
+ * A number of PopulationAlgorithms (islands or demes) evolve independently, each
+ * one in its own thread. Every <code>migrationInterval</code> generations, each
+ * island sends copies of some of its individuals (chosen by the migrant selector)
+ * to its neighbours, according to the migration topology, and replaces some of
+ * its own individuals (chosen by the replacement selector) with the immigrants
+ * received since the last migration.
+ *
+ * Migrants are exchanged through lock-free queues: an island never waits for
+ * another one, it simply takes the immigrants that have arrived at migration
+ * time. Each island uses its own random generators seed, so runs are
+ * reproducible up to the (nondeterministic) arrival time of migrants.
+ *
+ * From the point of view of listeners, the inhabitants of this algorithm are
+ * the union of the last published populations of all islands, and its
+ * generation is that of the slowest island. The algorithm finishes when all
+ * islands have finished.
+ */
+
+public class IslandModel extends PopulationAlgorithm
+{
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------- Serialization constant
+	/////////////////////////////////////////////////////////////////
+
+	private static final long serialVersionUID = -2830562315390429917L;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------ Migration topologies
+	/////////////////////////////////////////////////////////////////
+
+	/** Unidirectional ring: island i sends migrants to island i+1 */
+
+	public static final String RING = "ring";
+
+	/** Two-dimensional torus: islands send migrants to their four neighbours */
+
+	public static final String TORUS = "torus";
+
+	/** Random: each migration, islands send migrants to a random island */
+
+	public static final String RANDOM = "random";
+
+	/** Seed rows reserved for each island */
+
+	protected static final int SEED_STRIDE = 1000;
+
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------------------- Properties
+	/////////////////////////////////////////////////////////////////
+
+	/** Islands */
+
+	protected List<PopulationAlgorithm> islands;
+
+	/** Number of generations between migrations */
+
+	protected int migrationInterval = 10;
+
+	/** Number of individuals sent to each neighbour */
+
+	protected int numberOfMigrants = 1;
+
+	/** Migration topology */
+
+	protected String topology = RING;
+
+	/** Migrants selectors (one per island) */
+
+	protected List<ISelector> migrantSelectors;
+
+	/** Replaced individuals selectors (one per island) */
+
+	protected List<ISelector> replacementSelectors;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------- Internal variables
+	/////////////////////////////////////////////////////////////////
+
+	/** Island runners */
+
+	protected transient List<Island> runners;
+
+	/** Stop flag */
+
+	protected transient volatile boolean stopped;
+
+	/** Number of immigrants that entered island populations */
+
+	protected final AtomicLong numberOfImmigrants = new AtomicLong();
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Empty constructor.
+	 */
+
+	public IslandModel()
+	{
+		super();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	// Setting and getting properties
+
+	/**
+	 * Access to islands.
+	 *
+	 * @return Island algorithms
+	 */
+
+	public final List<PopulationAlgorithm> getIslands()
+	{
+		return islands;
+	}
+
+	/**
+	 * Sets the islands. All of them must be fully configured.
+	 *
+	 * @param islands Island algorithms
+	 */
+
+	public final void setIslands(List<PopulationAlgorithm> islands)
+	{
+		this.islands = islands;
+		// Species and evaluator views
+		this.species = islands.get(0).getSpecies();
+		this.evaluator = new IslandsEvaluator();
+	}
+
+	/**
+	 * Access to migration interval.
+	 *
+	 * @return Number of generations between migrations
+	 */
+
+	public final int getMigrationInterval()
+	{
+		return migrationInterval;
+	}
+
+	/**
+	 * Sets the migration interval.
+	 *
+	 * @param migrationInterval Number of generations between migrations
+	 *        (positive)
+	 */
+
+	public final void setMigrationInterval(int migrationInterval)
+	{
+		if (migrationInterval <= 0) {
+			throw new IllegalArgumentException("Migration interval must be positive");
+		}
+		this.migrationInterval = migrationInterval;
+	}
+
+	/**
+	 * Access to the number of migrants.
+	 *
+	 * @return Number of individuals sent to each neighbour
+	 */
+
+	public final int getNumberOfMigrants()
+	{
+		return numberOfMigrants;
+	}
+
+	/**
+	 * Sets the number of migrants.
+	 *
+	 * @param numberOfMigrants Number of individuals sent to each neighbour
+	 *        (non-negative)
+	 */
+
+	public final void setNumberOfMigrants(int numberOfMigrants)
+	{
+		if (numberOfMigrants < 0) {
+			throw new IllegalArgumentException("Number of migrants must be non-negative");
+		}
+		this.numberOfMigrants = numberOfMigrants;
+	}
+
+	/**
+	 * Access to the number of immigrants that have entered island 
+	 * populations in the last execution.
+	 *
+	 * @return Number of immigrants
+	 */
+
+	public final long getNumberOfImmigrants()
+	{
+		return numberOfImmigrants.get();
+	}
+
+	/**
+	 * Access to migration topology.
+	 *
+	 * @return Migration topology (RING, TORUS or RANDOM)
+	 */
+
+	public final String getTopology()
+	{
+		return topology;
+	}
+
+	/**
+	 * Sets the migration topology.
+	 *
+	 * @param topology Migration topology (RING, TORUS or RANDOM)
+	 */
+
+	public final void setTopology(String topology)
+	{
+		if (!RING.equals(topology) && !TORUS.equals(topology) && !RANDOM.equals(topology)) {
+			throw new IllegalArgumentException("Unknown migration topology: " + topology);
+		}
+		this.topology = topology;
+	}
+
+	/**
+	 * Access to migrants selectors.
+	 *
+	 * @return Migrants selectors (one per island)
+	 */
+
+	public final List<ISelector> getMigrantSelectors()
+	{
+		return migrantSelectors;
+	}
+
+	/**
+	 * Sets the migrants selectors. Each one is contextualized to the
+	 * island with the same index when the algorithm starts.
+	 *
+	 * @param migrantSelectors Migrants selectors (one per island)
+	 */
+
+	public final void setMigrantSelectors(List<ISelector> migrantSelectors)
+	{
+		this.migrantSelectors = migrantSelectors;
+	}
+
+	/**
+	 * Access to replaced individuals selectors.
+	 *
+	 * @return Replaced individuals selectors (one per island)
+	 */
+
+	public final List<ISelector> getReplacementSelectors()
+	{
+		return replacementSelectors;
+	}
+
+	/**
+	 * Sets the replaced individuals selectors. Each one is contextualized
+	 * to the island with the same index when the algorithm starts.
+	 *
+	 * @param replacementSelectors Replaced individuals selectors (one per island)
+	 */
+
+	public final void setReplacementSelectors(List<ISelector> replacementSelectors)
+	{
+		this.replacementSelectors = replacementSelectors;
+	}
+
+	// IAlgorithm interface
+
+	/**
+	 * Terminates all islands.
+	 *
+	 * {@inheritDoc}
+	 */
+
+	@Override
+	public void terminate()
+	{
+		super.terminate();
+		stopped = true;
+		synchronized (this) {
+			notifyAll();
+		}
+	}
+
+	// IConfigure interface
+
+	/**
+	 * Configuration parameters for IslandModel are:
+	 *
+	 * <ul>
+	 * <li>
+	 * <code>island: PopulationAlgorithm (complex)</code></p>
+	 * Island algorithm configuration. The <code>rand-gen-factory[@seed]</code>
+	 * of island i is the configured one plus i*1000
+	 * </li><li>
+	 * <code>number-of-islands int</code></p>
+	 * Number of islands
+	 * </li><li>
+	 * <code>migration-interval int (default 10)</code></p>
+	 * Number of generations between migrations
+	 * </li><li>
+	 * <code>number-of-migrants int (default 1)</code></p>
+	 * Number of individuals sent to each neighbour
+	 * </li><li>
+	 * <code>topology String (default ring)</code></p>
+	 * Migration topology: ring, torus or random
+	 * </li><li>
+	 * <code>migrant-selector: ISelector (complex)</code></p>
+	 * Migrants selector. Each island has its own instance
+	 * </li><li>
+	 * <code>replacement-selector: ISelector (complex)</code></p>
+	 * Replaced individuals selector. Each island has its own instance
+	 * </li>
+	 * </ul>
+	 */
+
+	@Override
+	public void configure(Configuration configuration)
+	{
+		// Algorithm listeners
+		setListenerSettings(configuration);
+		// Islands
+		setIslandsSettings(configuration);
+		// Migration interval
+		int migrationInterval = configuration.getInt("migration-interval", 10);
+		if (migrationInterval <= 0) {
+			throw new ConfigurationRuntimeException("Migration interval must be positive");
+		}
+		setMigrationInterval(migrationInterval);
+		// Number of migrants
+		int numberOfMigrants = configuration.getInt("number-of-migrants", 1);
+		if (numberOfMigrants < 0) {
+			throw new ConfigurationRuntimeException("Number of migrants must be non-negative");
+		}
+		setNumberOfMigrants(numberOfMigrants);
+		// Topology
+		String topology = configuration.getString("topology", RING);
+		try {
+			setTopology(topology);
+		}
+		catch (IllegalArgumentException e) {
+			throw new ConfigurationRuntimeException(e.getMessage());
+		}
+		// Selectors
+		setMigrantSelectors(createSelectors(configuration, "migrant-selector"));
+		setReplacementSelectors(createSelectors(configuration, "replacement-selector"));
+	}
+
+	// java.lang.Object methods
+
+	@Override
+	public boolean equals(Object other)
+	{
+		if (other instanceof IslandModel) {
+			IslandModel cother = (IslandModel) other;
+			EqualsBuilder eb = new EqualsBuilder();
+			// Islands
+			eb.append(islands, cother.islands);
+			// Migration interval
+			eb.append(migrationInterval, cother.migrationInterval);
+			// Number of migrants
+			eb.append(numberOfMigrants, cother.numberOfMigrants);
+			// Topology
+			eb.append(topology, cother.topology);
+			// Migrants selectors
+			eb.append(migrantSelectors, cother.migrantSelectors);
+			// Replaced individuals selectors
+			eb.append(replacementSelectors, cother.replacementSelectors);
+			// Return test result
+			return eb.isEquals();
+		}
+		else {
+			return false;
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// -------------------------------------------- Protected methods
+	/////////////////////////////////////////////////////////////////
+
+	// Configuration methods
+
+	/**
+	 * Creates and configures all islands from the <code>island</code>
+	 * configuration, giving each one its own seed.
+	 *
+	 * @param configuration Algorithm configuration
+	 */
+
+	@SuppressWarnings("unchecked")
+	protected void setIslandsSettings(Configuration configuration)
+	{
+		int numberOfIslands = configuration.getInt("number-of-islands");
+		Configuration islandConfiguration = configuration.subset("island");
+		boolean hasSeed = islandConfiguration.containsKey("rand-gen-factory[@seed]");
+		int seed = islandConfiguration.getInt("rand-gen-factory[@seed]", 1234567890);
+		List<PopulationAlgorithm> islands = new ArrayList<PopulationAlgorithm>(numberOfIslands);
+		try {
+			// Island classname
+			String islandClassname = configuration.getString("island[@type]");
+			// Island class
+			Class<? extends PopulationAlgorithm> islandClass =
+				(Class<? extends PopulationAlgorithm>) ComponentRegistry.forName(islandClassname);
+			for (int i=0; i<numberOfIslands; i++) {
+				// Island instance
+				PopulationAlgorithm island = ComponentRegistry.newInstance(islandClass);
+				// Configure island with its own seed
+				islandConfiguration.setProperty("rand-gen-factory[@seed]", seed + i * SEED_STRIDE);
+				island.configure(islandConfiguration);
+				islands.add(island);
+			}
+		}
+		catch (ClassNotFoundException e) {
+			throw new ConfigurationRuntimeException("Illegal island classname");
+		}
+		catch (InstantiationException e) {
+			throw new ConfigurationRuntimeException("Problems creating an instance of island", e);
+		}
+		catch (IllegalAccessException e) {
+			throw new ConfigurationRuntimeException("Problems creating an instance of island", e);
+		}
+		finally {
+			// Restore original configuration
+			if (hasSeed) {
+				islandConfiguration.setProperty("rand-gen-factory[@seed]", seed);
+			}
+			else {
+				islandConfiguration.clearProperty("rand-gen-factory[@seed]");
+			}
+		}
+		setIslands(islands);
+	}
+
+	// Execution methods
+
+	/**
+	 * Starts all islands and waits until all of them have an initial
+	 * population.
+	 */
+
+	@Override
+	protected void doInit()
+	{
+		stopped = false;
+		numberOfImmigrants.set(0);
+		int numberOfIslands = islands.size();
+		runners = new ArrayList<Island>(numberOfIslands);
+		for (int i=0; i<numberOfIslands; i++) {
+			runners.add(new Island(i, islands.get(i)));
+		}
+		for (int i=0; i<numberOfIslands; i++) {
+			runners.get(i).destinations = destinations(i, numberOfIslands);
+		}
+		for (Island runner : runners) {
+			Thread thread = new Thread(runner, "island-" + runner.index);
+			thread.setDaemon(true);
+			runner.thread = thread;
+			thread.start();
+		}
+		// Wait for initial populations
+		synchronized (this) {
+			while (!stopped && !allPublished()) {
+				waitForIslands();
+			}
+		}
+		checkFailures();
+		collect();
+	}
+
+	/**
+	 * Waits until the slowest island completes a new generation or all
+	 * islands finish, and then collects islands populations.
+	 */
+
+	@Override
+	protected void doIterate()
+	{
+		int current = generation;
+		synchronized (this) {
+			while (!stopped && minGeneration() <= current && !allFinished()) {
+				waitForIslands();
+			}
+		}
+		checkFailures();
+		collect();
+		if (allFinished() && state == RUNNING) {
+			state = FINISHED;
+		}
+	}
+
+	/** Not used. Each island performs its own selection. */
+
+	@Override
+	protected void doSelection()
+	{
+	}
+
+	/** Not used. Each island performs its own generation. */
+
+	@Override
+	protected void doGeneration()
+	{
+	}
+
+	/** Not used. Each island performs its own replacement. */
+
+	@Override
+	protected void doReplacement()
+	{
+	}
+
+	/** Not used. Each island performs its own update. */
+
+	@Override
+	protected void doUpdate()
+	{
+	}
+
+	/** Not used. Each island checks its own stopping criteria. */
+
+	@Override
+	protected void doControl()
+	{
+	}
+
+	/**
+	 * Stops all islands and waits for their threads to end. Islands release
+	 * their own resources.
+	 */
+
+	@Override
+	protected void doClose()
+	{
+		stopped = true;
+		if (runners != null) {
+			for (Island runner : runners) {
+				try {
+					runner.thread.join();
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			runners = null;
+		}
+	}
+
+	/**
+	 * Neighbours of an island in the migration topology. For the random
+	 * topology, all other islands are returned.
+	 *
+	 * @param index Island index
+	 * @param numberOfIslands Number of islands
+	 *
+	 * @return Destination islands
+	 */
+
+	protected int [] destinations(int index, int numberOfIslands)
+	{
+		if (numberOfIslands < 2) {
+			return new int[0];
+		}
+		if (RING.equals(topology)) {
+			return new int [] {(index + 1) % numberOfIslands};
+		}
+		if (TORUS.equals(topology)) {
+			// Grid dimensions
+			int rows = (int) Math.sqrt(numberOfIslands);
+			while (numberOfIslands % rows != 0) {
+				rows--;
+			}
+			int columns = numberOfIslands / rows;
+			int row = index / columns, column = index % columns;
+			int [] candidates = {
+				((row + rows - 1) % rows) * columns + column,
+				((row + 1) % rows) * columns + column,
+				row * columns + (column + columns - 1) % columns,
+				row * columns + (column + 1) % columns
+			};
+			// Remove repeated neighbours and the island itself
+			int [] result = new int[4];
+			int size = 0;
+			for (int candidate : candidates) {
+				boolean repeated = candidate == index;
+				for (int j=0; j<size && !repeated; j++) {
+					repeated = result[j] == candidate;
+				}
+				if (!repeated) {
+					result[size++] = candidate;
+				}
+			}
+			int [] neighbors = new int[size];
+			System.arraycopy(result, 0, neighbors, 0, size);
+			return neighbors;
+		}
+		int [] others = new int[numberOfIslands - 1];
+		for (int i=0, j=0; i<numberOfIslands; i++) {
+			if (i != index) {
+				others[j++] = i;
+			}
+		}
+		return others;
+	}
+
+	/**
+	 * Replaces some inhabitants of a population with immigrants.
+	 *
+	 * @param inhabitants Population inhabitants
+	 * @param immigrants Immigrants (no more than inhabitants)
+	 * @param replaced Selector of replaced individuals, contextualized to
+	 *        the population
+	 *
+	 * @return New inhabitants
+	 */
+
+	static List<IIndividual> replace(List<IIndividual> inhabitants, List<IIndividual> immigrants, ISelector replaced)
+	{
+		// Remove replaced individuals (by identity, as populations
+		// usually contain equal individuals)
+		IdentityHashMap<IIndividual, Boolean> removed = new IdentityHashMap<IIndividual, Boolean>();
+		for (IIndividual ind : replaced.select(inhabitants, immigrants.size())) {
+			removed.put(ind, Boolean.TRUE);
+		}
+		List<IIndividual> result = new ArrayList<IIndividual>(inhabitants.size());
+		for (IIndividual ind : inhabitants) {
+			if (!removed.containsKey(ind)) {
+				result.add(ind);
+			}
+		}
+		// Keep population size if some individual was selected twice
+		result.addAll(immigrants.subList(0, removed.size()));
+		return result;
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	@SuppressWarnings("unchecked")
+	private List<ISelector> createSelectors(Configuration configuration, String key)
+	{
+		try {
+			// Selector classname
+			String selectorClassname = configuration.getString(key + "[@type]");
+			// Selector class
+			Class<? extends ISelector> selectorClass =
+				(Class<? extends ISelector>) ComponentRegistry.forName(selectorClassname);
+			// Selector instances
+			List<ISelector> selectors = new ArrayList<ISelector>(islands.size());
+			for (int i=0; i<islands.size(); i++) {
+				ISelector selector = ComponentRegistry.newInstance(selectorClass);
+				// Configure selector
+				if (selector instanceof IConfigure) {
+					((IConfigure) selector).configure(ComponentRegistry.subset(configuration, key));
+				}
+				selectors.add(selector);
+			}
+			return selectors;
+		}
+		catch (ClassNotFoundException e) {
+			throw new ConfigurationRuntimeException("Illegal " + key + " classname");
+		}
+		catch (InstantiationException e) {
+			throw new ConfigurationRuntimeException("Problems creating an instance of " + key, e);
+		}
+		catch (IllegalAccessException e) {
+			throw new ConfigurationRuntimeException("Problems creating an instance of " + key, e);
+		}
+	}
+
+	private void waitForIslands()
+	{
+		try {
+			wait();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			stopped = true;
+		}
+	}
+
+	private boolean allPublished()
+	{
+		for (Island runner : runners) {
+			if (runner.snapshot == null && !runner.finished) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private boolean allFinished()
+	{
+		for (Island runner : runners) {
+			if (!runner.finished) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private int minGeneration()
+	{
+		int result = Integer.MAX_VALUE;
+		for (Island runner : runners) {
+			if (!runner.finished) {
+				result = Math.min(result, runner.generation);
+			}
+		}
+		return result;
+	}
+
+	private void checkFailures()
+	{
+		for (Island runner : runners) {
+			if (runner.failure != null) {
+				stopped = true;
+				throw new IllegalStateException("Island " + runner.index + " failed", runner.failure);
+			}
+		}
+	}
+
+	private void collect()
+	{
+		List<IIndividual> inhabitants = new ArrayList<IIndividual>();
+		int min = Integer.MAX_VALUE;
+		for (Island runner : runners) {
+			List<IIndividual> snapshot = runner.snapshot;
+			if (snapshot != null) {
+				inhabitants.addAll(snapshot);
+			}
+			min = Math.min(min, runner.generation);
+		}
+		bset = inhabitants;
+		generation = min;
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Inner classes
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Island runner. Executes an island algorithm in its own thread,
+	 * performing migrations and publishing its population.
+	 */
+
+	protected class Island implements Runnable
+	{
+		/** Island index */
+
+		protected final int index;
+
+		/** Island algorithm */
+
+		protected final PopulationAlgorithm algorithm;
+
+		/** Immigrants queue */
+
+		protected final ConcurrentLinkedQueue<IIndividual> inbox =
+			new ConcurrentLinkedQueue<IIndividual>();
+
+		/** Destination islands */
+
+		protected int [] destinations;
+
+		/** Island thread */
+
+		protected Thread thread;
+
+		/** Last published population */
+
+		protected volatile List<IIndividual> snapshot;
+
+		/** Generation of the last published population */
+
+		protected volatile int generation;
+
+		/** Finished flag */
+
+		protected volatile boolean finished;
+
+		/** Failure cause, if any */
+
+		protected volatile Throwable failure;
+
+		/** Migrants selector */
+
+		private ISelector migrants;
+
+		/** Replaced individuals selector */
+
+		private ISelector replaced;
+
+		/** Random generator used to choose destinations */
+
+		private IRandGen randgen;
+
+		/**
+		 * Constructor that sets the island algorithm.
+		 *
+		 * @param index Island index
+		 * @param algorithm Island algorithm
+		 */
+
+		protected Island(int index, PopulationAlgorithm algorithm)
+		{
+			this.index = index;
+			this.algorithm = algorithm;
+		}
+
+		/**
+		 * Island main loop.
+		 */
+
+		public void run()
+		{
+			try {
+				// Island operators
+				migrants = migrantSelectors.get(index);
+				migrants.contextualize(algorithm);
+				replaced = replacementSelectors.get(index);
+				replaced.contextualize(algorithm);
+				randgen = algorithm.createRandGen();
+				// Initial population
+				algorithm.state = RUNNING;
+				algorithm.doInit();
+				publish();
+				// Evolution
+				while (algorithm.state == RUNNING && !stopped) {
+					algorithm.doIterate();
+					if (algorithm.getGeneration() % migrationInterval == 0) {
+						immigrate();
+						emigrate();
+					}
+					publish();
+				}
+			}
+			catch (Throwable t) {
+				failure = t;
+			}
+			finally {
+				try {
+					algorithm.doClose();
+				}
+				finally {
+					algorithm.state = NEW;
+					finished = true;
+					synchronized (IslandModel.this) {
+						IslandModel.this.notifyAll();
+					}
+				}
+			}
+		}
+
+		/**
+		 * Replaces some individuals with the most recent immigrants.
+		 */
+
+		private void immigrate()
+		{
+			List<IIndividual> immigrants = new ArrayList<IIndividual>();
+			for (IIndividual ind = inbox.poll(); ind != null; ind = inbox.poll()) {
+				immigrants.add(ind);
+			}
+			List<IIndividual> inhabitants = algorithm.getInhabitants();
+			int maxOfImmigrants = Math.min(inhabitants.size(),
+				numberOfMigrants * Math.max(1, RANDOM.equals(topology) ? 1 : destinations.length));
+			if (immigrants.size() > maxOfImmigrants) {
+				immigrants = immigrants.subList(immigrants.size() - maxOfImmigrants, immigrants.size());
+			}
+			if (!immigrants.isEmpty()) {
+				algorithm.setInhabitants(replace(inhabitants, immigrants, replaced));
+				numberOfImmigrants.addAndGet(immigrants.size());
+			}
+		}
+
+		/**
+		 * Sends copies of the selected migrants to destination islands.
+		 */
+
+		private void emigrate()
+		{
+			if (destinations.length == 0) {
+				return;
+			}
+			List<IIndividual> inhabitants = algorithm.getInhabitants();
+			int nofsel = Math.min(numberOfMigrants, inhabitants.size());
+			if (RANDOM.equals(topology)) {
+				int destination = destinations[randgen.choose(0, destinations.length)];
+				send(destination, migrants.select(inhabitants, nofsel));
+			}
+			else {
+				for (int destination : destinations) {
+					send(destination, migrants.select(inhabitants, nofsel));
+				}
+			}
+		}
+
+		private void send(int destination, List<IIndividual> selected)
+		{
+			ConcurrentLinkedQueue<IIndividual> target = runners.get(destination).inbox;
+			for (IIndividual ind : selected) {
+				target.offer(ind.copy());
+			}
+		}
+
+		/**
+		 * Publishes a copy of the island population.
+		 */
+
+		private void publish()
+		{
+			snapshot = new ArrayList<IIndividual>(algorithm.getInhabitants());
+			generation = algorithm.getGeneration();
+			synchronized (IslandModel.this) {
+				IslandModel.this.notifyAll();
+			}
+		}
+	}
+
+	/**
+	 * Evaluator view of all islands evaluators.
+	 */
+
+	private class IslandsEvaluator implements IEvaluator
+	{
+		private static final long serialVersionUID = 6051935187622311704L;
+
+		/**
+		 * Islands evaluate their own individuals.
+		 */
+
+		public void evaluate(List<IIndividual> inds)
+		{
+			islands.get(0).getEvaluator().evaluate(inds);
+		}
+
+		/**
+		 * Sum of the evaluations performed in all islands.
+		 */
+
+		public int getNumberOfEvaluations()
+		{
+			int result = 0;
+			for (PopulationAlgorithm island : islands) {
+				result += island.getEvaluator().getNumberOfEvaluations();
+			}
+			return result;
+		}
+
+		/**
+		 * Fitness comparator of the first island.
+		 */
+
+		public Comparator<IFitness> getComparator()
+		{
+			return islands.get(0).getEvaluator().getComparator();
+		}
+	}
+}
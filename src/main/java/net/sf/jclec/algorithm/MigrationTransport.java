@@ -0,0 +1,570 @@
+package net.sf.jclec.algorithm;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.EOFException;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+
+import java.net.Socket;
+import java.net.ServerSocket;
+import java.net.InetAddress;
+import java.net.SocketException;
+import java.net.InetSocketAddress;
+
+import java.util.List;
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+
+import net.sf.jclec.IIndividual;
+
+import net.sf.jclec.base.AbstractIndividual;
+
+import net.sf.jclec.util.GenotypeCodec;
+import net.sf.jclec.util.ComponentRegistry;
+
+/**
+ * TCP transport for migrants between island processes.
+ *
+ * Each transport listens on a local port for migrants sent by its peers, and
+ * keeps one outgoing queue and one sender thread per peer. Sending and receiving
+ * never block the caller: send() only enqueues copies of the migrants, and
+ * receive() takes the migrants that have arrived so far. Sender threads write
+ * all pending migrants in a single batch, (re)connecting to their peer when
+ * needed. If a peer is slow or unreachable, its queue is bounded by the
+ * transport capacity and the oldest migrants are dropped. The same bound
+ * applies to received migrants not yet taken.
+ *
+ * Migrants are encoded with GenotypeCodec: a batch contains the number of
+ * individuals, their class name, and the genotype and fitness of each one. All
+ * individuals must extend AbstractIndividual, have an empty constructor and a
+ * <code>double[]</code>, <code>int[]</code> or <code>byte[]</code> genotype.
+ * Peers are not authenticated, so receivers never deserialize Java objects:
+ * they only create individuals of AbstractIndividual subclasses and read raw
+ * genotype arrays.
+ *
+ * @see net.sf.jclec.util.GenotypeCodec
+ */
+
+public class MigrationTransport implements Closeable
+{
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Class variables
+	/////////////////////////////////////////////////////////////////
+
+	/** Maximum delay between connection attempts (ms) */
+
+	private static final long MAX_RETRY_DELAY = 1000;
+
+	/** Sender threads poll interval (ns) */
+
+	private static final long POLL_INTERVAL = 100000000L;
+
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------------------- Properties
+	/////////////////////////////////////////////////////////////////
+
+	/** Local port */
+
+	protected final int port;
+
+	/** Peer addresses */
+
+	protected final List<InetSocketAddress> peers;
+
+	/** Maximum number of queued migrants (per peer and received) */
+
+	protected final int capacity;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------- Internal variables
+	/////////////////////////////////////////////////////////////////
+
+	/** Server socket */
+
+	protected ServerSocket server;
+
+	/** Peer senders */
+
+	protected List<Sender> senders;
+
+	/** Received migrants */
+
+	protected final ConcurrentLinkedQueue<IIndividual> inbox =
+		new ConcurrentLinkedQueue<IIndividual>();
+
+	/** Received migrants not yet taken */
+
+	protected final AtomicInteger inboxSize = new AtomicInteger();
+
+	/** Open incoming connections */
+
+	protected final List<Socket> connections = new ArrayList<Socket>();
+
+	/** Closed flag */
+
+	protected volatile boolean closed;
+
+	/** Number of migrants written to peers */
+
+	protected final AtomicLong numberOfSent = new AtomicLong();
+
+	/** Number of migrants received from peers */
+
+	protected final AtomicLong numberOfReceived = new AtomicLong();
+
+	/** Number of migrants dropped because of full queues */
+
+	protected final AtomicLong numberOfDropped = new AtomicLong();
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Constructor that sets all properties.
+	 *
+	 * @param port Local port (0 for an ephemeral port)
+	 * @param peers Peer addresses
+	 * @param capacity Maximum number of queued migrants
+	 */
+
+	public MigrationTransport(int port, List<InetSocketAddress> peers, int capacity)
+	{
+		super();
+		this.port = port;
+		this.peers = peers;
+		this.capacity = capacity;
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Parses a peer address.
+	 *
+	 * @param address Address in the form <code>host:port</code>
+	 *
+	 * @return Socket address
+	 */
+
+	public static InetSocketAddress parseAddress(String address)
+	{
+		int colon = address.lastIndexOf(':');
+		if (colon < 0) {
+			throw new IllegalArgumentException("Illegal peer address: " + address);
+		}
+		try {
+			return new InetSocketAddress
+				(address.substring(0, colon).trim(), Integer.parseInt(address.substring(colon + 1).trim()));
+		}
+		catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Illegal peer address: " + address);
+		}
+	}
+
+	/**
+	 * Opens the local port and starts receiver and sender threads.
+	 *
+	 * @throws IOException If the local port cannot be opened
+	 */
+
+	public synchronized void start() throws IOException
+	{
+		server = new ServerSocket();
+		server.setReuseAddress(true);
+		server.bind(new InetSocketAddress(InetAddress.getByName(null), port));
+		startThread(new Acceptor(), "migration-acceptor-" + getLocalPort());
+		senders = new ArrayList<Sender>(peers.size());
+		for (InetSocketAddress peer : peers) {
+			Sender sender = new Sender(peer);
+			sender.thread = startThread(sender, "migration-sender-" + peer.getPort());
+			senders.add(sender);
+		}
+	}
+
+	/**
+	 * Access to the local port.
+	 *
+	 * @return Port this transport is listening on
+	 */
+
+	public int getLocalPort()
+	{
+		return server.getLocalPort();
+	}
+
+	/**
+	 * Queues copies of some migrants for all peers.
+	 *
+	 * @param migrants Migrants to send
+	 */
+
+	public void send(List<IIndividual> migrants)
+	{
+		if (closed || migrants.isEmpty()) {
+			return;
+		}
+		for (IIndividual migrant : migrants) {
+			if (!(migrant instanceof AbstractIndividual<?>) 
+					|| !GenotypeCodec.isRaw(((AbstractIndividual<?>) migrant).getGenotype())) {
+				throw new IllegalArgumentException("Migrants must have array genotypes: " + migrant.getClass().getName());
+			}
+		}
+		for (Sender sender : senders) {
+			for (IIndividual migrant : migrants) {
+				sender.queue.offer(migrant.copy());
+				sender.size.incrementAndGet();
+			}
+			trim(sender.queue, sender.size);
+			LockSupport.unpark(sender.thread);
+		}
+	}
+
+	/**
+	 * Takes all migrants received since the last call.
+	 *
+	 * @return Received migrants, in arrival order
+	 */
+
+	public List<IIndividual> receive()
+	{
+		List<IIndividual> result = new ArrayList<IIndividual>();
+		for (IIndividual ind = inbox.poll(); ind != null; ind = inbox.poll()) {
+			inboxSize.decrementAndGet();
+			result.add(ind);
+		}
+		return result;
+	}
+
+	/**
+	 * Access to the number of migrants written to peers.
+	 *
+	 * @return Number of sent migrants
+	 */
+
+	public long getNumberOfSent()
+	{
+		return numberOfSent.get();
+	}
+
+	/**
+	 * Access to the number of migrants received from peers.
+	 *
+	 * @return Number of received migrants
+	 */
+
+	public long getNumberOfReceived()
+	{
+		return numberOfReceived.get();
+	}
+
+	/**
+	 * Access to the number of migrants dropped because of full queues.
+	 *
+	 * @return Number of dropped migrants
+	 */
+
+	public long getNumberOfDropped()
+	{
+		return numberOfDropped.get();
+	}
+
+	// Closeable interface
+
+	/**
+	 * Flushes pending migrants (without waiting for unreachable peers),
+	 * then closes all sockets.
+	 */
+
+	public void close()
+	{
+		if (closed) {
+			return;
+		}
+		closed = true;
+		if (senders != null) {
+			for (Sender sender : senders) {
+				LockSupport.unpark(sender.thread);
+			}
+			for (Sender sender : senders) {
+				try {
+					sender.thread.join(MAX_RETRY_DELAY);
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				closeQuietly(sender.socket);
+			}
+		}
+		closeQuietly(server);
+		synchronized (connections) {
+			for (Socket connection : connections) {
+				closeQuietly(connection);
+			}
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	private Thread startThread(Runnable runnable, String name)
+	{
+		Thread thread = new Thread(runnable, name);
+		thread.setDaemon(true);
+		thread.start();
+		return thread;
+	}
+
+	/**
+	 * Drops the oldest elements of a queue above the transport capacity.
+	 */
+
+	private void trim(ConcurrentLinkedQueue<IIndividual> queue, AtomicInteger size)
+	{
+		while (size.get() > capacity && queue.poll() != null) {
+			size.decrementAndGet();
+			numberOfDropped.incrementAndGet();
+		}
+	}
+
+	private void closeQuietly(Closeable closeable)
+	{
+		if (closeable != null) {
+			try {
+				closeable.close();
+			}
+			catch (IOException e) {
+				// Nothing to do
+			}
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Inner classes
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Sends the migrants queued for one peer.
+	 */
+
+	protected class Sender implements Runnable
+	{
+		/** Peer address */
+
+		protected final InetSocketAddress peer;
+
+		/** Queued migrants */
+
+		protected final ConcurrentLinkedQueue<IIndividual> queue =
+			new ConcurrentLinkedQueue<IIndividual>();
+
+		/** Number of queued migrants */
+
+		protected final AtomicInteger size = new AtomicInteger();
+
+		/** Sender thread */
+
+		protected Thread thread;
+
+		/** Connection to peer */
+
+		protected Socket socket;
+
+		/** Connection output stream */
+
+		private DataOutputStream out;
+
+		/** Delay before the next connection attempt */
+
+		private long retryDelay = 50;
+
+		protected Sender(InetSocketAddress peer)
+		{
+			this.peer = peer;
+		}
+
+		public void run()
+		{
+			while (true) {
+				boolean last = closed;
+				if (!queue.isEmpty()) {
+					if (out == null && !connect(last)) {
+						if (last) {
+							return;
+						}
+						continue;
+					}
+					try {
+						writeBatch();
+					}
+					catch (IOException e) {
+						closeQuietly(socket);
+						socket = null;
+						out = null;
+					}
+				}
+				if (last) {
+					return;
+				}
+				LockSupport.parkNanos(POLL_INTERVAL);
+			}
+		}
+
+		/**
+		 * Connects to peer. If the connection fails, waits before the next
+		 * attempt (unless the transport is closing).
+		 */
+
+		private boolean connect(boolean last)
+		{
+			try {
+				Socket socket = new Socket();
+				socket.setTcpNoDelay(true);
+				socket.connect(peer, (int) MAX_RETRY_DELAY);
+				this.socket = socket;
+				this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+				retryDelay = 50;
+				return true;
+			}
+			catch (IOException e) {
+				if (!last) {
+					LockSupport.parkNanos(retryDelay * 1000000L);
+					retryDelay = Math.min(2 * retryDelay, MAX_RETRY_DELAY);
+				}
+				return false;
+			}
+		}
+
+		/**
+		 * Writes all queued migrants, grouped in batches of consecutive
+		 * individuals of the same class.
+		 */
+
+		private void writeBatch() throws IOException
+		{
+			List<IIndividual> batch = new ArrayList<IIndividual>();
+			for (IIndividual ind = queue.poll(); ind != null; ind = queue.poll()) {
+				size.decrementAndGet();
+				batch.add(ind);
+			}
+			int from = 0;
+			while (from < batch.size()) {
+				Class<?> indClass = batch.get(from).getClass();
+				int to = from + 1;
+				while (to < batch.size() && batch.get(to).getClass() == indClass) {
+					to++;
+				}
+				out.writeInt(to - from);
+				out.writeUTF(indClass.getName());
+				for (int i=from; i<to; i++) {
+					AbstractIndividual<?> ind = (AbstractIndividual<?>) batch.get(i);
+					GenotypeCodec.writeGenotype(out, ind.getGenotype());
+					GenotypeCodec.writeFitness(out, ind.getFitness());
+				}
+				from = to;
+			}
+			out.flush();
+			numberOfSent.addAndGet(batch.size());
+		}
+	}
+
+	/**
+	 * Accepts connections from peers.
+	 */
+
+	protected class Acceptor implements Runnable
+	{
+		public void run()
+		{
+			while (!closed) {
+				try {
+					Socket connection = server.accept();
+					synchronized (connections) {
+						connections.add(connection);
+					}
+					startThread(new Receiver(connection), "migration-receiver-" + connection.getPort());
+				}
+				catch (IOException e) {
+					// Server socket closed
+					return;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Reads migrants sent by one peer.
+	 */
+
+	protected class Receiver implements Runnable
+	{
+		/** Connection to peer */
+
+		protected final Socket connection;
+
+		protected Receiver(Socket connection)
+		{
+			this.connection = connection;
+		}
+
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		public void run()
+		{
+			try {
+				DataInputStream in =
+					new DataInputStream(new BufferedInputStream(connection.getInputStream()));
+				while (!closed) {
+					int size = in.readInt();
+					Class<? extends AbstractIndividual> indClass = individualClass(in.readUTF());
+					for (int i=0; i<size; i++) {
+						AbstractIndividual ind = ComponentRegistry.newInstance(indClass);
+						ind.setGenotype(GenotypeCodec.readGenotype(in, false));
+						ind.setFitness(GenotypeCodec.readFitness(in));
+						inbox.offer(ind);
+						inboxSize.incrementAndGet();
+					}
+					numberOfReceived.addAndGet(size);
+					trim(inbox, inboxSize);
+				}
+			}
+			catch (EOFException e) {
+				// Peer closed the connection
+			}
+			catch (SocketException e) {
+				// Connection closed
+			}
+			catch (Exception e) {
+				e.printStackTrace();
+			}
+			finally {
+				closeQuietly(connection);
+				synchronized (connections) {
+					connections.remove(connection);
+				}
+			}
+		}
+
+		/**
+		 * Individual class sent by the peer, checked before any instance
+		 * is created.
+		 */
+
+		@SuppressWarnings("rawtypes")
+		private Class<? extends AbstractIndividual> individualClass(String classname) throws ClassNotFoundException, IOException
+		{
+			Class<?> result = ComponentRegistry.forName(classname);
+			if (!AbstractIndividual.class.isAssignableFrom(result)) {
+				throw new IOException("Illegal individual class: " + classname);
+			}
+			return result.asSubclass(AbstractIndividual.class);
+		}
+	}
+}
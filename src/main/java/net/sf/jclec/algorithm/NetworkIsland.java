@@ -0,0 +1,613 @@
+package net.sf.jclec.algorithm;
+
+import java.io.IOException;
+
+import java.net.InetSocketAddress;
+
+import java.util.List;
+import java.util.ArrayList;
+
+import net.sf.jclec.IConfigure;
+import net.sf.jclec.ISelector;
+import net.sf.jclec.IIndividual;
+import net.sf.jclec.util.ComponentRegistry;
+
+import org.apache.commons.configuration.Configuration;
+import org.apache.commons.configuration.ConfigurationRuntimeException;
+import org.apache.commons.lang.builder.EqualsBuilder;
+
+/**
+ * Island of a multi-process island model.
+ *
+ * Each process hosts one island (a PopulationAlgorithm), and exchanges migrants
+ * with the islands hosted by other processes through a MigrationTransport. Every
+ * <code>migrationInterval</code> generations, the island replaces some of its
+ * individuals (chosen by the replacement selector) with the migrants received
+ * since the last migration, and sends copies of some individuals (chosen by the
+ * migrant selector) to all its peers. The migration topology is defined by the
+ * list of peers of each process.
+ *
+ * Migration never waits for other processes, so a slow or dead peer does not
+ * stall the island. The algorithm finishes when its island finishes; the
+ * inhabitants, generation, species and evaluator are those of the island.
+ *
+ * @see net.sf.jclec.algorithm.MigrationTransport
+ */
+
+public class NetworkIsland extends PopulationAlgorithm
+{
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------- Serialization constant
+	/////////////////////////////////////////////////////////////////
+
+	private static final long serialVersionUID = 3380157230862946615L;
+
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------------------- Properties
+	/////////////////////////////////////////////////////////////////
+
+	/** Hosted island */
+
+	protected PopulationAlgorithm island;
+
+	/** Local port */
+
+	protected int port;
+
+	/** Peer addresses (host:port) */
+
+	protected List<String> peers = new ArrayList<String>();
+
+	/** Number of generations between migrations */
+
+	protected int migrationInterval = 10;
+
+	/** Number of individuals sent to peers */
+
+	protected int numberOfMigrants = 1;
+
+	/** Maximum number of queued migrants */
+
+	protected int queueCapacity = 1000;
+
+	/** Migrants selector */
+
+	protected ISelector migrantSelector;
+
+	/** Replaced individuals selector */
+
+	protected ISelector replacementSelector;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------- Internal variables
+	/////////////////////////////////////////////////////////////////
+
+	/** Migrants transport */
+
+	protected transient MigrationTransport transport;
+
+	/** Number of immigrants that entered the island population */
+
+	protected transient long numberOfImmigrants;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Empty constructor.
+	 */
+
+	public NetworkIsland()
+	{
+		super();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	// Setting and getting properties
+
+	/**
+	 * Access to hosted island.
+	 *
+	 * @return Island algorithm
+	 */
+
+	public final PopulationAlgorithm getIsland()
+	{
+		return island;
+	}
+
+	/**
+	 * Sets the hosted island. It must be fully configured.
+	 *
+	 * @param island Island algorithm
+	 */
+
+	public final void setIsland(PopulationAlgorithm island)
+	{
+		this.island = island;
+		// Island properties
+		this.randGenFactory = island.getRandGenFactory();
+		this.species = island.getSpecies();
+		this.evaluator = island.getEvaluator();
+		this.populationSize = island.getPopulationSize();
+		this.maxOfGenerations = island.getMaxOfGenerations();
+		this.maxOfEvaluations = island.getMaxOfEvaluations();
+	}
+
+	/**
+	 * Access to local port.
+	 *
+	 * @return Port where migrants are received
+	 */
+
+	public final int getPort()
+	{
+		return port;
+	}
+
+	/**
+	 * Sets the local port.
+	 *
+	 * @param port Port where migrants are received (0 for an ephemeral port)
+	 */
+
+	public final void setPort(int port)
+	{
+		this.port = port;
+	}
+
+	/**
+	 * Access to peer addresses.
+	 *
+	 * @return Addresses of the processes that receive migrants
+	 */
+
+	public final List<String> getPeers()
+	{
+		return peers;
+	}
+
+	/**
+	 * Sets the peer addresses.
+	 *
+	 * @param peers Addresses (host:port) of the processes that receive migrants
+	 */
+
+	public final void setPeers(List<String> peers)
+	{
+		this.peers = peers;
+	}
+
+	/**
+	 * Access to migration interval.
+	 *
+	 * @return Number of generations between migrations
+	 */
+
+	public final int getMigrationInterval()
+	{
+		return migrationInterval;
+	}
+
+	/**
+	 * Sets the migration interval.
+	 *
+	 * @param migrationInterval Number of generations between migrations
+	 *        (positive)
+	 */
+
+	public final void setMigrationInterval(int migrationInterval)
+	{
+		if (migrationInterval <= 0) {
+			throw new IllegalArgumentException("Migration interval must be positive");
+		}
+		this.migrationInterval = migrationInterval;
+	}
+
+	/**
+	 * Access to the number of migrants.
+	 *
+	 * @return Number of individuals sent to peers
+	 */
+
+	public final int getNumberOfMigrants()
+	{
+		return numberOfMigrants;
+	}
+
+	/**
+	 * Sets the number of migrants.
+	 *
+	 * @param numberOfMigrants Number of individuals sent to peers
+	 *        (non-negative)
+	 */
+
+	public final void setNumberOfMigrants(int numberOfMigrants)
+	{
+		if (numberOfMigrants < 0) {
+			throw new IllegalArgumentException("Number of migrants must be non-negative");
+		}
+		this.numberOfMigrants = numberOfMigrants;
+	}
+
+	/**
+	 * Access to queue capacity.
+	 *
+	 * @return Maximum number of queued migrants
+	 */
+
+	public final int getQueueCapacity()
+	{
+		return queueCapacity;
+	}
+
+	/**
+	 * Sets the queue capacity.
+	 *
+	 * @param queueCapacity Maximum number of queued migrants
+	 */
+
+	public final void setQueueCapacity(int queueCapacity)
+	{
+		this.queueCapacity = queueCapacity;
+	}
+
+	/**
+	 * Access to migrants selector.
+	 *
+	 * @return Migrants selector
+	 */
+
+	public final ISelector getMigrantSelector()
+	{
+		return migrantSelector;
+	}
+
+	/**
+	 * Sets the migrants selector.
+	 *
+	 * @param migrantSelector Migrants selector
+	 */
+
+	public final void setMigrantSelector(ISelector migrantSelector)
+	{
+		this.migrantSelector = migrantSelector;
+	}
+
+	/**
+	 * Access to replaced individuals selector.
+	 *
+	 * @return Replaced individuals selector
+	 */
+
+	public final ISelector getReplacementSelector()
+	{
+		return replacementSelector;
+	}
+
+	/**
+	 * Sets the replaced individuals selector.
+	 *
+	 * @param replacementSelector Replaced individuals selector
+	 */
+
+	public final void setReplacementSelector(ISelector replacementSelector)
+	{
+		this.replacementSelector = replacementSelector;
+	}
+
+	/**
+	 * Access to the number of immigrants that have entered the island
+	 * population in the last execution.
+	 *
+	 * @return Number of immigrants
+	 */
+
+	public final long getNumberOfImmigrants()
+	{
+		return numberOfImmigrants;
+	}
+
+	/**
+	 * Access to migrants transport (only while the algorithm is running).
+	 *
+	 * @return Migrants transport
+	 */
+
+	public final MigrationTransport getTransport()
+	{
+		return transport;
+	}
+
+	// IConfigure interface
+
+	/**
+	 * Configuration parameters for NetworkIsland are:
+	 *
+	 * <ul>
+	 * <li>
+	 * <code>island: PopulationAlgorithm (complex)</code></p>
+	 * Hosted island configuration
+	 * </li><li>
+	 * <code>port int</code></p>
+	 * Local port where migrants are received
+	 * </li><li>
+	 * <code>peer String (several)</code></p>
+	 * Addresses (host:port) of the processes that receive migrants
+	 * </li><li>
+	 * <code>migration-interval int (default 10)</code></p>
+	 * Number of generations between migrations
+	 * </li><li>
+	 * <code>number-of-migrants int (default 1)</code></p>
+	 * Number of individuals sent to peers
+	 * </li><li>
+	 * <code>queue-capacity int (default 1000)</code></p>
+	 * Maximum number of queued migrants (per peer and received)
+	 * </li><li>
+	 * <code>migrant-selector: ISelector (complex)</code></p>
+	 * Migrants selector
+	 * </li><li>
+	 * <code>replacement-selector: ISelector (complex)</code></p>
+	 * Replaced individuals selector
+	 * </li>
+	 * </ul>
+	 */
+
+	@Override
+	public void configure(Configuration configuration)
+	{
+		// Algorithm listeners
+		setListenerSettings(configuration);
+		// Island
+		setIslandSettings(configuration);
+		// Local port
+		int port = configuration.getInt("port");
+		setPort(port);
+		// Peers
+		List<String> peers = new ArrayList<String>();
+		for (Object peer : configuration.getList("peer")) {
+			peers.add(peer.toString());
+		}
+		setPeers(peers);
+		// Migration interval
+		int migrationInterval = configuration.getInt("migration-interval", 10);
+		if (migrationInterval <= 0) {
+			throw new ConfigurationRuntimeException("Migration interval must be positive");
+		}
+		setMigrationInterval(migrationInterval);
+		// Number of migrants
+		int numberOfMigrants = configuration.getInt("number-of-migrants", 1);
+		if (numberOfMigrants < 0) {
+			throw new ConfigurationRuntimeException("Number of migrants must be non-negative");
+		}
+		setNumberOfMigrants(numberOfMigrants);
+		// Queue capacity
+		int queueCapacity = configuration.getInt("queue-capacity", 1000);
+		setQueueCapacity(queueCapacity);
+		// Selectors
+		setMigrantSelector(createSelector(configuration, "migrant-selector"));
+		setReplacementSelector(createSelector(configuration, "replacement-selector"));
+	}
+
+	// java.lang.Object methods
+
+	@Override
+	public boolean equals(Object other)
+	{
+		if (other instanceof NetworkIsland) {
+			NetworkIsland cother = (NetworkIsland) other;
+			EqualsBuilder eb = new EqualsBuilder();
+			// Island
+			eb.append(island, cother.island);
+			// Local port
+			eb.append(port, cother.port);
+			// Peers
+			eb.append(peers, cother.peers);
+			// Migration interval
+			eb.append(migrationInterval, cother.migrationInterval);
+			// Number of migrants
+			eb.append(numberOfMigrants, cother.numberOfMigrants);
+			// Queue capacity
+			eb.append(queueCapacity, cother.queueCapacity);
+			// Migrants selector
+			eb.append(migrantSelector, cother.migrantSelector);
+			// Replaced individuals selector
+			eb.append(replacementSelector, cother.replacementSelector);
+			// Return test result
+			return eb.isEquals();
+		}
+		else {
+			return false;
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// -------------------------------------------- Protected methods
+	/////////////////////////////////////////////////////////////////
+
+	// Configuration methods
+
+	@SuppressWarnings("unchecked")
+	protected void setIslandSettings(Configuration configuration)
+	{
+		try {
+			// Island classname
+			String islandClassname = configuration.getString("island[@type]");
+			// Island class
+			Class<? extends PopulationAlgorithm> islandClass =
+				(Class<? extends PopulationAlgorithm>) ComponentRegistry.forName(islandClassname);
+			// Island instance
+			PopulationAlgorithm island = ComponentRegistry.newInstance(islandClass);
+			// Configure island
+			island.configure(ComponentRegistry.subset(configuration, "island"));
+			// Set island
+			setIsland(island);
+		}
+		catch (ClassNotFoundException e) {
+			throw new ConfigurationRuntimeException("Illegal island classname");
+		}
+		catch (InstantiationException e) {
+			throw new ConfigurationRuntimeException("Problems creating an instance of island", e);
+		}
+		catch (IllegalAccessException e) {
+			throw new ConfigurationRuntimeException("Problems creating an instance of island", e);
+		}
+	}
+
+	// Execution methods
+
+	/**
+	 * Starts the migrants transport and creates the initial population
+	 * of the island.
+	 */
+
+	@Override
+	protected void doInit()
+	{
+		// Start transport
+		numberOfImmigrants = 0;
+		List<InetSocketAddress> addresses = new ArrayList<InetSocketAddress>(peers.size());
+		for (String peer : peers) {
+			addresses.add(MigrationTransport.parseAddress(peer));
+		}
+		transport = new MigrationTransport(port, addresses, queueCapacity);
+		try {
+			transport.start();
+		}
+		catch (IOException e) {
+			throw new IllegalStateException("Cannot listen on port " + port, e);
+		}
+		// Contextualize selectors
+		migrantSelector.contextualize(island);
+		replacementSelector.contextualize(island);
+		// Init island
+		island.state = RUNNING;
+		island.doInit();
+		update();
+	}
+
+	/**
+	 * Performs one island iteration, and migrates individuals every
+	 * migrationInterval generations.
+	 */
+
+	@Override
+	protected void doIterate()
+	{
+		island.doIterate();
+		if (island.getGeneration() % migrationInterval == 0) {
+			// Immigration
+			List<IIndividual> inhabitants = island.getInhabitants();
+			List<IIndividual> immigrants = transport.receive();
+			if (immigrants.size() > inhabitants.size()) {
+				immigrants = immigrants.subList(immigrants.size() - inhabitants.size(), immigrants.size());
+			}
+			if (!immigrants.isEmpty()) {
+				island.setInhabitants(IslandModel.replace(inhabitants, immigrants, replacementSelector));
+				numberOfImmigrants += immigrants.size();
+			}
+			// Emigration
+			inhabitants = island.getInhabitants();
+			transport.send(migrantSelector.select(inhabitants, Math.min(numberOfMigrants, inhabitants.size())));
+		}
+		update();
+	}
+
+	/** Not used. The island performs its own selection. */
+
+	@Override
+	protected void doSelection()
+	{
+	}
+
+	/** Not used. The island performs its own generation. */
+
+	@Override
+	protected void doGeneration()
+	{
+	}
+
+	/** Not used. The island performs its own replacement. */
+
+	@Override
+	protected void doReplacement()
+	{
+	}
+
+	/** Not used. The island performs its own update. */
+
+	@Override
+	protected void doUpdate()
+	{
+	}
+
+	/** Not used. The island checks its own stopping criteria. */
+
+	@Override
+	protected void doControl()
+	{
+	}
+
+	/**
+	 * Closes the migrants transport and the island.
+	 */
+
+	@Override
+	protected void doClose()
+	{
+		if (transport != null) {
+			transport.close();
+		}
+		island.doClose();
+		island.state = NEW;
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Takes inhabitants, generation and state from the island.
+	 */
+
+	private void update()
+	{
+		bset = island.getInhabitants();
+		generation = island.getGeneration();
+		if (island.state != RUNNING && state == RUNNING) {
+			state = FINISHED;
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private ISelector createSelector(Configuration configuration, String key)
+	{
+		try {
+			// Selector classname
+			String selectorClassname = configuration.getString(key + "[@type]");
+			// Selector class
+			Class<? extends ISelector> selectorClass =
+				(Class<? extends ISelector>) ComponentRegistry.forName(selectorClassname);
+			// Selector instance
+			ISelector selector = ComponentRegistry.newInstance(selectorClass);
+			// Configure selector
+			if (selector instanceof IConfigure) {
+				((IConfigure) selector).configure(ComponentRegistry.subset(configuration, key));
+			}
+			return selector;
+		}
+		catch (ClassNotFoundException e) {
+			throw new ConfigurationRuntimeException("Illegal " + key + " classname");
+		}
+		catch (InstantiationException e) {
+			throw new ConfigurationRuntimeException("Problems creating an instance of " + key, e);
+		}
+		catch (IllegalAccessException e) {
+			throw new ConfigurationRuntimeException("Problems creating an instance of " + key, e);
+		}
+	}
+}
@@ -1,5 +1,8 @@
 package net.sf.jclec.algorithm;
 
+import java.io.Closeable;
+import java.io.IOException;
+
 import java.util.List;
 
 import net.sf.jclec.ISpecies;
@@ -11,6 +14,7 @@ import net.sf.jclec.IPopulation;
 
 import net.sf.jclec.util.random.IRandGen;
 import net.sf.jclec.util.random.IRandGenFactory;
+import net.sf.jclec.util.ComponentRegistry;
 
 
 import org.apache.commons.lang.builder.EqualsBuilder;
@@ -275,13 +279,13 @@ public abstract class PopulationAlgorithm extends AbstractAlgorithm implements I
 				configuration.getString("rand-gen-factory[@type]");
 			// Species class
 			Class<? extends IRandGenFactory> randGenFactoryClass = 
-				(Class<? extends IRandGenFactory>) Class.forName(randGenFactoryClassname);
+				(Class<? extends IRandGenFactory>) ComponentRegistry.forName(randGenFactoryClassname);
 			// Species instance
-			IRandGenFactory randGenFactory = randGenFactoryClass.newInstance();
+			IRandGenFactory randGenFactory = ComponentRegistry.newInstance(randGenFactoryClass);
 			// Configure species
 			if (randGenFactory instanceof IConfigure) {
 				((IConfigure) randGenFactory).configure
-					(configuration.subset("rand-gen-factory"));
+					(ComponentRegistry.subset(configuration, "rand-gen-factory"));
 			}
 			// Set species
 			setRandGenFactory(randGenFactory);
@@ -310,12 +314,12 @@ public abstract class PopulationAlgorithm extends AbstractAlgorithm implements I
 				configuration.getString("species[@type]");
 			// Species class
 			Class<? extends ISpecies> speciesClass = 
-				(Class<? extends ISpecies>) Class.forName(speciesClassname);
+				(Class<? extends ISpecies>) ComponentRegistry.forName(speciesClassname);
 			// Species instance
-			ISpecies species = speciesClass.newInstance();
+			ISpecies species = ComponentRegistry.newInstance(speciesClass);
 			// Configure species
 			if (species instanceof IConfigure) {
-				((IConfigure) species).configure(configuration.subset("species"));
+				((IConfigure) species).configure(ComponentRegistry.subset(configuration, "species"));
 			}
 			// Set species
 			setSpecies(species);
@@ -341,12 +345,12 @@ public abstract class PopulationAlgorithm extends AbstractAlgorithm implements I
 				configuration.getString("evaluator[@type]");
 			// Evaluator class
 			Class<? extends IEvaluator> evaluatorClass = 
-				(Class<? extends IEvaluator>) Class.forName(evaluatorClassname);
+				(Class<? extends IEvaluator>) ComponentRegistry.forName(evaluatorClassname);
 			// Evaluator instance
-			IEvaluator evaluator = evaluatorClass.newInstance();
+			IEvaluator evaluator = ComponentRegistry.newInstance(evaluatorClass);
 			// Configure species
 			if (evaluator instanceof IConfigure) {
-				((IConfigure) evaluator).configure(configuration.subset("evaluator"));
+				((IConfigure) evaluator).configure(ComponentRegistry.subset(configuration, "evaluator"));
 			}
 			// Set species
 			setEvaluator(evaluator);
@@ -371,12 +375,12 @@ public abstract class PopulationAlgorithm extends AbstractAlgorithm implements I
 				configuration.getString("provider[@type]");
 			// Provider class
 			Class<? extends IProvider> providerClass = 
-				(Class<? extends IProvider>) Class.forName(providerClassname);
+				(Class<? extends IProvider>) ComponentRegistry.forName(providerClassname);
 			// Provider instance
-			IProvider provider = providerClass.newInstance();
+			IProvider provider = ComponentRegistry.newInstance(providerClass);
 			// Configure provider
 			if (provider instanceof IConfigure) {
-				((IConfigure) provider).configure(configuration.subset("provider"));
+				((IConfigure) provider).configure(ComponentRegistry.subset(configuration, "provider"));
 			}
 			// Set provider
 			setProvider(provider);
@@ -533,5 +537,23 @@ public abstract class PopulationAlgorithm extends AbstractAlgorithm implements I
 				return;
 			}
 		}
-	}	
+	}
+
+	/**
+	 * Close the evaluator if it holds any resources (worker threads,
+	 * external processes, ...)
+	 */
+
+	@Override
+	protected void doClose()
+	{
+		if (evaluator instanceof Closeable) {
+			try {
+				((Closeable) evaluator).close();
+			}
+			catch (IOException e) {
+				e.printStackTrace();
+			}
+		}
+	}
 }
@@ -0,0 +1,252 @@
+package net.sf.jclec.algorithm;
+
+import java.util.List;
+import java.util.Comparator;
+import java.util.ArrayList;
+import java.util.Collections;
+
+import net.sf.jclec.IFitness;
+import net.sf.jclec.IIndividual;
+import net.sf.jclec.AlgorithmEvent;
+
+import net.sf.jclec.fitness.IValueFitness;
+
+import net.sf.jclec.util.IndividualStatistics;
+
+/**
+ * Immutable view of the state of a PopulationAlgorithm at the end of an
+ * iteration.
+ *
+ * A snapshot contains the generation, the number of evaluations, copies of
+ * the inhabitants and the population statistics (best, worst and median
+ * individuals, average fitness and fitness variance), so that it can be read
+ * by other threads while the algorithm goes on. Individuals are copied because
+ * algorithms may change them in place (SPEA2 sets the fitness of its archive
+ * members, and operators write sons into recycled individuals).
+ *
+ * Listeners that report the population state should obtain it by means of the
+ * of(AlgorithmEvent) method, that works both with synchronous events and with
+ * the events delivered by AsyncListener.
+ *
+ * @see net.sf.jclec.listener.AsyncListener
+ */
+
+public class PopulationSnapshot
+{
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------------------- Properties
+	/////////////////////////////////////////////////////////////////
+
+	/** Source algorithm */
+
+	private final PopulationAlgorithm algorithm;
+
+	/** Generation */
+
+	private final int generation;
+
+	/** Number of evaluations */
+
+	private final int numberOfEvaluations;
+
+	/** Copies of the inhabitants (unmodifiable) */
+
+	private final List<IIndividual> inhabitants;
+
+	/** Fitness values of inhabitants (NaN if fitness has no value) */
+
+	private final double [] fitnessValues;
+
+	/** Fitness comparator */
+
+	private final Comparator<IFitness> comparator;
+
+	/** Best individual */
+
+	private final IIndividual bestIndividual;
+
+	/** Worst individual */
+
+	private final IIndividual worstIndividual;
+
+	/** Median individual */
+
+	private final IIndividual medianIndividual;
+
+	/** Average fitness (NaN if some fitness has no value) */
+
+	private final double averageFitness;
+
+	/** Fitness variance (NaN if some fitness has no value) */
+
+	private final double fitnessVariance;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Takes a snapshot of an algorithm.
+	 *
+	 * @param algorithm Algorithm
+	 */
+
+	public PopulationSnapshot(PopulationAlgorithm algorithm)
+	{
+		super();
+		this.algorithm = algorithm;
+		this.generation = algorithm.getGeneration();
+		this.numberOfEvaluations = algorithm.getEvaluator().getNumberOfEvaluations();
+		// Copy inhabitants
+		List<IIndividual> source = algorithm.getInhabitants();
+		List<IIndividual> copies = new ArrayList<IIndividual>(source.size());
+		for (IIndividual ind : source) {
+			copies.add(ind.copy());
+		}
+		this.inhabitants = Collections.unmodifiableList(copies);
+		// Fitness values
+		this.fitnessValues = new double[inhabitants.size()];
+		double sum = 0.0, sum2 = 0.0;
+		for (int i=0; i<fitnessValues.length; i++) {
+			IFitness fitness = inhabitants.get(i).getFitness();
+			fitnessValues[i] =
+				fitness instanceof IValueFitness ? ((IValueFitness) fitness).getValue() : Double.NaN;
+			sum += fitnessValues[i];
+			sum2 += fitnessValues[i] * fitnessValues[i];
+		}
+		this.averageFitness = sum / fitnessValues.length;
+		this.fitnessVariance = sum2 / fitnessValues.length - averageFitness * averageFitness;
+		// Best, worst and median individuals
+		this.comparator = algorithm.getEvaluator().getComparator();
+		if (inhabitants.isEmpty()) {
+			this.bestIndividual = null;
+			this.worstIndividual = null;
+			this.medianIndividual = null;
+		}
+		else {
+			this.bestIndividual = IndividualStatistics.bestIndividual(inhabitants, comparator);
+			this.worstIndividual = IndividualStatistics.worstIndividual(inhabitants, comparator);
+			this.medianIndividual = IndividualStatistics.medianIndividual(inhabitants, comparator);
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Snapshot of the algorithm that fired an event. If the event carries a
+	 * snapshot, this snapshot is returned; otherwise, a new snapshot of the
+	 * source algorithm is taken.
+	 *
+	 * @param event Algorithm event
+	 *
+	 * @return Population snapshot
+	 */
+
+	public static PopulationSnapshot of(AlgorithmEvent event)
+	{
+		if (event instanceof SnapshotEvent) {
+			return ((SnapshotEvent) event).snapshot;
+		}
+		else {
+			return new PopulationSnapshot((PopulationAlgorithm) event.getAlgorithm());
+		}
+	}
+
+	/**
+	 * Event that carries this snapshot.
+	 *
+	 * @return Algorithm event
+	 */
+
+	public AlgorithmEvent toEvent()
+	{
+		return new SnapshotEvent(this);
+	}
+
+	// Getting properties
+
+	public final PopulationAlgorithm getAlgorithm()
+	{
+		return algorithm;
+	}
+
+	public final int getGeneration()
+	{
+		return generation;
+	}
+
+	public final int getNumberOfEvaluations()
+	{
+		return numberOfEvaluations;
+	}
+
+	public final List<IIndividual> getInhabitants()
+	{
+		return inhabitants;
+	}
+
+	/**
+	 * Fitness values of inhabitants (NaN for fitness objects that are not
+	 * IValueFitness).
+	 *
+	 * @return A copy of the fitness values
+	 */
+
+	public final double [] getFitnessValues()
+	{
+		return fitnessValues.clone();
+	}
+
+	public final Comparator<IFitness> getComparator()
+	{
+		return comparator;
+	}
+
+	public final IIndividual getBestIndividual()
+	{
+		return bestIndividual;
+	}
+
+	public final IIndividual getWorstIndividual()
+	{
+		return worstIndividual;
+	}
+
+	public final IIndividual getMedianIndividual()
+	{
+		return medianIndividual;
+	}
+
+	public final double getAverageFitness()
+	{
+		return averageFitness;
+	}
+
+	public final double getFitnessVariance()
+	{
+		return fitnessVariance;
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------------- Private classes
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Algorithm event with a snapshot.
+	 */
+
+	private static class SnapshotEvent extends AlgorithmEvent
+	{
+		private static final long serialVersionUID = 5209348866712460481L;
+
+		private final transient PopulationSnapshot snapshot;
+
+		SnapshotEvent(PopulationSnapshot snapshot)
+		{
+			super(snapshot.algorithm);
+			this.snapshot = snapshot;
+		}
+	}
+}
@@ -0,0 +1,328 @@
+package net.sf.jclec.algorithm.classic;
+
+import java.util.List;
+import java.util.ArrayList;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.sf.jclec.IIndividual;
+import net.sf.jclec.IAsyncEvaluator;
+import net.sf.jclec.IEvaluationCallback;
+
+import net.sf.jclec.base.FilteredMutator;
+import net.sf.jclec.base.AsyncEvaluatorAdapter;
+
+import org.apache.commons.lang.builder.EqualsBuilder;
+
+import org.apache.commons.configuration.Configuration;
+
+/**
+ * <strong><u>Async</u></strong>hronous <strong><u>S</u></strong>teady
+ * <strong><u>S</u></strong>tate algorithm.
+ *
+ * This algorithm keeps several breeding jobs in flight. A job selects parents,
+ * recombines and mutates them, and submits the sons to an asynchronous
+ * evaluator. As soon as all the sons of a job have been evaluated, they are
+ * inserted in the population with the same replacement scheme used by SS (the
+ * best individuals among parents and sons survive), and a new job is bred in
+ * its place. Thus, no worker thread waits for the slowest evaluation of a
+ * generation.
+ *
+ * Each iteration of this algorithm inserts the sons of one job, so the
+ * generation counter counts replacement steps. If the evaluator does not
+ * implement IAsyncEvaluator, it is wrapped in an AsyncEvaluatorAdapter.
+ */
+
+public class AsyncSS extends SS
+{
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------- Serialization constant
+	/////////////////////////////////////////////////////////////////
+
+	private static final long serialVersionUID = 3605178373829581740L;
+
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------------------- Properties
+	/////////////////////////////////////////////////////////////////
+
+	/** Number of breeding jobs in flight (0 means one per processor) */
+
+	protected int numberOfJobs;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------- Internal variables
+	/////////////////////////////////////////////////////////////////
+
+	/** Jobs whose sons have been evaluated */
+
+	protected transient BlockingQueue<Job> finishedJobs;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Empty (default) constructor
+	 */
+
+	public AsyncSS()
+	{
+		super();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	// Getting and setting properties
+
+	public final int getNumberOfJobs()
+	{
+		return numberOfJobs;
+	}
+
+	public final void setNumberOfJobs(int numberOfJobs)
+	{
+		this.numberOfJobs = numberOfJobs;
+	}
+
+	// IConfigure interface
+
+	/**
+	 * Configuration method.
+	 *
+	 * Configuration parameters for AsyncSS are those of SS plus:
+	 *
+	 * <ul>
+	 * <li>
+	 * <code>number-of-jobs: int (default 0)</code></p>
+	 * Number of breeding jobs in flight. 0 means one per processor
+	 * </li>
+	 * </ul>
+	 */
+
+	@Override
+	public void configure(Configuration settings)
+	{
+		// Call super.configure() method
+		super.configure(settings);
+		// Set number-of-jobs
+		int numberOfJobs = settings.getInt("number-of-jobs", 0);
+		setNumberOfJobs(numberOfJobs);
+	}
+
+	// java.lang.Object methods
+
+	@Override
+	public boolean equals(Object other)
+	{
+		if (other instanceof AsyncSS) {
+			AsyncSS cother = (AsyncSS) other;
+			EqualsBuilder eb = new EqualsBuilder();
+			// Call super method
+			eb.appendSuper(super.equals(other));
+			// Number of jobs
+			eb.append(numberOfJobs, cother.numberOfJobs);
+			// Return test result
+			return eb.isEquals();
+		}
+		else {
+			return false;
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// -------------------------------------------- Protected methods
+	/////////////////////////////////////////////////////////////////
+
+	// PopulationAlgorithm methods
+
+	/**
+	 * Create and evaluate the initial population, then start the
+	 * first breeding jobs.
+	 */
+
+	@Override
+	protected void doInit()
+	{
+		// Effective number of jobs
+		int jobs = numberOfJobs > 0 ? numberOfJobs : Runtime.getRuntime().availableProcessors();
+		// Asynchronous evaluator
+		if (!(evaluator instanceof IAsyncEvaluator)) {
+			AsyncEvaluatorAdapter adapter = new AsyncEvaluatorAdapter(evaluator);
+			adapter.setNumberOfThreads(jobs);
+			setEvaluator(adapter);
+		}
+		finishedJobs = new LinkedBlockingQueue<Job>();
+		// Create and evaluate individuals
+		super.doInit();
+		// Start breeding jobs
+		for (int i=0; i<jobs; i++) {
+			doSelection();
+			doGeneration();
+		}
+	}
+
+	/**
+	 * Insert the sons of the next finished job, then breed a new job.
+	 */
+
+	@Override
+	protected void doIterate()
+	{
+		generation++;
+		// Wait for a finished job
+		Job job;
+		try {
+			job = finishedJobs.take();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Algorithm interrupted", e);
+		}
+		if (job.failure != null) {
+			throw new IllegalStateException("Evaluation failed", job.failure);
+		}
+		pset = job.parents;
+		cset = job.sons;
+		// Do replacement
+		doReplacement();
+		// Do update
+		doUpdate();
+		// Breed a new job
+		doSelection();
+		doGeneration();
+		// Do control
+		doControl();
+	}
+
+	/**
+	 * Breed the sons of a new job and submit them to the evaluator.
+	 */
+
+	@Override
+	protected void doGeneration()
+	{
+		// Recombine parents
+		cset = recombinator.recombine(pset);
+		// Mutate sons
+		cset = mutator.mutate(cset);
+		// If mutator is a filtered mutator...
+		if (mutator instanceof FilteredMutator) {
+			FilteredMutator fmutator = (FilteredMutator) mutator;
+			for (IIndividual sterile : fmutator.getSterile())
+				cset.add(sterile.copy());
+		}
+		// Submit sons
+		Job job = new Job(pset, cset);
+		IAsyncEvaluator asyncEvaluator = (IAsyncEvaluator) evaluator;
+		for (IIndividual son : job.sons) {
+			asyncEvaluator.submit(son, job);
+		}
+		if (job.sons.isEmpty()) {
+			finishedJobs.add(job);
+		}
+		// Clear pset & cset
+		cset = pset = null;
+	}
+
+	/**
+	 * Remove from bset the parents of the actual job. Parents that have
+	 * been already replaced by another job are discarded.
+	 */
+
+	@Override
+	protected void doReplacement()
+	{
+		List<IIndividual> alive = new ArrayList<IIndividual>(pset.size());
+		for (IIndividual parent : pset) {
+			int bsetSize = bset.size();
+			for (int i=0; i<bsetSize; i++) {
+				if (bset.get(i) == parent) {
+					bset.remove(i);
+					alive.add(parent);
+					break;
+				}
+			}
+		}
+		pset = alive;
+	}
+
+	/**
+	 * Select the best individuals among parents and sons, as many as
+	 * parents were removed from bset.
+	 */
+
+	@Override
+	protected void doUpdate()
+	{
+		// Number of individuals to insert
+		int numberOfSurvivors = pset.size();
+		// Adding parents to cset
+		for (IIndividual ind : pset) {
+			cset.add(ind);
+		}
+		// Selecting best individuals
+		if (numberOfSurvivors > 0) {
+			cset = bettersSelector.select(cset, numberOfSurvivors);
+			// Add selected individuals to bset
+			bset.addAll(cset);
+		}
+		// Cleaning cset, pset
+		cset = pset = null;
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------ Breeding jobs
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Parents and sons of a breeding job. The job is queued as finished
+	 * when all its sons have been evaluated.
+	 */
+
+	protected class Job implements IEvaluationCallback
+	{
+		/** Selected parents */
+
+		protected final List<IIndividual> parents;
+
+		/** Sons being evaluated */
+
+		protected final List<IIndividual> sons;
+
+		/** Sons not evaluated yet */
+
+		protected final AtomicInteger pending;
+
+		/** Evaluation failure (if any) */
+
+		protected volatile Throwable failure;
+
+		/** Queue where this job is put when finished */
+
+		private final BlockingQueue<Job> queue;
+
+		public Job(List<IIndividual> parents, List<IIndividual> sons)
+		{
+			this.queue = finishedJobs;
+			this.parents = new ArrayList<IIndividual>(parents);
+			this.sons = new ArrayList<IIndividual>(sons);
+			this.pending = new AtomicInteger(sons.size());
+		}
+
+		public void evaluationCompleted(IIndividual ind)
+		{
+			if (pending.decrementAndGet() == 0) {
+				queue.add(this);
+			}
+		}
+
+		public void evaluationFailed(IIndividual ind, Throwable cause)
+		{
+			failure = cause;
+			evaluationCompleted(ind);
+		}
+	}
+}
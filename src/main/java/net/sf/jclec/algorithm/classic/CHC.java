@@ -16,6 +16,7 @@ import net.sf.jclec.util.random.IRandGenFactory;
 import net.sf.jclec.selector.BettersSelector;
 
 import net.sf.jclec.algorithm.PopulationAlgorithm;
+import net.sf.jclec.util.ComponentRegistry;
 
 import org.apache.commons.configuration.Configuration;
 import org.apache.commons.configuration.ConfigurationRuntimeException;
@@ -283,13 +284,13 @@ public class CHC extends PopulationAlgorithm
 				configuration.getString("distance[@type]");
 			// Distance class
 			Class<? extends IDistance> distanceClass = 
-				(Class<? extends IDistance>) Class.forName(distanceClassname);
+				(Class<? extends IDistance>) ComponentRegistry.forName(distanceClassname);
 			// Instance of IDistance object
-			IDistance distance = distanceClass.newInstance();
+			IDistance distance = ComponentRegistry.newInstance(distanceClass);
 			// Configure distance if necessary
 			if (distance instanceof IConfigure) {
 				// Extract distance configuration
-				Configuration distanceConfiguration = configuration.subset("distance");
+				Configuration distanceConfiguration = ComponentRegistry.subset(configuration, "distance");
 				// Configure species
 				((IConfigure) distance).configure(distanceConfiguration);
 			}
@@ -314,13 +315,13 @@ public class CHC extends PopulationAlgorithm
 				configuration.getString("recombinator[@type]");
 			// Recombinator class
 			Class<? extends IRecombinator> recombinatorClass = 
-				(Class<? extends IRecombinator>) Class.forName(recombinatorClassname);
+				(Class<? extends IRecombinator>) ComponentRegistry.forName(recombinatorClassname);
 			// Recombinator instance
-			IRecombinator recombinator = recombinatorClass.newInstance();
+			IRecombinator recombinator = ComponentRegistry.newInstance(recombinatorClass);
 			// Configure recombinator if necessary
 			if (recombinator instanceof IConfigure) {
 				// Extract recombinator configuration
-				Configuration recombinatorConfiguration = configuration.subset("recombinator");
+				Configuration recombinatorConfiguration = ComponentRegistry.subset(configuration, "recombinator");
 				// Configure species
 				((IConfigure) recombinator).configure(recombinatorConfiguration);
 			}
@@ -356,13 +357,13 @@ public class CHC extends PopulationAlgorithm
 			try{
 				// Mutator class
 				Class<? extends IMutator> mutatorClass = 
-					(Class<? extends IMutator>) Class.forName(mutatorClassname);
+					(Class<? extends IMutator>) ComponentRegistry.forName(mutatorClassname);
 				// Mutator instance
-				IMutator mutator = mutatorClass.newInstance();
+				IMutator mutator = ComponentRegistry.newInstance(mutatorClass);
 				// Configure mutator if necessary
 				if (mutator instanceof IConfigure) {
 					// Extract mutator configuration
-					Configuration mutatorConfiguration = configuration.subset("mutator");
+					Configuration mutatorConfiguration = ComponentRegistry.subset(configuration, "mutator");
 					// Configure mutator
 					((IConfigure) mutator).configure(mutatorConfiguration);
 				}
@@ -10,6 +10,7 @@ import net.sf.jclec.base.FilteredMutator;
 import net.sf.jclec.base.FilteredRecombinator;
 
 import net.sf.jclec.algorithm.PopulationAlgorithm;
+import net.sf.jclec.util.ComponentRegistry;
 
 import org.apache.commons.lang.builder.EqualsBuilder;
 
@@ -261,13 +262,13 @@ public class SG extends PopulationAlgorithm
 				configuration.getString("parents-selector[@type]");
 			// Species class
 			Class<? extends ISelector> parentsSelectorClass = 
-				(Class<? extends ISelector>) Class.forName(parentsSelectorClassname);
+				(Class<? extends ISelector>) ComponentRegistry.forName(parentsSelectorClassname);
 			// Species instance
-			ISelector parentsSelector = parentsSelectorClass.newInstance();
+			ISelector parentsSelector = ComponentRegistry.newInstance(parentsSelectorClass);
 			// Configure species if necessary
 			if (parentsSelector instanceof IConfigure) {
 				// Extract species configuration
-				Configuration parentsSelectorConfiguration = configuration.subset("parents-selector");
+				Configuration parentsSelectorConfiguration = ComponentRegistry.subset(configuration, "parents-selector");
 				// Configure species
 				((IConfigure) parentsSelector).configure(parentsSelectorConfiguration);
 			}
@@ -290,13 +291,13 @@ public class SG extends PopulationAlgorithm
 				configuration.getString("recombinator[@type]");
 			// Recombinator class
 			Class<? extends IRecombinator> recombinatorClass = 
-				(Class<? extends IRecombinator>) Class.forName(recombinatorClassname);
+				(Class<? extends IRecombinator>) ComponentRegistry.forName(recombinatorClassname);
 			// Recombinator instance
-			IRecombinator recombinator = recombinatorClass.newInstance();
+			IRecombinator recombinator = ComponentRegistry.newInstance(recombinatorClass);
 			// Configure recombinator if necessary
 			if (recombinator instanceof IConfigure) {
 				// Extract recombinator configuration
-				Configuration recombinatorConfiguration = configuration.subset("recombinator");
+				Configuration recombinatorConfiguration = ComponentRegistry.subset(configuration, "recombinator");
 				// Configure species
 				((IConfigure) recombinator).configure(recombinatorConfiguration);
 			}
@@ -322,13 +323,13 @@ public class SG extends PopulationAlgorithm
 				configuration.getString("mutator[@type]");
 			// Recombinator class
 			Class<? extends IMutator> mutatorClass = 
-				(Class<? extends IMutator>) Class.forName(mutatorClassname);
+				(Class<? extends IMutator>) ComponentRegistry.forName(mutatorClassname);
 			// Recombinator instance
-			IMutator mutator = mutatorClass.newInstance();
+			IMutator mutator = ComponentRegistry.newInstance(mutatorClass);
 			// Configure recombinator if necessary
 			if (mutator instanceof IConfigure) {
 				// Extract recombinator configuration
-				Configuration mutatorConfiguration = configuration.subset("mutator");
+				Configuration mutatorConfiguration = ComponentRegistry.subset(configuration, "mutator");
 				// Configure species
 				((IConfigure) mutator).configure(mutatorConfiguration);
 			}
@@ -12,6 +12,8 @@ import net.sf.jclec.base.FilteredRecombinator;
 import net.sf.jclec.algorithm.PopulationAlgorithm;
 
 import net.sf.jclec.selector.BettersSelector;
+import net.sf.jclec.util.ComponentRegistry;
+import net.sf.jclec.util.PopulationSets;
 
 import org.apache.commons.lang.builder.EqualsBuilder;
 
@@ -162,13 +164,13 @@ public class SS extends PopulationAlgorithm
 				settings.getString("parents-selector[@type]");
 			// Species class
 			Class<? extends ISelector> parentsSelectorClass = 
-				(Class<? extends ISelector>) Class.forName(parentsSelectorClassname);
+				(Class<? extends ISelector>) ComponentRegistry.forName(parentsSelectorClassname);
 			// Species instance
-			ISelector parentsSelector = parentsSelectorClass.newInstance();
+			ISelector parentsSelector = ComponentRegistry.newInstance(parentsSelectorClass);
 			// Configure species if necessary
 			if (parentsSelector instanceof IConfigure) {
 				// Extract species configuration
-				Configuration parentsSelectorConfiguration = settings.subset("parents-selector");
+				Configuration parentsSelectorConfiguration = ComponentRegistry.subset(settings, "parents-selector");
 				// Configure species
 				((IConfigure) parentsSelector).configure(parentsSelectorConfiguration);
 			}
@@ -191,12 +193,12 @@ public class SS extends PopulationAlgorithm
 				settings.getString("recombinator[@type]");
 			// Recombinator class
 			Class<? extends IRecombinator> recombinatorClass = 
-				(Class<? extends IRecombinator>) Class.forName(recombinatorClassname);
+				(Class<? extends IRecombinator>) ComponentRegistry.forName(recombinatorClassname);
 			// Recombinator instance
-			IRecombinator recombinator = recombinatorClass.newInstance();
+			IRecombinator recombinator = ComponentRegistry.newInstance(recombinatorClass);
 			// Configure recombinator
 			if (recombinator instanceof IConfigure) {
-				Configuration recombinatorSettings = settings.subset("recombinator");
+				Configuration recombinatorSettings = ComponentRegistry.subset(settings, "recombinator");
 				((IConfigure) recombinator).configure(recombinatorSettings);
 			}
 			// Set recombinator
@@ -218,12 +220,12 @@ public class SS extends PopulationAlgorithm
 				settings.getString("mutator[@type]");
 			// Recombinator class
 			Class<? extends IMutator> mutatorClass = 
-				(Class<? extends IMutator>) Class.forName(mutatorClassname);
+				(Class<? extends IMutator>) ComponentRegistry.forName(mutatorClassname);
 			// Recombinator instance
-			IMutator mutator = mutatorClass.newInstance();
+			IMutator mutator = ComponentRegistry.newInstance(mutatorClass);
 			// Configure mutator
 			if (mutator instanceof IConfigure) {
-				Configuration mutatorSettings = settings.subset("mutator");
+				Configuration mutatorSettings = ComponentRegistry.subset(settings, "mutator");
 				((IConfigure) mutator).configure(mutatorSettings);
 			}
 			// Set mutator
@@ -299,9 +301,7 @@ public class SS extends PopulationAlgorithm
 	protected void doReplacement() 
 	{
 		// Remove all parents from bset
-		for (IIndividual ind : pset) {
-			bset.remove(ind);
-		}
+		PopulationSets.removeEach(bset, pset);
 	}
 
 	@Override
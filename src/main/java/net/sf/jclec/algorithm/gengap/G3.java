@@ -12,6 +12,7 @@ import net.sf.jclec.selector.RouletteSelector;
 
 import net.sf.jclec.algorithm.PopulationAlgorithm;
 import net.sf.jclec.base.RepeatRecombinator;
+import net.sf.jclec.util.ComponentRegistry;
 
 import org.apache.commons.lang.builder.EqualsBuilder;
 
@@ -242,13 +243,13 @@ public class G3 extends PopulationAlgorithm
 				configuration.getString("recombinator[@type]");
 			// Recombinator class
 			Class<? extends IRecombinator> recombinatorClass = 
-				(Class<? extends IRecombinator>) Class.forName(recombinatorClassname);
+				(Class<? extends IRecombinator>) ComponentRegistry.forName(recombinatorClassname);
 			// Recombinator instance
-			IRecombinator recombinator = recombinatorClass.newInstance();
+			IRecombinator recombinator = ComponentRegistry.newInstance(recombinatorClass);
 			// Configure recombinator if necessary
 			if (recombinator instanceof IConfigure) {
 				// Extract recombinator configuration
-				Configuration recombinatorConfiguration = configuration.subset("recombinator");
+				Configuration recombinatorConfiguration = ComponentRegistry.subset(configuration, "recombinator");
 				// Configure species
 				((IConfigure) recombinator).configure(recombinatorConfiguration);
 			}
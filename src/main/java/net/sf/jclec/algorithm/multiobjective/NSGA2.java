@@ -1,11 +1,11 @@
 package net.sf.jclec.algorithm.multiobjective;
 
+import java.util.Arrays;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.Comparator;
-import java.util.Hashtable;
 import java.util.List;
 
+import net.sf.jclec.IConfigure;
 import net.sf.jclec.IEvaluator;
 import net.sf.jclec.IFitness;
 import net.sf.jclec.IIndividual;
@@ -14,12 +14,19 @@ import net.sf.jclec.IRecombinator;
 import net.sf.jclec.algorithm.PopulationAlgorithm;
 import net.sf.jclec.base.FilteredMutator;
 import net.sf.jclec.base.FilteredRecombinator;
-import net.sf.jclec.fitness.CompositeFitness;
-import net.sf.jclec.fitness.IValueFitness;
 import net.sf.jclec.fitness.ParetoComparator;
 import net.sf.jclec.fitness.ValueFitnessComparator;
+import net.sf.jclec.util.ComponentRegistry;
+import net.sf.jclec.util.PopulationSets;
+import net.sf.jclec.util.pareto.CrowdingDistance;
+import net.sf.jclec.util.pareto.INonDominatedSorting;
+import net.sf.jclec.util.pareto.NonDominatedSorting;
+import net.sf.jclec.util.pareto.ParallelDominance;
+import net.sf.jclec.util.random.IRandGen;
+import net.sf.jclec.util.random.IRandGenFactory;
 
 import org.apache.commons.configuration.Configuration;
+import org.apache.commons.configuration.ConfigurationRuntimeException;
 
 /**
  * "NSGA-II" algorithm.
@@ -69,14 +76,38 @@ public class NSGA2 extends PopulationAlgorithm
 
 	protected FilteredRecombinator recombinator;
 
-	/** It stores the variables associated to each individual of NSGAII algorithm  */
-
-	Hashtable<IIndividual, PropertyIndividualsNSGA2> individualProperty = new Hashtable<IIndividual, PropertyIndividualsNSGA2>();
-
 	/** Maximize fitness */
 
 	private boolean maximize = true;
 
+	/** Non-dominated sorting (chosen by the number of objectives if null) */
+
+	protected INonDominatedSorting nonDominatedSorting;
+
+	/** Parallel crowding distance computation (sequential if null) */
+
+	protected ParallelDominance parallelDominance;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------- Internal variables
+	/////////////////////////////////////////////////////////////////
+
+	/** Random generator (used in parents selection) */
+
+	protected IRandGen randgen;
+
+	/** Front of each individual in bset (0 is the first front) */
+
+	protected int [] rank;
+
+	/** Crowding distance of each individual in bset */
+
+	protected double [] crowding;
+
+	/** Population whose fronts and crowding distances are in rank and crowding */
+
+	protected List<IIndividual> rankedSet;
+
 	/////////////////////////////////////////////////////////////////
 	// ------------------------------------------------- Constructors
 	/////////////////////////////////////////////////////////////////
@@ -144,6 +175,22 @@ public class NSGA2 extends PopulationAlgorithm
 		this.mutator.setDecorated(mutator);
 	}
 
+	/**
+	 * Once the randGenFactory has been set, set the random generator
+	 * used in parents selection.
+	 * 
+	 * {@inheritDoc} 
+	 */
+
+	@Override
+	public void setRandGenFactory(IRandGenFactory randGenFactory)
+	{
+		// Call super method
+		super.setRandGenFactory(randGenFactory);
+		// Set the random generator
+		randgen = randGenFactory.createRandGen();
+	}
+
 	/**
 	 * Set individuals evaluator.
 	 *  
@@ -203,13 +250,114 @@ public class NSGA2 extends PopulationAlgorithm
 		this.maximize = maximize;
 	}
 
+	/**
+	 * Access to the non-dominated sorting algorithm
+	 * 
+	 * @return Non-dominated sorting (null if it is chosen by the number
+	 *         of objectives)
+	 */
+
+	public INonDominatedSorting getNonDominatedSorting() 
+	{
+		return nonDominatedSorting;
+	}
+
+	/**
+	 * Sets the non-dominated sorting algorithm
+	 * 
+	 * @param nonDominatedSorting New non-dominated sorting (null to choose
+	 *        it by the number of objectives)
+	 */
+
+	public void setNonDominatedSorting(INonDominatedSorting nonDominatedSorting) 
+	{
+		this.nonDominatedSorting = nonDominatedSorting;
+	}
+
+	/**
+	 * Access to the parallel computation of crowding distances
+	 * 
+	 * @return Parallel dominance (null if crowding distances are 
+	 *         computed sequentially)
+	 */
+
+	public ParallelDominance getParallelDominance() 
+	{
+		return parallelDominance;
+	}
+
+	/**
+	 * Sets the parallel computation of crowding distances
+	 * 
+	 * @param parallelDominance New parallel dominance (null to compute
+	 *        crowding distances sequentially)
+	 */
+
+	public void setParallelDominance(ParallelDominance parallelDominance) 
+	{
+		this.parallelDominance = parallelDominance;
+	}
+
 	/////////////////////////////////////////////////////////////////
 	// ---------------------------- Implementing IConfigure interface
 	/////////////////////////////////////////////////////////////////
 
+	/**
+	 * Configuration parameters for NSGA2 are those of PopulationAlgorithm
+	 * and:
+	 * 
+	 * <ul>
+	 * <li>
+	 * <code>non-dominated-sorting: INonDominatedSorting (complex, optional)</code></p>
+	 * Non-dominated sorting algorithm. If it is not set, it is chosen by 
+	 * the number of objectives
+	 * </li><li>
+	 * <code>parallel-dominance: ParallelDominance (complex, optional)</code></p>
+	 * Computes crowding distances of different fronts and objectives in
+	 * parallel. It is used if <code>parallel-dominance[@number-of-threads]</code>
+	 * is set
+	 * </li>
+	 * </ul>
+	 */
+
+	@SuppressWarnings("unchecked")
 	public void configure(Configuration settings)
 	{
 		super.configure(settings);
+		// Non-dominated sorting
+		if (settings.containsKey("non-dominated-sorting[@type]")) {
+			try {
+				// Non-dominated sorting classname
+				String sortingClassname = 
+					settings.getString("non-dominated-sorting[@type]");
+				// Non-dominated sorting class
+				Class<? extends INonDominatedSorting> sortingClass = 
+					(Class<? extends INonDominatedSorting>) ComponentRegistry.forName(sortingClassname);
+				// Non-dominated sorting instance
+				INonDominatedSorting sorting = ComponentRegistry.newInstance(sortingClass);
+				// Configure non-dominated sorting if necessary
+				if (sorting instanceof IConfigure) {
+					((IConfigure) sorting).configure(ComponentRegistry.subset(settings, "non-dominated-sorting"));
+				}
+				// Set non-dominated sorting
+				setNonDominatedSorting(sorting);
+			} 
+			catch (ClassNotFoundException e) {
+				throw new ConfigurationRuntimeException("Illegal non-dominated sorting classname");
+			} 
+			catch (InstantiationException e) {
+				throw new ConfigurationRuntimeException("Problems creating an instance of non-dominated sorting", e);
+			} 
+			catch (IllegalAccessException e) {
+				throw new ConfigurationRuntimeException("Problems creating an instance of non-dominated sorting", e);
+			}
+		}
+		// Parallel crowding distances
+		if (settings.containsKey("parallel-dominance[@number-of-threads]")) {
+			ParallelDominance parallelDominance = new ParallelDominance();
+			parallelDominance.configure(ComponentRegistry.subset(settings, "parallel-dominance"));
+			setParallelDominance(parallelDominance);
+		}
 	}	
 
 	/////////////////////////////////////////////////////////////////
@@ -245,7 +393,7 @@ public class NSGA2 extends PopulationAlgorithm
 	 * distance of two points on either side of this point along each of 
 	 * the objetives. This quantity serves as an estimate of the 
 	 * perimeter of the cuboid formed by using the nearest neighbors
-	 * as the vertices (crowdingDistanceAssignment).
+	 * as the vertices (CrowdingDistance).
 	 * 
 	 * Step3: To update the new population, assigning individual from
 	 * the first front towards the last front, while the size
@@ -268,56 +416,50 @@ public class NSGA2 extends PopulationAlgorithm
 	protected void doUpdate() {
 
 		// Unite the populations (cSetName and bSetName)
-		List<IIndividual> aset = new ArrayList<IIndividual> ();
-
-		aset.addAll(bset);
-
-		for(IIndividual ind : cset)
-			if(!aset.contains(ind))
-				aset.add((IIndividual) ind);
+		List<IIndividual> aset = PopulationSets.union(bset, cset);
 
-		//Clear the list of fronts
-		List<List<IIndividual>> indFronts  = new ArrayList<List<IIndividual>>();
-
-		//Clear the table
-		individualProperty.clear();
+		// Objective values (minimized)
+		double [][] objectives = 
+			NonDominatedSorting.objectives(aset, paretoComparator.getComponentComparators());
 
 		//The individuals are sorted by fronts
-		indFronts = fastNonDominatedSort(aset);
-
-		//Assigment to each individual the value of the perimeter 
-		//of its bucket by means of the previous and later 
-		//individuals of each front
-		for(List<IIndividual> ind : indFronts) 
-			crowdingDistanceAssignment(ind);
+		int [][] fronts = NonDominatedSorting.fronts(fastNonDominatedSort(objectives));
 
 		//We set the new population
-		List<IIndividual> newSet = new ArrayList<IIndividual>();
-		int size =  bset.size();
-		int index = 0;
-
-		// The new population is created with the indiviudos of the first fronts 
-		while((newSet.size() + indFronts.get(index).size()) < size )
+		int size = bset.size();
+		List<IIndividual> newSet = new ArrayList<IIndividual>(size);
+		rank = new int[size];
+		crowding = new double[size];
+
+		// Fronts that enter the new population
+		int needed = 0;
+		for(int filled = 0; needed < fronts.length && filled < size; needed++)
+			filled += fronts[needed].length;
+		double [][] frontsCrowding = crowdingDistances(objectives, Arrays.copyOf(fronts, needed));
+
+		// The new population is created with the individuals of the first 
+		// fronts. The last front that fits is truncated by decreasing 
+		// crowding distance
+		for(int k=0; k<needed; k++)
 		{
-			newSet.addAll(indFronts.get(index));
-			index++;
+			double [] frontCrowding = frontsCrowding[k];
+			int [] order = CrowdingDistance.decreasingOrder(frontCrowding);
+			int fill = Math.min(order.length, size - newSet.size());
+			for(int j=0; j<fill; j++)
+			{
+				rank[newSet.size()] = k;
+				crowding[newSet.size()] = frontCrowding[order[j]];
+				newSet.add(aset.get(fronts[k][order[j]]));
+			}
 		}
 
-		int fill = size-newSet.size();
-
-		sortedCrowdingDistanceAssignment(indFronts.get(index));
-
-		for(int j=0; j<fill; j++)
-			newSet.add(indFronts.get(index).get(j));
-
 		//Sets new nodominated set
 		paretoFront.clear();
 
-		for(IIndividual ind : indFronts.get(0))
-			if(!paretoFront.contains(ind))
-				paretoFront.add(ind);
+		for(int i : fronts[0])
+			paretoFront.add(aset.get(i));
 
-		bset = newSet;
+		bset = rankedSet = newSet;
 
 		// Clear pset & rset
 		cset = pset = null;
@@ -338,7 +480,9 @@ public class NSGA2 extends PopulationAlgorithm
 	 * belong to the same front, then we prefer the solution that is located in a lesser 
 	 * crowded region.
 	 * 
-	 * @param group Individuals set to select
+	 * @param group Individuals set to select (bset, whose fronts and
+	 *        crowding distances are in rank and crowding, or are computed
+	 *        if they are not)
 	 * 
 	 * @return Selected individuals
 	 * 
@@ -346,10 +490,13 @@ public class NSGA2 extends PopulationAlgorithm
 
 	private List<IIndividual> select(List<IIndividual> group)
 	{
+		// Fronts and crowding distances are missing or stale if the
+		// population has been set (as when resuming from a checkpoint)
+		if (rankedSet != group || rank == null || rank.length != group.size()) {
+			rank(group);
+		}
 		// Set the selection parameters
 		int tsize = 2;
-		PropertyIndividualsNSGA2 propTmp;
-		PropertyIndividualsNSGA2 propTmp2;
 		//Result of the selection
 		ArrayList<IIndividual> selection = new ArrayList<IIndividual>();
 
@@ -368,22 +515,15 @@ public class NSGA2 extends PopulationAlgorithm
 		for (int i=0; i<grpsiz-1; i++)
 		{
 			// Random selected individual
-			tmpNum = randGenFactory.createRandGen().choose(i,grplm1);
-			IIndividual tmp = group.get(individuos[tmpNum]);
-			propTmp = individualProperty.get(tmp);
+			tmpNum = randgen.choose(i,grplm1);
+			int tmp = individuos[tmpNum];
 
 			// Binary Tournament
 			for (int j=1; j<tsize; j++) 
 			{
-				tmp2Num = randGenFactory.createRandGen().choose(i,grplm1);
-				IIndividual tmp2 = group.get(individuos[tmp2Num]);
-				propTmp2 = individualProperty.get(tmp2);
-				if( propTmp.getFront() > propTmp2.getFront())
-				{
-					tmp = tmp2;
-					tmpNum = tmp2Num;
-				}
-				else if (propTmp.getFront() == propTmp2.getFront() && propTmp.getCubePerimeter() < propTmp2.getCubePerimeter())
+				tmp2Num = randgen.choose(i,grplm1);
+				int tmp2 = individuos[tmp2Num];
+				if( rank[tmp] > rank[tmp2] || (rank[tmp] == rank[tmp2] && crowding[tmp] < crowding[tmp2]))
 				{
 					tmp = tmp2;
 					tmpNum = tmp2Num;
@@ -391,7 +531,7 @@ public class NSGA2 extends PopulationAlgorithm
 			}
 
 			// Individual added to the list
-			selection.add(tmp);
+			selection.add(group.get(tmp));
 
 			//It is eliminated the selected individual, so that 
 			// it does not become to select again
@@ -404,41 +544,6 @@ public class NSGA2 extends PopulationAlgorithm
 		return selection;
 	}
 
-	/**
-	 * 
-	 * Decreasing Sort the individuals of same front, according to the
-	 * perimeter 
-
-	 * @param front individuals list of same front
-	 * 
-	 */
-
-	private void sortedCrowdingDistanceAssignment(List<IIndividual> front)
-	{
-		// Properties of the individuals
-		PropertyIndividualsNSGA2 prop1;
-		PropertyIndividualsNSGA2 prop2;
-
-		//Sort by the property of the perimeter of the bucket
-		for(int i=0; i<front.size(); i++)
-		{
-			prop1 = individualProperty.get(front.get(i));
-
-			for(int j=i+1; j<front.size(); j++)
-			{
-				prop2 = individualProperty.get(front.get(j));
-
-				if(prop1.getCubePerimeter() < prop2.getCubePerimeter())
-				{
-					IIndividual auxInd = front.get(j);
-					front.remove(j);
-					front.add(i, auxInd);
-					prop1 = prop2;
-				}					
-			}
-		}
-	}
-
 	/**
 	 * 
 	 * Sort the individual by nondominated fronts, of this way, the 
@@ -448,353 +553,63 @@ public class NSGA2 extends PopulationAlgorithm
 	 * eliminated the individuals that belong to the front1, 
 	 * and so on.
 	 * 
-	 * @param pob The population which is going to order by front
+	 * @param objectives Objective values of the population which is going 
+	 *        to order by front
 	 * 
-	 * @return auxFront The population organizated by fronts
+	 * @return Front of each individual (0 is the first front)
 	 */
 
-	private List<List<IIndividual>> fastNonDominatedSort(List<IIndividual> pob)
+	private int [] fastNonDominatedSort(double [][] objectives)
 	{
-		//It is stored the nondominated individuals in each front
-		List<IIndividual> auxiliarDominated = new ArrayList<IIndividual>(); 
-		//It is stored the individuals belong to each front
-		List<IIndividual> auxiliarFront = new ArrayList<IIndividual>();
-		//Specific properties of the individuals of NSGAII algorithm 
-		PropertyIndividualsNSGA2 [] propInd = new PropertyIndividualsNSGA2[pob.size()];
-		// It is stored the individuals organized in fronts
-		List<List<IIndividual>> auxiliarListFronts  = new ArrayList<List<IIndividual>>();
-
-		// It is initialized an object of properties for each 
-		// one of the individuals
-		for(int i=0; i<pob.size();i++)
-			propInd[i] = new PropertyIndividualsNSGA2();
-
-		//It is established the parameters of each individuals.
-		//These are the number of individuals that they dominate and the 
-		//number of individuals that dominate to him 
-		for(int i=0; i<pob.size(); i++) 
-		{
-			for(int j=0; j<pob.size(); j++)
-			{
-				// The first step is to calculate the number of individuals 
-				// which dominate each individual
-
-				switch(paretoComparator.compare((CompositeFitness)pob.get(i).getFitness(), (CompositeFitness) pob.get(j).getFitness()))
-				{
-				//if the result is equal to 1 it means that i dominates j
-				case 1:
-					auxiliarDominated.add(pob.get(j));
-					break;
-
-					//if the result is equal to -1 it means that j dominates i
-				case -1:
-					propInd[i].setDomainedBy(propInd[i].getDomainedBy()+1);
-					break;
-
-					//if the result is equal to 0 there isn`t relation of "dominancia" 
-				case 0:
-					break;
-				}
-			}
-
-			//the list of dominated individuals is added to 
-			//the general list
-			propInd[i].setDominatedList(auxiliarDominated);
-			//The auxiliar elements are eliminated
-			auxiliarDominated.clear();
-
-			// If the individual is not dominated by any other, 
-			// it sets that	the individual belongs to the first front
-			if (propInd[i].getDomainedBy() == 0)
-			{
-				propInd[i].setFront(1);
-				auxiliarFront.add(pob.get(i));
-
-			}
-			// It is indexed each property of the individual with same himself
-			individualProperty.put(pob.get(i), propInd[i]);
+		INonDominatedSorting sorting = nonDominatedSorting;
+		if (sorting == null) {
+			sorting = NonDominatedSorting.forObjectives(paretoComparator.getComponentComparators().length);
 		}
-
-		//It is added the individuals that belong to the first front
-		List<IIndividual> tmp = new ArrayList<IIndividual>();
-		tmp.addAll(auxiliarFront);
-		auxiliarListFronts.add(tmp);
-
-		//It is initialized the necessary variables
-		int numFront = 0;
-		List<IIndividual> previousFront;
-		PropertyIndividualsNSGA2 propFrente, propDominatedInd;
-
-		//It is established the front to which each individual belongs
-		while (auxiliarListFronts.get(numFront).size() != 0)
-		{
-			auxiliarFront.clear();
-			previousFront = auxiliarListFronts.get(numFront); 
-
-			for(int i=0; i < previousFront.size(); i++)
-			{
-				propFrente = individualProperty.get(previousFront.get(i));
-				for(int j=0; j < (propFrente.getDominatedList()).size(); j++)
-				{
-					propDominatedInd = individualProperty.get((propFrente.getDominatedList()).get(j));
-
-					propDominatedInd.setDomainedBy(propDominatedInd.getDomainedBy() - 1);
-
-					if(propDominatedInd.getDomainedBy() == 0)
-					{
-						propDominatedInd.setFront(numFront + 1);
-						auxiliarFront.add((propFrente.getDominatedList()).get(j));
-					}
-				}
-			}
-
-			numFront++;
-			tmp = new ArrayList<IIndividual>();
-			tmp.addAll(auxiliarFront);
-			auxiliarListFronts.add(tmp);
-		}
-
-		// It is eliminate the last element
-		auxiliarListFronts.remove(auxiliarListFronts.size()-1);
-
-		return auxiliarListFronts;
+		return sorting.sort(objectives);
 	}
 
 	/**
-	 * Compute an estimate of the density of solution surronunding a
-	 * particular solution in the same front, we calculate the average
-	 * distance of two points on either side of this point along each of 
-	 * the objetives. This quantity serves as an estimate of the 
-	 * perimeter of the cuboid formed by using the nearest neighbors
-	 * as the vertices.
+	 * Computes the front and crowding distance of each individual in a
+	 * population.
 	 * 
-	 *@param front The individuals of front modify theirs estimation
-	 *of the density based in parameter of cuboPerimeter
+	 * @param group Population
 	 */
-	private void crowdingDistanceAssignment(List<IIndividual> front)
-	{
-		List<IIndividual> sortedFront;
-		double auxDouble, fMax, fMin;
-		int frontSize = front.size();
-		int numberObjectives = ((CompositeFitness) (front.get(0)).getFitness()).getComponents().length;
-
-		//The parameter that represents the perimeter of the
-		//bucket is initialized to 0.
-		for(int i=0; i<frontSize; i++)
-			individualProperty.get(front.get(i)).setCuboPerimeter(0);
-
-		
-		//For each objetive 'm' 
-		for(int objective=0; objective<numberObjectives; objective++)
-		{
-			// Sort the individuals of this front by the objective
-			sortedFront = sortFronts(front, objective);
-
-			// The last and first individual have a infinite value
-			individualProperty.get(sortedFront.get(0)).setCuboPerimeter(Double.MAX_VALUE);	
-			individualProperty.get(sortedFront.get(frontSize-1)).setCuboPerimeter(Double.MAX_VALUE);
 
-			// Maximum and minimum of objective function
-			fMin = ((IValueFitness) ((CompositeFitness) (sortedFront.get(0)).getFitness()).getComponent(objective)).getValue();
-			fMax = ((IValueFitness) ((CompositeFitness) (sortedFront.get(frontSize - 1)).getFitness()).getComponent(objective)).getValue();
-
-			if(fMin!=fMax){
-				for(int i=1; i<frontSize-1; i++)
-				{
-					auxDouble = Math.abs( ((IValueFitness) ((CompositeFitness) (sortedFront.get(i+1)).getFitness()).getComponent(objective)).getValue() - ((IValueFitness) ((CompositeFitness) (sortedFront.get(i-1)).getFitness()).getComponent(objective)).getValue());
-					auxDouble = auxDouble / Math.abs(fMax - fMin);
-					individualProperty.get(sortedFront.get(i)).setCuboPerimeter(individualProperty.get(front.get(i)).getCubePerimeter() + auxDouble);
-				}
+	private void rank(List<IIndividual> group)
+	{
+		double [][] objectives = 
+			NonDominatedSorting.objectives(group, paretoComparator.getComponentComparators());
+		int [][] fronts = NonDominatedSorting.fronts(fastNonDominatedSort(objectives));
+		double [][] frontsCrowding = crowdingDistances(objectives, fronts);
+		rank = new int[group.size()];
+		crowding = new double[group.size()];
+		for (int k=0; k<fronts.length; k++) {
+			for (int j=0; j<fronts[k].length; j++) {
+				rank[fronts[k][j]] = k;
+				crowding[fronts[k][j]] = frontsCrowding[k][j];
 			}
 		}
+		rankedSet = group;
 	}
 
-
 	/**
+	 * Crowding distances of the members of several fronts.
 	 * 
-	 * Sort the list of individuals according to the objective function 
-	 * which is indicated by function argument.
-	 * 
-	 * @param source, List of individuals which are going to order by the
-	 * objetive function indicated
-	 * @param numObj Number which represents the function objective which 
-	 * is used.
+	 * @param objectives Objective values of the population
+	 * @param fronts Indexes of the members of each front
 	 * 
-	 * @return the list of individuals sorted accordint to objective function (numObj)
+	 * @return Crowding distances of the members of each front
 	 */
 
-	private List<IIndividual> sortFronts(List<IIndividual> source, int numObj)
+	private double [][] crowdingDistances(double [][] objectives, int [][] fronts)
 	{
-		// Selection result
-		List<IIndividual> result = new ArrayList<IIndividual>(source);
-
-		//Sort in increasing values of the criteria 'numObj'
-		ComparatorByObjectives comparatorObjectives = new ComparatorByObjectives();
-		comparatorObjectives.setNumberObjective(numObj);
-		Collections.sort(result, comparatorObjectives.comparatorByObjectives);
-
-		// Return the result
-		return result;
-	}
-
-	/**
-	 * Properties of the NSGA2 individuals
-	 * 
-	 * @author Amelia Zafra Gi?oemez
-	 *
-	 * Revised by: Josi?oe Mari?oea Luna Ariza
-	 */
-
-	private class PropertyIndividualsNSGA2 
-	{
-		////////////////////////////////////////////////////////////////////
-		// ------------------------------------------------------ Properties
-		////////////////////////////////////////////////////////////////////
-
-		/** Front of individual */
-
-		private int front;
-
-		/** Perimeter of the bucket formed by the vertices of its neighbours */
-
-		private double cuboPerimeter;
-
-		/** Number of individual which dominate it  */
-
-		private int domainedBy;
-
-		/** Individual list which are dominated by it */
-
-		protected List<IIndividual> dominatedList = new ArrayList<IIndividual>();
-
-		/////////////////////////////////////////////////////////////////
-		// ------------------------------------------------- Constructors
-		/////////////////////////////////////////////////////////////////
-
-		public PropertyIndividualsNSGA2()
-		{
-			this.domainedBy = 0;
-			this.cuboPerimeter = 0.0;
-			this.front = 0;
-			this.dominatedList.clear();
+		if (parallelDominance != null) {
+			return parallelDominance.crowding(objectives, fronts);
 		}
-
-		/////////////////////////////////////////////////////////////////
-		// ------------------------------- Setting and getting properties
-		/////////////////////////////////////////////////////////////////
-
-		/**
-		 * Set the new front value.
-		 *
-		 * @param front New front value.
-		 */
-
-		public void setFront(int front)
-		{
-			this.front = front;
+		double [][] result = new double[fronts.length][];
+		for (int k=0; k<fronts.length; k++) {
+			result[k] = CrowdingDistance.crowding(objectives, fronts[k]);
 		}
-
-		/**
-		 * Return the value de front.
-		 *
-		 * @return front of individual.
-		 */
-
-		public int getFront()
-		{
-			return this.front;
-		}
-
-		/**
-		 * Set the new value of bucket perimeter formed by the vertices of 
-		 * its neighbours closest 
-		 *
-		 * @param cuboPerimeter New value of bucket perimeter.
-		 */
-
-		public void setCuboPerimeter(double cuboPerimeter)
-		{
-			this.cuboPerimeter = cuboPerimeter;
-		}
-
-		/**
-		 * Return the value of bucket perimeter.
-		 *
-		 * @return bucket perimeter forme by its neighbours.
-		 */
-
-		public double getCubePerimeter()
-		{
-			return this.cuboPerimeter;
-		}
-
-		/**
-		 * Set the new value of individuals number which dominate it.
-		 *
-		 * @param domainedBy New value of individual number which dominate it.
-		 */
-
-		public void setDomainedBy(int domainedBy)
-		{
-			this.domainedBy = domainedBy;
-		}
-
-		/**
-		 * Return the value of individuals number which dominate it.
-		 *
-		 * @return domainedBy number of individuals which dominate it.
-		 */
-
-		public int getDomainedBy()
-		{
-			return this.domainedBy;
-		}
-
-		/**
-		 * Set the list of individuals which are dominated by current individual.
-		 *
-		 * @param dominatedList New dominated individual list.
-		 */
-
-		public void setDominatedList(List<IIndividual> dominatedList)
-		{
-			this.dominatedList.addAll(dominatedList);
-		}
-
-		/**
-		 * Return list of dominated individuals.
-		 *
-		 * @return Dominated Individual List.
-		 */
-
-		public List<IIndividual> getDominatedList()
-		{
-			return this.dominatedList;
-		}
-	}
-
-	/**
-	 *  
-	 *  Compare two individuals according to objective function 
-	 *  indicated.
-	 *  
-	 */
-	private class ComparatorByObjectives
-	{
-		private int numberObjective;
-
-		public void setNumberObjective(int numberObjective)
-		{
-			this.numberObjective = numberObjective;
-		}
-
-		Comparator<IIndividual> comparatorByObjectives = new Comparator<IIndividual>()
-				{
-			public int compare(IIndividual arg0, IIndividual arg1) 
-			{
-				return paretoComparator.getComponentComparators()[numberObjective].compare(((CompositeFitness) arg0.getFitness()).getComponent(numberObjective), ((CompositeFitness) arg1.getFitness()).getComponent(numberObjective));
-			}		
-				};
-
+		return result;
 	}
-}
\ No newline at end of file
+}
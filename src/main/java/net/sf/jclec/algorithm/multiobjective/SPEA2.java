@@ -1,7 +1,6 @@
 package net.sf.jclec.algorithm.multiobjective;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
 
@@ -20,6 +19,12 @@ import net.sf.jclec.fitness.IValueFitness;
 import net.sf.jclec.fitness.ParetoComparator;
 import net.sf.jclec.fitness.ValueFitnessComparator;
 import net.sf.jclec.selector.WorsesSelector;
+import net.sf.jclec.util.ComponentRegistry;
+import net.sf.jclec.util.PopulationSets;
+import net.sf.jclec.util.pareto.ArchiveTruncation;
+import net.sf.jclec.util.pareto.KdTree;
+import net.sf.jclec.util.pareto.NonDominatedSorting;
+import net.sf.jclec.util.pareto.ParallelDominance;
 
 import org.apache.commons.configuration.Configuration;
 import org.apache.commons.configuration.ConfigurationRuntimeException;
@@ -83,6 +88,10 @@ public class SPEA2 extends PopulationAlgorithm
 	/** The nearest k-th neighbour which we use in the comparison */	
 	
 	protected int kValue;
+
+	/** Parallel strength and raw fitness computation (sequential if null) */
+
+	protected ParallelDominance parallelDominance;
 	
 	/** Maximize fitness */
 
@@ -182,6 +191,29 @@ public class SPEA2 extends PopulationAlgorithm
 	{
 		this.kValue = kValue;
 	}
+
+	/**
+	 * Access to the parallel computation of strength and raw fitness
+	 * 
+	 * @return Parallel dominance (null if they are computed sequentially)
+	 */
+
+	public ParallelDominance getParallelDominance() 
+	{
+		return parallelDominance;
+	}
+
+	/**
+	 * Sets the parallel computation of strength and raw fitness
+	 * 
+	 * @param parallelDominance New parallel dominance (null to compute 
+	 *        them sequentially)
+	 */
+
+	public void setParallelDominance(ParallelDominance parallelDominance) 
+	{
+		this.parallelDominance = parallelDominance;
+	}
 	
 	/**
 	 * Access to parents recombinator
@@ -300,14 +332,14 @@ public class SPEA2 extends PopulationAlgorithm
 				settings.getString("parents-selector[@type]");
 			// Species class
 			Class<? extends ISelector> parentsSelectorClass = 
-				(Class<? extends ISelector>) Class.forName(parentsSelectorClassname);
+				(Class<? extends ISelector>) ComponentRegistry.forName(parentsSelectorClassname);
 			// Species instance
-			ISelector parentsSelector = parentsSelectorClass.newInstance();
+			ISelector parentsSelector = ComponentRegistry.newInstance(parentsSelectorClass);
 			
 			// Configure species if necessary
 			if (parentsSelector instanceof IConfigure) {
 				// Extract species configuration
-				Configuration parentsSelectorConfiguration = settings.subset("parents-selector");
+				Configuration parentsSelectorConfiguration = ComponentRegistry.subset(settings, "parents-selector");
 				// Configure species
 				((IConfigure) parentsSelector).configure(parentsSelectorConfiguration);
 			}
@@ -331,6 +363,12 @@ public class SPEA2 extends PopulationAlgorithm
 		// Extract K Value 
 		int kValue = settings.getInt("k-value");
 		setKValue(kValue);
+		// Parallel strength and raw fitness (optional)
+		if (settings.containsKey("parallel-dominance[@number-of-threads]")) {
+			ParallelDominance parallelDominance = new ParallelDominance();
+			parallelDominance.configure(ComponentRegistry.subset(settings, "parallel-dominance"));
+			setParallelDominance(parallelDominance);
+		}
 	}
 	
 	/////////////////////////////////////////////////////////////////
@@ -355,12 +393,7 @@ public class SPEA2 extends PopulationAlgorithm
 	protected void doSelection() 
 	{
 		//Unite the populations
-		List<IIndividual> aset = new ArrayList<IIndividual> ();
-		aset.addAll(bset);
-		
-		for(IIndividual ind : eset)
-			if(!aset.contains(ind))
-				aset.add((IIndividual) ind);
+		List<IIndividual> aset = PopulationSets.union(bset, eset);
 		
 		//Calculate fitness value of all population individuals
 		fitnessAssignment(aset);
@@ -369,12 +402,7 @@ public class SPEA2 extends PopulationAlgorithm
 		eset = environmentalSelection(aset);
 
 		//Unite the populations
-		aset = new ArrayList<IIndividual> ();
-		aset.addAll(bset);
-		
-		for(IIndividual ind : eset)
-			if(!aset.contains(ind))
-				aset.add((IIndividual) ind);
+		aset = PopulationSets.union(bset, eset);
 
 		// Obtain the individuals from which the offspring will be created
 		pset = parentsSelector.select(aset, bset.size());
@@ -415,7 +443,6 @@ public class SPEA2 extends PopulationAlgorithm
 		long [] S = new long [pop.size()];
 		long [] R = new long [pop.size()];
 		double [] D = new double [pop.size()];
-		double [][] distance = new double [pop.size()][pop.size()]; 
 		
 		//The vectors are initialized
 		for(int i=0; i<pop.size(); i++)
@@ -430,47 +457,56 @@ public class SPEA2 extends PopulationAlgorithm
 		 * needed is the Raw Fitness, R
 		 */
 		
-		//The first step is to calculate the number of individuals
-		//to which it dominates each individual. This is the
-		//strength value of each individual
-		for(int i=0; i<pop.size(); i++)
-			for(int j=0; j<pop.size(); j++)
-				if(i!=j && paretoComparator.compare( (CompositeFitness) pop.get(i).getFitness(), (CompositeFitness)pop.get(j).getFitness()) == 1)
-					S[i] ++;
-		
-		//Now, calculates the raw fitness which is the
-		//sum of strength values of the individuals that 
-		//dominate it
-		for(int i=0; i<pop.size(); i++)
-			for(int j=0; j<pop.size(); j++)
-				if(i!=j && paretoComparator.compare((CompositeFitness)pop.get(j).getFitness(), (CompositeFitness)pop.get(i).getFitness()) == 1)
-					R[i] += S[j];
+		if(parallelDominance != null)
+		{
+			//Strength and raw fitness are computed in parallel
+			//over the (minimized) objective values
+			double [][] objectives = 
+				NonDominatedSorting.objectives(pop, paretoComparator.getComponentComparators());
+			int [] strength = parallelDominance.strength(objectives);
+			long [] rawFitness = parallelDominance.rawFitness(objectives, strength);
+			for(int i=0; i<pop.size(); i++)
+			{
+				S[i] = strength[i];
+				R[i] = rawFitness[i];
+			}
+		}
+		else
+		{
+			//The first step is to calculate the number of individuals
+			//to which it dominates each individual. This is the
+			//strength value of each individual
+			for(int i=0; i<pop.size(); i++)
+				for(int j=0; j<pop.size(); j++)
+					if(i!=j && paretoComparator.compare( (CompositeFitness) pop.get(i).getFitness(), (CompositeFitness)pop.get(j).getFitness()) == 1)
+						S[i] ++;
+			
+			//Now, calculates the raw fitness which is the
+			//sum of strength values of the individuals that 
+			//dominate it
+			for(int i=0; i<pop.size(); i++)
+				for(int j=0; j<pop.size(); j++)
+					if(i!=j && paretoComparator.compare((CompositeFitness)pop.get(j).getFitness(), (CompositeFitness)pop.get(i).getFitness()) == 1)
+						R[i] += S[j];
+		}
 
 		/**
 		 * The other component of fitness that we needed
 		 * is the density of information, D
 		 */
 		
-		//Calculate the distance between the individuals
+		//The k_th neighbour closest is selected, looking for 
+		//neighbours in a kd-tree of the objective values
+		KdTree tree = new KdTree(objectives(pop));
+		int k = Math.min(kValue, pop.size()-1);
+		int [] neighbours = new int[Math.max(k, 0)];
+		double [] distances = new double[Math.max(k, 0)];
 		for(int i=0; i<pop.size(); i++)
 		{
-			for(int j=i+1; j<pop.size(); j++)
-			{
-				distance[i][j] = calculateDistance(pop.get(i), pop.get(j));
-				distance[j][i] = distance[i][j];
-			}
-			
-			distance[i][i] = 0;
+			double kDistance = (tree.nearest(i, k, neighbours, distances) > 0) ? distances[k-1] : 0.0;
+			D[i] = (1 / ( kDistance + 2.0 ));
 		}
 		
-		//Sort the individuals by rows
-		for(int i= 0; i<pop.size(); i++)
-			Arrays.sort(distance[i]);
-				
-		//The k_th neighbour closest is selected
-		for(int i=0; i<pop.size(); i++)
-			D[i] = (1 / ( distance[i][kValue] + 2.0 ));
-		
 		//Finally, the fitness value is assigned
 		for(int i=0; i<pop.size(); i++)
 			((IValueFitness) (pop.get(i)).getFitness()).setValue(D[i] + R[i]);
@@ -508,6 +544,28 @@ public class SPEA2 extends PopulationAlgorithm
 		return (Math.sqrt(distance));
 	}
 	
+	/**
+	 * Objective values of a set of individuals (the same values 
+	 * used by calculateDistance).
+	 * 
+	 * @param pop Individuals
+	 * 
+	 * @return Objective values (one row per individual)
+	 */
+	
+	protected double [][] objectives(List<IIndividual> pop)
+	{
+		double [][] result = new double[pop.size()][];
+		for(int i=0; i<pop.size(); i++)
+		{
+			IFitness [] f = ((CompositeFitness) pop.get(i).getFitness()).getComponents();
+			result[i] = new double[f.length];
+			for(int j=0; j<f.length; j++)
+				result[i][j] = ((IValueFitness) f[j]).getValue();
+		}
+		return result;
+	}
+	
 	/**
 	 * Update of the external population.
 	 * During environmental selection, the first step is to 
@@ -532,10 +590,9 @@ public class SPEA2 extends PopulationAlgorithm
 		
 		//The individual nondominated by anybody are added
 		//in the external population
-		for(IIndividual ind : aset)
-			if(!eset.contains(ind))
-				if(((IValueFitness) ind.getFitness()).getValue() < 1)
-					eset.add(ind);
+		for(IIndividual ind : PopulationSets.distinct(aset))
+			if(((IValueFitness) ind.getFitness()).getValue() < 1)
+				eset.add(ind);
 		
 		/**
 		 * When the individuals nondominated are added in 
@@ -565,7 +622,9 @@ public class SPEA2 extends PopulationAlgorithm
 	 * At+1 until |At+1| = N. This truncation operator is introduced to keep diversity 
 	 * in the population; it avoids the posible loss of outer 
 	 * solutions, preserving during the whole algorithm 
-	 * execution, the range of Pareto solutions achieved.
+	 * execution, the range of Pareto solutions achieved. Neighbours 
+	 * are kept in a kd-tree and updated after each removal (see 
+	 * ArchiveTruncation).
 	 * 
 	 * @param presentExternalCensus means which is the size that
 	 * has the external population in this moment.
@@ -574,73 +633,16 @@ public class SPEA2 extends PopulationAlgorithm
 	
 	protected List<IIndividual> decrementPopulation(List<IIndividual> eset, int presentExternalCensus)
 	{
-		double [] distance = new double[presentExternalCensus];
-		double [] k_distance = new double[presentExternalCensus];
-		double auxDistance;
-		int [] k_nearest = new int[presentExternalCensus];
-		int [] sortedIndividuals = new int[presentExternalCensus];
-		int auxSortedIndividual;
+		//Remove, one at a time, the individual closest to its 
+		//nearest neighbours (comparing kValue neighbours)
+		int [] kept = ArchiveTruncation.truncate(objectives(eset), externalSize, kValue);
 		
-		for(int i=0; i<presentExternalCensus; i++)
-		{
-			k_distance[i] = Double.MAX_VALUE;
-			k_nearest[i] = i;
-		}
+		List<IIndividual> result = new ArrayList<IIndividual>(kept.length);
+		for(int i : kept)
+			result.add(eset.get(i));
 		
-		while(presentExternalCensus > externalSize)
-		{
-			for(int i=0; i<presentExternalCensus; i++)
-			{
-				for(int j=0; j<presentExternalCensus; j++)
-				{	
-					distance[j] = calculateDistance(eset.get(i), eset.get(j));
-					sortedIndividuals[j] = j;
-				}
-
-				//Sort the individuals with respect to its distance
-				//to individual 'i'
-				for(int j=0; j<presentExternalCensus-1; j++)
-					for(int l=j+1; l<presentExternalCensus; l++)
-						if(distance[j] > distance[l])
-						{
-						
-							auxDistance = distance[j];
-							distance[j] = distance[l];
-							distance[l] = auxDistance;
-							
-							auxSortedIndividual = sortedIndividuals[j];
-							sortedIndividuals[j] = sortedIndividuals[l];
-							sortedIndividuals[l] = auxSortedIndividual;
-						}
-			
-				k_nearest[i] = sortedIndividuals[kValue];
-				k_distance[i] = distance[kValue];
-			}
-
-			//Make the ordering having present the k_distance
-			//with k_nearest neighbour calculated in the previous step
-			for(int j=0; j<presentExternalCensus; j++)
-				sortedIndividuals[j] = j;
-				
-			for(int j=0; j<presentExternalCensus-1; j++)
-				for(int l=j+1; l<presentExternalCensus; l++)
-					if(k_distance[j] > k_distance[l])
-					{
-						auxDistance = k_distance[j];
-						k_distance[j] = k_distance[l];
-						k_distance[l] = auxDistance;
-						
-						auxSortedIndividual = sortedIndividuals[j];
-						sortedIndividuals[j] = sortedIndividuals[l];
-						sortedIndividuals[l] = auxSortedIndividual;
-					}
-			//Se selecciona el mas cercano con respecto al k-eth mi?oes cercano
-			eset.remove(k_nearest[sortedIndividuals[0]]);
-			presentExternalCensus --;
-		}
-	
 		//the external population already has the wished size
-		return eset;
+		return result;
 	}
 	
 	/**
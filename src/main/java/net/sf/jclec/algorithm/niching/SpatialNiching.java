@@ -11,6 +11,7 @@ import net.sf.jclec.algorithm.classic.SG;
 
 import net.sf.jclec.selector.WorsesSelector;
 import net.sf.jclec.selector.BettersSelector;
+import net.sf.jclec.util.ComponentRegistry;
 
 import org.apache.commons.configuration.Configuration;
 import org.apache.commons.configuration.ConfigurationRuntimeException;
@@ -93,13 +94,13 @@ public abstract class SpatialNiching extends SG
 				configuration.getString("distance[@type]");
 			// Species class
 			Class<? extends IDistance> distanceClass = 
-				(Class<? extends IDistance>) Class.forName(distanceClassname);
+				(Class<? extends IDistance>) ComponentRegistry.forName(distanceClassname);
 			// Species instance
-			IDistance distance = distanceClass.newInstance();
+			IDistance distance = ComponentRegistry.newInstance(distanceClass);
 			// Configure species if necessary
 			if (distance instanceof IConfigure) {
 				// Extract species configuration
-				Configuration distanceConfiguration = configuration.subset("distance");
+				Configuration distanceConfiguration = ComponentRegistry.subset(configuration, "distance");
 				// Configure species
 				((IConfigure) distance).configure(distanceConfiguration);
 			}
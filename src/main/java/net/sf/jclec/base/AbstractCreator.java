@@ -103,7 +103,8 @@ public abstract class AbstractCreator implements IProvider
 	 * </li>
 	 * <li>
 	 * Call the method <code>createNext</code> until <code>createdCounter</code> 
-	 * is equals to <code>numberOfIndividuals</code> 
+	 * is equals to <code>numberOfIndividuals</code> (createdCounter is the
+	 * index of the individual being created)
 	 * </li>
 	 * <li>
 	 * Return <code>createdBuffer</code>.
@@ -114,24 +115,42 @@ public abstract class AbstractCreator implements IProvider
 	 */
 	
 	public List<IIndividual> provide(int numberOfIndividuals) 
+	{
+		return create(numberOfIndividuals, 0, numberOfIndividuals);
+	}
+	
+	/////////////////////////////////////////////////////////////////
+	// -------------------------------------------- Protected methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Creates the individuals placed from <code>fromIndex</code> (inclusive)
+	 * to <code>toIndex</code> (exclusive) in a set of 
+	 * <code>numberOfIndividuals</code> individuals. Used by ParallelCreator
+	 * to create a set of individuals in chunks.
+	 * 
+	 * @param numberOfIndividuals Total number of individuals to create
+	 * @param fromIndex Index of the first individual
+	 * @param toIndex Index after the last individual
+	 * 
+	 * @return Created individuals
+	 */
+	
+	protected List<IIndividual> create(int numberOfIndividuals, int fromIndex, int toIndex)
 	{
 		// Set numberOfIndividuals
 		this.numberOfIndividuals = numberOfIndividuals;
 		// Result list
-		createdBuffer = new ArrayList<IIndividual> (numberOfIndividuals);
+		createdBuffer = new ArrayList<IIndividual> (toIndex - fromIndex);
 		// Prepare process
 		prepareCreation();
 		// Provide individuals
-		for (createdCounter=0; createdCounter<numberOfIndividuals; createdCounter++) {
+		for (createdCounter=fromIndex; createdCounter<toIndex; createdCounter++) {
 			createNext();
 		}
 		// Returns result
 		return createdBuffer;
 	}
-	
-	/////////////////////////////////////////////////////////////////
-	// -------------------------------------------- Protected methods
-	/////////////////////////////////////////////////////////////////
 
 	/**
 	 * Prepare creation process.
@@ -4,6 +4,7 @@ import java.util.List;
 
 import net.sf.jclec.IEvaluator;
 import net.sf.jclec.IIndividual;
+import net.sf.jclec.IDeltaEvaluator;
 
 /**
  * IEvaluator abstract implementation. 
@@ -50,6 +51,17 @@ public abstract class AbstractEvaluator implements IEvaluator
 		return numberOfEvaluations;
 	}
 
+	/**
+	 * Sets the number of evaluations (used to resume a run).
+	 *
+	 * @param numberOfEvaluations Number of evaluations performed
+	 */
+
+	public void setNumberOfEvaluations(int numberOfEvaluations)
+	{
+		this.numberOfEvaluations = numberOfEvaluations;
+	}
+
 	/**
 	 * For all individuals in "inds" array: if individual fitness  is
 	 * null, then evaluate this individual.
@@ -66,7 +78,7 @@ public abstract class AbstractEvaluator implements IEvaluator
 		
 		for (IIndividual ind : inds) {
 			if (ind.getFitness() == null) {
-				evaluate(ind);
+				evaluateIndividual(ind);
 				numberOfEvaluations++;
 			}
 		}
@@ -84,5 +96,31 @@ public abstract class AbstractEvaluator implements IEvaluator
 	 */
 	
 	protected abstract void evaluate(IIndividual ind);
+
+	/**
+	 * Evaluates an individual. If this evaluator is an IDeltaEvaluator and
+	 * the individual was created by mutation of an evaluated parent, its
+	 * fitness is updated from the parent one (if possible). The mutation
+	 * record of the individual is released afterwards.
+	 *
+	 * @param ind Individual to evaluate
+	 */
+
+	protected final void evaluateIndividual(IIndividual ind)
+	{
+		if (ind instanceof AbstractIndividual<?>) {
+			AbstractIndividual<?> aind = (AbstractIndividual<?>) ind;
+			MutationRecord record = aind.getMutationRecord();
+			if (record != null) {
+				aind.setMutationRecord(null);
+				IIndividual parent = record.getParent();
+				if (this instanceof IDeltaEvaluator && parent.getFitness() != null &&
+						((IDeltaEvaluator) this).evaluateDelta(ind, parent, record.getChangedLoci())) {
+					return;
+				}
+			}
+		}
+		evaluate(ind);
+	}
 }
   
\ No newline at end of file
@@ -3,10 +3,19 @@ package net.sf.jclec.base;
 import net.sf.jclec.IFitness;
 import net.sf.jclec.IIndividual;
 
+import net.sf.jclec.util.GenotypeFingerprint;
+
+import org.apache.commons.lang.builder.HashCodeBuilder;
 import org.apache.commons.lang.builder.ToStringBuilder;
 
 /**
  * IIndividual abstract implementation.
+ * 
+ * Hash codes are taken from a 64-bit genotype equality fingerprint, and
+ * fingerprints (that also tell apart tree constants) are used as cache
+ * keys. Both are computed on demand and kept until the genotype is set 
+ * again, so genotypes must not be modified in place once the individual 
+ * has been hashed (or they must be set again with setGenotype()).
  *  
  * @author Sebastian Ventura
  *
@@ -28,6 +37,26 @@ public abstract class AbstractIndividual<G> implements IIndividual
 	/** Individual fitness */
 	
 	protected IFitness fitness;
+
+	/** Mutation that created this individual (if any) */
+
+	protected transient MutationRecord mutationRecord;
+
+	/** Genotype fingerprint */
+
+	private transient long fingerprint;
+
+	/** Is fingerprint up to date? */
+
+	private transient boolean fingerprinted;
+
+	/** Genotype hash code */
+
+	private transient int hash;
+
+	/** Is hash code up to date? */
+
+	private transient boolean hashed;
 	
 	/////////////////////////////////////////////////////////////////
 	// ------------------------------------------------- Constructors
@@ -81,6 +110,9 @@ public abstract class AbstractIndividual<G> implements IIndividual
 	public final void setGenotype(G genotype)
 	{
 		this.genotype = genotype;
+		this.mutationRecord = null;
+		this.fingerprinted = false;
+		this.hashed = false;
 	}
 
 	/**
@@ -94,6 +126,53 @@ public abstract class AbstractIndividual<G> implements IIndividual
 		return genotype;
 	}
 
+	/**
+	 * Access to the 64-bit fingerprint of this individual genotype.
+	 * Equal array genotypes have equal fingerprints, but tree fingerprints
+	 * tell apart primitives that print differently, so equal trees may
+	 * have different fingerprints.
+	 * 
+	 * @return Genotype fingerprint
+	 * 
+	 * @see net.sf.jclec.util.GenotypeFingerprint
+	 */
+
+	public final long getFingerprint()
+	{
+		if (!fingerprinted) {
+			if (GenotypeFingerprint.isSupported(this)) {
+				fingerprint = GenotypeFingerprint.fingerprint(genotype);
+			}
+			else {
+				fingerprint = new HashCodeBuilder().append(genotype).toHashCode();
+			}
+			fingerprinted = true;
+		}
+		return fingerprint;
+	}
+
+	/**
+	 * Access to the mutation that created this individual.
+	 *
+	 * @return Mutation record (null if unknown)
+	 */
+
+	public final MutationRecord getMutationRecord()
+	{
+		return mutationRecord;
+	}
+
+	/**
+	 * Sets the mutation that created this individual.
+	 *
+	 * @param mutationRecord Mutation record
+	 */
+
+	public final void setMutationRecord(MutationRecord mutationRecord)
+	{
+		this.mutationRecord = mutationRecord;
+	}
+
 	// IIndividual interface
 
 	/**
@@ -116,6 +195,28 @@ public abstract class AbstractIndividual<G> implements IIndividual
 	
 	// java.lang.Object methods
 	
+	/**
+	 * Hash code of this individual genotype. Hash codes of unequal 
+	 * genotypes differ in most cases, so subclasses compare them first 
+	 * in equals() to avoid comparing whole genotypes.
+	 * 
+	 * @return Folded genotype equality fingerprint
+	 */
+	
+	@Override
+	public int hashCode()
+	{
+		if (!hashed) {
+			if (GenotypeFingerprint.isSupported(this)) {
+				hash = GenotypeFingerprint.hashCode(GenotypeFingerprint.equalityFingerprint(genotype));
+			}
+			else {
+				hash = new HashCodeBuilder().append(genotype).toHashCode();
+			}
+			hashed = true;
+		}
+		return hash;
+	}
 	
 	/**
 	 * Return an string that represent this fitness object legibly.
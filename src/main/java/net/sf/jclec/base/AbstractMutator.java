@@ -47,6 +47,18 @@ public abstract class AbstractMutator implements IMutator
 	/** Parent counter */
 	
 	protected transient int parentsCounter;
+
+	/** Recycled individuals. Used by the atomic mutation method */
+
+	protected transient List<IIndividual> recycledBuffer;
+
+	/** Recycled individuals counter */
+
+	protected transient int recycledCounter;
+
+	/** Recycled individuals whose genotypes are being filled */
+
+	private transient List<AbstractIndividual<?>> reservedBuffer;
 	
 	/////////////////////////////////////////////////////////////////
 	// ------------------------------------------------- Constructors
@@ -87,17 +99,48 @@ public abstract class AbstractMutator implements IMutator
 	 */
 	
 	public List<IIndividual> mutate(List<IIndividual> parents) 
+	{
+		return mutate(parents, null, new ArrayList<IIndividual> ());
+	}
+
+	/**
+	 * Mutates parents, reusing individuals that are no longer needed.
+	 *
+	 * Mutants are added to the given list. Operators that support recycling
+	 * (the array mutators) write the genotypes of the mutants into the
+	 * genotypes of the recycled individuals and return these individuals,
+	 * without fitness, as mutants; when there are no recycled individuals
+	 * left, new ones are created. Recycled individuals must not be referenced
+	 * anywhere else (in particular, they cannot be parents).
+	 *
+	 * @param parents Parents list
+	 * @param recycled Individuals to reuse (null if there are none)
+	 * @param sons List to put mutants in
+	 *
+	 * @return The mutants list
+	 */
+
+	public List<IIndividual> mutate(List<IIndividual> parents, List<IIndividual> recycled, List<IIndividual> sons)
 	{
 		// Sets p list to actual parents
 		parentsBuffer = parents;
-		// Prepare recombination process
+		// Sets recycled individuals
+		recycledBuffer = recycled;
+		recycledCounter = 0;
+		if (reservedBuffer == null) {
+			reservedBuffer = new ArrayList<AbstractIndividual<?>> ();
+		}
+		// Prepare mutation process
 		prepareMutation();
-		// Create a new list to put sons in it
-		sonsBuffer = new ArrayList<IIndividual> ();
+		// Mutants are put in the given list
+		sonsBuffer = sons;
     	// For all individuals in "parents" ...
-    	for (parentsCounter = 0; parentsCounter < parents.size(); parentsCounter ++) {
+    	for (parentsCounter = 0; parentsCounter < parentsBuffer.size(); parentsCounter ++) {
 			mutateNext();
     	}
+		// Release recycled individuals
+		recycledBuffer = null;
+		reservedBuffer.clear();
 		// Returns sons list
 		return sonsBuffer;
 	}
@@ -130,4 +173,68 @@ public abstract class AbstractMutator implements IMutator
 	 */
 	
 	protected abstract void mutateNext();
+
+	/**
+	 * Attaches a mutation record to a mutant. The record of the parent (if
+	 * any) is discarded, so records never chain.
+	 *
+	 * @param mutant Mutant individual
+	 * @param parent Parent individual
+	 * @param changedLoci Changed loci (ascending and without repetitions)
+	 */
+
+	protected void recordMutation(IIndividual mutant, IIndividual parent, int [] changedLoci)
+	{
+		if (parent instanceof AbstractIndividual<?>) {
+			((AbstractIndividual<?>) parent).setMutationRecord(null);
+		}
+		if (mutant instanceof AbstractIndividual<?>) {
+			((AbstractIndividual<?>) mutant).setMutationRecord(new MutationRecord(parent, changedLoci));
+		}
+	}
+
+	/**
+	 * Genotype of the next recycled individual. This individual is reserved,
+	 * and becomes a son when recycledSon() is invoked with its genotype.
+	 *
+	 * @return Genotype of a recycled individual, or null if there are no
+	 *         recycled individuals left
+	 */
+
+	protected final Object recycledGenotype()
+	{
+		while (recycledBuffer != null && recycledCounter < recycledBuffer.size()) {
+			IIndividual ind = recycledBuffer.get(recycledCounter++);
+			if (ind instanceof AbstractIndividual<?>) {
+				AbstractIndividual<?> aind = (AbstractIndividual<?>) ind;
+				reservedBuffer.add(aind);
+				return aind.getGenotype();
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Reserved individual that owns a genotype. Its genotype is set again
+	 * (so cached data is cleared) and its fitness is removed.
+	 *
+	 * @param genotype Son genotype
+	 *
+	 * @return Recycled individual, or null if the genotype does not belong
+	 *         to a reserved individual
+	 */
+
+	@SuppressWarnings("unchecked")
+	protected final IIndividual recycledSon(Object genotype)
+	{
+		for (int i=0; i<reservedBuffer.size(); i++) {
+			if (reservedBuffer.get(i).getGenotype() == genotype) {
+				AbstractIndividual<Object> son = (AbstractIndividual<Object>) reservedBuffer.remove(i);
+				son.setGenotype(genotype);
+				son.setFitness(null);
+				return son;
+			}
+		}
+		return null;
+	}
 }
@@ -1,32 +1,123 @@
 package net.sf.jclec.base;
 
+import java.io.Closeable;
+
+import java.util.Set;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.concurrent.Future;
+import java.util.concurrent.Callable;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.Executors;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import net.sf.jclec.IFitness;
+import net.sf.jclec.IConfigure;
 import net.sf.jclec.IIndividual;
+import net.sf.jclec.IAsyncEvaluator;
+import net.sf.jclec.IEvaluationCallback;
+
+import net.sf.jclec.fitness.SimpleValueFitness;
+
+import net.sf.jclec.util.EvaluationDeadline;
+import net.sf.jclec.util.EvaluationTimeoutException;
+
+import org.apache.commons.configuration.Configuration;
+
+import org.apache.commons.lang.SerializationUtils;
 
 /**
- * IEvaluator parallel abstract implementation. 
- * 
+ * IEvaluator parallel abstract implementation.
+ *
+ * Individuals are evaluated by a pool of worker threads that is created the
+ * first time it is needed and lives until the evaluator is closed, so it is
+ * reused by all the generations of an algorithm run. Pending individuals are
+ * submitted to the pool in chunks, and each worker may use its own replica of
+ * this evaluator if the fitness function is not thread-safe. Individuals can
+ * also be submitted one by one to the same pool by means of the methods of
+ * the IAsyncEvaluator interface.
+ *
+ * Optionally, each evaluation has a wall-clock budget. The deadline is
+ * published by means of EvaluationDeadline, so that fitness code can stop
+ * cooperatively; an individual whose evaluation exceeds the budget receives a
+ * penalty fitness. In the evaluate(List) method, a worker thread that does
+ * not stop a tenth of the budget later is abandoned and replaced by a new
+ * one, and the rest of its chunk is evaluated by another task. In this case,
+ * each individual is evaluated on a copy, so that abandoned workers cannot
+ * modify it.
+ *
  * @author Alberto Cano
  * @author Sebastian Ventura
  */
 
-public abstract class AbstractParallelEvaluator extends AbstractEvaluator
+public abstract class AbstractParallelEvaluator extends AbstractEvaluator implements IAsyncEvaluator, IConfigure, Closeable
 {
 	/////////////////////////////////////////////////////////////////
-	// ------------------------------------------------- Constructors
+	// --------------------------------------- Serialization constant
 	/////////////////////////////////////////////////////////////////
-	
+
 	private static final long serialVersionUID = 3270366292953409655L;
 
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------------------- Properties
+	/////////////////////////////////////////////////////////////////
+
+	/** Number of worker threads (0 means one per available processor) */
+
+	protected int numberOfThreads;
+
+	/** Individuals evaluated by each task (0 means automatic) */
+
+	protected int chunkSize;
+
+	/** Each worker thread evaluates with its own evaluator replica */
+
+	protected boolean useReplicas;
+
+	/** Wall-clock budget of each evaluation, in milliseconds (0 means no limit) */
+
+	protected long evaluationTimeout;
+
+	/** Fitness value of timed out individuals (NaN means the worst possible value) */
+
+	protected double penaltyValue = Double.NaN;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------- Internal variables
+	/////////////////////////////////////////////////////////////////
+
+	/** Evaluations counter, shared by all worker threads */
+
+	protected final AtomicInteger evaluationsCounter = new AtomicInteger();
+
+	/** Number of evaluations that exceeded their time budget */
+
+	protected final AtomicInteger timeoutsCounter = new AtomicInteger();
+
+	/** Worker threads pool */
+
+	protected transient ExecutorService executor;
+
+	/** Evaluator replica attached to each worker thread */
+
+	protected transient ThreadLocal<AbstractParallelEvaluator> replicas;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
 	/**
 	 * Empty constructor.
 	 */
-	
-	public AbstractParallelEvaluator() 
+
+	public AbstractParallelEvaluator()
 	{
 		super();
 	}
@@ -35,62 +126,647 @@ public abstract class AbstractParallelEvaluator extends AbstractEvaluator
 	// ----------------------------------------------- Public methods
 	/////////////////////////////////////////////////////////////////
 
+	// Setting and getting properties
+
+	/**
+	 * Access to the number of worker threads.
+	 *
+	 * @return Number of worker threads (0 means one per processor)
+	 */
+
+	public final int getNumberOfThreads()
+	{
+		return numberOfThreads;
+	}
+
+	/**
+	 * Sets the number of worker threads. Changes take effect the next
+	 * time the worker pool is created.
+	 *
+	 * @param numberOfThreads New number of threads (0 means one per
+	 *        processor)
+	 */
+
+	public final void setNumberOfThreads(int numberOfThreads)
+	{
+		this.numberOfThreads = numberOfThreads;
+	}
+
+	/**
+	 * Access to the number of individuals evaluated by each task.
+	 *
+	 * @return Chunk size (0 means automatic)
+	 */
+
+	public final int getChunkSize()
+	{
+		return chunkSize;
+	}
+
+	/**
+	 * Sets the number of individuals evaluated by each task.
+	 *
+	 * @param chunkSize New chunk size (0 means automatic)
+	 */
+
+	public final void setChunkSize(int chunkSize)
+	{
+		this.chunkSize = chunkSize;
+	}
+
+	/**
+	 * Informs if each worker thread uses its own evaluator replica.
+	 *
+	 * @return true if evaluator replicas are used
+	 */
+
+	public final boolean isUseReplicas()
+	{
+		return useReplicas;
+	}
+
+	/**
+	 * Sets the "useReplicas" flag.
+	 *
+	 * @param useReplicas New flag value
+	 */
+
+	public final void setUseReplicas(boolean useReplicas)
+	{
+		this.useReplicas = useReplicas;
+	}
+
+	/**
+	 * Access to the time budget of each evaluation.
+	 *
+	 * @return Evaluation timeout in milliseconds (0 means no limit)
+	 */
+
+	public final long getEvaluationTimeout()
+	{
+		return evaluationTimeout;
+	}
+
+	/**
+	 * Sets the time budget of each evaluation.
+	 *
+	 * @param evaluationTimeout Evaluation timeout in milliseconds (0 means
+	 *        no limit)
+	 */
+
+	public final void setEvaluationTimeout(long evaluationTimeout)
+	{
+		this.evaluationTimeout = evaluationTimeout;
+	}
+
+	/**
+	 * Access to the fitness value of timed out individuals.
+	 *
+	 * @return Penalty value (NaN means the worst possible value)
+	 */
+
+	public final double getPenaltyValue()
+	{
+		return penaltyValue;
+	}
+
+	/**
+	 * Sets the fitness value of timed out individuals.
+	 *
+	 * @param penaltyValue Penalty value (NaN means the worst possible value)
+	 */
+
+	public final void setPenaltyValue(double penaltyValue)
+	{
+		this.penaltyValue = penaltyValue;
+	}
+
+	/**
+	 * Access to the number of evaluations that exceeded their budget.
+	 *
+	 * @return Number of timed out evaluations
+	 */
+
+	public int getNumberOfTimeouts()
+	{
+		return timeoutsCounter.get();
+	}
+
+	// IEvaluator interface
+
+	/**
+	 * {@inheritDoc}
+	 */
+
+	@Override
+	public int getNumberOfEvaluations()
+	{
+		return evaluationsCounter.get();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+
+	@Override
+	public void setNumberOfEvaluations(int numberOfEvaluations)
+	{
+		evaluationsCounter.set(numberOfEvaluations);
+	}
+
 	/**
 	 * For all individuals in "inds" array: if individual fitness  is
 	 * null, then evaluate this individual.
-	 * 
+	 *
 	 * This method is final. Is anyone wants implement this method in
 	 * another way should create a new IEvaluator class.
-	 * 
+	 *
 	 * {@inheritDoc}
 	 */
-	
+
 	public void evaluate(List<IIndividual> inds)
 	{
 		long time = System.currentTimeMillis();
-		
-		ExecutorService threadExecutor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
-		
-		for (IIndividual ind : inds)
-		{
-			if (ind.getFitness() == null)
+
+		// Individuals to evaluate
+		List<IIndividual> pending = new ArrayList<IIndividual>();
+		for (IIndividual ind : inds) {
+			if (ind.getFitness() == null) {
+				pending.add(ind);
+			}
+		}
+		// Submit pending individuals in chunks and wait for them
+		int size = pending.size();
+		if (size > 0) {
+			ExecutorService executor = getExecutor();
+			int chunk = chunkSize > 0 ? chunkSize : Math.max(1, size / (4 * threads()));
+			try {
+				if (evaluationTimeout > 0) {
+					evaluateWithTimeout(pending, chunk);
+				}
+				else {
+					List<Callable<Integer>> tasks = new ArrayList<Callable<Integer>>();
+					for (int from = 0; from < size; from += chunk) {
+						tasks.add(new EvaluationTask(pending.subList(from, Math.min(size, from + chunk))));
+					}
+					for (Future<Integer> future : executor.invokeAll(tasks)) {
+						future.get();
+					}
+				}
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Evaluation interrupted", e);
+			}
+			catch (ExecutionException e) {
+				Throwable cause = e.getCause();
+				if (cause instanceof RuntimeException) {
+					throw (RuntimeException) cause;
+				}
+				if (cause instanceof Error) {
+					throw (Error) cause;
+				}
+				throw new IllegalStateException("Evaluation failed", cause);
+			}
+		}
+		// Keep inherited counter in sync
+		numberOfEvaluations = evaluationsCounter.get();
+
+		executionTime += System.currentTimeMillis() - time;
+	}
+
+	// IAsyncEvaluator interface
+
+	/**
+	 * {@inheritDoc}
+	 */
+
+	public Future<IIndividual> submit(IIndividual ind)
+	{
+		return submit(ind, null);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+
+	public Future<IIndividual> submit(final IIndividual ind, IEvaluationCallback callback)
+	{
+		Callable<IIndividual> task = new Callable<IIndividual>() {
+			public IIndividual call()
 			{
-				threadExecutor.execute(new evaluationThread(ind));
-				numberOfEvaluations++;
+				if (ind.getFitness() == null) {
+					IFitness fitness = evaluate(currentEvaluator(), ind);
+					if (fitness != null) {
+						ind.setFitness(fitness);
+						timeoutsCounter.incrementAndGet();
+					}
+					evaluationsCounter.incrementAndGet();
+				}
+				return ind;
 			}
+		};
+		EvaluationFuture future = new EvaluationFuture(task, ind, callback);
+		getExecutor().execute(future);
+		return future;
+	}
+
+	// Closeable interface
+
+	/**
+	 * Shuts down the worker threads pool. The pool will be created
+	 * again if this evaluator is used after being closed.
+	 */
+
+	public synchronized void close()
+	{
+		if (executor != null) {
+			executor.shutdown();
+			executor = null;
+		}
+		replicas = null;
+	}
+
+	// IConfigure interface
+
+	/**
+	 * Configuration parameters for AbstractParallelEvaluator are:
+	 *
+	 * <ul>
+	 * <li>
+	 * <code>[@number-of-threads] int (default 0)</code></p>
+	 * Number of worker threads. 0 means one per available processor
+	 * </li><li>
+	 * <code>[@chunk-size] int (default 0)</code></p>
+	 * Individuals evaluated by each task. 0 means automatic
+	 * </li><li>
+	 * <code>[@use-replicas] boolean (default false)</code></p>
+	 * Each worker evaluates with its own replica of this evaluator
+	 * </li><li>
+	 * <code>[@evaluation-timeout] long (default 0)</code></p>
+	 * Wall-clock budget of each evaluation, in milliseconds. 0 means no limit
+	 * </li><li>
+	 * <code>[@penalty-value] double (default worst value)</code></p>
+	 * Fitness value of timed out individuals
+	 * </li>
+	 * </ul>
+	 */
+
+	public void configure(Configuration settings)
+	{
+		// Number of threads
+		int numberOfThreads = settings.getInt("[@number-of-threads]", 0);
+		setNumberOfThreads(numberOfThreads);
+		// Chunk size
+		int chunkSize = settings.getInt("[@chunk-size]", 0);
+		setChunkSize(chunkSize);
+		// Use replicas
+		boolean useReplicas = settings.getBoolean("[@use-replicas]", false);
+		setUseReplicas(useReplicas);
+		// Evaluation timeout
+		long evaluationTimeout = settings.getLong("[@evaluation-timeout]", 0);
+		setEvaluationTimeout(evaluationTimeout);
+		// Penalty value
+		double penaltyValue = settings.getDouble("[@penalty-value]", Double.NaN);
+		setPenaltyValue(penaltyValue);
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// -------------------------------------------- Protected methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Access to the worker threads pool, creating it if necessary.
+	 *
+	 * @return Worker threads pool
+	 */
+
+	protected synchronized ExecutorService getExecutor()
+	{
+		if (executor == null) {
+			executor = Executors.newFixedThreadPool(threads(), new ThreadFactory() {
+				private final AtomicInteger counter = new AtomicInteger();
+
+				public Thread newThread(Runnable task)
+				{
+					Thread thread = new Thread(task, "evaluator-" + counter.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+			replicas = new ThreadLocal<AbstractParallelEvaluator>();
 		}
-		
-		threadExecutor.shutdown();
-		
-		try
+		return executor;
+	}
+
+	/**
+	 * Creates an evaluator replica for a worker thread. Default
+	 * implementation makes a deep copy of this object by means of
+	 * serialization. Subclasses with non-serializable state should
+	 * override this method.
+	 *
+	 * @return A new evaluator replica
+	 */
+
+	protected AbstractParallelEvaluator createReplica()
+	{
+		return (AbstractParallelEvaluator) SerializationUtils.clone(this);
+	}
+
+	/**
+	 * Creates the fitness of a timed out individual. Default implementation
+	 * returns a SimpleValueFitness with the penalty value or, if it is not
+	 * set, with the worst finite value according to the fitness comparator.
+	 *
+	 * @return Penalty fitness
+	 */
+
+	protected IFitness createPenaltyFitness()
+	{
+		if (!Double.isNaN(penaltyValue)) {
+			return new SimpleValueFitness(penaltyValue);
+		}
+		IFitness lowest = new SimpleValueFitness(-Double.MAX_VALUE);
+		IFitness highest = new SimpleValueFitness(Double.MAX_VALUE);
+		return getComparator().compare(lowest, highest) > 0 ? highest : lowest;
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Effective number of worker threads.
+	 */
+
+	private int threads()
+	{
+		return numberOfThreads > 0 ? numberOfThreads : Runtime.getRuntime().availableProcessors();
+	}
+
+	/**
+	 * Evaluates an individual in the current thread, within the time
+	 * budget (if any).
+	 *
+	 * @return Penalty fitness if the evaluation timed out, null otherwise
+	 */
+
+	private IFitness evaluate(AbstractParallelEvaluator evaluator, IIndividual ind)
+	{
+		if (evaluationTimeout <= 0) {
+			evaluator.evaluateIndividual(ind);
+			return null;
+		}
+		EvaluationDeadline.set(System.currentTimeMillis() + evaluationTimeout);
+		try {
+			evaluator.evaluateIndividual(ind);
+			return null;
+		}
+		catch (EvaluationTimeoutException e) {
+			return createPenaltyFitness();
+		}
+		finally {
+			EvaluationDeadline.clear();
+		}
+	}
+
+	/**
+	 * Evaluates pending individuals in chunks, abandoning the workers that
+	 * exceed the evaluation budget.
+	 */
+
+	private void evaluateWithTimeout(List<IIndividual> pending, int chunk)
+		throws InterruptedException, ExecutionException
+	{
+		BlockingQueue<TimedEvaluationTask> finished = new LinkedBlockingQueue<TimedEvaluationTask>();
+		Set<TimedEvaluationTask> running = new HashSet<TimedEvaluationTask>();
+		int size = pending.size();
+		for (int from = 0; from < size; from += chunk) {
+			running.add(submit(new TimedEvaluationTask(pending.subList(from, Math.min(size, from + chunk)), finished)));
+		}
+		while (!running.isEmpty()) {
+			// Abandon overdue tasks, resubmitting the rest of their chunks
+			long now = System.currentTimeMillis();
+			long wait = evaluationTimeout;
+			for (TimedEvaluationTask task : new ArrayList<TimedEvaluationTask>(running)) {
+				long deadline = task.deadline;
+				if (deadline == 0) {
+					continue;
+				}
+				if (now < deadline + evaluationTimeout / 10) {
+					wait = Math.min(wait, deadline + evaluationTimeout / 10 - now);
+					continue;
+				}
+				List<IIndividual> rest = task.abandon();
+				if (rest != null) {
+					running.remove(task);
+					resizeExecutor(1);
+					task.future.cancel(true);
+					if (!rest.isEmpty()) {
+						running.add(submit(new TimedEvaluationTask(rest, finished)));
+					}
+				}
+			}
+			// Wait for finished tasks
+			TimedEvaluationTask task = finished.poll(Math.max(1, wait), TimeUnit.MILLISECONDS);
+			while (task != null) {
+				if (running.remove(task)) {
+					task.future.get();
+				}
+				task = finished.poll();
+			}
+		}
+	}
+
+	/**
+	 * Submits a timed task to the worker threads pool.
+	 */
+
+	private TimedEvaluationTask submit(TimedEvaluationTask task)
+	{
+		task.future = getExecutor().submit(task);
+		return task;
+	}
+
+	/**
+	 * Changes the size of the worker threads pool, to replace abandoned
+	 * workers.
+	 */
+
+	private synchronized void resizeExecutor(int delta)
+	{
+		if (executor instanceof ThreadPoolExecutor) {
+			ThreadPoolExecutor pool = (ThreadPoolExecutor) executor;
+			if (delta > 0) {
+				pool.setMaximumPoolSize(pool.getMaximumPoolSize() + delta);
+				pool.setCorePoolSize(pool.getCorePoolSize() + delta);
+			}
+			else {
+				pool.setCorePoolSize(pool.getCorePoolSize() + delta);
+				pool.setMaximumPoolSize(pool.getMaximumPoolSize() + delta);
+			}
+		}
+	}
+
+	/**
+	 * Evaluator used by the current thread.
+	 */
+
+	private AbstractParallelEvaluator currentEvaluator()
+	{
+		if (!useReplicas) {
+			return this;
+		}
+		AbstractParallelEvaluator replica = replicas.get();
+		if (replica == null) {
+			synchronized (this) {
+				replica = createReplica();
+			}
+			replicas.set(replica);
+		}
+		return replica;
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Evaluation task
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Evaluates a chunk of individuals.
+	 */
+
+	private class EvaluationTask implements Callable<Integer>
+	{
+		private final List<IIndividual> chunk;
+
+		public EvaluationTask(List<IIndividual> chunk)
 		{
-			if (!threadExecutor.awaitTermination(30, TimeUnit.DAYS))
-				System.out.println("Threadpool timeout occurred");
+			this.chunk = chunk;
 		}
-		catch (InterruptedException ie)
+
+		public Integer call()
 		{
-			System.out.println("Threadpool prematurely terminated due to interruption in thread that created pool");
+			AbstractParallelEvaluator evaluator = currentEvaluator();
+			int evaluated = 0;
+			for (IIndividual ind : chunk) {
+				evaluator.evaluateIndividual(ind);
+				evaluated++;
+			}
+			evaluationsCounter.addAndGet(evaluated);
+			return evaluated;
 		}
+	}
 
-		executionTime += System.currentTimeMillis() - time;
+	/**
+	 * Evaluates a chunk of individuals within the evaluation budget. The
+	 * task can be abandoned by the evaluating thread.
+	 */
+
+	private class TimedEvaluationTask implements Callable<Integer>
+	{
+		private final List<IIndividual> chunk;
+
+		private final BlockingQueue<TimedEvaluationTask> finished;
+
+		/** Deadline of the current evaluation (0 if none is running) */
+
+		private volatile long deadline;
+
+		/** Index of the current individual */
+
+		private int current;
+
+		/** This task has been abandoned */
+
+		private boolean abandoned;
+
+		/** Future of this task */
+
+		private Future<Integer> future;
+
+		public TimedEvaluationTask(List<IIndividual> chunk, BlockingQueue<TimedEvaluationTask> finished)
+		{
+			this.chunk = chunk;
+			this.finished = finished;
+		}
+
+		public Integer call()
+		{
+			try {
+				AbstractParallelEvaluator evaluator = currentEvaluator();
+				int evaluated = 0;
+				for (int i=0; i<chunk.size(); i++) {
+					IIndividual ind = chunk.get(i);
+					synchronized (this) {
+						if (abandoned) {
+							break;
+						}
+						current = i;
+						deadline = System.currentTimeMillis() + evaluationTimeout;
+					}
+					// Evaluate a copy of the individual
+					IIndividual copy = ind.copy();
+					if (ind instanceof AbstractIndividual<?> && copy instanceof AbstractIndividual<?>) {
+						AbstractIndividual<?> aind = (AbstractIndividual<?>) ind;
+						((AbstractIndividual<?>) copy).setMutationRecord(aind.getMutationRecord());
+						aind.setMutationRecord(null);
+					}
+					IFitness fitness = evaluate(evaluator, copy);
+					synchronized (this) {
+						if (abandoned) {
+							break;
+						}
+						deadline = 0;
+						if (fitness != null) {
+							timeoutsCounter.incrementAndGet();
+						}
+						else {
+							fitness = copy.getFitness();
+						}
+						ind.setFitness(fitness);
+						evaluationsCounter.incrementAndGet();
+						evaluated++;
+					}
+				}
+				return evaluated;
+			}
+			finally {
+				if (isAbandoned()) {
+					resizeExecutor(-1);
+				}
+				finished.add(this);
+			}
+		}
+
+		/**
+		 * Informs if this task has been abandoned.
+		 *
+		 * @return true if abandon() has given up the current evaluation
+		 */
+
+		public synchronized boolean isAbandoned()
+		{
+			return abandoned;
+		}
+
+		/**
+		 * Abandons this task, setting the penalty fitness of the current
+		 * individual.
+		 *
+		 * @return Individuals not evaluated yet, or null if the current
+		 *         evaluation is not overdue
+		 */
+
+		public synchronized List<IIndividual> abandon()
+		{
+			if (abandoned || deadline == 0) {
+				return null;
+			}
+			abandoned = true;
+			chunk.get(current).setFitness(createPenaltyFitness());
+			evaluationsCounter.incrementAndGet();
+			timeoutsCounter.incrementAndGet();
+			return chunk.subList(current + 1, chunk.size());
+		}
 	}
-	
-	/////////////////////////////////////////////////////////////////
-	// -------------------------------------------- Evaluation Thread
-	/////////////////////////////////////////////////////////////////
-	
-	private class evaluationThread extends Thread
-	{
-		private IIndividual ind;
-		
-	    public evaluationThread(IIndividual ind)
-	    {
-	        this.ind = ind;
-	    }
-	    
-	    public void run()
-	    {
-	    	evaluate(ind);
-	    }
-    }
-}
\ No newline at end of file
+}
@@ -56,6 +56,18 @@ public abstract class AbstractRecombinator implements IRecombinator
 	/** Parent counter */
 	
 	protected transient int parentsCounter;
+
+	/** Recycled individuals. Used by the litter recombination method */
+
+	protected transient List<IIndividual> recycledBuffer;
+
+	/** Recycled individuals counter */
+
+	protected transient int recycledCounter;
+
+	/** Recycled individuals whose genotypes are being filled */
+
+	private transient List<AbstractIndividual<?>> reservedBuffer;
 	
 	/////////////////////////////////////////////////////////////////
 	// ------------------------------------------------- Constructors
@@ -119,17 +131,48 @@ public abstract class AbstractRecombinator implements IRecombinator
 	 */
 	
 	public List<IIndividual> recombine(List<IIndividual> parents) 
+	{
+		return recombine(parents, null, new ArrayList<IIndividual> ());
+	}
+
+	/**
+	 * Recombines parents, reusing individuals that are no longer needed.
+	 *
+	 * Sons are added to the given list. Operators that support recycling
+	 * (the array recombinators) write the genotypes of the sons into the
+	 * genotypes of the recycled individuals and return these individuals,
+	 * without fitness, as sons; when there are no recycled individuals left,
+	 * new ones are created. Recycled individuals must not be referenced
+	 * anywhere else (in particular, they cannot be parents).
+	 *
+	 * @param parents Parents list
+	 * @param recycled Individuals to reuse (null if there are none)
+	 * @param sons List to put sons in
+	 *
+	 * @return The sons list
+	 */
+
+	public List<IIndividual> recombine(List<IIndividual> parents, List<IIndividual> recycled, List<IIndividual> sons)
 	{
 		// Sets p list to actual parents
 		parentsBuffer = parents;
+		// Sets recycled individuals
+		recycledBuffer = recycled;
+		recycledCounter = 0;
+		if (reservedBuffer == null) {
+			reservedBuffer = new ArrayList<AbstractIndividual<?>> ();
+		}
 		// Prepare recombination process
 		prepareRecombination();
-		// Create a new list to put sons in it
-		sonsBuffer = new ArrayList<IIndividual> ();
+		// Sons are put in the given list
+		sonsBuffer = sons;
     	// For all individuals in "parents" ...
-    	for (parentsCounter = 0; parentsCounter <= parents.size() - ppl; parentsCounter += ppl) {
+    	for (parentsCounter = 0; parentsCounter <= parentsBuffer.size() - ppl; parentsCounter += ppl) {
 			recombineNext();
     	}
+		// Release recycled individuals
+		recycledBuffer = null;
+		reservedBuffer.clear();
 		// Returns sons list
 		return sonsBuffer;
 	}
@@ -179,4 +222,49 @@ public abstract class AbstractRecombinator implements IRecombinator
 	 */
 	
 	protected abstract void recombineNext();
+
+	/**
+	 * Genotype of the next recycled individual. This individual is reserved,
+	 * and becomes a son when recycledSon() is invoked with its genotype.
+	 *
+	 * @return Genotype of a recycled individual, or null if there are no
+	 *         recycled individuals left
+	 */
+
+	protected final Object recycledGenotype()
+	{
+		while (recycledBuffer != null && recycledCounter < recycledBuffer.size()) {
+			IIndividual ind = recycledBuffer.get(recycledCounter++);
+			if (ind instanceof AbstractIndividual<?>) {
+				AbstractIndividual<?> aind = (AbstractIndividual<?>) ind;
+				reservedBuffer.add(aind);
+				return aind.getGenotype();
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Reserved individual that owns a genotype. Its genotype is set again
+	 * (so cached data is cleared) and its fitness is removed.
+	 *
+	 * @param genotype Son genotype
+	 *
+	 * @return Recycled individual, or null if the genotype does not belong
+	 *         to a reserved individual
+	 */
+
+	@SuppressWarnings("unchecked")
+	protected final IIndividual recycledSon(Object genotype)
+	{
+		for (int i=0; i<reservedBuffer.size(); i++) {
+			if (reservedBuffer.get(i).getGenotype() == genotype) {
+				AbstractIndividual<Object> son = (AbstractIndividual<Object>) reservedBuffer.remove(i);
+				son.setGenotype(genotype);
+				son.setFitness(null);
+				return son;
+			}
+		}
+		return null;
+	}
 }
@@ -1,6 +1,7 @@
 package net.sf.jclec.base;
 
 import java.util.List;
+import java.util.HashSet;
 import java.util.ArrayList;
 
 import net.sf.jclec.IIndividual;
@@ -99,18 +100,38 @@ public abstract class AbstractSelector implements ISelector
 		return select(src, nofsel, true);
 	}
 	
+	/**
+	 * Selects <code>nofsel</code> individuals. If <code>repeat</code> is
+	 * false, no individual is selected twice (individuals are compared
+	 * with equals()) until all distinct individuals in the source set
+	 * have been selected.
+	 * 
+	 * @param src Source set
+	 * @param nofsel Number of individuals to select
+	 * @param repeat Allow repeated individuals
+	 * 
+	 * @return Selected individuals
+	 */
+	
 	public List<IIndividual> select(List<IIndividual> src, int nofsel, boolean repeat) 
 	{
 		// Sets source set and actsrcsz
 		actsrc = src; actsrcsz = src.size();
 		// Prepare selection process
 		prepareSelection();
+		// Individuals already selected and number of distinct individuals
+		HashSet<IIndividual> selectedSet = null;
+		int distinct = 0;
+		if (!repeat) {
+			selectedSet = new HashSet<IIndividual>();
+			distinct = new HashSet<IIndividual>(src).size();
+		}
 		// Performs selection of n individuals
 		ArrayList<IIndividual> result = new ArrayList<IIndividual>();
 		for (int i=0; i<nofsel; i++) {
 			IIndividual selected = selectNext(); 
-			if (!repeat) {
-				while (result.contains(selected)) {
+			if (!repeat && selectedSet.size() < distinct) {
+				while (!selectedSet.add(selected)) {
 					selected = selectNext();
 				}
 			}
@@ -0,0 +1,342 @@
+package net.sf.jclec.base;
+
+import java.util.List;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.concurrent.Future;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.sf.jclec.IEvaluator;
+import net.sf.jclec.IIndividual;
+import net.sf.jclec.IAsyncEvaluator;
+import net.sf.jclec.IEvaluationCallback;
+
+import org.apache.commons.configuration.Configuration;
+
+import org.apache.commons.lang.SerializationUtils;
+
+/**
+ * Adapts an existing evaluator to the IAsyncEvaluator interface.
+ *
+ * Submitted individuals are evaluated by a pool of worker threads owned by
+ * this adapter. If the decorated evaluator is an AbstractEvaluator, workers
+ * call its individual evaluation method directly (optionally on a per-thread
+ * replica, for fitness functions that are not thread-safe). Any other evaluator
+ * is called one individual at a time.
+ */
+
+public class AsyncEvaluatorAdapter extends DecoratedEvaluator implements IAsyncEvaluator
+{
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------- Serialization constant
+	/////////////////////////////////////////////////////////////////
+
+	private static final long serialVersionUID = 5520472883179017563L;
+
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------------------- Properties
+	/////////////////////////////////////////////////////////////////
+
+	/** Number of worker threads (0 means one per available processor) */
+
+	protected int numberOfThreads;
+
+	/** Each worker thread evaluates with its own evaluator replica */
+
+	protected boolean useReplicas;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------- Internal variables
+	/////////////////////////////////////////////////////////////////
+
+	/** Evaluations performed by the worker threads */
+
+	protected final AtomicInteger evaluationsCounter = new AtomicInteger();
+
+	/** Worker threads pool */
+
+	protected transient ExecutorService executor;
+
+	/** Evaluator replica attached to each worker thread */
+
+	protected transient ThreadLocal<AbstractEvaluator> replicas;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	/** Empty constructor */
+
+	public AsyncEvaluatorAdapter()
+	{
+		super();
+	}
+
+	/**
+	 * Constructor that sets the adapted evaluator.
+	 *
+	 * @param decorated Evaluator to adapt
+	 */
+
+	public AsyncEvaluatorAdapter(IEvaluator decorated)
+	{
+		super(decorated);
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	// Setting and getting properties
+
+	/**
+	 * Access to the number of worker threads.
+	 *
+	 * @return Number of worker threads (0 means one per processor)
+	 */
+
+	public final int getNumberOfThreads()
+	{
+		return numberOfThreads;
+	}
+
+	/**
+	 * Sets the number of worker threads. Changes take effect the next
+	 * time the worker pool is created.
+	 *
+	 * @param numberOfThreads New number of threads (0 means one per
+	 *        processor)
+	 */
+
+	public final void setNumberOfThreads(int numberOfThreads)
+	{
+		this.numberOfThreads = numberOfThreads;
+	}
+
+	/**
+	 * Informs if each worker thread uses its own evaluator replica.
+	 *
+	 * @return true if evaluator replicas are used
+	 */
+
+	public final boolean isUseReplicas()
+	{
+		return useReplicas;
+	}
+
+	/**
+	 * Sets the "useReplicas" flag.
+	 *
+	 * @param useReplicas New flag value
+	 */
+
+	public final void setUseReplicas(boolean useReplicas)
+	{
+		this.useReplicas = useReplicas;
+	}
+
+	// IEvaluator interface
+
+	/**
+	 * Submits all individuals without fitness and waits until all of
+	 * them have been evaluated.
+	 *
+	 * {@inheritDoc}
+	 */
+
+	public void evaluate(List<IIndividual> inds)
+	{
+		List<Future<IIndividual>> futures = new ArrayList<Future<IIndividual>>();
+		for (IIndividual ind : inds) {
+			if (ind.getFitness() == null) {
+				futures.add(submit(ind));
+			}
+		}
+		try {
+			for (Future<IIndividual> future : futures) {
+				future.get();
+			}
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Evaluation interrupted", e);
+		}
+		catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IllegalStateException("Evaluation failed", cause);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+
+	@Override
+	public int getNumberOfEvaluations()
+	{
+		return decorated.getNumberOfEvaluations() + evaluationsCounter.get();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+
+	@Override
+	public void setNumberOfEvaluations(int numberOfEvaluations)
+	{
+		super.setNumberOfEvaluations(numberOfEvaluations);
+		evaluationsCounter.set(0);
+	}
+
+	// IAsyncEvaluator interface
+
+	/**
+	 * {@inheritDoc}
+	 */
+
+	public Future<IIndividual> submit(IIndividual ind)
+	{
+		return submit(ind, null);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+
+	public Future<IIndividual> submit(final IIndividual ind, IEvaluationCallback callback)
+	{
+		Callable<IIndividual> task = new Callable<IIndividual>() {
+			public IIndividual call()
+			{
+				if (ind.getFitness() == null) {
+					evaluate(ind);
+				}
+				return ind;
+			}
+		};
+		EvaluationFuture future = new EvaluationFuture(task, ind, callback);
+		getExecutor().execute(future);
+		return future;
+	}
+
+	// Closeable interface
+
+	/**
+	 * Shuts down the worker threads pool, cancelling the evaluations
+	 * not started yet, and closes the adapted evaluator (if necessary).
+	 */
+
+	@Override
+	public void close()
+	{
+		synchronized (this) {
+			if (executor != null) {
+				executor.shutdownNow();
+				executor = null;
+			}
+			replicas = null;
+		}
+		super.close();
+	}
+
+	// IConfigure interface
+
+	/**
+	 * Configuration parameters for AsyncEvaluatorAdapter are:
+	 *
+	 * <ul>
+	 * <li>
+	 * <code>decorated: IEvaluator (complex)</code></p>
+	 * Evaluator to adapt
+	 * </li><li>
+	 * <code>[@number-of-threads] int (default 0)</code></p>
+	 * Number of worker threads. 0 means one per available processor
+	 * </li><li>
+	 * <code>[@use-replicas] boolean (default false)</code></p>
+	 * Each worker evaluates with its own replica of the adapted evaluator
+	 * </li>
+	 * </ul>
+	 */
+
+	@Override
+	public void configure(Configuration settings)
+	{
+		// Call super method
+		super.configure(settings);
+		// Number of threads
+		int numberOfThreads = settings.getInt("[@number-of-threads]", 0);
+		setNumberOfThreads(numberOfThreads);
+		// Use replicas
+		boolean useReplicas = settings.getBoolean("[@use-replicas]", false);
+		setUseReplicas(useReplicas);
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// -------------------------------------------- Protected methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Access to the worker threads pool, creating it if necessary.
+	 *
+	 * @return Worker threads pool
+	 */
+
+	protected synchronized ExecutorService getExecutor()
+	{
+		if (executor == null) {
+			int threads = numberOfThreads > 0 ? numberOfThreads : Runtime.getRuntime().availableProcessors();
+			executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+				private final AtomicInteger counter = new AtomicInteger();
+
+				public Thread newThread(Runnable task)
+				{
+					Thread thread = new Thread(task, "async-evaluator-" + counter.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+			replicas = new ThreadLocal<AbstractEvaluator>();
+		}
+		return executor;
+	}
+
+	/**
+	 * Evaluates one individual in the current thread.
+	 *
+	 * @param ind Individual to evaluate
+	 */
+
+	protected void evaluate(IIndividual ind)
+	{
+		if (decorated instanceof AbstractEvaluator) {
+			AbstractEvaluator evaluator = (AbstractEvaluator) decorated;
+			if (useReplicas) {
+				evaluator = replicas.get();
+				if (evaluator == null) {
+					synchronized (this) {
+						evaluator = (AbstractEvaluator) SerializationUtils.clone(decorated);
+					}
+					replicas.set(evaluator);
+				}
+			}
+			evaluator.evaluateIndividual(ind);
+			evaluationsCounter.incrementAndGet();
+		}
+		else {
+			synchronized (decorated) {
+				decorated.evaluate(Collections.singletonList(ind));
+			}
+		}
+	}
+}
@@ -0,0 +1,91 @@
+package net.sf.jclec.base;
+
+import java.util.List;
+import java.util.ArrayList;
+import java.util.concurrent.Future;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ExecutionException;
+
+import net.sf.jclec.IIndividual;
+
+/**
+ * Execution of breeding tasks in a fork-join pool (used by ParallelRecombinator,
+ * ParallelMutator and ParallelCreator).
+ */
+
+final class BreedingTasks
+{
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	private BreedingTasks()
+	{
+		super();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Creates a pool of worker threads.
+	 *
+	 * @param numberOfThreads Number of threads (0 means one per available
+	 *        processor)
+	 *
+	 * @return Fork-join pool
+	 */
+
+	static ForkJoinPool createPool(int numberOfThreads)
+	{
+		return new ForkJoinPool(numberOfThreads > 0 ? numberOfThreads : Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Runs breeding tasks and concatenates their results in task order. A
+	 * single task is run in the calling thread.
+	 *
+	 * @param pool Worker threads pool
+	 * @param tasks Breeding tasks
+	 *
+	 * @return Sons of all tasks
+	 */
+
+	static List<IIndividual> invokeAll(ForkJoinPool pool, List<Callable<List<IIndividual>>> tasks)
+	{
+		List<IIndividual> result = new ArrayList<IIndividual>();
+		try {
+			if (tasks.size() == 1) {
+				result.addAll(tasks.get(0).call());
+			}
+			else {
+				for (Future<List<IIndividual>> future : pool.invokeAll(tasks)) {
+					result.addAll(future.get());
+				}
+			}
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Breeding interrupted", e);
+		}
+		catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IllegalStateException("Breeding failed", cause);
+		}
+		catch (RuntimeException e) {
+			throw e;
+		}
+		catch (Exception e) {
+			throw new IllegalStateException("Breeding failed", e);
+		}
+		return result;
+	}
+}
@@ -0,0 +1,275 @@
+package net.sf.jclec.base;
+
+import java.util.Map;
+import java.util.List;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+
+import net.sf.jclec.IFitness;
+import net.sf.jclec.IEvaluator;
+import net.sf.jclec.IIndividual;
+
+import net.sf.jclec.util.GenotypeFingerprint;
+
+import org.apache.commons.configuration.Configuration;
+
+/**
+ * Evaluator that remembers the fitness of recently evaluated genotypes.
+ *
+ * Before evaluating an individual, its genotype fingerprint is looked up in a
+ * size-bounded LRU cache, that keeps a copy of the last individual evaluated
+ * with each fingerprint. On a hit, if the cached individual is equal to the
+ * evaluated one, the latter receives a copy of the cached fitness and the
+ * decorated evaluator is not called; individuals with the same genotype in the
+ * same batch are evaluated only once. Individuals whose fingerprint collides
+ * with the one of a different genotype, and individuals whose genotype cannot
+ * be fingerprinted, are always evaluated.
+ *
+ * @see net.sf.jclec.util.GenotypeFingerprint
+ */
+
+public class CachedEvaluator extends DecoratedEvaluator
+{
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------- Serialization constant
+	/////////////////////////////////////////////////////////////////
+
+	private static final long serialVersionUID = -3153846462541264113L;
+
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------------------- Properties
+	/////////////////////////////////////////////////////////////////
+
+	/** Maximum number of cached fitness values */
+
+	protected int cacheSize = 10000;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------- Internal variables
+	/////////////////////////////////////////////////////////////////
+
+	/** Cached individuals (with their fitness), in access order */
+
+	protected transient LinkedHashMap<Long, IIndividual> cache;
+
+	/** Number of cache hits */
+
+	protected long numberOfHits;
+
+	/** Number of cache misses */
+
+	protected long numberOfMisses;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	/** Empty constructor */
+
+	public CachedEvaluator()
+	{
+		super();
+	}
+
+	/**
+	 * Constructor that sets the decorated evaluator.
+	 *
+	 * @param decorated Evaluator to decorate
+	 */
+
+	public CachedEvaluator(IEvaluator decorated)
+	{
+		super(decorated);
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	// Setting and getting properties
+
+	/**
+	 * Access to maximum cache size.
+	 *
+	 * @return Maximum number of cached fitness values
+	 */
+
+	public final int getCacheSize()
+	{
+		return cacheSize;
+	}
+
+	/**
+	 * Sets the maximum cache size.
+	 *
+	 * @param cacheSize Maximum number of cached fitness values
+	 */
+
+	public final void setCacheSize(int cacheSize)
+	{
+		this.cacheSize = cacheSize;
+	}
+
+	// Cache statistics
+
+	/**
+	 * Access to the number of cache hits.
+	 *
+	 * @return Individuals whose fitness was taken from the cache
+	 */
+
+	public final long getNumberOfHits()
+	{
+		return numberOfHits;
+	}
+
+	/**
+	 * Access to the number of cache misses.
+	 *
+	 * @return Individuals passed to the decorated evaluator
+	 */
+
+	public final long getNumberOfMisses()
+	{
+		return numberOfMisses;
+	}
+
+	/**
+	 * Removes all cached fitness values.
+	 */
+
+	public void clear()
+	{
+		if (cache != null) {
+			cache.clear();
+		}
+	}
+
+	// IEvaluator interface
+
+	/**
+	 * {@inheritDoc}
+	 */
+
+	public void evaluate(List<IIndividual> inds)
+	{
+		// Fitness cache
+		Map<Long, IIndividual> cache = getCache();
+		// Individuals to evaluate and their fingerprints
+		List<IIndividual> pending = new ArrayList<IIndividual>();
+		List<Long> pendingKeys = new ArrayList<Long>();
+		// Pending individual with each fingerprint
+		Map<Long, IIndividual> first = new LinkedHashMap<Long, IIndividual>();
+		// Individuals that repeat the genotype of a pending one
+		Map<Long, List<IIndividual>> repeated = new LinkedHashMap<Long, List<IIndividual>>();
+		for (IIndividual ind : inds) {
+			if (ind.getFitness() != null) {
+				continue;
+			}
+			Long key = GenotypeFingerprint.isSupported(ind) ? fingerprint(ind) : null;
+			IIndividual cached = key != null ? cache.get(key) : null;
+			if (cached != null && cached.equals(ind)) {
+				ind.setFitness(cached.getFitness().copy());
+				numberOfHits++;
+			}
+			else if (key != null && first.containsKey(key) && first.get(key).equals(ind)) {
+				repeated.get(key).add(ind);
+				numberOfHits++;
+			}
+			else {
+				// Fingerprint collisions in a batch are not cached
+				if (key != null && first.containsKey(key)) {
+					key = null;
+				}
+				pending.add(ind);
+				pendingKeys.add(key);
+				if (key != null) {
+					first.put(key, ind);
+					repeated.put(key, new ArrayList<IIndividual>());
+				}
+				numberOfMisses++;
+			}
+		}
+		// Evaluate cache misses
+		if (!pending.isEmpty()) {
+			decorated.evaluate(pending);
+		}
+		// Store new fitness values
+		int size = pending.size();
+		for (int i=0; i<size; i++) {
+			Long key = pendingKeys.get(i);
+			IFitness fitness = pending.get(i).getFitness();
+			if (key == null || fitness == null) {
+				continue;
+			}
+			cache.put(key, pending.get(i).copy());
+			for (IIndividual ind : repeated.get(key)) {
+				ind.setFitness(fitness.copy());
+			}
+		}
+	}
+
+	// IConfigure interface
+
+	/**
+	 * Configuration parameters for CachedEvaluator are:
+	 *
+	 * <ul>
+	 * <li>
+	 * <code>decorated: IEvaluator (complex)</code></p>
+	 * Evaluator to decorate
+	 * </li><li>
+	 * <code>cache-size int (default 10000)</code></p>
+	 * Maximum number of cached fitness values
+	 * </li>
+	 * </ul>
+	 */
+
+	@Override
+	public void configure(Configuration settings)
+	{
+		// Call super method
+		super.configure(settings);
+		// Cache size
+		int cacheSize = settings.getInt("cache-size", 10000);
+		setCacheSize(cacheSize);
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// -------------------------------------------- Protected methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Cache key of an individual.
+	 *
+	 * @param ind Individual whose genotype can be fingerprinted
+	 *
+	 * @return Genotype fingerprint
+	 */
+
+	protected long fingerprint(IIndividual ind)
+	{
+		return GenotypeFingerprint.fingerprint(ind);
+	}
+
+	/**
+	 * Access to the fitness cache, creating it if necessary.
+	 *
+	 * @return Fitness cache
+	 */
+
+	@SuppressWarnings("serial")
+	protected Map<Long, IIndividual> getCache()
+	{
+		if (cache == null) {
+			cache = new LinkedHashMap<Long, IIndividual>(16, 0.75f, true) {
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<Long, IIndividual> eldest)
+				{
+					return size() > cacheSize;
+				}
+			};
+		}
+		return cache;
+	}
+}
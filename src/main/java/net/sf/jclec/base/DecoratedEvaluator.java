@@ -0,0 +1,182 @@
+package net.sf.jclec.base;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+import java.util.Comparator;
+
+import net.sf.jclec.IFitness;
+import net.sf.jclec.IEvaluator;
+import net.sf.jclec.IConfigure;
+import net.sf.jclec.util.ComponentRegistry;
+
+import org.apache.commons.configuration.Configuration;
+import org.apache.commons.configuration.ConfigurationRuntimeException;
+
+/**
+ * Decorated evaluator.
+ *
+ * Adds functionality to an existing evaluator. The number of evaluations and
+ * the fitness comparator are those of the decorated evaluator.
+ */
+
+@SuppressWarnings("serial")
+public abstract class DecoratedEvaluator implements IEvaluator, IConfigure, Closeable
+{
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------------------- Properties
+	/////////////////////////////////////////////////////////////////
+
+	/** Evaluator to decorate */
+
+	protected IEvaluator decorated;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	/** Empty constructor */
+
+	public DecoratedEvaluator()
+	{
+		super();
+	}
+
+	/**
+	 * Constructor that sets the decorated evaluator.
+	 *
+	 * @param decorated Evaluator to decorate
+	 */
+
+	public DecoratedEvaluator(IEvaluator decorated)
+	{
+		super();
+		setDecorated(decorated);
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	// Setting and getting properties
+
+	/**
+	 * Access to decorated evaluator.
+	 *
+	 * @return Decorated evaluator
+	 */
+
+	public final IEvaluator getDecorated()
+	{
+		return decorated;
+	}
+
+	/**
+	 * Set the evaluator to decorate.
+	 *
+	 * @param decorated Evaluator to decorate
+	 */
+
+	public final void setDecorated(IEvaluator decorated)
+	{
+		this.decorated = decorated;
+	}
+
+	// IEvaluator interface
+
+	/**
+	 * {@inheritDoc}
+	 */
+
+	public int getNumberOfEvaluations()
+	{
+		return decorated.getNumberOfEvaluations();
+	}
+
+	/**
+	 * Sets the number of evaluations (used to resume a run). By default,
+	 * it is set in the decorated evaluator, if possible.
+	 *
+	 * @param numberOfEvaluations Number of evaluations performed
+	 */
+
+	public void setNumberOfEvaluations(int numberOfEvaluations)
+	{
+		if (decorated instanceof AbstractEvaluator) {
+			((AbstractEvaluator) decorated).setNumberOfEvaluations(numberOfEvaluations);
+		}
+		else if (decorated instanceof DecoratedEvaluator) {
+			((DecoratedEvaluator) decorated).setNumberOfEvaluations(numberOfEvaluations);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+
+	public Comparator<IFitness> getComparator()
+	{
+		return decorated.getComparator();
+	}
+
+	// Closeable interface
+
+	/**
+	 * Closes the decorated evaluator (if necessary).
+	 */
+
+	public void close()
+	{
+		if (decorated instanceof Closeable) {
+			try {
+				((Closeable) decorated).close();
+			}
+			catch (IOException e) {
+				e.printStackTrace();
+			}
+		}
+	}
+
+	// IConfigure interface
+
+	/**
+	 * Configuration parameters for DecoratedEvaluator are:
+	 *
+	 * <ul>
+	 * <li>
+	 * <code>decorated: IEvaluator (complex)</code></p>
+	 * Evaluator to decorate
+	 * </li>
+	 * </ul>
+	 */
+
+	@SuppressWarnings("unchecked")
+	public void configure(Configuration settings)
+	{
+		try {
+			// Decorated evaluator classname
+			String decoratedClassname =
+				settings.getString("decorated[@type]");
+			// Decorated evaluator class
+			Class<? extends IEvaluator> decoratedClass =
+				(Class<? extends IEvaluator>) ComponentRegistry.forName(decoratedClassname);
+			// Decorated evaluator instance
+			IEvaluator decorated = ComponentRegistry.newInstance(decoratedClass);
+			// Configure decorated evaluator (if necessary)
+			if (decorated instanceof IConfigure) {
+				((IConfigure) decorated).configure(ComponentRegistry.subset(settings, "decorated"));
+			}
+			// Set decorated evaluator
+			setDecorated(decorated);
+		}
+		catch (ClassNotFoundException e) {
+			throw new ConfigurationRuntimeException("Illegal decorated evaluator classname");
+		}
+		catch (InstantiationException e) {
+			throw new ConfigurationRuntimeException("Problems creating an instance of decorated evaluator", e);
+		}
+		catch (IllegalAccessException e) {
+			throw new ConfigurationRuntimeException("Problems creating an instance of decorated evaluator", e);
+		}
+	}
+}
@@ -3,6 +3,7 @@ package net.sf.jclec.base;
 import net.sf.jclec.ISystem;
 import net.sf.jclec.IMutator;
 import net.sf.jclec.IConfigure;
+import net.sf.jclec.util.ComponentRegistry;
 
 import org.apache.commons.configuration.Configuration;
 
@@ -126,12 +127,12 @@ public abstract class DecoratedMutator implements IMutator, IConfigure
 				settings.getString("decorated[@type]");
 			// Decorated mutator class
 			Class<? extends IMutator> decoratedClass = 
-				(Class<? extends IMutator>) Class.forName(decoratedClassname);
+				(Class<? extends IMutator>) ComponentRegistry.forName(decoratedClassname);
 			// Decorated mutator instance
-			IMutator decorated = decoratedClass.newInstance();
+			IMutator decorated = ComponentRegistry.newInstance(decoratedClass);
 			// Configure decorated mutator (if necessary) 
 			if (decorated instanceof IConfigure) {
-				((IConfigure) decorated).configure(settings.subset("decorated"));				
+				((IConfigure) decorated).configure(ComponentRegistry.subset(settings, "decorated"));				
 			}
 			// Set decorated mutator
 			setDecorated(decorated);
@@ -3,6 +3,7 @@ package net.sf.jclec.base;
 import net.sf.jclec.ISystem;
 import net.sf.jclec.IConfigure;
 import net.sf.jclec.IRecombinator;
+import net.sf.jclec.util.ComponentRegistry;
 
 import org.apache.commons.configuration.Configuration;
 
@@ -148,12 +149,12 @@ public abstract class DecoratedRecombinator implements IRecombinator, IConfigure
 				settings.getString("decorated[@type]");
 			// Decorated recombinator class
 			Class<? extends IRecombinator> decoratedClass = 
-				(Class<? extends IRecombinator>) Class.forName(decoratedClassname);
+				(Class<? extends IRecombinator>) ComponentRegistry.forName(decoratedClassname);
 			// Decorated recombinator instance
-			IRecombinator decorated = decoratedClass.newInstance();
+			IRecombinator decorated = ComponentRegistry.newInstance(decoratedClass);
 			// Configure decorated recombinator
 			if (decorated instanceof IConfigure) {
-				((IConfigure) decorated).configure(settings.subset("decorated"));				
+				((IConfigure) decorated).configure(ComponentRegistry.subset(settings, "decorated"));				
 			}
 			// Set decorated 
 			setDecorated(decorated);
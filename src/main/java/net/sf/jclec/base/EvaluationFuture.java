@@ -0,0 +1,74 @@
+package net.sf.jclec.base;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.CancellationException;
+
+import net.sf.jclec.IIndividual;
+import net.sf.jclec.IEvaluationCallback;
+
+/**
+ * Completion handle for an asynchronous evaluation, that notifies its
+ * callback (if any) when the evaluation finishes.
+ */
+
+class EvaluationFuture extends FutureTask<IIndividual>
+{
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------- Internal variables
+	/////////////////////////////////////////////////////////////////
+
+	/** Individual being evaluated */
+	
+	private final IIndividual ind;
+	
+	/** Completion callback */
+	
+	private final IEvaluationCallback callback;
+	
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param task Evaluation task
+	 * @param ind Individual being evaluated
+	 * @param callback Completion callback (can be null)
+	 */
+	
+	EvaluationFuture(Callable<IIndividual> task, IIndividual ind, IEvaluationCallback callback)
+	{
+		super(task);
+		this.ind = ind;
+		this.callback = callback;
+	}
+	
+	/////////////////////////////////////////////////////////////////
+	// -------------------------------------------- Protected methods
+	/////////////////////////////////////////////////////////////////
+
+	@Override
+	protected void done()
+	{
+		if (callback == null) {
+			return;
+		}
+		if (isCancelled()) {
+			callback.evaluationFailed(ind, new CancellationException());
+			return;
+		}
+		try {
+			get();
+			callback.evaluationCompleted(ind);
+		}
+		catch (ExecutionException e) {
+			callback.evaluationFailed(ind, e.getCause());
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
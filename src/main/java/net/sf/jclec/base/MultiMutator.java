@@ -7,6 +7,7 @@ import net.sf.jclec.ISystem;
 import net.sf.jclec.IMutator;
 import net.sf.jclec.IConfigure;
 import net.sf.jclec.IIndividual;
+import net.sf.jclec.util.ComponentRegistry;
 
 import org.apache.commons.lang.builder.EqualsBuilder;
 
@@ -142,12 +143,12 @@ public class MultiMutator implements IMutator, IConfigure
 				String componentClassname = settings.getString(header+"[@type");
 				// Component class
 				Class<IMutator> componentClass = 
-					(Class<IMutator>) Class.forName(componentClassname);				
+					(Class<IMutator>) ComponentRegistry.forName(componentClassname);				
 				// Component instance
-				IMutator component = componentClass.newInstance();
+				IMutator component = ComponentRegistry.newInstance(componentClass);
 				// Configure component (if necessary)
 				if (component instanceof IConfigure) {
-					((IConfigure) component).configure(settings.subset(header));
+					((IConfigure) component).configure(ComponentRegistry.subset(settings, header));
 				}
 			} 
 			catch (ClassNotFoundException e) {
@@ -7,6 +7,7 @@ import net.sf.jclec.ISystem;
 import net.sf.jclec.IConfigure;
 import net.sf.jclec.IIndividual;
 import net.sf.jclec.IRecombinator;
+import net.sf.jclec.util.ComponentRegistry;
 
 import org.apache.commons.configuration.Configuration;
 
@@ -146,12 +147,12 @@ public class MultiRecombinator implements IRecombinator, IConfigure
 				String componentClassname = settings.getString(header+"[@type");
 				// Component class
 				Class<IRecombinator> componentClass = 
-					(Class<IRecombinator>) Class.forName(componentClassname);				
+					(Class<IRecombinator>) ComponentRegistry.forName(componentClassname);				
 				// Component instance
-				IRecombinator component = componentClass.newInstance();
+				IRecombinator component = ComponentRegistry.newInstance(componentClass);
 				// Configure component (if necessary)
 				if (component instanceof IConfigure) {
-					((IConfigure) component).configure(settings.subset(header));
+					((IConfigure) component).configure(ComponentRegistry.subset(settings, header));
 				}
 			} 
 			catch (ClassNotFoundException e) {
@@ -0,0 +1,141 @@
+package net.sf.jclec.base;
+
+import net.sf.jclec.IIndividual;
+
+/**
+ * Record of the mutation that created an individual: its parent and the loci
+ * whose values differ from those of the parent.
+ *
+ * Array mutators attach these records to the individuals they create, so that
+ * IDeltaEvaluators can update the fitness of the parent instead of evaluating
+ * the mutant from scratch.
+ *
+ * @see net.sf.jclec.IDeltaEvaluator
+ */
+
+public class MutationRecord
+{
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------------------- Properties
+	/////////////////////////////////////////////////////////////////
+
+	/** Mutated individual */
+
+	protected final IIndividual parent;
+
+	/** Changed loci, in ascending order and without repetitions */
+
+	protected final int [] changedLoci;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Constructor that sets parent and changed loci.
+	 *
+	 * @param parent Mutated individual
+	 * @param changedLoci Changed loci (ascending and without repetitions)
+	 */
+
+	public MutationRecord(IIndividual parent, int [] changedLoci)
+	{
+		super();
+		this.parent = parent;
+		this.changedLoci = changedLoci;
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Access to the mutated individual.
+	 *
+	 * @return Parent individual
+	 */
+
+	public final IIndividual getParent()
+	{
+		return parent;
+	}
+
+	/**
+	 * Access to the changed loci.
+	 *
+	 * @return Changed loci, in ascending order and without repetitions
+	 */
+
+	public final int [] getChangedLoci()
+	{
+		return changedLoci;
+	}
+
+	// Changed loci computation
+
+	/**
+	 * Loci whose values differ in two byte arrays of the same length.
+	 *
+	 * @param parent Parent genotype
+	 * @param mutant Mutant genotype
+	 *
+	 * @return Changed loci
+	 */
+
+	public static final int [] changedLoci(byte [] parent, byte [] mutant)
+	{
+		int count = 0;
+		for (int i=0; i<parent.length; i++) {
+			if (parent[i] != mutant[i]) count++;
+		}
+		int [] loci = new int[count];
+		for (int i=0, j=0; j<count; i++) {
+			if (parent[i] != mutant[i]) loci[j++] = i;
+		}
+		return loci;
+	}
+
+	/**
+	 * Loci whose values differ in two int arrays of the same length.
+	 *
+	 * @param parent Parent genotype
+	 * @param mutant Mutant genotype
+	 *
+	 * @return Changed loci
+	 */
+
+	public static final int [] changedLoci(int [] parent, int [] mutant)
+	{
+		int count = 0;
+		for (int i=0; i<parent.length; i++) {
+			if (parent[i] != mutant[i]) count++;
+		}
+		int [] loci = new int[count];
+		for (int i=0, j=0; j<count; i++) {
+			if (parent[i] != mutant[i]) loci[j++] = i;
+		}
+		return loci;
+	}
+
+	/**
+	 * Loci whose values differ in two double arrays of the same length.
+	 *
+	 * @param parent Parent genotype
+	 * @param mutant Mutant genotype
+	 *
+	 * @return Changed loci
+	 */
+
+	public static final int [] changedLoci(double [] parent, double [] mutant)
+	{
+		int count = 0;
+		for (int i=0; i<parent.length; i++) {
+			if (parent[i] != mutant[i]) count++;
+		}
+		int [] loci = new int[count];
+		for (int i=0, j=0; j<count; i++) {
+			if (parent[i] != mutant[i]) loci[j++] = i;
+		}
+		return loci;
+	}
+}
@@ -0,0 +1,346 @@
+package net.sf.jclec.base;
+
+import java.util.List;
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+
+import net.sf.jclec.ISystem;
+import net.sf.jclec.IConfigure;
+import net.sf.jclec.IProvider;
+import net.sf.jclec.IIndividual;
+import net.sf.jclec.IPopulation;
+
+import net.sf.jclec.util.ComponentRegistry;
+import net.sf.jclec.util.random.IRandGen;
+import net.sf.jclec.util.random.RandGenStreams;
+
+import org.apache.commons.configuration.Configuration;
+import org.apache.commons.configuration.ConfigurationRuntimeException;
+
+import org.apache.commons.lang.SerializationUtils;
+import org.apache.commons.lang.builder.EqualsBuilder;
+
+/**
+ * Provider that creates individuals in parallel.
+ *
+ * Individuals are created in chunks of consecutive indexes, and each chunk is
+ * created by its own replica of the decorated creator in a fork-join pool.
+ * Each chunk draws from its own random generator, derived from the generator
+ * of this provider by means of RandGenStreams, and individuals are returned
+ * in chunk order. As chunks only depend on the chunk size, results are the
+ * same for any number of threads.
+ *
+ * The decorated provider must be an AbstractCreator, and its createNext()
+ * method must be safe to run concurrently in different replicas (species,
+ * schema and context are shared).
+ */
+
+public class ParallelCreator implements IProvider, IConfigure
+{
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------- Serialization constant
+	/////////////////////////////////////////////////////////////////
+
+	private static final long serialVersionUID = 2751489374263917785L;
+
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------------------- Properties
+	/////////////////////////////////////////////////////////////////
+
+	/** Decorated creator */
+
+	protected IProvider decorated;
+
+	/** Number of worker threads (0 means one per available processor) */
+
+	protected int numberOfThreads;
+
+	/** Individuals created by each task */
+
+	protected int chunkSize = 256;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------- Internal variables
+	/////////////////////////////////////////////////////////////////
+
+	/** Execution context */
+
+	protected IPopulation context;
+
+	/** Random generator */
+
+	protected IRandGen randgen;
+
+	/** Worker threads pool */
+
+	protected transient ForkJoinPool pool;
+
+	/** Replicas of the decorated creator, one per chunk */
+
+	protected transient List<AbstractCreator> replicas;
+
+	/** Creator replicated */
+
+	protected transient AbstractCreator replicated;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Empty constructor
+	 */
+
+	public ParallelCreator()
+	{
+		super();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	// Setting and getting properties
+
+	public final IProvider getDecorated()
+	{
+		return decorated;
+	}
+
+	/**
+	 * Sets (and contextualizes, if this provider has a context) the
+	 * decorated creator.
+	 *
+	 * @param decorated New decorated creator
+	 */
+
+	public final void setDecorated(IProvider decorated)
+	{
+		this.decorated = decorated;
+		if (context != null) {
+			decorated.contextualize(context);
+		}
+	}
+
+	public final int getNumberOfThreads()
+	{
+		return numberOfThreads;
+	}
+
+	/**
+	 * Sets the number of worker threads. Changes take effect the next
+	 * time the worker pool is created.
+	 *
+	 * @param numberOfThreads New number of threads (0 means one per
+	 *        processor)
+	 */
+
+	public final void setNumberOfThreads(int numberOfThreads)
+	{
+		this.numberOfThreads = numberOfThreads;
+		this.pool = null;
+	}
+
+	public final int getChunkSize()
+	{
+		return chunkSize;
+	}
+
+	public final void setChunkSize(int chunkSize)
+	{
+		this.chunkSize = chunkSize;
+	}
+
+	// IProvider interface
+
+	/**
+	 * Take a random generator and contextualize decorated creator
+	 * (if exists)
+	 *
+	 * {@inheritDoc}
+	 */
+
+	public void contextualize(ISystem context)
+	{
+		if(context instanceof IPopulation) {
+			// Set execution context
+			this.context = (IPopulation) context;
+			// Take a random generator
+			this.randgen = context.createRandGen();
+			// Contextualize decorated creator
+			if (decorated != null) {
+				decorated.contextualize(context);
+			}
+			// Replicas must be contextualized again
+			replicas = null;
+		}
+		else {
+			throw new IllegalArgumentException
+				("This object uses a population as execution context");
+		}
+	}
+
+	/**
+	 * Creates individuals in chunks of chunkSize individuals.
+	 *
+	 * {@inheritDoc}
+	 */
+
+	public List<IIndividual> provide(final int numberOfIndividuals)
+	{
+		// Chunks
+		final int chunk = Math.max(1, chunkSize);
+		int numberOfChunks = (numberOfIndividuals + chunk - 1) / chunk;
+		if (numberOfChunks == 0) {
+			return new ArrayList<IIndividual>();
+		}
+		// Random generators
+		IRandGen [] streams = RandGenStreams.split(randgen, numberOfChunks);
+		// Creation tasks
+		List<Callable<List<IIndividual>>> tasks = new ArrayList<Callable<List<IIndividual>>>();
+		for (int i=0; i<numberOfChunks; i++) {
+			final AbstractCreator replica = replica(i);
+			replica.randgen = streams[i];
+			final int fromIndex = i * chunk;
+			tasks.add(new Callable<List<IIndividual>>() {
+				public List<IIndividual> call()
+				{
+					return replica.create(numberOfIndividuals, fromIndex, Math.min(numberOfIndividuals, fromIndex + chunk));
+				}
+			});
+		}
+		// Run tasks
+		if (pool == null) {
+			pool = BreedingTasks.createPool(numberOfThreads);
+		}
+		return BreedingTasks.invokeAll(pool, tasks);
+	}
+
+	// IConfigure interface
+
+	/**
+	 * Configuration parameters for ParallelCreator are:
+	 *
+	 * <ul>
+	 * <li>
+	 * <code>decorated: IProvider (complex)</code></p>
+	 * Creator to run in parallel (an AbstractCreator)
+	 * </li><li>
+	 * <code>[@number-of-threads] int (default 0)</code></p>
+	 * Number of worker threads. 0 means one per available processor
+	 * </li><li>
+	 * <code>[@chunk-size] int (default 256)</code></p>
+	 * Individuals created by each task
+	 * </li>
+	 * </ul>
+	 */
+
+	@SuppressWarnings("unchecked")
+	public void configure(Configuration settings)
+	{
+		try {
+			// Decorated creator classname
+			String decoratedClassname =
+				settings.getString("decorated[@type]");
+			// Decorated creator class
+			Class<? extends IProvider> decoratedClass =
+				(Class<? extends IProvider>) ComponentRegistry.forName(decoratedClassname);
+			// Decorated creator instance
+			IProvider decorated = ComponentRegistry.newInstance(decoratedClass);
+			// Configure decorated creator
+			if (decorated instanceof IConfigure) {
+				((IConfigure) decorated).configure(ComponentRegistry.subset(settings, "decorated"));
+			}
+			// Set decorated
+			setDecorated(decorated);
+		}
+		catch (ClassNotFoundException e) {
+			throw new ConfigurationRuntimeException("Illegal decorated classname", e);
+		}
+		catch (InstantiationException e) {
+			throw new ConfigurationRuntimeException("Problems creating an instance of decorated", e);
+		}
+		catch (IllegalAccessException e) {
+			throw new ConfigurationRuntimeException("Problems creating an instance of decorated", e);
+		}
+		// Number of threads
+		int numberOfThreads = settings.getInt("[@number-of-threads]", 0);
+		if (numberOfThreads < 0) {
+			throw new ConfigurationRuntimeException("Number of threads must be non-negative");
+		}
+		setNumberOfThreads(numberOfThreads);
+		// Chunk size
+		int chunkSize = settings.getInt("[@chunk-size]", 256);
+		if (chunkSize <= 0) {
+			throw new ConfigurationRuntimeException("Chunk size must be positive");
+		}
+		setChunkSize(chunkSize);
+	}
+
+	// java.lang.Object methods
+
+	/**
+	 * Compare decorated creator, number of threads and chunk size.
+	 *
+	 * {@inheritDoc}
+	 */
+
+	public boolean equals(Object other)
+	{
+		if (other instanceof ParallelCreator) {
+			ParallelCreator o = (ParallelCreator) other;
+			EqualsBuilder eb = new EqualsBuilder();
+			eb.append(decorated, o.decorated);
+			eb.append(numberOfThreads, o.numberOfThreads);
+			eb.append(chunkSize, o.chunkSize);
+			return eb.isEquals();
+		}
+		else {
+			return false;
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Replica of the decorated creator for a chunk. Replicas are copies
+	 * of the decorated creator that share its context.
+	 *
+	 * @param index Chunk index
+	 *
+	 * @return Creator replica
+	 */
+
+	private AbstractCreator replica(int index)
+	{
+		if (!(decorated instanceof AbstractCreator)) {
+			throw new IllegalStateException("AbstractCreator expected");
+		}
+		AbstractCreator creator = (AbstractCreator) decorated;
+		if (replicas == null || replicated != creator) {
+			replicas = new ArrayList<AbstractCreator>();
+			replicated = creator;
+		}
+		while (replicas.size() <= index) {
+			// Copy decorated creator without context
+			IPopulation context = creator.context;
+			IRandGen randgen = creator.randgen;
+			creator.context = null;
+			creator.randgen = null;
+			AbstractCreator replica;
+			try {
+				replica = (AbstractCreator) SerializationUtils.clone(creator);
+			}
+			finally {
+				creator.context = context;
+				creator.randgen = randgen;
+			}
+			replica.context = context;
+			replicas.add(replica);
+		}
+		return replicas.get(index);
+	}
+}
@@ -0,0 +1,296 @@
+package net.sf.jclec.base;
+
+import java.util.List;
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+
+import net.sf.jclec.ISystem;
+import net.sf.jclec.IIndividual;
+import net.sf.jclec.IPopulation;
+
+import net.sf.jclec.util.random.IRandGen;
+import net.sf.jclec.util.random.RandGenStreams;
+
+import org.apache.commons.configuration.Configuration;
+import org.apache.commons.configuration.ConfigurationRuntimeException;
+
+import org.apache.commons.lang.SerializationUtils;
+import org.apache.commons.lang.builder.EqualsBuilder;
+
+/**
+ * Mutator that breeds in parallel.
+ *
+ * Parents are partitioned into chunks of consecutive individuals, and each
+ * chunk is mutated by its own replica of the decorated mutator in a fork-join
+ * pool. Each chunk draws from its own random generator, derived from the
+ * generator of this operator by means of RandGenStreams, and mutants are
+ * returned in chunk order. As chunks only depend on the chunk size, results
+ * are the same for any number of threads.
+ *
+ * The decorated mutator must be an AbstractMutator, and its mutation methods
+ * must be safe to run concurrently in different replicas (species, context
+ * and parents are shared).
+ */
+
+public class ParallelMutator extends DecoratedMutator
+{
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------- Serialization constant
+	/////////////////////////////////////////////////////////////////
+
+	private static final long serialVersionUID = 2794612238350153561L;
+
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------------------- Properties
+	/////////////////////////////////////////////////////////////////
+
+	/** Number of worker threads (0 means one per available processor) */
+
+	protected int numberOfThreads;
+
+	/** Individuals mutated by each task */
+
+	protected int chunkSize = 32;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------- Internal variables
+	/////////////////////////////////////////////////////////////////
+
+	/** Random generator */
+
+	protected IRandGen randgen;
+
+	/** Worker threads pool */
+
+	protected transient ForkJoinPool pool;
+
+	/** Replicas of the decorated mutator, one per chunk */
+
+	protected transient List<AbstractMutator> replicas;
+
+	/** Mutator replicated */
+
+	protected transient AbstractMutator replicated;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Empty constructor
+	 */
+
+	public ParallelMutator()
+	{
+		super();
+	}
+
+	/**
+	 * Constructor that contextualize this operator.
+	 *
+	 * @param context Execution context
+	 */
+
+	public ParallelMutator(ISystem context)
+	{
+		super();
+		contextualize(context);
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	// Setting and getting properties
+
+	public final int getNumberOfThreads()
+	{
+		return numberOfThreads;
+	}
+
+	/**
+	 * Sets the number of worker threads. Changes take effect the next
+	 * time the worker pool is created.
+	 *
+	 * @param numberOfThreads New number of threads (0 means one per
+	 *        processor)
+	 */
+
+	public final void setNumberOfThreads(int numberOfThreads)
+	{
+		this.numberOfThreads = numberOfThreads;
+		this.pool = null;
+	}
+
+	public final int getChunkSize()
+	{
+		return chunkSize;
+	}
+
+	public final void setChunkSize(int chunkSize)
+	{
+		this.chunkSize = chunkSize;
+	}
+
+	// IMutator interface
+
+	/**
+	 * Take a random generator and contextualize decorated mutator (if
+	 * exists)
+	 *
+	 * {@inheritDoc}
+	 */
+
+	@Override
+	public void contextualize(ISystem context)
+	{
+		// Call super method
+		super.contextualize(context);
+		// Take a random generator
+		randgen = context.createRandGen();
+		// Replicas must be contextualized again
+		replicas = null;
+	}
+
+	/**
+	 * Mutates parents in chunks of chunkSize individuals.
+	 *
+	 * {@inheritDoc}
+	 */
+
+	public List<IIndividual> mutate(List<IIndividual> parents)
+	{
+		// Chunks
+		int chunk = Math.max(1, chunkSize);
+		int size = parents.size();
+		int numberOfChunks = (size + chunk - 1) / chunk;
+		if (numberOfChunks == 0) {
+			return new ArrayList<IIndividual>();
+		}
+		// Random generators
+		IRandGen [] streams = RandGenStreams.split(randgen, numberOfChunks);
+		// Mutation tasks
+		List<Callable<List<IIndividual>>> tasks = new ArrayList<Callable<List<IIndividual>>>();
+		for (int i=0; i<numberOfChunks; i++) {
+			final AbstractMutator replica = replica(i);
+			replica.randgen = streams[i];
+			final List<IIndividual> chunkParents = parents.subList(i * chunk, Math.min(size, (i+1) * chunk));
+			tasks.add(new Callable<List<IIndividual>>() {
+				public List<IIndividual> call()
+				{
+					return replica.mutate(chunkParents);
+				}
+			});
+		}
+		// Run tasks
+		if (pool == null) {
+			pool = BreedingTasks.createPool(numberOfThreads);
+		}
+		return BreedingTasks.invokeAll(pool, tasks);
+	}
+
+	// IConfigure interface
+
+	/**
+	 * Configuration parameters for ParallelMutator are:
+	 *
+	 * <ul>
+	 * <li>
+	 * <code>decorated: IMutator (complex)</code></p>
+	 * Mutator to run in parallel (an AbstractMutator)
+	 * </li><li>
+	 * <code>[@number-of-threads] int (default 0)</code></p>
+	 * Number of worker threads. 0 means one per available processor
+	 * </li><li>
+	 * <code>[@chunk-size] int (default 32)</code></p>
+	 * Individuals mutated by each task
+	 * </li>
+	 * </ul>
+	 */
+
+	@Override
+	public void configure(Configuration settings)
+	{
+		// Call super method
+		super.configure(settings);
+		// Number of threads
+		int numberOfThreads = settings.getInt("[@number-of-threads]", 0);
+		if (numberOfThreads < 0) {
+			throw new ConfigurationRuntimeException("Number of threads must be non-negative");
+		}
+		setNumberOfThreads(numberOfThreads);
+		// Chunk size
+		int chunkSize = settings.getInt("[@chunk-size]", 32);
+		if (chunkSize <= 0) {
+			throw new ConfigurationRuntimeException("Chunk size must be positive");
+		}
+		setChunkSize(chunkSize);
+	}
+
+	// java.lang.Object methods
+
+	/**
+	 * Compare decorated mutator, number of threads and chunk size.
+	 *
+	 * {@inheritDoc}
+	 */
+
+	public boolean equals(Object other)
+	{
+		if (other instanceof ParallelMutator) {
+			ParallelMutator o = (ParallelMutator) other;
+			EqualsBuilder eb = new EqualsBuilder();
+			eb.append(decorated, o.decorated);
+			eb.append(numberOfThreads, o.numberOfThreads);
+			eb.append(chunkSize, o.chunkSize);
+			return eb.isEquals();
+		}
+		else {
+			return false;
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Replica of the decorated mutator for a chunk. Replicas are copies of
+	 * the decorated mutator that share its context.
+	 *
+	 * @param index Chunk index
+	 *
+	 * @return Mutator replica
+	 */
+
+	private AbstractMutator replica(int index)
+	{
+		if (!(decorated instanceof AbstractMutator)) {
+			throw new IllegalStateException("AbstractMutator expected");
+		}
+		AbstractMutator mutator = (AbstractMutator) decorated;
+		if (replicas == null || replicated != mutator) {
+			replicas = new ArrayList<AbstractMutator>();
+			replicated = mutator;
+		}
+		while (replicas.size() <= index) {
+			// Copy decorated mutator without context
+			IPopulation context = mutator.context;
+			IRandGen randgen = mutator.randgen;
+			mutator.context = null;
+			mutator.randgen = null;
+			AbstractMutator replica;
+			try {
+				replica = (AbstractMutator) SerializationUtils.clone(mutator);
+			}
+			finally {
+				mutator.context = context;
+				mutator.randgen = randgen;
+			}
+			replica.context = context;
+			replicas.add(replica);
+		}
+		return replicas.get(index);
+	}
+}
@@ -0,0 +1,300 @@
+package net.sf.jclec.base;
+
+import java.util.List;
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+
+import net.sf.jclec.ISystem;
+import net.sf.jclec.IIndividual;
+import net.sf.jclec.IPopulation;
+
+import net.sf.jclec.util.random.IRandGen;
+import net.sf.jclec.util.random.RandGenStreams;
+
+import org.apache.commons.configuration.Configuration;
+import org.apache.commons.configuration.ConfigurationRuntimeException;
+
+import org.apache.commons.lang.SerializationUtils;
+import org.apache.commons.lang.builder.EqualsBuilder;
+
+/**
+ * Recombinator that breeds in parallel.
+ *
+ * Parents are partitioned into chunks of consecutive litters, and each chunk
+ * is recombined by its own replica of the decorated recombinator in a
+ * fork-join pool. Each chunk draws from its own random generator, derived
+ * from the generator of this operator by means of RandGenStreams, and sons
+ * are returned in chunk order. As chunks only depend on the chunk size,
+ * results are the same for any number of threads.
+ *
+ * The decorated recombinator must be an AbstractRecombinator, and its
+ * recombination methods must be safe to run concurrently in different
+ * replicas (species, context and parents are shared).
+ */
+
+public class ParallelRecombinator extends DecoratedRecombinator
+{
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------- Serialization constant
+	/////////////////////////////////////////////////////////////////
+
+	private static final long serialVersionUID = -6131358880217429604L;
+
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------------------- Properties
+	/////////////////////////////////////////////////////////////////
+
+	/** Number of worker threads (0 means one per available processor) */
+
+	protected int numberOfThreads;
+
+	/** Litters recombined by each task */
+
+	protected int chunkSize = 16;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------- Internal variables
+	/////////////////////////////////////////////////////////////////
+
+	/** Random generator */
+
+	protected IRandGen randgen;
+
+	/** Worker threads pool */
+
+	protected transient ForkJoinPool pool;
+
+	/** Replicas of the decorated recombinator, one per chunk */
+
+	protected transient List<AbstractRecombinator> replicas;
+
+	/** Recombinator replicated */
+
+	protected transient AbstractRecombinator replicated;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Empty constructor
+	 */
+
+	public ParallelRecombinator()
+	{
+		super();
+	}
+
+	/**
+	 * Constructor that contextualize this operator.
+	 *
+	 * @param context Execution context
+	 */
+
+	public ParallelRecombinator(ISystem context)
+	{
+		super();
+		contextualize(context);
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	// Setting and getting properties
+
+	public final int getNumberOfThreads()
+	{
+		return numberOfThreads;
+	}
+
+	/**
+	 * Sets the number of worker threads. Changes take effect the next
+	 * time the worker pool is created.
+	 *
+	 * @param numberOfThreads New number of threads (0 means one per
+	 *        processor)
+	 */
+
+	public final void setNumberOfThreads(int numberOfThreads)
+	{
+		this.numberOfThreads = numberOfThreads;
+		this.pool = null;
+	}
+
+	public final int getChunkSize()
+	{
+		return chunkSize;
+	}
+
+	public final void setChunkSize(int chunkSize)
+	{
+		this.chunkSize = chunkSize;
+	}
+
+	// IRecombinator interface
+
+	/**
+	 * Take a random generator and contextualize decorated recombinator
+	 * (if exists)
+	 *
+	 * {@inheritDoc}
+	 */
+
+	@Override
+	public void contextualize(ISystem context)
+	{
+		// Call super method
+		super.contextualize(context);
+		// Take a random generator
+		randgen = context.createRandGen();
+		// Replicas must be contextualized again
+		replicas = null;
+	}
+
+	/**
+	 * Recombines parents in chunks of chunkSize litters.
+	 *
+	 * {@inheritDoc}
+	 */
+
+	public List<IIndividual> recombine(List<IIndividual> parents)
+	{
+		// Chunks
+		int ppl = decorated.getPpl();
+		int chunk = Math.max(1, chunkSize) * ppl;
+		int size = parents.size() - parents.size() % ppl;
+		int numberOfChunks = (size + chunk - 1) / chunk;
+		if (numberOfChunks == 0) {
+			return new ArrayList<IIndividual>();
+		}
+		// Random generators
+		IRandGen [] streams = RandGenStreams.split(randgen, numberOfChunks);
+		// Recombination tasks
+		List<Callable<List<IIndividual>>> tasks = new ArrayList<Callable<List<IIndividual>>>();
+		for (int i=0; i<numberOfChunks; i++) {
+			final AbstractRecombinator replica = replica(i);
+			replica.randgen = streams[i];
+			final List<IIndividual> chunkParents = parents.subList(i * chunk, Math.min(size, (i+1) * chunk));
+			tasks.add(new Callable<List<IIndividual>>() {
+				public List<IIndividual> call()
+				{
+					return replica.recombine(chunkParents);
+				}
+			});
+		}
+		// Run tasks
+		if (pool == null) {
+			pool = BreedingTasks.createPool(numberOfThreads);
+		}
+		return BreedingTasks.invokeAll(pool, tasks);
+	}
+
+	// IConfigure interface
+
+	/**
+	 * Configuration parameters for ParallelRecombinator are:
+	 *
+	 * <ul>
+	 * <li>
+	 * <code>decorated: IRecombinator (complex)</code></p>
+	 * Recombinator to run in parallel (an AbstractRecombinator)
+	 * </li><li>
+	 * <code>[@number-of-threads] int (default 0)</code></p>
+	 * Number of worker threads. 0 means one per available processor
+	 * </li><li>
+	 * <code>[@chunk-size] int (default 16)</code></p>
+	 * Litters recombined by each task
+	 * </li>
+	 * </ul>
+	 */
+
+	@Override
+	public void configure(Configuration settings)
+	{
+		// Call super method
+		super.configure(settings);
+		// Number of threads
+		int numberOfThreads = settings.getInt("[@number-of-threads]", 0);
+		if (numberOfThreads < 0) {
+			throw new ConfigurationRuntimeException("Number of threads must be non-negative");
+		}
+		setNumberOfThreads(numberOfThreads);
+		// Chunk size
+		int chunkSize = settings.getInt("[@chunk-size]", 16);
+		if (chunkSize <= 0) {
+			throw new ConfigurationRuntimeException("Chunk size must be positive");
+		}
+		setChunkSize(chunkSize);
+	}
+
+	// java.lang.Object methods
+
+	/**
+	 * Compare decorated recombinator, number of threads and chunk size.
+	 *
+	 * {@inheritDoc}
+	 */
+
+	public boolean equals(Object other)
+	{
+		if (other instanceof ParallelRecombinator) {
+			ParallelRecombinator o = (ParallelRecombinator) other;
+			EqualsBuilder eb = new EqualsBuilder();
+			eb.append(decorated, o.decorated);
+			eb.append(numberOfThreads, o.numberOfThreads);
+			eb.append(chunkSize, o.chunkSize);
+			return eb.isEquals();
+		}
+		else {
+			return false;
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Replica of the decorated recombinator for a chunk. Replicas are copies
+	 * of the decorated recombinator that share its context.
+	 *
+	 * @param index Chunk index
+	 *
+	 * @return Recombinator replica
+	 */
+
+	private AbstractRecombinator replica(int index)
+	{
+		if (!(decorated instanceof AbstractRecombinator)) {
+			throw new IllegalStateException("AbstractRecombinator expected");
+		}
+		AbstractRecombinator recombinator = (AbstractRecombinator) decorated;
+		if (replicas == null || replicated != recombinator) {
+			replicas = new ArrayList<AbstractRecombinator>();
+			replicated = recombinator;
+		}
+		while (replicas.size() <= index) {
+			// Copy decorated recombinator without context
+			IPopulation context = recombinator.context;
+			IRandGen randgen = recombinator.randgen;
+			recombinator.context = null;
+			recombinator.randgen = null;
+			AbstractRecombinator replica;
+			try {
+				replica = (AbstractRecombinator) SerializationUtils.clone(recombinator);
+			}
+			finally {
+				recombinator.context = context;
+				recombinator.randgen = randgen;
+			}
+			replica.context = context;
+			// Litter sizes are set by constructors (not serialized)
+			replica.ppl = recombinator.ppl;
+			replica.spl = recombinator.spl;
+			replicas.add(replica);
+		}
+		return replicas.get(index);
+	}
+}
@@ -0,0 +1,591 @@
+package net.sf.jclec.base;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.ArrayList;
+import java.util.concurrent.Future;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.sf.jclec.IEvaluator;
+import net.sf.jclec.IIndividual;
+
+import net.sf.jclec.util.GenotypeCodec;
+
+import org.apache.commons.configuration.Configuration;
+
+import org.apache.commons.lang.SerializationUtils;
+
+/**
+ * Evaluator that runs the decorated evaluator in a pool of worker JVMs.
+ *
+ * Each worker is a local process (see ProcessEvaluatorWorker) that receives a
+ * serialized copy of the decorated evaluator when it starts. Individuals are
+ * sent to the workers in batches through their standard input, and fitness
+ * values are read from their standard output, both using the compact encoding
+ * of GenotypeCodec. A worker that dies (or closes its pipes) is restarted and
+ * its batch is sent again. Thus, native crashes, memory leaks and garbage
+ * collection pauses of the fitness function are isolated from the algorithm.
+ *
+ * Worker JVMs use the same java executable and classpath than the main JVM;
+ * additional JVM options (heap size, for instance) can be set per pool.
+ *
+ * @see net.sf.jclec.base.ProcessEvaluatorWorker
+ * @see net.sf.jclec.util.GenotypeCodec
+ */
+
+public class ProcessEvaluator extends DecoratedEvaluator
+{
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------- Serialization constant
+	/////////////////////////////////////////////////////////////////
+
+	private static final long serialVersionUID = -2318652794718873614L;
+
+	/** Time given to a worker process to exit before it is destroyed (ms) */
+
+	private static final long STOP_TIMEOUT = 2000;
+
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------------------- Properties
+	/////////////////////////////////////////////////////////////////
+
+	/** Number of worker processes (0 means one per available processor) */
+
+	protected int numberOfWorkers;
+
+	/** Individuals per batch (0 means an even share of each evaluation per worker) */
+
+	protected int batchSize;
+
+	/** Times a batch is sent again after its worker dies */
+
+	protected int maxRetries = 2;
+
+	/** Options passed to the worker JVMs (separated by blanks) */
+
+	protected String jvmOptions;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------- Internal variables
+	/////////////////////////////////////////////////////////////////
+
+	/** Evaluations performed by the worker processes */
+
+	protected final AtomicInteger evaluationsCounter = new AtomicInteger();
+
+	/** Worker processes */
+
+	protected transient Worker [] workers;
+
+	/** Threads that feed the worker processes */
+
+	protected transient ExecutorService executor;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	/** Empty constructor */
+
+	public ProcessEvaluator()
+	{
+		super();
+	}
+
+	/**
+	 * Constructor that sets the evaluator run by the workers.
+	 *
+	 * @param decorated Evaluator to run in the worker processes
+	 */
+
+	public ProcessEvaluator(IEvaluator decorated)
+	{
+		super(decorated);
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	// Setting and getting properties
+
+	/**
+	 * Access to the number of worker processes.
+	 *
+	 * @return Number of workers (0 means one per processor)
+	 */
+
+	public final int getNumberOfWorkers()
+	{
+		return numberOfWorkers;
+	}
+
+	/**
+	 * Sets the number of worker processes. Changes take effect the next
+	 * time the workers are started.
+	 *
+	 * @param numberOfWorkers New number of workers (0 means one per
+	 *        processor)
+	 */
+
+	public final void setNumberOfWorkers(int numberOfWorkers)
+	{
+		this.numberOfWorkers = numberOfWorkers;
+	}
+
+	/**
+	 * Access to the batch size.
+	 *
+	 * @return Individuals per batch (0 means automatic)
+	 */
+
+	public final int getBatchSize()
+	{
+		return batchSize;
+	}
+
+	/**
+	 * Sets the batch size.
+	 *
+	 * @param batchSize Individuals per batch (0 means automatic)
+	 */
+
+	public final void setBatchSize(int batchSize)
+	{
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Access to the maximum number of retries.
+	 *
+	 * @return Times a batch is sent again after its worker dies
+	 */
+
+	public final int getMaxRetries()
+	{
+		return maxRetries;
+	}
+
+	/**
+	 * Sets the maximum number of retries.
+	 *
+	 * @param maxRetries Times a batch is sent again after its worker dies
+	 */
+
+	public final void setMaxRetries(int maxRetries)
+	{
+		this.maxRetries = maxRetries;
+	}
+
+	/**
+	 * Access to the worker JVM options.
+	 *
+	 * @return Options passed to the worker JVMs
+	 */
+
+	public final String getJvmOptions()
+	{
+		return jvmOptions;
+	}
+
+	/**
+	 * Sets the worker JVM options. Changes take effect the next time the
+	 * workers are started.
+	 *
+	 * @param jvmOptions Options passed to the worker JVMs (separated by
+	 *        blanks)
+	 */
+
+	public final void setJvmOptions(String jvmOptions)
+	{
+		this.jvmOptions = jvmOptions;
+	}
+
+	// IEvaluator interface
+
+	/**
+	 * Splits the individuals without fitness in batches and sends them
+	 * to the worker processes.
+	 *
+	 * {@inheritDoc}
+	 */
+
+	public void evaluate(List<IIndividual> inds)
+	{
+		// Individuals to evaluate
+		List<IIndividual> pending = new ArrayList<IIndividual>();
+		for (IIndividual ind : inds) {
+			if (ind.getFitness() == null) {
+				pending.add(ind);
+			}
+		}
+		int size = pending.size();
+		if (size == 0) {
+			return;
+		}
+		// Worker processes
+		ExecutorService executor = getExecutor();
+		Worker [] workers = this.workers;
+		// Batches
+		int batch = batchSize > 0 ? batchSize : (size + workers.length - 1) / workers.length;
+		final Queue<List<IIndividual>> batches = new ConcurrentLinkedQueue<List<IIndividual>>();
+		for (int from=0; from<size; from+=batch) {
+			batches.add(pending.subList(from, Math.min(from + batch, size)));
+		}
+		// Each worker takes batches until none remains
+		List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+		for (int i=0; i<Math.min(workers.length, batches.size()); i++) {
+			final Worker worker = workers[i];
+			tasks.add(new Callable<Void>() {
+				public Void call() throws IOException
+				{
+					for (List<IIndividual> next = batches.poll(); next != null; next = batches.poll()) {
+						evaluate(worker, next);
+					}
+					return null;
+				}
+			});
+		}
+		try {
+			for (Future<Void> future : executor.invokeAll(tasks)) {
+				future.get();
+			}
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Evaluation interrupted", e);
+		}
+		catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IllegalStateException("Evaluation failed", cause);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+
+	@Override
+	public int getNumberOfEvaluations()
+	{
+		return evaluationsCounter.get();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+
+	@Override
+	public void setNumberOfEvaluations(int numberOfEvaluations)
+	{
+		evaluationsCounter.set(numberOfEvaluations);
+	}
+
+	// Closeable interface
+
+	/**
+	 * Stops the worker processes and closes the decorated evaluator
+	 * (if necessary).
+	 */
+
+	@Override
+	public void close()
+	{
+		synchronized (this) {
+			if (executor != null) {
+				executor.shutdownNow();
+				executor = null;
+			}
+			if (workers != null) {
+				for (Worker worker : workers) {
+					worker.stop();
+				}
+				workers = null;
+			}
+		}
+		super.close();
+	}
+
+	// IConfigure interface
+
+	/**
+	 * Configuration parameters for ProcessEvaluator are:
+	 *
+	 * <ul>
+	 * <li>
+	 * <code>decorated: IEvaluator (complex)</code></p>
+	 * Evaluator run in the worker processes. It must be serializable and
+	 * available in the classpath
+	 * </li><li>
+	 * <code>[@number-of-workers] int (default 0)</code></p>
+	 * Number of worker processes. 0 means one per available processor
+	 * </li><li>
+	 * <code>[@batch-size] int (default 0)</code></p>
+	 * Individuals per batch. 0 means an even share per worker
+	 * </li><li>
+	 * <code>[@max-retries] int (default 2)</code></p>
+	 * Times a batch is sent again after its worker dies
+	 * </li><li>
+	 * <code>[@jvm-options] String (default none)</code></p>
+	 * Options passed to the worker JVMs (for instance, "-Xmx256m")
+	 * </li>
+	 * </ul>
+	 */
+
+	@Override
+	public void configure(Configuration settings)
+	{
+		// Call super method
+		super.configure(settings);
+		// Number of workers
+		int numberOfWorkers = settings.getInt("[@number-of-workers]", 0);
+		setNumberOfWorkers(numberOfWorkers);
+		// Batch size
+		int batchSize = settings.getInt("[@batch-size]", 0);
+		setBatchSize(batchSize);
+		// Maximum retries
+		int maxRetries = settings.getInt("[@max-retries]", 2);
+		setMaxRetries(maxRetries);
+		// JVM options
+		String jvmOptions = settings.getString("[@jvm-options]");
+		setJvmOptions(jvmOptions);
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// -------------------------------------------- Protected methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Access to the feeding threads pool, starting the worker processes
+	 * if necessary.
+	 *
+	 * @return Feeding threads pool
+	 */
+
+	protected synchronized ExecutorService getExecutor()
+	{
+		if (executor == null) {
+			int size = numberOfWorkers > 0 ? numberOfWorkers : Runtime.getRuntime().availableProcessors();
+			workers = new Worker[size];
+			for (int i=0; i<size; i++) {
+				workers[i] = new Worker();
+			}
+			executor = Executors.newFixedThreadPool(size, new ThreadFactory() {
+				private final AtomicInteger counter = new AtomicInteger();
+
+				public Thread newThread(Runnable task)
+				{
+					Thread thread = new Thread(task, "process-evaluator-" + counter.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+		}
+		return executor;
+	}
+
+	/**
+	 * Command line used to start a worker process.
+	 *
+	 * @return Worker command line
+	 */
+
+	protected List<String> workerCommand()
+	{
+		List<String> command = new ArrayList<String>();
+		command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+		if (jvmOptions != null) {
+			for (String option : jvmOptions.trim().split("\\s+")) {
+				if (option.length() > 0) {
+					command.add(option);
+				}
+			}
+		}
+		command.add("-cp");
+		command.add(System.getProperty("java.class.path"));
+		command.add(ProcessEvaluatorWorker.class.getName());
+		return command;
+	}
+
+	/**
+	 * Evaluates a batch in a worker process, restarting the worker as
+	 * many times as necessary.
+	 *
+	 * @param worker Worker process
+	 * @param batch Individuals to evaluate
+	 *
+	 * @throws IOException if the worker dies more than maxRetries times
+	 */
+
+	protected void evaluate(Worker worker, List<IIndividual> batch) throws IOException
+	{
+		for (int attempt=0; ; attempt++) {
+			try {
+				worker.evaluate(batch);
+				evaluationsCounter.addAndGet(batch.size());
+				return;
+			}
+			catch (IOException e) {
+				worker.stop();
+				if (attempt >= maxRetries) {
+					throw e;
+				}
+			}
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Worker process
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Connection to a worker process. The process is started on demand.
+	 */
+
+	protected class Worker
+	{
+		/** Worker process */
+
+		protected Process process;
+
+		/** Pipe to the worker standard input */
+
+		protected DataOutputStream out;
+
+		/** Pipe from the worker standard output */
+
+		protected DataInputStream in;
+
+		/**
+		 * Sends a batch to the worker process and sets the fitness of its
+		 * individuals.
+		 *
+		 * @param batch Individuals to evaluate
+		 *
+		 * @throws IOException if the worker process dies
+		 */
+
+		protected void evaluate(List<IIndividual> batch) throws IOException
+		{
+			if (process == null) {
+				start();
+			}
+			// Send genotypes
+			out.writeInt(batch.size());
+			out.writeUTF(batch.get(0).getClass().getName());
+			for (IIndividual ind : batch) {
+				GenotypeCodec.writeGenotype(out, ((AbstractIndividual<?>) ind).getGenotype());
+			}
+			out.flush();
+			// Read fitness values
+			if (in.readBoolean()) {
+				for (IIndividual ind : batch) {
+					ind.setFitness(GenotypeCodec.readFitness(in));
+				}
+			}
+			else {
+				throw new IllegalStateException("Evaluation failed in worker process: " + in.readUTF());
+			}
+		}
+
+		/**
+		 * Starts the worker process and sends it the evaluator.
+		 *
+		 * @throws IOException if the process cannot be started
+		 */
+
+		protected void start() throws IOException
+		{
+			ProcessBuilder builder = new ProcessBuilder(workerCommand());
+			builder.redirectError(ProcessBuilder.Redirect.INHERIT);
+			process = builder.start();
+			out = new DataOutputStream(new BufferedOutputStream(process.getOutputStream()));
+			in = new DataInputStream(new BufferedInputStream(process.getInputStream()));
+			byte [] evaluator = SerializationUtils.serialize(decorated);
+			out.writeInt(evaluator.length);
+			out.write(evaluator);
+		}
+
+		/**
+		 * Stops the worker process (if running). The worker receives the
+		 * end of batches and its standard input is closed, so that it can
+		 * exit; it is destroyed if it is still alive after STOP_TIMEOUT.
+		 */
+
+		protected void stop()
+		{
+			if (process != null) {
+				try {
+					out.writeInt(-1);
+					out.close();
+				}
+				catch (IOException e) {
+					// Worker process is already dead
+				}
+				if (!waitFor(STOP_TIMEOUT)) {
+					process.destroy();
+				}
+				try {
+					in.close();
+				}
+				catch (IOException e) {
+					// Nothing to do
+				}
+				process = null;
+				out = null;
+				in = null;
+			}
+		}
+
+		/**
+		 * Waits for the worker process to exit.
+		 *
+		 * @param timeout Maximum time to wait (ms)
+		 *
+		 * @return true if the process has exited
+		 */
+
+		private boolean waitFor(long timeout)
+		{
+			long deadline = System.currentTimeMillis() + timeout;
+			while (true) {
+				try {
+					process.exitValue();
+					return true;
+				}
+				catch (IllegalThreadStateException e) {
+					// Still running
+				}
+				if (System.currentTimeMillis() >= deadline) {
+					return false;
+				}
+				try {
+					Thread.sleep(10);
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return false;
+				}
+			}
+		}
+	}
+}
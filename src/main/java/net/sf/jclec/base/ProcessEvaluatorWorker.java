@@ -0,0 +1,108 @@
+package net.sf.jclec.base;
+
+import java.io.EOFException;
+import java.io.FileDescriptor;
+import java.io.ByteArrayOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+
+import java.util.List;
+import java.util.ArrayList;
+
+import net.sf.jclec.IEvaluator;
+import net.sf.jclec.IIndividual;
+
+import net.sf.jclec.util.GenotypeCodec;
+import net.sf.jclec.util.ComponentRegistry;
+
+import org.apache.commons.lang.SerializationUtils;
+
+/**
+ * Worker process main class for ProcessEvaluator.
+ *
+ * Reads a serialized evaluator from the standard input, then evaluates batches
+ * of genotypes until a negative batch size is received or the standard input
+ * is closed. Fitness values are written to the standard output; anything
+ * printed by the evaluator is sent to the standard error.
+ *
+ * @see net.sf.jclec.base.ProcessEvaluator
+ */
+
+public class ProcessEvaluatorWorker
+{
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Main program
+	/////////////////////////////////////////////////////////////////
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public static void main(String [] args) throws IOException
+	{
+		// Protocol streams (System.out is reserved for the protocol)
+		DataInputStream in =
+			new DataInputStream(new BufferedInputStream(System.in));
+		DataOutputStream out =
+			new DataOutputStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out)));
+		System.setOut(System.err);
+		// Evaluator
+		byte [] bytes = new byte[in.readInt()];
+		in.readFully(bytes);
+		IEvaluator evaluator = (IEvaluator) SerializationUtils.deserialize(bytes);
+		// Batches
+		for (int size = readSize(in); size >= 0; size = readSize(in)) {
+			String classname = in.readUTF();
+			Object [] genotypes = new Object[size];
+			for (int i=0; i<size; i++) {
+				genotypes[i] = GenotypeCodec.readGenotype(in);
+			}
+			try {
+				Class<?> indClass = ComponentRegistry.forName(classname);
+				List<IIndividual> batch = new ArrayList<IIndividual>(size);
+				for (Object genotype : genotypes) {
+					AbstractIndividual ind = (AbstractIndividual) ComponentRegistry.newInstance(indClass);
+					ind.setGenotype(genotype);
+					batch.add(ind);
+				}
+				evaluator.evaluate(batch);
+				ByteArrayOutputStream result = new ByteArrayOutputStream();
+				DataOutputStream fitness = new DataOutputStream(result);
+				for (IIndividual ind : batch) {
+					GenotypeCodec.writeFitness(fitness, ind.getFitness());
+				}
+				out.writeBoolean(true);
+				result.writeTo(out);
+			}
+			catch (Exception e) {
+				e.printStackTrace();
+				out.writeBoolean(false);
+				out.writeUTF(String.valueOf(e));
+			}
+			out.flush();
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Reads the size of the next batch.
+	 *
+	 * @param in Protocol input
+	 *
+	 * @return Batch size (-1 if the main process closed the pipe)
+	 */
+
+	private static int readSize(DataInputStream in) throws IOException
+	{
+		try {
+			return in.readInt();
+		}
+		catch (EOFException e) {
+			return -1;
+		}
+	}
+}
@@ -121,6 +121,7 @@ public class BinArrayIndividual extends AbstractIndividual<byte[]>
 		if (other instanceof BinArrayIndividual) {
 			BinArrayIndividual baother = (BinArrayIndividual) other;
 			EqualsBuilder eb = new EqualsBuilder();
+			eb.append(hashCode(), baother.hashCode());
 			eb.append(genotype, baother.genotype);
 			eb.append(fitness, baother.fitness);
 			return eb.isEquals();
@@ -1,6 +1,7 @@
 package net.sf.jclec.binarray;
 
 import net.sf.jclec.ISpecies;
+import net.sf.jclec.IIndividual;
 
 import net.sf.jclec.base.AbstractRecombinator;
 
@@ -79,5 +80,37 @@ public abstract class BinArrayRecombinator extends AbstractRecombinator
 	 * de los nuevos individuos. Para ello, asegura que el objeto species que
 	 * representa a los individuos de la poblacin es de tipo IBinArraySpecies.
 	 * En caso negativo, lanza una excepcin.
-	 */	
+	 */
+
+	/**
+	 * Genotype for a son. The genotype of a recycled individual is returned
+	 * if there is any left (its old contents must be completely overwritten);
+	 * otherwise, a new genotype is created.
+	 *
+	 * @return Son genotype
+	 */
+
+	protected final byte [] newGenotype()
+	{
+		Object genotype = recycledGenotype();
+		if (genotype instanceof byte [] && ((byte []) genotype).length == species.getGenotypeLength()) {
+			return (byte []) genotype;
+		}
+		return new byte[species.getGenotypeLength()];
+	}
+
+	/**
+	 * Creates a son with the given genotype, reusing the recycled individual
+	 * that owns it (if any).
+	 *
+	 * @param genotype Son genotype
+	 *
+	 * @return Son
+	 */
+
+	protected final IIndividual createSon(byte [] genotype)
+	{
+		IIndividual son = recycledSon(genotype);
+		return son != null ? son : species.createIndividual(genotype);
+	}
 }
@@ -1,5 +1,7 @@
 package net.sf.jclec.binarray.mut;
 
+import net.sf.jclec.IIndividual;
+
 import net.sf.jclec.binarray.BinArrayIndividual;
 import net.sf.jclec.binarray.BinArrayMutator;
 
@@ -51,14 +53,16 @@ public class OneLocusMutator extends BinArrayMutator
 		BinArrayIndividual mutant = 
 			(BinArrayIndividual) parentsBuffer.get(parentsCounter);
 		// Creates mutant genotype
-		byte [] mgenome = new byte[gl];
+		byte [] mgenome = newGenotype();
 		System.arraycopy(mutant.getGenotype(), 0, mgenome, 0, gl);
 		// Choose mutation point
 		int mp = getMutableLocus();
 		// Flip selected point
 		flip(mgenome, mp);
 		// Returns mutant
-		sonsBuffer.add(species.createIndividual(mgenome));
+		IIndividual son = createSon(mgenome);
+		recordMutation(son, mutant, new int [] {mp});
+		sonsBuffer.add(son);
 	}
 
 /*
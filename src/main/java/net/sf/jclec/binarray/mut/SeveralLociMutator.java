@@ -1,6 +1,9 @@
 package net.sf.jclec.binarray.mut;
 
 import net.sf.jclec.IConfigure;
+import net.sf.jclec.IIndividual;
+
+import net.sf.jclec.base.MutationRecord;
 
 import net.sf.jclec.binarray.BinArrayMutator;
 import net.sf.jclec.binarray.BinArrayIndividual;
@@ -159,7 +162,7 @@ public class SeveralLociMutator extends BinArrayMutator implements IConfigure
 		BinArrayIndividual mutant = 
 			(BinArrayIndividual) parentsBuffer.get(parentsCounter);
 		// Creates mutant genotype
-		byte [] mgenome = new byte[gl];
+		byte [] mgenome = newGenotype();
 		System.arraycopy(mutant.getGenotype(), 0, mgenome, 0, gl);
 		// Choose mutation point
 		setMpoints(gl);
@@ -167,7 +170,9 @@ public class SeveralLociMutator extends BinArrayMutator implements IConfigure
 		for (int i=0; i<numberOfMutationPoints; i++)
 			flip(mgenome, mp[i]);
 		// Returns mutant
-		sonsBuffer.add(species.createIndividual(mgenome));
+		IIndividual son = createSon(mgenome);
+		recordMutation(son, mutant, MutationRecord.changedLoci(mutant.getGenotype(), mgenome));
+		sonsBuffer.add(son);
 	}
 
 	/*
@@ -1,6 +1,9 @@
 package net.sf.jclec.binarray.mut;
 
 import net.sf.jclec.IConfigure;
+import net.sf.jclec.IIndividual;
+
+import net.sf.jclec.base.MutationRecord;
 
 import net.sf.jclec.binarray.BinArrayMutator;
 import net.sf.jclec.binarray.BinArrayIndividual;
@@ -132,14 +135,16 @@ public class UniformMutator extends BinArrayMutator implements IConfigure
 		BinArrayIndividual mutant = 
 			(BinArrayIndividual) parentsBuffer.get(parentsCounter);
 		// Creates mutant genotype
-		byte [] mgenome = new byte[gl];
+		byte [] mgenome = newGenotype();
 		System.arraycopy(mutant.getGenotype(), 0, mgenome, 0, gl);
 		// Mutate loci...
 		for (int i=0; i<gl; i++) {
 			if (randgen.coin(locusMutationProb)) flip(mgenome, i);
 		}
 		// Returns mutant
-		sonsBuffer.add(species.createIndividual(mgenome));
+		IIndividual son = createSon(mgenome);
+		recordMutation(son, mutant, MutationRecord.changedLoci(mutant.getGenotype(), mgenome));
+		sonsBuffer.add(son);
 	}
 	
 	/*
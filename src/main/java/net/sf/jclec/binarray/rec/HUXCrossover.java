@@ -46,9 +46,9 @@ public class HUXCrossover extends BinArrayRecombinator
 		// Second parent's genotype
 		byte [] p1_genotype = p1.getGenotype();
 		// First son's genotype
-		byte [] s0_genotype = new byte[gl];
+		byte [] s0_genotype = newGenotype();
 		// Second son's genotype
-		byte [] s1_genotype = new byte[gl];
+		byte [] s1_genotype = newGenotype();
 		// Set the list of genes that differs in parents
 		xloci.clear();
 		for (int i=0; i<gl; i++) {
@@ -71,8 +71,8 @@ public class HUXCrossover extends BinArrayRecombinator
 				s1_genotype[i] = p1_genotype[i];       					
 			}       				
 		}
-		sonsBuffer.add(species.createIndividual(s0_genotype));
-		sonsBuffer.add(species.createIndividual(s1_genotype));	
+		sonsBuffer.add(createSon(s0_genotype));
+		sonsBuffer.add(createSon(s1_genotype));	
 	}
 
 }
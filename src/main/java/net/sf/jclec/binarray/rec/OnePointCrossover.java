@@ -77,8 +77,8 @@ public class OnePointCrossover extends BinArrayRecombinator
 		byte [] p0_genome = p0.getGenotype();
 		byte [] p1_genome = p1.getGenotype();
 		// Creating sons genotypes
-		byte [] s0_genome = new byte[gl];
-		byte [] s1_genome = new byte[gl];
+		byte [] s0_genome = newGenotype();
+		byte [] s1_genome = newGenotype();
 		// Sets a crossover point
 		int cp = randgen.choose(1, gl-1);
 		// First son' genotype
@@ -88,8 +88,8 @@ public class OnePointCrossover extends BinArrayRecombinator
 		System.arraycopy(p1_genome,  0, s1_genome,  0, cp);
 		System.arraycopy(p0_genome, cp, s1_genome, cp, gl-cp);
 		// Put sons in s
-		sonsBuffer.add(species.createIndividual(s0_genome));
-		sonsBuffer.add(species.createIndividual(s1_genome));
+		sonsBuffer.add(createSon(s0_genome));
+		sonsBuffer.add(createSon(s1_genome));
 	}
 	
 	/*
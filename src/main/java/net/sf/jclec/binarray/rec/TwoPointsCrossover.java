@@ -76,8 +76,8 @@ public class TwoPointsCrossover extends BinArrayRecombinator
 		byte [] p0_genome = p0.getGenotype();
 		byte [] p1_genome = p1.getGenotype();
 		// Creating sons genotypes
-		byte [] s0_genome = new byte[gl];
-		byte [] s1_genome = new byte[gl];
+		byte [] s0_genome = newGenotype();
+		byte [] s1_genome = newGenotype();
 		// Taking a crossover point
 		int cp1, cp2;
 		cp1 = randgen.choose(1, gl-2);
@@ -91,8 +91,8 @@ public class TwoPointsCrossover extends BinArrayRecombinator
 		System.arraycopy(p0_genome, cp1, s1_genome, cp1, cp2-cp1);
 		System.arraycopy(p1_genome, cp2, s1_genome, cp2, gl-cp2);
 		// Put sons in s
-		sonsBuffer.add(species.createIndividual(s0_genome));
-		sonsBuffer.add(species.createIndividual(s1_genome));
+		sonsBuffer.add(createSon(s0_genome));
+		sonsBuffer.add(createSon(s1_genome));
 	}
 
 	/*
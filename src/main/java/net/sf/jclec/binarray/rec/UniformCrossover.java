@@ -153,8 +153,8 @@ public class UniformCrossover extends BinArrayRecombinator implements IConfigure
 		byte [] p0_genome = p0.getGenotype();
 		byte [] p1_genome = p1.getGenotype();
 		// Creating sons genotypes
-		byte [] s0_genome = new byte[gl];
-		byte [] s1_genome = new byte[gl];
+		byte [] s0_genome = newGenotype();
+		byte [] s1_genome = newGenotype();
 		// Building sons
 		for (int i=0; i<gl; i++) {
 			if (randgen.coin(locusCrossoverProb)) {
@@ -167,8 +167,8 @@ public class UniformCrossover extends BinArrayRecombinator implements IConfigure
 			}
 		}
 		// Put sons in sincell
-		sonsBuffer.add(species.createIndividual(s0_genome));
-		sonsBuffer.add(species.createIndividual(s1_genome));	
+		sonsBuffer.add(createSon(s0_genome));
+		sonsBuffer.add(createSon(s1_genome));	
 	}
 	
 	/*
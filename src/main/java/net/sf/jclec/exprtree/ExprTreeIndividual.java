@@ -100,6 +100,7 @@ public class ExprTreeIndividual extends AbstractIndividual<ExprTree>
 		if (other instanceof ExprTreeIndividual) {
 			ExprTreeIndividual cother = (ExprTreeIndividual) other;
 			EqualsBuilder eb = new EqualsBuilder();
+			eb.append(hashCode(), cother.hashCode());
 			eb.append(genotype, cother.genotype);
 			return eb.isEquals();
 		}
@@ -1,6 +1,7 @@
 package net.sf.jclec.exprtree;
 
 import net.sf.jclec.IConfigure;
+import net.sf.jclec.util.ComponentRegistry;
 
 import org.apache.commons.configuration.Configuration;
 import org.apache.commons.configuration.ConfigurationRuntimeException;
@@ -134,7 +135,7 @@ public class ExprTreeIndividualSpecies extends ExprTreeSpecies implements IConfi
 		// Get root type
 		String rootTypeName = settings.getString(header+".root-type");
 		try {
-			Class<?> rootType = Class.forName(rootTypeName);
+			Class<?> rootType = ComponentRegistry.forName(rootTypeName);
 			setRootType(rootType);
 		} 
 		catch (ClassNotFoundException e) {
@@ -148,8 +149,8 @@ public class ExprTreeIndividualSpecies extends ExprTreeSpecies implements IConfi
 				String terminalClassname = 
 					settings.getString(header+".terminals.terminal("+j+")[@class]");
 				Class<IPrimitive> terminalClass = 
-					(Class<IPrimitive>) Class.forName(terminalClassname);
-				terminals[j] = terminalClass.newInstance();
+					(Class<IPrimitive>) ComponentRegistry.forName(terminalClassname);
+				terminals[j] = ComponentRegistry.newInstance(terminalClass);
 			} 
 			catch (ClassNotFoundException e) {
 				throw new ConfigurationRuntimeException();
@@ -170,8 +171,8 @@ public class ExprTreeIndividualSpecies extends ExprTreeSpecies implements IConfi
 				String functionClassname = 
 					settings.getString(header+".functions.function("+j+")[@class]");
 				Class<IPrimitive> functionClass = 
-					(Class<IPrimitive>) Class.forName(functionClassname);
-				functions[j] = functionClass.newInstance();
+					(Class<IPrimitive>) ComponentRegistry.forName(functionClassname);
+				functions[j] = ComponentRegistry.newInstance(functionClass);
 			} 
 			catch (ClassNotFoundException e) {
 				throw new ConfigurationRuntimeException();
@@ -7,6 +7,7 @@ import net.sf.jclec.IConfigure;
 import net.sf.jclec.ISpecies;
 
 import net.sf.jclec.base.AbstractMutator;
+import net.sf.jclec.util.ComponentRegistry;
 
 /**
  * Mutator for ExprTreeIndividual (and its subclasses).
@@ -82,12 +83,12 @@ public class ExprTreeMutator extends AbstractMutator implements IConfigure
 				settings.getString("base-op[@type]");
 			// Evaluator class
 			Class<? extends IMutateExprTree> baseOpClass = 
-				(Class<? extends IMutateExprTree>) Class.forName(baseOpClassname);
+				(Class<? extends IMutateExprTree>) ComponentRegistry.forName(baseOpClassname);
 			// Evaluator instance
-			IMutateExprTree baseOp = baseOpClass.newInstance();
+			IMutateExprTree baseOp = ComponentRegistry.newInstance(baseOpClass);
 			// Configure species
 			if (baseOp instanceof IConfigure) {
-				((IConfigure) baseOp).configure(settings.subset("base-op"));
+				((IConfigure) baseOp).configure(ComponentRegistry.subset(settings, "base-op"));
 			}
 			// Set species
 			setBaseOp(baseOp);
@@ -4,6 +4,7 @@ import net.sf.jclec.ISpecies;
 import net.sf.jclec.IConfigure;
 
 import net.sf.jclec.base.AbstractRecombinator;
+import net.sf.jclec.util.ComponentRegistry;
 
 import org.apache.commons.configuration.Configuration;
 import org.apache.commons.configuration.ConfigurationRuntimeException;
@@ -82,12 +83,12 @@ public class ExprTreeRecombinator extends AbstractRecombinator implements IConfi
 				settings.getString("base-op[@type]");
 			// Evaluator class
 			Class<? extends IRecombineExprTree> baseOpClass = 
-				(Class<? extends IRecombineExprTree>) Class.forName(baseOpClassname);
+				(Class<? extends IRecombineExprTree>) ComponentRegistry.forName(baseOpClassname);
 			// Evaluator instance
-			IRecombineExprTree baseOp = baseOpClass.newInstance();
+			IRecombineExprTree baseOp = ComponentRegistry.newInstance(baseOpClass);
 			// Configure species
 			if (baseOp instanceof IConfigure) {
-				((IConfigure) baseOp).configure(settings.subset("base-op"));
+				((IConfigure) baseOp).configure(ComponentRegistry.subset(settings, "base-op"));
 			}
 			// Set species
 			setBaseOp(baseOp);
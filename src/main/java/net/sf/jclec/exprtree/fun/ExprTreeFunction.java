@@ -7,6 +7,8 @@ import net.sf.jclec.exprtree.ExprTree;
 import net.sf.jclec.exprtree.IContext;
 import net.sf.jclec.exprtree.IPrimitive;
 
+import net.sf.jclec.util.EvaluationDeadline;
+
 /**
  * Expression tree function.
  * 
@@ -101,10 +103,20 @@ public class ExprTreeFunction implements IContext
 	{
 		// Set current arguments
 		this.args = arguments;
+		// Evaluation deadline (read once per execution)
+		long deadline = EvaluationDeadline.get();
 		// Execute code sequence
 		Iterator<IPrimitive> it = code.executeIterator();
-		while (it.hasNext()) {
-			it.next().evaluate(this);
+		if (deadline == 0) {
+			while (it.hasNext()) {
+				it.next().evaluate(this);
+			}
+		}
+		else {
+			while (it.hasNext()) {
+				EvaluationDeadline.check(deadline);
+				it.next().evaluate(this);
+			}
 		}		
 		// Return the peek of the execution stack
 		return (E) stack.pop();
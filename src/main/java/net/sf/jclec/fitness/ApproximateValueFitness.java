@@ -0,0 +1,74 @@
+package net.sf.jclec.fitness;
+
+import net.sf.jclec.IFitness;
+
+import org.apache.commons.lang.builder.ToStringBuilder;
+
+/**
+ * Simple value fitness predicted by a surrogate model, instead of computed by
+ * the real fitness function.
+ */
+
+public class ApproximateValueFitness extends SimpleValueFitness
+{
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------- Serialization constant
+	/////////////////////////////////////////////////////////////////
+
+	private static final long serialVersionUID = -8563130949127325590L;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Empty constructor.
+	 */
+
+	public ApproximateValueFitness()
+	{
+		super();
+	}
+
+	/**
+	 * Parametrized constructor.
+	 *
+	 * @param value Predicted fitness value.
+	 */
+
+	public ApproximateValueFitness(double value)
+	{
+		super(value);
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	// IFitness interface
+
+	/**
+	 * {@inheritDoc}
+	 */
+
+	@Override
+	public IFitness copy()
+	{
+		return new ApproximateValueFitness(value);
+	}
+
+	// java.lang.Object methods
+
+	/**
+	 * {@inheritDoc}
+	 */
+
+	@Override
+	public String toString()
+	{
+		ToStringBuilder tsb = new ToStringBuilder(this);
+		tsb.append("value", value);
+		tsb.append("approximate", true);
+		return tsb.toString();
+	}
+}
@@ -169,6 +169,7 @@ public class GEIndividual extends AbstractIndividual<int[]> implements IConstrai
 		if (other instanceof GEIndividual) {
 			GEIndividual iaother = (GEIndividual) other;
 			EqualsBuilder eb = new EqualsBuilder();
+			eb.append(hashCode(), iaother.hashCode());
 			eb.append(genotype, iaother.genotype);
 			eb.append(phenotype, iaother.phenotype);
 			eb.append(fitness, iaother.fitness);
@@ -1,5 +1,7 @@
 package net.sf.jclec.ge;
 
+import java.util.List;
+
 import java.io.FileNotFoundException;
 import org.apache.commons.configuration.Configuration;
 import org.apache.commons.lang.builder.EqualsBuilder;
@@ -10,6 +12,7 @@ import net.sf.jclec.syntaxtree.NonTerminalNode;
 import net.sf.jclec.syntaxtree.TerminalNode;
 import net.sf.jclec.util.grammar.GrammarParser;
 import net.sf.jclec.util.intset.IIntegerSet;
+import net.sf.jclec.util.ComponentRegistry;
 
 /**
  * Species for GEIndividual
@@ -177,25 +180,28 @@ public class GEIndividualSpecies extends GESpecies implements IConfigure
 			e.printStackTrace();
 			System.exit(0);
 		}
+		// Loci settings
+		List<Configuration> loci = 
+			ComponentRegistry.subsets(settings, "genotype-schema.locus");
 		// Genotype lenght
-		int genotypeLength = settings.getList("genotype-schema.locus[@type]").size();
+		int genotypeLength = loci.size();
 		// Genotype schema
 		IIntegerSet [] individualArray = new IIntegerSet[genotypeLength];
 		// Set genotype schema components
 		for (int i=0; i<genotypeLength; i++) {
 			// Get component classname
 			String componentClassname = 
-					settings.getString("genotype-schema.locus("+i+")[@type]");
+					loci.get(i).getString("[@type]");
 			try {
 				Class<?> componentClass = 
-						Class.forName(componentClassname);
+						ComponentRegistry.forName(componentClassname);
 				// Set schema component
 				individualArray[i] = 
-						(IIntegerSet) componentClass.newInstance();
+						(IIntegerSet) ComponentRegistry.newInstance(componentClass);
 				// Configure component
 				if (individualArray[i] instanceof IConfigure) {
 					((IConfigure) individualArray[i]).configure
-						(settings.subset("genotype-schema.locus("+i+")"));
+						(loci.get(i));
 				}
 			}
 			
@@ -354,11 +354,12 @@ public class GESchema implements JCLEC
 	 * @param genotype Genotype of an individual
 	 * @param posGenotype Reading position of the genotype
 	 * @param depth Actual depth of the tree
+	 * @param maxDepth Maximum depth of the tree
 	 * 
 	 * @return A production rule for  the given symbol.
 	 */	
 	
-	protected NonTerminalNode selectProductionGrow(String symbol, int [] genotype, int posGenotype, int depth)
+	protected NonTerminalNode selectProductionGrow(String symbol, int [] genotype, int posGenotype, int depth, int maxDepth)
 	{
 		NonTerminalNode [] prodRules = nonTerminalsMap.get(symbol);
 		// It keeps indices to the usable rules
@@ -367,7 +368,7 @@ public class GESchema implements JCLEC
 				
 		for(NonTerminalNode prodRule: prodRules)
 		{
-			if(depth + getMinDepthSize(prodRule) < this.maxDepthSize)
+			if(depth + getMinDepthSize(prodRule) < maxDepth)
 				possibleRules.add(i);
 			i++;
 		}
@@ -390,11 +391,12 @@ public class GESchema implements JCLEC
 	 * @param genotype Genotype of an individual
 	 * @param posGenotype Reading position of the genotype
 	 * @param depth Actual depth of the tree
+	 * @param maxDepth Maximum depth of the tree
 	 * 
 	 * @return A production rule for  the given symbol.
 	 */	
 	
-	protected NonTerminalNode selectProductionFull(String symbol, int [] genotype, int posGenotype, int depth)
+	protected NonTerminalNode selectProductionFull(String symbol, int [] genotype, int posGenotype, int depth, int maxDepth)
 	{			
 		NonTerminalNode [] prodRules = nonTerminalsMap.get(symbol);
 		// It keeps indices to the usable rules
@@ -406,7 +408,7 @@ public class GESchema implements JCLEC
 	  // Iterate through the different rule productions
 		for(NonTerminalNode rule : prodRules)
 		{
-			if(depth + getMinDepthSize(rule) < this.maxDepthSize)
+			if(depth + getMinDepthSize(rule) < maxDepth)
 			{
 				if(!recursiveRules && rule.isRecursive())
 				{
@@ -557,13 +559,29 @@ public class GESchema implements JCLEC
 	 */
 	
 	public int grow(GEIndividual ind, String symbol, int posGenotype, int depth)
+	{
+		return grow(ind, symbol, posGenotype, depth, maxDepthSize);
+	}
+
+	/**
+	 * Map the phenotype from a given genotype using a grow technique and a
+	 * given maximum depth (instead of the maximum depth of this schema)
+	 * 
+	 * @param ind Individual to map
+	 * @param symbol Symbol to add
+	 * @param posGenotype Reading position of the genotype
+	 * @param depth Actual depth of the tree
+	 * @param maxDepth Maximum depth of the tree
+	 */
+	
+	public int grow(GEIndividual ind, String symbol, int posGenotype, int depth, int maxDepth)
 	{
 		if (isTerminal(symbol)) 
 			ind.getPhenotype().addNode(getTerminal(symbol));
 		else
 		{	
 			NonTerminalNode selectedProduction = new NonTerminalNode();
-			selectedProduction = selectProductionGrow(symbol, ind.getGenotype(), posGenotype, depth);
+			selectedProduction = selectProductionGrow(symbol, ind.getGenotype(), posGenotype, depth, maxDepth);
 			
 			// Increment position of genotype going back if it's necessary
 			posGenotype++;
@@ -572,7 +590,7 @@ public class GESchema implements JCLEC
 			if (selectedProduction != null){
 				ind.getPhenotype().addNode(selectedProduction);
 				for(int i=0; i<selectedProduction.getProduction().length; i++)
-					posGenotype = grow(ind, selectedProduction.getProduction()[i], posGenotype, depth+1);
+					posGenotype = grow(ind, selectedProduction.getProduction()[i], posGenotype, depth+1, maxDepth);
 			}
 			else
 			{
@@ -594,13 +612,29 @@ public class GESchema implements JCLEC
 	 */
 	
 	public int full(GEIndividual ind, String symbol, int posGenotype, int depth) 
+	{
+		return full(ind, symbol, posGenotype, depth, maxDepthSize);
+	}
+
+	/**
+	 * Map the phenotype from a given genotype using a full technique and a
+	 * given maximum depth (instead of the maximum depth of this schema)
+	 * 
+	 * @param ind Individual to map
+	 * @param symbol Symbol to add
+	 * @param posGenotype Reading position of the genotype
+	 * @param depth Actual depth of the tree
+	 * @param maxDepth Maximum depth of the tree
+	 */
+	
+	public int full(GEIndividual ind, String symbol, int posGenotype, int depth, int maxDepth) 
 	{
 		if (isTerminal(symbol)) 
 			ind.getPhenotype().addNode(getTerminal(symbol));
 		else
 		{	
 			NonTerminalNode selectedProduction = new NonTerminalNode();
-			selectedProduction = selectProductionFull(symbol, ind.getGenotype(), posGenotype, depth);
+			selectedProduction = selectProductionFull(symbol, ind.getGenotype(), posGenotype, depth, maxDepth);
 			
 			// Increment position of genotype going back if it's necessary
 			posGenotype++;
@@ -609,7 +643,7 @@ public class GESchema implements JCLEC
 			if (selectedProduction != null){
 				ind.getPhenotype().addNode(selectedProduction);
 				for(int i=0; i<selectedProduction.getProduction().length; i++)
-					posGenotype = full(ind, selectedProduction.getProduction()[i], posGenotype, depth+1);
+					posGenotype = full(ind, selectedProduction.getProduction()[i], posGenotype, depth+1, maxDepth);
 			}
 			else
 			{
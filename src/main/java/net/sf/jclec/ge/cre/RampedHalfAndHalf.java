@@ -1,9 +1,5 @@
 package net.sf.jclec.ge.cre;
 
-import java.util.ArrayList;
-import java.util.List;
-
-import net.sf.jclec.IIndividual;
 import net.sf.jclec.ge.GECreator;
 import net.sf.jclec.ge.GEIndividual;
 
@@ -23,6 +19,22 @@ public class RampedHalfAndHalf extends GECreator
 	
 	private static final long serialVersionUID = -2889517912372790322L;
 
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------- Internal variables
+	/////////////////////////////////////////////////////////////////
+	
+	/** Minimum depth of the root symbol */
+	
+	protected transient int minDepth;
+	
+	/** Maximum depth of the schema */
+	
+	protected transient int maxDepth;
+	
+	/** Number of individuals for each depth */
+	
+	protected transient int nOfIndividualPerGroup;
+	
 	/////////////////////////////////////////////////////////////////
 	// ------------------------------------------------- Constructors
 	/////////////////////////////////////////////////////////////////
@@ -40,18 +52,41 @@ public class RampedHalfAndHalf extends GECreator
 	// -------------------------------------------- Protected methods
 	/////////////////////////////////////////////////////////////////
 	
+	@Override
+	protected void prepareCreation() 
+	{
+		// Call super method
+		super.prepareCreation();
+		// Depth limits
+		minDepth = schema.getMinDepthSize(schema.getRootSymbol());
+		maxDepth = schema.getMaxDepthSize();
+		// Get the number of individuals for each group
+		nOfIndividualPerGroup = Math.max(1, numberOfIndividuals/(maxDepth-minDepth+1));
+	}
+	
+	/**
+	 * Creates an individual with the ramped half-and-half method. The first 
+	 * individual is created with the minimum depth of the root symbol; the 
+	 * next ones are created with increasing depths (nOfIndividualPerGroup 
+	 * individuals for each depth), starting again from the minimum depth
+	 * when the maximum depth is reached. The depth only depends on the 
+	 * index of the individual (createdCounter), and the schema is not
+	 * modified, so individuals can be created in chunks.
+	 */
+	
 	@Override
 	protected void createNext() 
 	{
 		String rootSymbol = schema.getRootSymbol();
-		int [] newGenotype = createGenotype();
-		GEIndividual newInd = new GEIndividual(newGenotype);
-		
+		// Current depth
+		int nOfIncrements = (createdCounter + nOfIndividualPerGroup - 1) / nOfIndividualPerGroup;
+		int currentDepth = minDepth + (maxDepth > minDepth ? nOfIncrements % (maxDepth - minDepth) : nOfIncrements);
+		// Map phenotype with grow or full method
+		GEIndividual newInd = new GEIndividual(createGenotype());
 		if(randgen.coin())
-			schema.grow(newInd, rootSymbol, 0, 0);
+			schema.grow(newInd, rootSymbol, 0, 0, currentDepth);
 		else
-			schema.full(newInd, rootSymbol, 0, 0);
-
+			schema.full(newInd, rootSymbol, 0, 0, currentDepth);
 		// Add the new individual
 		createdBuffer.add(newInd);
 	}
@@ -60,56 +95,6 @@ public class RampedHalfAndHalf extends GECreator
 	// ----------------------------------------------- Public methods
 	/////////////////////////////////////////////////////////////////
 	
-	/**
-	 * This method creates the initial population with the ramped half-and-half method
-	 * 
-	 * @param numberOfIndividuals The number of individual we want to create
-	 * 
-	 * @return a list which contains the individuals created 
-	 * 
-	 */
-	
-	public List<IIndividual> provide(int numberOfIndividuals) 
-	{
-		// Prepare process
-		prepareCreation();
-		// Set numberOfIndividuals
-		this.numberOfIndividuals = numberOfIndividuals;
-		// Result list
-		createdBuffer = new ArrayList<IIndividual> (numberOfIndividuals);
-		// Get the root symbol
-		String rootSymbol = schema.getRootSymbol();
-		// Original max depth
-		int maxDepth = schema.getMaxDepthSize();
-		// Current depth
-		int currentDepth = schema.getMinDepthSize(rootSymbol);
-		// Get the number of individuals for each group and the rest too
-		int nOfIndividualPerGroup = numberOfIndividuals/(schema.getMaxDepthSize()-schema.getMinDepthSize(rootSymbol)+1);		
-		
-		for(int i=0; i<this.numberOfIndividuals; i++)
-		{
-			schema.setMaxDepthSize(currentDepth);
-			GEIndividual newInd = new GEIndividual(createGenotype());
-			// Map phenotype with grow or full method
-			if(randgen.coin())
-				schema.grow(newInd, rootSymbol, 0, 0);
-			else
-				schema.full(newInd, rootSymbol, 0, 0);	
-			//Add the new individual
-			createdBuffer.add(newInd);
-			// Increase the current depth if it's necesary
-			if(i%nOfIndividualPerGroup==0)
-			{
-				currentDepth++;
-				if(currentDepth == maxDepth)
-					currentDepth = schema.getMinDepthSize(rootSymbol);
-			}
-		}
-		//Restore the original depth
-		schema.setMaxDepthSize(maxDepth);
-		return createdBuffer;
-	}
-	
 	@Override
 	public GEIndividual createIndividual(int[] genotype) 
 	{
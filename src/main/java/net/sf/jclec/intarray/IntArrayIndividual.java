@@ -120,6 +120,7 @@ public class IntArrayIndividual extends AbstractIndividual<int[]>
 		if (other instanceof IntArrayIndividual) {
 			IntArrayIndividual iaother = (IntArrayIndividual) other;
 			EqualsBuilder eb = new EqualsBuilder();
+			eb.append(hashCode(), iaother.hashCode());
 			eb.append(genotype, iaother.genotype);
 			eb.append(fitness, iaother.fitness);
 			return eb.isEquals();
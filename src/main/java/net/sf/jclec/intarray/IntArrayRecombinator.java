@@ -1,6 +1,7 @@
 package net.sf.jclec.intarray;
 
 import net.sf.jclec.ISpecies;
+import net.sf.jclec.IIndividual;
 import net.sf.jclec.base.AbstractRecombinator;
 
 /**
@@ -80,4 +81,36 @@ public abstract class IntArrayRecombinator extends AbstractRecombinator
 			throw new IllegalStateException("Invalid population species");
 		}		
 	}
+
+	/**
+	 * Genotype for a son. The genotype of a recycled individual is returned
+	 * if there is any left (its old contents must be completely overwritten);
+	 * otherwise, a new genotype is created.
+	 *
+	 * @return Son genotype
+	 */
+
+	protected final int [] newGenotype()
+	{
+		Object genotype = recycledGenotype();
+		if (genotype instanceof int [] && ((int []) genotype).length == species.getGenotypeLength()) {
+			return (int []) genotype;
+		}
+		return new int[species.getGenotypeLength()];
+	}
+
+	/**
+	 * Creates a son with the given genotype, reusing the recycled individual
+	 * that owns it (if any).
+	 *
+	 * @param genotype Son genotype
+	 *
+	 * @return Son
+	 */
+
+	protected final IIndividual createSon(int [] genotype)
+	{
+		IIndividual son = recycledSon(genotype);
+		return son != null ? son : species.createIndividual(genotype);
+	}
 }
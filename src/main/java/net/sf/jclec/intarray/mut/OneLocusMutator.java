@@ -1,5 +1,7 @@
 package net.sf.jclec.intarray.mut;
 
+import net.sf.jclec.IIndividual;
+
 import net.sf.jclec.intarray.IntArrayIndividual;
 import net.sf.jclec.intarray.IntArrayMutator;
 
@@ -51,14 +53,16 @@ public class OneLocusMutator extends IntArrayMutator
 		IntArrayIndividual mutant = 
 			(IntArrayIndividual) parentsBuffer.get(parentsCounter);
 		// Creates mutant genotype
-		int [] mgenome = new int[gl];
+		int [] mgenome = newGenotype();
 		System.arraycopy(mutant.getGenotype(), 0, mgenome, 0, gl);
 		// Choose mutation point
 		int mp = getMutableLocus();
 		// Flip selected point
 		flip(mgenome, mp);
 		// Returns mutant
-		sonsBuffer.add(species.createIndividual(mgenome));
+		IIndividual son = createSon(mgenome);
+		recordMutation(son, mutant, new int [] {mp});
+		sonsBuffer.add(son);
 	}
 
 	// java.lang.Object methods
@@ -1,6 +1,8 @@
 package net.sf.jclec.intarray.mut;
 
 import net.sf.jclec.IConfigure;
+import net.sf.jclec.IIndividual;
+import net.sf.jclec.base.MutationRecord;
 import net.sf.jclec.intarray.IntArrayIndividual;
 import net.sf.jclec.intarray.IntArrayMutator;
 
@@ -161,7 +163,7 @@ public class SeveralLociMutator extends IntArrayMutator implements IConfigure
 		IntArrayIndividual mutant = 
 			(IntArrayIndividual) parentsBuffer.get(parentsCounter);
 		// Creates mutant genotype
-		int [] mgenome = new int[gl];
+		int [] mgenome = newGenotype();
 		System.arraycopy(mutant.getGenotype(), 0, mgenome, 0, gl);
 		// Choose mutation point
 		setMpoints();
@@ -169,7 +171,9 @@ public class SeveralLociMutator extends IntArrayMutator implements IConfigure
 		for (int i=0; i<numberOfMutationPoints; i++)
 			flip(mgenome, mutationPoints[i]);
 		// Returns mutant
-		sonsBuffer.add(species.createIndividual(mgenome));
+		IIndividual son = createSon(mgenome);
+		recordMutation(son, mutant, MutationRecord.changedLoci(mutant.getGenotype(), mgenome));
+		sonsBuffer.add(son);
 	}
 
 	/////////////////////////////////////////////////////////////////
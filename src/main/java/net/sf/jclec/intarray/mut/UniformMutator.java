@@ -1,6 +1,8 @@
 package net.sf.jclec.intarray.mut;
 
 import net.sf.jclec.IConfigure;
+import net.sf.jclec.IIndividual;
+import net.sf.jclec.base.MutationRecord;
 import net.sf.jclec.intarray.IntArrayIndividual;
 import net.sf.jclec.intarray.IntArrayMutator;
 
@@ -141,13 +143,15 @@ public class UniformMutator extends IntArrayMutator implements IConfigure
 		// Individual to be mutated
 		IntArrayIndividual mutant = (IntArrayIndividual) parentsBuffer.get(parentsCounter);
 		// Creates mutant genotype
-		int [] mgenome = new int[gl];
+		int [] mgenome = newGenotype();
 		System.arraycopy(mutant.getGenotype(), 0, mgenome, 0, gl);
 		// Mutate loci...
 		for (int i=0; i<gl; i++) {
 			if (randgen.coin(locusMutationProb)) flip(mgenome, i);
 		}
 		// Returns mutant
-		sonsBuffer.add(species.createIndividual(mgenome));
+		IIndividual son = createSon(mgenome);
+		recordMutation(son, mutant, MutationRecord.changedLoci(mutant.getGenotype(), mgenome));
+		sonsBuffer.add(son);
 	}
 }
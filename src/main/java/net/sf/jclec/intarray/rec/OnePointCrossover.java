@@ -74,8 +74,8 @@ public class OnePointCrossover extends IntArrayRecombinator
 		int [] p1_genome = 
 			( (IntArrayIndividual) parentsBuffer.get(parentsCounter+1)).getGenotype();
 		// Creating sons genotypes
-		int [] s0_genome = new int[gl];
-		int [] s1_genome = new int[gl];
+		int [] s0_genome = newGenotype();
+		int [] s1_genome = newGenotype();
 		// Sets a crossover point
 		int cp = randgen.choose(1, gl-1);
 		// First son' genotype
@@ -85,7 +85,7 @@ public class OnePointCrossover extends IntArrayRecombinator
 		System.arraycopy(p1_genome,  0, s1_genome,  0, cp);
 		System.arraycopy(p0_genome, cp, s1_genome, cp, gl-cp);
 		// Put sons in s
-		sonsBuffer.add(species.createIndividual(s0_genome));
-		sonsBuffer.add(species.createIndividual(s1_genome));
+		sonsBuffer.add(createSon(s0_genome));
+		sonsBuffer.add(createSon(s1_genome));
 	}
 }
@@ -70,8 +70,8 @@ public class TwoPointsCrossover extends IntArrayRecombinator
 		int [] p1_genome = 
 			( (IntArrayIndividual) parentsBuffer.get(parentsCounter+1)).getGenotype();
 		// Creating sons genotypes
-		int [] s0_genome = new int[gl];
-		int [] s1_genome = new int[gl];
+		int [] s0_genome = newGenotype();
+		int [] s1_genome = newGenotype();
 		// Taking a crossover point
 		int cp1, cp2;
 		cp1 = randgen.choose(1, gl-2);
@@ -85,7 +85,7 @@ public class TwoPointsCrossover extends IntArrayRecombinator
 		System.arraycopy(p0_genome, cp1, s1_genome, cp1, cp2-cp1);
 		System.arraycopy(p1_genome, cp2, s1_genome, cp2, gl-cp2);
 		// Put sons in s
-		sonsBuffer.add(species.createIndividual(s0_genome));
-		sonsBuffer.add(species.createIndividual(s1_genome));
+		sonsBuffer.add(createSon(s0_genome));
+		sonsBuffer.add(createSon(s1_genome));
 	}
 }
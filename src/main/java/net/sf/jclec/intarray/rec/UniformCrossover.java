@@ -145,8 +145,8 @@ public class UniformCrossover extends IntArrayRecombinator implements IConfigure
 		int [] p1_genome = 
 			( (IntArrayIndividual) parentsBuffer.get(parentsCounter+1)).getGenotype();
 		// Creating sons genotypes
-		int [] s0_genome = new int[gl];
-		int [] s1_genome = new int[gl];
+		int [] s0_genome = newGenotype();
+		int [] s1_genome = newGenotype();
 		// Building sons
 		for (int i=0; i<gl; i++) {
 			if (randgen.coin(locusCrossoverProb)) {
@@ -159,7 +159,7 @@ public class UniformCrossover extends IntArrayRecombinator implements IConfigure
 			}
 		}
 		// Put sons in sincell
-		sonsBuffer.add(species.createIndividual(s0_genome));
-		sonsBuffer.add(species.createIndividual(s1_genome));	
+		sonsBuffer.add(createSon(s0_genome));
+		sonsBuffer.add(createSon(s1_genome));	
 	}	
 }
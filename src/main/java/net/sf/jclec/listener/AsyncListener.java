@@ -0,0 +1,430 @@
+package net.sf.jclec.listener;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.sf.jclec.IConfigure;
+import net.sf.jclec.AlgorithmEvent;
+import net.sf.jclec.IAlgorithmListener;
+
+import net.sf.jclec.algorithm.PopulationAlgorithm;
+import net.sf.jclec.algorithm.PopulationSnapshot;
+
+import net.sf.jclec.util.ComponentRegistry;
+
+import org.apache.commons.configuration.Configuration;
+import org.apache.commons.configuration.ConfigurationRuntimeException;
+
+import org.apache.commons.lang.builder.EqualsBuilder;
+
+/**
+ * Listener that notifies the events of a PopulationAlgorithm to another
+ * listener in a separate thread.
+ *
+ * In the algorithm thread, this listener only takes a PopulationSnapshot of
+ * the algorithm and puts it in a bounded buffer. The decorated listener
+ * receives events that carry these snapshots, and must read the algorithm
+ * state by means of PopulationSnapshot.of(event) (as PopulationReporter
+ * does), not from the algorithm itself.
+ *
+ * If the buffer is full when an iteration is completed, the overflow policy
+ * decides what happens: <code>block</code> waits until the decorated listener
+ * catches up, <code>drop-oldest</code> discards the oldest pending iteration,
+ * and <code>drop-newest</code> discards the new one. The algorithm started,
+ * finished and terminated events are never discarded, and the algorithm
+ * waits for the decorated listener to process all pending events when it
+ * finishes, so reports are complete when execute() returns.
+ *
+ * Listeners that need the algorithm itself (as CheckpointWriter) must not be
+ * decorated by this class.
+ */
+
+public class AsyncListener implements IAlgorithmListener, IConfigure
+{
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------- Serialization constant
+	/////////////////////////////////////////////////////////////////
+
+	private static final long serialVersionUID = -2318940457812009633L;
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Class variables
+	/////////////////////////////////////////////////////////////////
+
+	/** Wait for free space in the buffer */
+
+	public static final String BLOCK = "block";
+
+	/** Discard the oldest pending iteration */
+
+	public static final String DROP_OLDEST = "drop-oldest";
+
+	/** Discard the new iteration */
+
+	public static final String DROP_NEWEST = "drop-newest";
+
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------------------- Properties
+	/////////////////////////////////////////////////////////////////
+
+	/** Decorated listener */
+
+	private IAlgorithmListener decorated;
+
+	/** Buffer size */
+
+	private int bufferSize = 16;
+
+	/** Overflow policy */
+
+	private String overflowPolicy = DROP_OLDEST;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------- Internal variables
+	/////////////////////////////////////////////////////////////////
+
+	/** Pending events */
+
+	private transient BlockingQueue<Notification> buffer;
+
+	/** Thread that notifies the decorated listener */
+
+	private transient Thread notifier;
+
+	/** Number of discarded iterations */
+
+	private final AtomicInteger numberOfDroppedEvents = new AtomicInteger();
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Empty constructor.
+	 */
+
+	public AsyncListener()
+	{
+		super();
+	}
+
+	/**
+	 * Constructor that sets the decorated listener.
+	 *
+	 * @param decorated Decorated listener
+	 */
+
+	public AsyncListener(IAlgorithmListener decorated)
+	{
+		super();
+		setDecorated(decorated);
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	// Setting and getting properties
+
+	public final IAlgorithmListener getDecorated()
+	{
+		return decorated;
+	}
+
+	public final void setDecorated(IAlgorithmListener decorated)
+	{
+		this.decorated = decorated;
+	}
+
+	public final int getBufferSize()
+	{
+		return bufferSize;
+	}
+
+	public final void setBufferSize(int bufferSize)
+	{
+		this.bufferSize = bufferSize;
+	}
+
+	public final String getOverflowPolicy()
+	{
+		return overflowPolicy;
+	}
+
+	public final void setOverflowPolicy(String overflowPolicy)
+	{
+		if (!BLOCK.equals(overflowPolicy) && !DROP_OLDEST.equals(overflowPolicy)
+				&& !DROP_NEWEST.equals(overflowPolicy)) {
+			throw new IllegalArgumentException("Illegal overflow policy: " + overflowPolicy);
+		}
+		this.overflowPolicy = overflowPolicy;
+	}
+
+	/**
+	 * Number of iteration events discarded since the algorithm started.
+	 *
+	 * @return Number of discarded events
+	 */
+
+	public final int getNumberOfDroppedEvents()
+	{
+		return numberOfDroppedEvents.get();
+	}
+
+	// IConfigure interface
+
+	/**
+	 * Configuration parameters for AsyncListener are:
+	 *
+	 * <ul>
+	 * <li>
+	 * <code>decorated: IAlgorithmListener (complex)</code></p>
+	 * Listener to notify
+	 * </li><li>
+	 * <code>buffer-size int (default 16)</code></p>
+	 * Maximum number of pending events
+	 * </li><li>
+	 * <code>overflow-policy String (default drop-oldest)</code></p>
+	 * What to do when the buffer is full: <code>block</code>,
+	 * <code>drop-oldest</code> or <code>drop-newest</code>
+	 * </li>
+	 * </ul>
+	 */
+
+	@SuppressWarnings("unchecked")
+	public void configure(Configuration settings)
+	{
+		try {
+			// Decorated listener classname
+			String decoratedClassname =
+				settings.getString("decorated[@type]");
+			// Decorated listener class
+			Class<? extends IAlgorithmListener> decoratedClass =
+				(Class<? extends IAlgorithmListener>) ComponentRegistry.forName(decoratedClassname);
+			// Decorated listener instance
+			IAlgorithmListener decorated = ComponentRegistry.newInstance(decoratedClass);
+			// Configure decorated listener (if necessary)
+			if (decorated instanceof IConfigure) {
+				((IConfigure) decorated).configure(ComponentRegistry.subset(settings, "decorated"));
+			}
+			// Set decorated listener
+			setDecorated(decorated);
+		}
+		catch (ClassNotFoundException e) {
+			throw new ConfigurationRuntimeException("Illegal decorated listener classname");
+		}
+		catch (InstantiationException e) {
+			throw new ConfigurationRuntimeException("Problems creating an instance of decorated listener", e);
+		}
+		catch (IllegalAccessException e) {
+			throw new ConfigurationRuntimeException("Problems creating an instance of decorated listener", e);
+		}
+		// Set buffer size (default 16)
+		int bufferSize = settings.getInt("buffer-size", 16);
+		if (bufferSize <= 0) {
+			throw new ConfigurationRuntimeException("Buffer size must be positive");
+		}
+		setBufferSize(bufferSize);
+		// Set overflow policy (default drop-oldest)
+		String overflowPolicy = settings.getString("overflow-policy", DROP_OLDEST);
+		try {
+			setOverflowPolicy(overflowPolicy);
+		}
+		catch (IllegalArgumentException e) {
+			throw new ConfigurationRuntimeException(e.getMessage());
+		}
+	}
+
+	// IAlgorithmListener interface
+
+	public void algorithmStarted(AlgorithmEvent event)
+	{
+		numberOfDroppedEvents.set(0);
+		buffer = new ArrayBlockingQueue<Notification>(bufferSize);
+		notifier = new Thread(new Runnable() {
+			public void run() {
+				notifyEvents();
+			}
+		}, "async-listener");
+		notifier.setDaemon(true);
+		notifier.start();
+		publish(new Notification(Notification.STARTED, snapshot(event)), true);
+	}
+
+	public void iterationCompleted(AlgorithmEvent event)
+	{
+		if (buffer == null) {
+			// Resumed run
+			algorithmStarted(event);
+		}
+		publish(new Notification(Notification.ITERATION, snapshot(event)), BLOCK.equals(overflowPolicy));
+	}
+
+	public void algorithmFinished(AlgorithmEvent event)
+	{
+		publishLast(new Notification(Notification.FINISHED, snapshot(event)));
+	}
+
+	public void algorithmTerminated(AlgorithmEvent event)
+	{
+		publishLast(new Notification(Notification.TERMINATED, snapshot(event)));
+	}
+
+	// java.lang.Object methods
+
+	@Override
+	public boolean equals(Object other)
+	{
+		if (other instanceof AsyncListener) {
+			AsyncListener cother = (AsyncListener) other;
+			EqualsBuilder eb = new EqualsBuilder();
+			eb.append(decorated, cother.decorated);
+			eb.append(bufferSize, cother.bufferSize);
+			eb.append(overflowPolicy, cother.overflowPolicy);
+			return eb.isEquals();
+		}
+		else {
+			return false;
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	private static PopulationSnapshot snapshot(AlgorithmEvent event)
+	{
+		return new PopulationSnapshot((PopulationAlgorithm) event.getAlgorithm());
+	}
+
+	/**
+	 * Puts a notification in the buffer.
+	 *
+	 * @param notification Notification
+	 * @param block Wait for free space if the buffer is full
+	 */
+
+	private void publish(Notification notification, boolean block)
+	{
+		if (block) {
+			try {
+				buffer.put(notification);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		else if (DROP_NEWEST.equals(overflowPolicy)) {
+			if (!buffer.offer(notification)) {
+				numberOfDroppedEvents.incrementAndGet();
+			}
+		}
+		else {
+			while (!buffer.offer(notification)) {
+				// Oldest pending iteration (other events are never discarded)
+				Notification oldest = null;
+				for (Notification pending : buffer) {
+					if (pending.type == Notification.ITERATION) {
+						oldest = pending;
+						break;
+					}
+				}
+				if (oldest == null) {
+					publish(notification, true);
+					return;
+				}
+				if (buffer.remove(oldest)) {
+					numberOfDroppedEvents.incrementAndGet();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Puts the last notification and waits until it has been processed.
+	 */
+
+	private void publishLast(Notification notification)
+	{
+		if (buffer == null) {
+			return;
+		}
+		publish(notification, true);
+		try {
+			notifier.join();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		buffer = null;
+		notifier = null;
+	}
+
+	/**
+	 * Body of the notifier thread.
+	 */
+
+	private void notifyEvents()
+	{
+		BlockingQueue<Notification> buffer = this.buffer;
+		while (true) {
+			Notification notification;
+			try {
+				notification = buffer.take();
+			}
+			catch (InterruptedException e) {
+				return;
+			}
+			AlgorithmEvent event = notification.snapshot.toEvent();
+			try {
+				switch (notification.type) {
+					case Notification.STARTED:
+						decorated.algorithmStarted(event);
+						break;
+					case Notification.ITERATION:
+						decorated.iterationCompleted(event);
+						break;
+					case Notification.FINISHED:
+						decorated.algorithmFinished(event);
+						break;
+					case Notification.TERMINATED:
+						decorated.algorithmTerminated(event);
+						break;
+				}
+			}
+			catch (RuntimeException e) {
+				e.printStackTrace();
+			}
+			if (notification.type == Notification.FINISHED || notification.type == Notification.TERMINATED) {
+				return;
+			}
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------------- Private classes
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Pending event.
+	 */
+
+	private static class Notification
+	{
+		static final int STARTED = 0;
+		static final int ITERATION = 1;
+		static final int FINISHED = 2;
+		static final int TERMINATED = 3;
+
+		final int type;
+
+		final PopulationSnapshot snapshot;
+
+		Notification(int type, PopulationSnapshot snapshot)
+		{
+			this.type = type;
+			this.snapshot = snapshot;
+		}
+	}
+}
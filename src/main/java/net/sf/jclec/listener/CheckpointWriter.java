@@ -0,0 +1,220 @@
+package net.sf.jclec.listener;
+
+import java.io.File;
+import java.io.IOException;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import net.sf.jclec.IConfigure;
+import net.sf.jclec.AlgorithmEvent;
+import net.sf.jclec.ExperimentRunner;
+import net.sf.jclec.IAlgorithmListener;
+
+import net.sf.jclec.algorithm.Checkpoint;
+import net.sf.jclec.algorithm.PopulationAlgorithm;
+
+import org.apache.commons.configuration.Configuration;
+
+import org.apache.commons.lang.builder.EqualsBuilder;
+
+/**
+ * Listener that periodically saves checkpoints of a PopulationAlgorithm run.
+ *
+ * The algorithm state is encoded in memory by the algorithm thread, and written
+ * to disk by a background thread, so the evolution is only paused while the
+ * state is encoded. A last checkpoint is written when the algorithm finishes or
+ * is terminated. A run is resumed by means of Checkpoint.restore(), or by the
+ * <code>resume-from</code> attribute of RunExperiment processes.
+ *
+ * The checkpoint file is prefixed with the name of the job being executed, if
+ * any, so that parallel jobs with the same checkpoint file do not collide.
+ *
+ * @see net.sf.jclec.algorithm.Checkpoint
+ */
+
+public class CheckpointWriter implements IAlgorithmListener, IConfigure
+{
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------- Serialization constant
+	/////////////////////////////////////////////////////////////////
+
+	private static final long serialVersionUID = 2871934025634578309L;
+
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------------------- Properties
+	/////////////////////////////////////////////////////////////////
+
+	/** Checkpoint file name */
+
+	private String checkpointFile = "checkpoint.bin";
+
+	/** Checkpoint frequency (in generations) */
+
+	private int checkpointFrequency = 10;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------- Internal variables
+	/////////////////////////////////////////////////////////////////
+
+	/** Background writer */
+
+	private transient ExecutorService writer;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Empty constructor.
+	 */
+
+	public CheckpointWriter()
+	{
+		super();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	// Setting and getting properties
+
+	public final String getCheckpointFile()
+	{
+		return checkpointFile;
+	}
+
+	public final void setCheckpointFile(String checkpointFile)
+	{
+		this.checkpointFile = checkpointFile;
+	}
+
+	public final int getCheckpointFrequency()
+	{
+		return checkpointFrequency;
+	}
+
+	public final void setCheckpointFrequency(int checkpointFrequency)
+	{
+		this.checkpointFrequency = checkpointFrequency;
+	}
+
+	// IConfigure interface
+
+	/**
+	 * Configuration parameters for CheckpointWriter are:
+	 *
+	 * <ul>
+	 * <li>
+	 * <code>checkpoint-file String (default checkpoint.bin)</code></p>
+	 * Checkpoint file name (prefixed with the job name in ExperimentRunner jobs)
+	 * </li><li>
+	 * <code>checkpoint-frequency int (default 10)</code></p>
+	 * Number of generations between checkpoints
+	 * </li>
+	 * </ul>
+	 */
+
+	public void configure(Configuration settings)
+	{
+		// Set checkpoint file (default "checkpoint.bin")
+		String checkpointFile = settings.getString("checkpoint-file", "checkpoint.bin");
+		setCheckpointFile(checkpointFile);
+		// Set checkpoint frequency (default 10 generations)
+		int checkpointFrequency = settings.getInt("checkpoint-frequency", 10);
+		setCheckpointFrequency(checkpointFrequency);
+	}
+
+	// IAlgorithmListener interface
+
+	public void algorithmStarted(AlgorithmEvent event)
+	{
+		writer = Executors.newSingleThreadExecutor(new ThreadFactory() {
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "checkpoint-writer");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+
+	public void iterationCompleted(AlgorithmEvent event)
+	{
+		PopulationAlgorithm algorithm = (PopulationAlgorithm) event.getAlgorithm();
+		if (algorithm.getGeneration() % checkpointFrequency == 0) {
+			final byte [] checkpoint = Checkpoint.encode(algorithm);
+			if (writer == null) {
+				// Resumed run
+				algorithmStarted(event);
+			}
+			writer.execute(new Runnable() {
+				public void run() {
+					write(checkpoint);
+				}
+			});
+		}
+	}
+
+	public void algorithmFinished(AlgorithmEvent event)
+	{
+		writeLast((PopulationAlgorithm) event.getAlgorithm());
+	}
+
+	public void algorithmTerminated(AlgorithmEvent event)
+	{
+		writeLast((PopulationAlgorithm) event.getAlgorithm());
+	}
+
+	// java.lang.Object methods
+
+	@Override
+	public boolean equals(Object other)
+	{
+		if (other instanceof CheckpointWriter) {
+			CheckpointWriter cother = (CheckpointWriter) other;
+			EqualsBuilder eb = new EqualsBuilder();
+			eb.append(checkpointFile, cother.checkpointFile);
+			eb.append(checkpointFrequency, cother.checkpointFrequency);
+			return eb.isEquals();
+		}
+		else {
+			return false;
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Waits for pending checkpoints, then writes the final one.
+	 */
+
+	private void writeLast(PopulationAlgorithm algorithm)
+	{
+		if (writer != null) {
+			writer.shutdown();
+			try {
+				writer.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			writer = null;
+		}
+		write(Checkpoint.encode(algorithm));
+	}
+
+	private void write(byte [] checkpoint)
+	{
+		try {
+			Checkpoint.save(checkpoint, new File(ExperimentRunner.getJobPrefix()+checkpointFile));
+		}
+		catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+}
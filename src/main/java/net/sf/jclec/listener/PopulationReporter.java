@@ -6,17 +6,14 @@ import java.io.IOException;
 
 import java.util.Date;
 import java.util.List;
-import java.util.Comparator;
 
-import net.sf.jclec.IFitness;
 import net.sf.jclec.IConfigure;
 import net.sf.jclec.IIndividual;
 import net.sf.jclec.AlgorithmEvent;
+import net.sf.jclec.ExperimentRunner;
 import net.sf.jclec.IAlgorithmListener;
 
-import net.sf.jclec.algorithm.PopulationAlgorithm;
-
-import net.sf.jclec.util.IndividualStatistics;
+import net.sf.jclec.algorithm.PopulationSnapshot;
 
 import org.apache.commons.configuration.Configuration;
 
@@ -26,6 +23,13 @@ import org.apache.commons.lang.builder.EqualsBuilder;
  * This class is a listener for PopulationAlgorithms, that performs a report of 
  * the actual population. This report consists on ...
  * 
+ * The report is built from a PopulationSnapshot (that holds copies of the
+ * inhabitants and the population statistics), so this listener can be
+ * decorated by an AsyncListener to report in a separate thread.
+ * 
+ * Report files are prefixed with the name of the job being executed, if any,
+ * so that parallel jobs with the same report title do not collide.
+ * 
  * @author Sebastian Ventura
  */
 
@@ -173,7 +177,7 @@ public class PopulationReporter implements IAlgorithmListener, IConfigure
 		// Create report title for this instance
 		String dateString = 
 			new Date(System.currentTimeMillis()).toString().replace(':','.');
-		String actualReportTitle = reportTitle+dateString;
+		String actualReportTitle = ExperimentRunner.getJobPrefix()+reportTitle+dateString;
 		// If save complete population create a directory for storing
 		// individual population files 
 		if (saveCompletePopulation) {
@@ -195,20 +199,20 @@ public class PopulationReporter implements IAlgorithmListener, IConfigure
 			}			
 		}
 		// Do an iteration report
-		doIterationReport((PopulationAlgorithm) event.getAlgorithm(), true);
+		doIterationReport(PopulationSnapshot.of(event), true);
 	}
 
 	@Override
 	public void iterationCompleted(AlgorithmEvent event)
 	{
-		doIterationReport((PopulationAlgorithm) event.getAlgorithm(), false);
+		doIterationReport(PopulationSnapshot.of(event), false);
 	}
 
 	@Override
 	public void algorithmFinished(AlgorithmEvent event) 
 	{
 		// Do last generation report
-		doIterationReport((PopulationAlgorithm) event.getAlgorithm(), true);
+		doIterationReport(PopulationSnapshot.of(event), true);
 		// Close report file if necessary
 		if (reportOnFile  && reportFile != null) {
 			try {
@@ -251,14 +255,12 @@ public class PopulationReporter implements IAlgorithmListener, IConfigure
 		}
 	}
 
-	protected void doIterationReport(PopulationAlgorithm algorithm, boolean force)
+	protected void doIterationReport(PopulationSnapshot snapshot, boolean force)
 	{
-		// Fitness comparator
-		Comparator<IFitness> comparator = algorithm.getEvaluator().getComparator();
 		// Population individuals
-		List<IIndividual> inhabitants = algorithm.getInhabitants();
+		List<IIndividual> inhabitants = snapshot.getInhabitants();
 		// Actual generation
-		int generation = algorithm.getGeneration();
+		int generation = snapshot.getGeneration();
 		
 		// Check if this is correct generation
 		if (!force && generation%reportFrequency != 0) {
@@ -286,18 +288,17 @@ public class PopulationReporter implements IAlgorithmListener, IConfigure
 		// Do population report
 		StringBuffer sb = new StringBuffer("Generation " + generation + " Report\n");
 		// Best individual
-		IIndividual best = IndividualStatistics.bestIndividual(inhabitants, comparator);		
+		IIndividual best = snapshot.getBestIndividual();
 		sb.append("Best individual: "+best+"\n");
 		// Worst individual
-		IIndividual worst = IndividualStatistics.worstIndividual(inhabitants, comparator);
+		IIndividual worst = snapshot.getWorstIndividual();
 		sb.append("Worst individual: "+worst+"\n");
 		// Median individual
-		IIndividual median = IndividualStatistics.medianIndividual(inhabitants, comparator);
+		IIndividual median = snapshot.getMedianIndividual();
 		sb.append("Median individual: "+median+"\n");		
 		// Average fitness and fitness variance
-		double [] avgvar = IndividualStatistics.averageFitnessAndFitnessVariance(inhabitants);
-		sb.append("Average fitness = " + avgvar[0]+"\n");
-		sb.append("Fitness variance = "+ avgvar[1]+"\n");
+		sb.append("Average fitness = " + snapshot.getAverageFitness()+"\n");
+		sb.append("Fitness variance = "+ snapshot.getFitnessVariance()+"\n");
 		
 		// Write report string to the standard output (if necessary) 
 		if (reportOnConsole) {
@@ -103,6 +103,7 @@ public class MultiExprTreeIndividual extends AbstractIndividual<ExprTree[]>
 		if (other instanceof MultiExprTreeIndividual) {
 			MultiExprTreeIndividual cother = (MultiExprTreeIndividual) other;
 			EqualsBuilder eb = new EqualsBuilder();
+			eb.append(hashCode(), cother.hashCode());
 			eb.append(genotype, cother.genotype);
 			return eb.isEquals();
 		}
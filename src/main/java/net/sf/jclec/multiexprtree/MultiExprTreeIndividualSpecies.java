@@ -4,6 +4,7 @@ import net.sf.jclec.IConfigure;
 import net.sf.jclec.exprtree.ExprTree;
 import net.sf.jclec.exprtree.ExprTreeSchema;
 import net.sf.jclec.exprtree.IPrimitive;
+import net.sf.jclec.util.ComponentRegistry;
 
 import org.apache.commons.configuration.Configuration;
 import org.apache.commons.configuration.ConfigurationRuntimeException;
@@ -158,7 +159,7 @@ public class MultiExprTreeIndividualSpecies extends MultiExprTreeSpecies impleme
 			// Get root type
 			String rootTypeName = settings.getString(header+".root-type");
 			try {
-				Class<?> rootType = Class.forName(rootTypeName);
+				Class<?> rootType = ComponentRegistry.forName(rootTypeName);
 				setRootType(i, rootType);
 			} 
 			catch (ClassNotFoundException e) {
@@ -172,8 +173,8 @@ public class MultiExprTreeIndividualSpecies extends MultiExprTreeSpecies impleme
 					String terminalClassname = 
 						settings.getString(header+".terminals.terminal("+j+")[@class]");
 					Class<IPrimitive> terminalClass = 
-						(Class<IPrimitive>) Class.forName(terminalClassname);
-					terminals[j] = terminalClass.newInstance();
+						(Class<IPrimitive>) ComponentRegistry.forName(terminalClassname);
+					terminals[j] = ComponentRegistry.newInstance(terminalClass);
 				} 
 				catch (ClassNotFoundException e) {
 					throw new ConfigurationRuntimeException();
@@ -194,8 +195,8 @@ public class MultiExprTreeIndividualSpecies extends MultiExprTreeSpecies impleme
 					String functionClassname = 
 						settings.getString(header+".functions.function("+j+")[@class]");
 					Class<IPrimitive> functionClass = 
-						(Class<IPrimitive>) Class.forName(functionClassname);
-					functions[j] = functionClass.newInstance();
+						(Class<IPrimitive>) ComponentRegistry.forName(functionClassname);
+					functions[j] = ComponentRegistry.newInstance(functionClass);
 				} 
 				catch (ClassNotFoundException e) {
 					throw new ConfigurationRuntimeException();
@@ -7,6 +7,7 @@ import net.sf.jclec.base.AbstractMutator;
 import net.sf.jclec.exprtree.ExprTree;
 import net.sf.jclec.exprtree.ExprTreeSchema;
 import net.sf.jclec.exprtree.IMutateExprTree;
+import net.sf.jclec.util.ComponentRegistry;
 
 import org.apache.commons.configuration.Configuration;
 import org.apache.commons.configuration.ConfigurationRuntimeException;
@@ -99,12 +100,12 @@ public class MultiExprTreeMutator extends AbstractMutator implements IConfigure
 				settings.getString("base-op[@type]");
 			// Evaluator class
 			Class<? extends IMutateExprTree> baseOpClass = 
-				(Class<? extends IMutateExprTree>) Class.forName(baseOpClassname);
+				(Class<? extends IMutateExprTree>) ComponentRegistry.forName(baseOpClassname);
 			// Evaluator instance
-			IMutateExprTree baseOp = baseOpClass.newInstance();
+			IMutateExprTree baseOp = ComponentRegistry.newInstance(baseOpClass);
 			// Configure species
 			if (baseOp instanceof IConfigure) {
-				((IConfigure) baseOp).configure(settings.subset("base-op"));
+				((IConfigure) baseOp).configure(ComponentRegistry.subset(settings, "base-op"));
 			}
 			// Set species
 			setBaseOp(baseOp);
@@ -105,6 +105,7 @@ public class MultiSyntaxTreeIndividual extends AbstractIndividual<SyntaxTree []>
 		if (other instanceof MultiSyntaxTreeIndividual) {
 			MultiSyntaxTreeIndividual cother = (MultiSyntaxTreeIndividual) other;
 			EqualsBuilder eb = new EqualsBuilder();
+			eb.append(hashCode(), cother.hashCode());
 			eb.append(genotype, cother.genotype);
 			return eb.isEquals();
 		}
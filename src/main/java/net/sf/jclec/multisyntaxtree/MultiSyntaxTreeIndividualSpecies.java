@@ -8,6 +8,7 @@ import net.sf.jclec.syntaxtree.SyntaxTree;
 import net.sf.jclec.syntaxtree.TerminalNode;
 import net.sf.jclec.syntaxtree.NonTerminalNode;
 import net.sf.jclec.syntaxtree.SyntaxTreeSchema;
+import net.sf.jclec.util.ComponentRegistry;
 
 import org.apache.commons.configuration.Configuration;
 import org.apache.commons.lang.builder.EqualsBuilder;
@@ -162,8 +163,8 @@ public class MultiSyntaxTreeIndividualSpecies extends MultiSyntaxTreeSpecies imp
 					String termSymbolCodeClassname = 
 						settings.getString(header+".terminal-symbols.symbol("+j+")"+".code");
 					Class<? extends IPrimitive> termSymbolCodeClass = 
-						(Class<? extends IPrimitive>) Class.forName(termSymbolCodeClassname);
-					IPrimitive symbolCode = termSymbolCodeClass.newInstance();
+						(Class<? extends IPrimitive>) ComponentRegistry.forName(termSymbolCodeClassname);
+					IPrimitive symbolCode = ComponentRegistry.newInstance(termSymbolCodeClass);
 					termSymbol.setCode(symbolCode);
 				} 
 				catch (ClassNotFoundException e) {
@@ -8,6 +8,7 @@ import net.sf.jclec.base.AbstractMutator;
 import net.sf.jclec.syntaxtree.IMutateSyntaxTree;
 import net.sf.jclec.syntaxtree.SyntaxTree;
 import net.sf.jclec.syntaxtree.SyntaxTreeSchema;
+import net.sf.jclec.util.ComponentRegistry;
 
 import org.apache.commons.configuration.Configuration;
 import org.apache.commons.configuration.ConfigurationRuntimeException;
@@ -100,12 +101,12 @@ public class MultiSyntaxTreeMutator extends AbstractMutator implements IConfigur
 				settings.getString("base-op[@type]");
 			// Evaluator class
 			Class<? extends IMutateSyntaxTree> baseOpClass = 
-				(Class<? extends IMutateSyntaxTree>) Class.forName(baseOpClassname);
+				(Class<? extends IMutateSyntaxTree>) ComponentRegistry.forName(baseOpClassname);
 			// Evaluator instance
-			IMutateSyntaxTree baseOp = baseOpClass.newInstance();
+			IMutateSyntaxTree baseOp = ComponentRegistry.newInstance(baseOpClass);
 			// Configure species
 			if (baseOp instanceof IConfigure) {
-				((IConfigure) baseOp).configure(settings.subset("base-op"));
+				((IConfigure) baseOp).configure(ComponentRegistry.subset(settings, "base-op"));
 			}
 			// Set species
 			setBaseOp(baseOp);
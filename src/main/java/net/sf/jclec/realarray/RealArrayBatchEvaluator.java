@@ -0,0 +1,153 @@
+package net.sf.jclec.realarray;
+
+import java.util.List;
+import java.util.ArrayList;
+
+import net.sf.jclec.IIndividual;
+
+import net.sf.jclec.base.AbstractEvaluator;
+
+import net.sf.jclec.fitness.SimpleValueFitness;
+
+/**
+ * Evaluator that computes the fitness of a whole RealArrayIndividual population
+ * at once.
+ *
+ * The genotypes of all individuals without fitness are packed, row after row,
+ * into one contiguous <code>double[n*d]</code> matrix and passed to the
+ * evaluate(double[], int, int, double[]) method, that fills an array with the
+ * <code>n</code> fitness values. Afterwards, the individuals receive the
+ * corresponding SimpleValueFitness objects. The matrix and fitness arrays are
+ * reused from one call to the next.
+ *
+ * All individuals in a batch must have the same genotype length.
+ */
+
+@SuppressWarnings("serial")
+public abstract class RealArrayBatchEvaluator extends AbstractEvaluator
+{
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------- Internal variables
+	/////////////////////////////////////////////////////////////////
+
+	/** Genotypes matrix */
+
+	protected transient double [] genotypes;
+
+	/** Fitness values */
+
+	protected transient double [] values;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Empty constructor.
+	 */
+
+	public RealArrayBatchEvaluator()
+	{
+		super();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	// IEvaluator interface
+
+	/**
+	 * Evaluates all individuals without fitness in one batch.
+	 *
+	 * {@inheritDoc}
+	 */
+
+	@Override
+	public void evaluate(List<IIndividual> inds)
+	{
+		long time = System.currentTimeMillis();
+		// Individuals to evaluate
+		List<RealArrayIndividual> pending = new ArrayList<RealArrayIndividual>(inds.size());
+		for (IIndividual ind : inds) {
+			if (ind.getFitness() == null) {
+				pending.add((RealArrayIndividual) ind);
+			}
+		}
+		if (!pending.isEmpty()) {
+			evaluateBatch(pending);
+			numberOfEvaluations += pending.size();
+		}
+		executionTime += System.currentTimeMillis() - time;
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// -------------------------------------------- Protected methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Batch evaluation method.
+	 *
+	 * @param genotypes Genotypes matrix. Genotype i is stored in positions
+	 *        [i*length, (i+1)*length)
+	 * @param size Number of genotypes
+	 * @param length Genotype length
+	 * @param fitness Array where the fitness value of genotype i must be
+	 *        stored at position i
+	 */
+
+	protected abstract void evaluate(double [] genotypes, int size, int length, double [] fitness);
+
+	/**
+	 * Evaluates one individual as a batch of size one. This method does
+	 * not use the shared buffers, so it can be called concurrently.
+	 *
+	 * {@inheritDoc}
+	 */
+
+	@Override
+	protected void evaluate(IIndividual ind)
+	{
+		double [] genotype = ((RealArrayIndividual) ind).getGenotype();
+		double [] fitness = new double[1];
+		evaluate(genotype, 1, genotype.length, fitness);
+		ind.setFitness(new SimpleValueFitness(fitness[0]));
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Packs the genotypes, evaluates them and sets fitness values.
+	 *
+	 * @param batch Individuals to evaluate
+	 */
+
+	private void evaluateBatch(List<RealArrayIndividual> batch)
+	{
+		int size = batch.size();
+		int length = batch.get(0).getGenotype().length;
+		// Ensure buffers capacity
+		if (genotypes == null || genotypes.length < size * length) {
+			genotypes = new double[size * length];
+		}
+		if (values == null || values.length < size) {
+			values = new double[size];
+		}
+		// Pack genotypes
+		for (int i=0; i<size; i++) {
+			double [] genotype = batch.get(i).getGenotype();
+			if (genotype.length != length) {
+				throw new IllegalArgumentException("All genotypes in a batch must have the same length");
+			}
+			System.arraycopy(genotype, 0, genotypes, i * length, length);
+		}
+		// Evaluate genotypes
+		evaluate(genotypes, size, length, values);
+		// Set fitness values
+		for (int i=0; i<size; i++) {
+			batch.get(i).setFitness(new SimpleValueFitness(values[i]));
+		}
+	}
+}
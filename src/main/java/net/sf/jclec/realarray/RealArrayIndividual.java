@@ -119,6 +119,7 @@ public class RealArrayIndividual extends AbstractIndividual<double[]>
 		if (other instanceof RealArrayIndividual) {
 			RealArrayIndividual iaother = (RealArrayIndividual) other;
 			EqualsBuilder eb = new EqualsBuilder();
+			eb.append(hashCode(), iaother.hashCode());
 			eb.append(genotype, iaother.genotype);
 			return eb.isEquals();
 		}
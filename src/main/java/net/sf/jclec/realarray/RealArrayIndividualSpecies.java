@@ -1,7 +1,10 @@
 package net.sf.jclec.realarray;
 
+import java.util.List;
+
 import net.sf.jclec.IConfigure;
 import net.sf.jclec.util.range.IRange;
+import net.sf.jclec.util.ComponentRegistry;
 
 
 import org.apache.commons.configuration.Configuration;
@@ -97,26 +100,28 @@ public class RealArrayIndividualSpecies extends RealArraySpecies implements ICon
 	
 	public void configure(Configuration settings) 
 	{
+		// Loci settings
+		List<Configuration> loci = 
+			ComponentRegistry.subsets(settings, "genotype-schema.locus");
 		// Genotype lenght
-		int genotypeLength = 
-			settings.getList("genotype-schema.locus[@type]").size();
+		int genotypeLength = loci.size();
 		// Genotype schema
 		IRange [] genotypeSchema = new IRange[genotypeLength];
 		// Set genotype schema components
 		for (int i=0; i<genotypeLength; i++) {
 			// Get component classname
 			String componentClassname = 
-				settings.getString("genotype-schema.locus("+i+")[@type]");
+				loci.get(i).getString("[@type]");
 			try {
 				Class<?> componentClass = 
-					Class.forName(componentClassname);
+					ComponentRegistry.forName(componentClassname);
 				// Set schema component
 				genotypeSchema[i] = 
-					(IRange) componentClass.newInstance();
+					(IRange) ComponentRegistry.newInstance(componentClass);
 				// Configure component
 				if (genotypeSchema[i] instanceof IConfigure) {
 					((IConfigure) genotypeSchema[i]).configure
-						(settings.subset("genotype-schema.locus("+i+")"));
+						(loci.get(i));
 				}
 			}
 			catch(ClassNotFoundException e) {
@@ -1,6 +1,7 @@
 package net.sf.jclec.realarray;
 
 import net.sf.jclec.ISpecies;
+import net.sf.jclec.IIndividual;
 
 import net.sf.jclec.base.AbstractMutator;
 
@@ -71,4 +72,36 @@ public abstract class RealArrayMutator extends AbstractMutator
 		// Genome schema
 		genotypeSchema = species.getGenotypeSchema();
 	}
+
+	/**
+	 * Genotype for a son. The genotype of a recycled individual is returned
+	 * if there is any left (its old contents must be completely overwritten);
+	 * otherwise, a new genotype is created.
+	 *
+	 * @return Son genotype
+	 */
+
+	protected final double [] newGenotype()
+	{
+		Object genotype = recycledGenotype();
+		if (genotype instanceof double [] && ((double []) genotype).length == genotypeLength) {
+			return (double []) genotype;
+		}
+		return new double[genotypeLength];
+	}
+
+	/**
+	 * Creates a son with the given genotype, reusing the recycled individual
+	 * that owns it (if any).
+	 *
+	 * @param genotype Son genotype
+	 *
+	 * @return Son
+	 */
+
+	protected final IIndividual createSon(double [] genotype)
+	{
+		IIndividual son = recycledSon(genotype);
+		return son != null ? son : species.createIndividual(genotype);
+	}
 }
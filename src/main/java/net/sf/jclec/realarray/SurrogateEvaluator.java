@@ -0,0 +1,389 @@
+package net.sf.jclec.realarray;
+
+import java.util.List;
+import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.Comparator;
+
+import net.sf.jclec.IFitness;
+import net.sf.jclec.IEvaluator;
+import net.sf.jclec.IIndividual;
+
+import net.sf.jclec.base.DecoratedEvaluator;
+
+import net.sf.jclec.fitness.IValueFitness;
+import net.sf.jclec.fitness.SimpleValueFitness;
+import net.sf.jclec.fitness.ApproximateValueFitness;
+
+import org.apache.commons.configuration.Configuration;
+
+/**
+ * Evaluator that pre-screens RealArrayIndividuals with a surrogate model.
+ *
+ * Genotypes and fitness values computed by the decorated evaluator are kept in
+ * a bounded archive. The fitness of new individuals is predicted by means of an
+ * inverse distance weighted k-nearest neighbours model over this archive, and
+ * only the most promising fraction of them (according to the predicted values)
+ * is evaluated by the decorated evaluator. The rest receive their predicted
+ * fitness as an ApproximateValueFitness. While the archive has less entries than
+ * neighbours, all individuals are evaluated.
+ *
+ * The mean absolute error of the predictions made for the really evaluated
+ * individuals is reported, to assess the quality of the model. The number of
+ * evaluations is that of the decorated evaluator, so it only counts real
+ * evaluations.
+ *
+ * @see net.sf.jclec.fitness.ApproximateValueFitness
+ */
+
+public class SurrogateEvaluator extends DecoratedEvaluator
+{
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------- Serialization constant
+	/////////////////////////////////////////////////////////////////
+
+	private static final long serialVersionUID = 4016960187330985536L;
+
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------------------- Properties
+	/////////////////////////////////////////////////////////////////
+
+	/** Maximum number of archived evaluations */
+
+	protected int archiveSize = 1000;
+
+	/** Number of neighbours used in predictions */
+
+	protected int numberOfNeighbors = 5;
+
+	/** Fraction of individuals evaluated by the decorated evaluator */
+
+	protected double evaluatedFraction = 0.5;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------- Internal variables
+	/////////////////////////////////////////////////////////////////
+
+	/** Archived genotypes */
+
+	protected transient double [][] archiveGenotypes;
+
+	/** Archived fitness values */
+
+	protected transient double [] archiveValues;
+
+	/** Number of archived evaluations */
+
+	protected transient int archiveCount;
+
+	/** Next archive position to replace */
+
+	protected transient int archiveNext;
+
+	/** Number of individuals that received a predicted fitness */
+
+	protected long numberOfPredictions;
+
+	/** Number of predictions checked against real evaluations */
+
+	protected long numberOfValidations;
+
+	/** Sum of absolute prediction errors */
+
+	protected double predictionErrorSum;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	/** Empty constructor */
+
+	public SurrogateEvaluator()
+	{
+		super();
+	}
+
+	/**
+	 * Constructor that sets the decorated evaluator.
+	 *
+	 * @param decorated Real fitness evaluator
+	 */
+
+	public SurrogateEvaluator(IEvaluator decorated)
+	{
+		super(decorated);
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	// Setting and getting properties
+
+	/**
+	 * Access to the maximum archive size.
+	 *
+	 * @return Maximum number of archived evaluations
+	 */
+
+	public final int getArchiveSize()
+	{
+		return archiveSize;
+	}
+
+	/**
+	 * Sets the maximum archive size.
+	 *
+	 * @param archiveSize Maximum number of archived evaluations
+	 */
+
+	public final void setArchiveSize(int archiveSize)
+	{
+		this.archiveSize = archiveSize;
+	}
+
+	/**
+	 * Access to the number of neighbours used in predictions.
+	 *
+	 * @return Number of neighbours
+	 */
+
+	public final int getNumberOfNeighbors()
+	{
+		return numberOfNeighbors;
+	}
+
+	/**
+	 * Sets the number of neighbours used in predictions.
+	 *
+	 * @param numberOfNeighbors Number of neighbours
+	 */
+
+	public final void setNumberOfNeighbors(int numberOfNeighbors)
+	{
+		this.numberOfNeighbors = numberOfNeighbors;
+	}
+
+	/**
+	 * Access to the fraction of really evaluated individuals.
+	 *
+	 * @return Evaluated fraction
+	 */
+
+	public final double getEvaluatedFraction()
+	{
+		return evaluatedFraction;
+	}
+
+	/**
+	 * Sets the fraction of really evaluated individuals.
+	 *
+	 * @param evaluatedFraction Evaluated fraction, in (0,1]
+	 */
+
+	public final void setEvaluatedFraction(double evaluatedFraction)
+	{
+		this.evaluatedFraction = evaluatedFraction;
+	}
+
+	// Surrogate statistics
+
+	/**
+	 * Access to the number of predicted fitness values.
+	 *
+	 * @return Individuals that received an approximate fitness
+	 */
+
+	public final long getNumberOfPredictions()
+	{
+		return numberOfPredictions;
+	}
+
+	/**
+	 * Access to the mean prediction error.
+	 *
+	 * @return Mean absolute difference between predicted and real fitness
+	 *         values of the really evaluated individuals (NaN if none)
+	 */
+
+	public final double getMeanPredictionError()
+	{
+		return numberOfValidations == 0 ? Double.NaN : predictionErrorSum / numberOfValidations;
+	}
+
+	// IEvaluator interface
+
+	/**
+	 * {@inheritDoc}
+	 */
+
+	public void evaluate(List<IIndividual> inds)
+	{
+		// Individuals to evaluate
+		List<IIndividual> pending = new ArrayList<IIndividual>();
+		for (IIndividual ind : inds) {
+			if (ind.getFitness() == null) {
+				pending.add(ind);
+			}
+		}
+		int size = pending.size();
+		if (size == 0) {
+			return;
+		}
+		// Not enough archived evaluations
+		if (archiveCount < Math.max(1, numberOfNeighbors)) {
+			decorated.evaluate(pending);
+			for (IIndividual ind : pending) {
+				archive(ind);
+			}
+			return;
+		}
+		// Predict fitness values
+		final IFitness [] predicted = new IFitness[size];
+		Integer [] order = new Integer[size];
+		for (int i=0; i<size; i++) {
+			predicted[i] = new SimpleValueFitness(predict(((RealArrayIndividual) pending.get(i)).getGenotype()));
+			order[i] = i;
+		}
+		// Sort individuals, most promising first
+		final Comparator<IFitness> comparator = decorated.getComparator();
+		Arrays.sort(order, new Comparator<Integer>() {
+			public int compare(Integer i, Integer j)
+			{
+				return comparator.compare(predicted[j], predicted[i]);
+			}
+		});
+		// Evaluate the most promising individuals
+		int evaluated = Math.min(size, Math.max(1, (int) Math.ceil(evaluatedFraction * size)));
+		List<IIndividual> selected = new ArrayList<IIndividual>(evaluated);
+		for (int i=0; i<evaluated; i++) {
+			selected.add(pending.get(order[i]));
+		}
+		decorated.evaluate(selected);
+		for (int i=0; i<evaluated; i++) {
+			IIndividual ind = selected.get(i);
+			double real = ((IValueFitness) ind.getFitness()).getValue();
+			double prediction = ((IValueFitness) predicted[order[i]]).getValue();
+			predictionErrorSum += Math.abs(real - prediction);
+			numberOfValidations++;
+			archive(ind);
+		}
+		// Set predicted fitness to the rest
+		for (int i=evaluated; i<size; i++) {
+			double prediction = ((IValueFitness) predicted[order[i]]).getValue();
+			pending.get(order[i]).setFitness(new ApproximateValueFitness(prediction));
+			numberOfPredictions++;
+		}
+	}
+
+	// IConfigure interface
+
+	/**
+	 * Configuration parameters for SurrogateEvaluator are:
+	 *
+	 * <ul>
+	 * <li>
+	 * <code>decorated: IEvaluator (complex)</code></p>
+	 * Real fitness evaluator
+	 * </li><li>
+	 * <code>archive-size int (default 1000)</code></p>
+	 * Maximum number of archived evaluations
+	 * </li><li>
+	 * <code>number-of-neighbors int (default 5)</code></p>
+	 * Number of neighbours used in predictions
+	 * </li><li>
+	 * <code>evaluated-fraction double (default 0.5)</code></p>
+	 * Fraction of individuals evaluated by the decorated evaluator
+	 * </li>
+	 * </ul>
+	 */
+
+	@Override
+	public void configure(Configuration settings)
+	{
+		// Call super method
+		super.configure(settings);
+		// Archive size
+		int archiveSize = settings.getInt("archive-size", 1000);
+		setArchiveSize(archiveSize);
+		// Number of neighbors
+		int numberOfNeighbors = settings.getInt("number-of-neighbors", 5);
+		setNumberOfNeighbors(numberOfNeighbors);
+		// Evaluated fraction
+		double evaluatedFraction = settings.getDouble("evaluated-fraction", 0.5);
+		setEvaluatedFraction(evaluatedFraction);
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// -------------------------------------------- Protected methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Adds a really evaluated individual to the archive, replacing the
+	 * oldest entry if the archive is full.
+	 *
+	 * @param ind Evaluated individual
+	 */
+
+	protected void archive(IIndividual ind)
+	{
+		if (archiveGenotypes == null) {
+			archiveGenotypes = new double[archiveSize][];
+			archiveValues = new double[archiveSize];
+			archiveCount = archiveNext = 0;
+		}
+		archiveGenotypes[archiveNext] = ((RealArrayIndividual) ind).getGenotype().clone();
+		archiveValues[archiveNext] = ((IValueFitness) ind.getFitness()).getValue();
+		archiveNext = (archiveNext + 1) % archiveSize;
+		if (archiveCount < archiveSize) {
+			archiveCount++;
+		}
+	}
+
+	/**
+	 * Predicts the fitness value of a genotype, weighting the values of
+	 * its nearest archived neighbours by their inverse distance.
+	 *
+	 * @param genotype Genotype
+	 *
+	 * @return Predicted fitness value
+	 */
+
+	protected double predict(double [] genotype)
+	{
+		int k = Math.min(numberOfNeighbors, archiveCount);
+		// Nearest neighbours, sorted by distance
+		double [] distances = new double[k];
+		int [] neighbors = new int[k];
+		int found = 0;
+		for (int i=0; i<archiveCount; i++) {
+			double [] other = archiveGenotypes[i];
+			double distance = 0.0;
+			for (int j=0; j<genotype.length; j++) {
+				double diff = genotype[j] - other[j];
+				distance += diff * diff;
+			}
+			if (distance == 0.0) {
+				return archiveValues[i];
+			}
+			if (found < k || distance < distances[found - 1]) {
+				int pos = found < k ? found++ : found - 1;
+				while (pos > 0 && distances[pos - 1] > distance) {
+					distances[pos] = distances[pos - 1];
+					neighbors[pos] = neighbors[pos - 1];
+					pos--;
+				}
+				distances[pos] = distance;
+				neighbors[pos] = i;
+			}
+		}
+		// Weighted mean of neighbours values
+		double weightSum = 0.0, valueSum = 0.0;
+		for (int i=0; i<found; i++) {
+			double weight = 1.0 / Math.sqrt(distances[i]);
+			weightSum += weight;
+			valueSum += weight * archiveValues[neighbors[i]];
+		}
+		return valueSum / weightSum;
+	}
+}
@@ -2,6 +2,9 @@ package net.sf.jclec.realarray;
 
 
 import net.sf.jclec.IConfigure;
+import net.sf.jclec.IIndividual;
+
+import net.sf.jclec.base.MutationRecord;
 
 import org.apache.commons.configuration.Configuration;
 
@@ -88,7 +91,7 @@ public abstract class UniformMutator extends RealArrayMutator implements IConfig
 		RealArrayIndividual ind = 
 			(RealArrayIndividual) parentsBuffer.get(parentsCounter);
 		double [] parentChromosome = ind.getGenotype();
-		double [] mutantChromosome = new double[genotypeLength];
+		double [] mutantChromosome = newGenotype();
 		for (int i=0; i<genotypeLength; i++) {
 			if (randgen.coin(locusMutProb)) {
 				doLocusMutation(parentChromosome, mutantChromosome, i);
@@ -97,7 +100,9 @@ public abstract class UniformMutator extends RealArrayMutator implements IConfig
 				mutantChromosome[i] = parentChromosome[i];
 			}
 		}
-		sonsBuffer.add(species.createIndividual(mutantChromosome));
+		IIndividual son = createSon(mutantChromosome);
+		recordMutation(son, ind, MutationRecord.changedLoci(parentChromosome, mutantChromosome));
+		sonsBuffer.add(son);
 	}
 	
 	// Locus mutation methods
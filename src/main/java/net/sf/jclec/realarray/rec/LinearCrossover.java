@@ -91,9 +91,9 @@ public class LinearCrossover extends UniformCrossover
 		double [] p1_genome = 
 			((RealArrayIndividual) parentsBuffer.get(parentsCounter+1)).getGenotype();
 		// Creating sons genotypes
-		double [] s0_genome = new double[genotypeLength];
-		double [] s1_genome = new double[genotypeLength];
-		double [] s2_genome = new double[genotypeLength];
+		double [] s0_genome = newGenotype();
+		double [] s1_genome = newGenotype();
+		double [] s2_genome = newGenotype();
 		// Building cross segment
 		for (int i=0; i<genotypeLength; i++)
 		{
@@ -112,9 +112,9 @@ public class LinearCrossover extends UniformCrossover
 			}			
 		}
 		// Put sons in buffer
-		sonsBuffer.add(species.createIndividual(s0_genome)) ;
-		sonsBuffer.add(species.createIndividual(s1_genome));
-		sonsBuffer.add(species.createIndividual(s2_genome));
+		sonsBuffer.add(createSon(s0_genome)) ;
+		sonsBuffer.add(createSon(s1_genome));
+		sonsBuffer.add(createSon(s2_genome));
 	}
 
 	@Override
@@ -69,7 +69,7 @@ abstract class UniformCrossover2x1 extends UniformCrossover
 		double [] p1_genome = 
 			((RealArrayIndividual) parentsBuffer.get(parentsCounter+1)).getGenotype();
 		// Creating sons genotypes
-		double [] s0_genome = new double[genotypeLength];
+		double [] s0_genome = newGenotype();
 		// Do recombination operation
 		for (int i=0; i<genotypeLength; i++) {
 			if (randgen.coin(locusRecProb)) {
@@ -80,7 +80,7 @@ abstract class UniformCrossover2x1 extends UniformCrossover
 			}
 		}
 		// Create sons, putting them in s
-		sonsBuffer.add(species.createIndividual(s0_genome));
+		sonsBuffer.add(createSon(s0_genome));
 	}
 
 	// Recombination method
@@ -67,8 +67,8 @@ abstract class UniformCrossover2x2 extends UniformCrossover
 		double [] p1_genome = 
 			((RealArrayIndividual) parentsBuffer.get(parentsCounter+1)).getGenotype();
 		// Creating sons genotypes
-		double [] s0_genome = new double[genotypeLength];
-		double [] s1_genome = new double[genotypeLength];
+		double [] s0_genome = newGenotype();
+		double [] s1_genome = newGenotype();
 		// Do recombination operation
 		for (int i=0; i<genotypeLength; i++) {
 			if (randgen.coin(locusRecProb)) {
@@ -80,8 +80,8 @@ abstract class UniformCrossover2x2 extends UniformCrossover
 			}
 		}
 		// Create sons, putting them in s
-		sonsBuffer.add(species.createIndividual(s0_genome));
-		sonsBuffer.add(species.createIndividual(s1_genome));
+		sonsBuffer.add(createSon(s0_genome));
+		sonsBuffer.add(createSon(s1_genome));
 	}
 	
 	// Recombination method
@@ -101,6 +101,7 @@ public class SyntaxTreeIndividual extends AbstractIndividual<SyntaxTree>
 		if (other instanceof SyntaxTreeIndividual) {
 			SyntaxTreeIndividual cother = (SyntaxTreeIndividual) other;
 			EqualsBuilder eb = new EqualsBuilder();
+			eb.append(hashCode(), cother.hashCode());
 			eb.append(genotype, cother.genotype);
 			return eb.isEquals();
 		}
@@ -4,6 +4,7 @@ import net.sf.jclec.ISpecies;
 import net.sf.jclec.IConfigure;
 
 import net.sf.jclec.base.AbstractRecombinator;
+import net.sf.jclec.util.ComponentRegistry;
 
 import org.apache.commons.configuration.Configuration;
 import org.apache.commons.configuration.ConfigurationRuntimeException;
@@ -82,12 +83,12 @@ public class SyntaxTreeRecombinator extends AbstractRecombinator implements ICon
 				settings.getString("base-op[@type]");
 			// Evaluator class
 			Class<? extends IRecombineSyntaxTree> baseOpClass = 
-				(Class<? extends IRecombineSyntaxTree>) Class.forName(baseOpClassname);
+				(Class<? extends IRecombineSyntaxTree>) ComponentRegistry.forName(baseOpClassname);
 			// Evaluator instance
-			IRecombineSyntaxTree baseOp = baseOpClass.newInstance();
+			IRecombineSyntaxTree baseOp = ComponentRegistry.newInstance(baseOpClass);
 			// Configure species
 			if (baseOp instanceof IConfigure) {
-				((IConfigure) baseOp).configure(settings.subset("base-op"));
+				((IConfigure) baseOp).configure(ComponentRegistry.subset(settings, "base-op"));
 			}
 			// Set species
 			setBaseOp(baseOp);
@@ -0,0 +1,219 @@
+package net.sf.jclec.util;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+
+import java.util.List;
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.configuration.Configuration;
+import org.apache.commons.configuration.HierarchicalConfiguration;
+
+/**
+ * Cached creation of configured components.
+ *
+ * Components (algorithms, species, operators, listeners, ...) are created by
+ * means of their classnames in configure() methods. This class resolves each
+ * classname and the empty constructor of each class only once, so that
+ * building many algorithm instances (e.g. in experiment sweeps) does not
+ * repeat these reflective lookups.
+ *
+ * Besides, the subset() methods return views of the settings of a component
+ * that share the nodes of hierarchical configurations, instead of copying
+ * them as Configuration.subset() does. These views must not be modified.
+ *
+ * The methods of this class throw the same exceptions than Class.forName()
+ * and Class.newInstance(), so they can replace them directly.
+ */
+
+public class ComponentRegistry
+{
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Class variables
+	/////////////////////////////////////////////////////////////////
+
+	/** Classes by name */
+
+	private static final ConcurrentMap<String, Class<?>> classes =
+		new ConcurrentHashMap<String, Class<?>>();
+
+	/** Empty constructors by class */
+
+	private static final ConcurrentMap<Class<?>, Constructor<?>> constructors =
+		new ConcurrentHashMap<Class<?>, Constructor<?>>();
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	private ComponentRegistry()
+	{
+		super();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Returns the class with the given name.
+	 *
+	 * @param classname Class name
+	 *
+	 * @return Class
+	 *
+	 * @throws ClassNotFoundException If the class cannot be found
+	 */
+
+	public static Class<?> forName(String classname) throws ClassNotFoundException
+	{
+		if (classname == null) {
+			throw new ClassNotFoundException("null");
+		}
+		Class<?> result = classes.get(classname);
+		if (result == null) {
+			result = Class.forName(classname);
+			classes.put(classname, result);
+		}
+		return result;
+	}
+
+	/**
+	 * Creates an instance of a class by means of its empty constructor.
+	 *
+	 * @param clazz Class to instantiate
+	 *
+	 * @return New instance
+	 *
+	 * @throws InstantiationException If the class is abstract or has no
+	 *         empty constructor, or if the constructor throws a checked
+	 *         exception
+	 * @throws IllegalAccessException If the constructor is not accessible
+	 */
+
+	public static <T> T newInstance(Class<T> clazz) throws InstantiationException, IllegalAccessException
+	{
+		try {
+			return constructor(clazz).newInstance();
+		}
+		catch (InvocationTargetException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			else if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			else {
+				InstantiationException ie = new InstantiationException(clazz.getName());
+				ie.initCause(cause);
+				throw ie;
+			}
+		}
+	}
+
+	/**
+	 * Creates an instance of the class with the given name.
+	 *
+	 * @param classname Class name
+	 *
+	 * @return New instance
+	 *
+	 * @throws ClassNotFoundException If the class cannot be found
+	 * @throws InstantiationException If the class cannot be instantiated
+	 * @throws IllegalAccessException If the constructor is not accessible
+	 *
+	 * @see #newInstance(Class)
+	 */
+
+	public static Object newInstance(String classname)
+		throws ClassNotFoundException, InstantiationException, IllegalAccessException
+	{
+		return newInstance(forName(classname));
+	}
+
+	/**
+	 * Settings of a component. If the configuration is hierarchical and the
+	 * key identifies a single node, the result is a view of this node;
+	 * otherwise, it is the configuration subset.
+	 *
+	 * @param configuration Configuration
+	 * @param key Component key
+	 *
+	 * @return Component settings
+	 */
+
+	public static Configuration subset(Configuration configuration, String key)
+	{
+		if (configuration instanceof HierarchicalConfiguration) {
+			HierarchicalConfiguration hconfiguration = (HierarchicalConfiguration) configuration;
+			if (hconfiguration.getMaxIndex(key) == 0) {
+				return hconfiguration.configurationAt(key);
+			}
+		}
+		return configuration.subset(key);
+	}
+
+	/**
+	 * Settings of all the components with the same key (for instance, all
+	 * the loci of a genotype schema). Hierarchical configurations are only
+	 * traversed once; in other configurations, components are counted by
+	 * means of their <code>type</code> attribute.
+	 *
+	 * @param configuration Configuration
+	 * @param key Components key
+	 *
+	 * @return Components settings, in order
+	 */
+
+	@SuppressWarnings("unchecked")
+	public static List<Configuration> subsets(Configuration configuration, String key)
+	{
+		if (configuration instanceof HierarchicalConfiguration) {
+			return new ArrayList<Configuration>
+				(((HierarchicalConfiguration) configuration).configurationsAt(key));
+		}
+		else {
+			List<Configuration> result = new ArrayList<Configuration>();
+			int size = configuration.getList(key + "[@type]").size();
+			for (int i=0; i<size; i++) {
+				result.add(configuration.subset(key + "(" + i + ")"));
+			}
+			return result;
+		}
+	}
+
+	/**
+	 * Removes all cached classes and constructors.
+	 */
+
+	public static void clear()
+	{
+		classes.clear();
+		constructors.clear();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	@SuppressWarnings("unchecked")
+	private static <T> Constructor<T> constructor(Class<T> clazz) throws InstantiationException
+	{
+		Constructor<T> result = (Constructor<T>) constructors.get(clazz);
+		if (result == null) {
+			try {
+				result = clazz.getDeclaredConstructor();
+			}
+			catch (NoSuchMethodException e) {
+				InstantiationException ie = new InstantiationException(clazz.getName());
+				ie.initCause(e);
+				throw ie;
+			}
+			constructors.put(clazz, result);
+		}
+		return result;
+	}
+}
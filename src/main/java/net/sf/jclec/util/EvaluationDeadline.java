@@ -0,0 +1,102 @@
+package net.sf.jclec.util;
+
+/**
+ * Wall-clock deadline of the evaluation running in the current thread.
+ *
+ * Evaluators with a time budget set a deadline before evaluating an individual.
+ * Long-running fitness code (program interpreters, simulators...) should call
+ * check() from time to time, so that runaway evaluations can be cancelled
+ * cooperatively. If no deadline is set, check() does nothing.
+ */
+
+public class EvaluationDeadline
+{
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Class variables
+	/////////////////////////////////////////////////////////////////
+
+	/** Deadline of the current thread (in milliseconds, 0 means none) */
+
+	private static final ThreadLocal<long []> DEADLINE = new ThreadLocal<long []>() {
+		@Override
+		protected long [] initialValue()
+		{
+			return new long[1];
+		}
+	};
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Sets the deadline of the current thread.
+	 *
+	 * @param deadline Deadline, as given by System.currentTimeMillis()
+	 */
+
+	public static final void set(long deadline)
+	{
+		DEADLINE.get()[0] = deadline;
+	}
+
+	/**
+	 * Access to the deadline of the current thread.
+	 *
+	 * @return Deadline (ms), or 0 if there is no deadline
+	 */
+
+	public static final long get()
+	{
+		return DEADLINE.get()[0];
+	}
+
+	/**
+	 * Removes the deadline of the current thread.
+	 */
+
+	public static final void clear()
+	{
+		DEADLINE.get()[0] = 0;
+	}
+
+	/**
+	 * Informs if the deadline of the current thread has expired.
+	 *
+	 * @return true if there is a deadline and it has expired
+	 */
+
+	public static final boolean isExpired()
+	{
+		long deadline = DEADLINE.get()[0];
+		return deadline != 0 && System.currentTimeMillis() >= deadline;
+	}
+
+	/**
+	 * Checks the deadline of the current thread.
+	 *
+	 * @throws EvaluationTimeoutException if the deadline has expired
+	 */
+
+	public static final void check()
+	{
+		check(get());
+	}
+
+	/**
+	 * Checks a deadline previously read with get(). Tight loops read
+	 * the deadline once and call this method, which does not access
+	 * the thread-local variable.
+	 *
+	 * @param deadline Deadline (0 means no deadline)
+	 *
+	 * @throws EvaluationTimeoutException if the deadline has expired
+	 */
+
+	public static final void check(long deadline)
+	{
+		if (deadline != 0 && System.currentTimeMillis() >= deadline) {
+			throw new EvaluationTimeoutException();
+		}
+	}
+}
@@ -0,0 +1,29 @@
+package net.sf.jclec.util;
+
+/**
+ * Thrown when an evaluation exceeds its time budget.
+ *
+ * @see net.sf.jclec.util.EvaluationDeadline
+ */
+
+public class EvaluationTimeoutException extends RuntimeException
+{
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------- Serialization constant
+	/////////////////////////////////////////////////////////////////
+
+	private static final long serialVersionUID = 6177282920414127043L;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Empty constructor.
+	 */
+
+	public EvaluationTimeoutException()
+	{
+		super("Evaluation time budget exceeded");
+	}
+}
@@ -0,0 +1,280 @@
+package net.sf.jclec.util;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.Serializable;
+
+import net.sf.jclec.IFitness;
+
+import net.sf.jclec.fitness.IValueFitness;
+import net.sf.jclec.fitness.ISimpleFitness;
+import net.sf.jclec.fitness.ICompositeFitness;
+import net.sf.jclec.fitness.CompositeFitness;
+import net.sf.jclec.fitness.SimpleValueFitness;
+import net.sf.jclec.fitness.CompositeValueFitness;
+
+import org.apache.commons.lang.SerializationUtils;
+
+/**
+ * Compact binary encoding of genotypes and fitness values.
+ *
+ * <code>double[]</code>, <code>int[]</code> and <code>byte[]</code> genotypes are
+ * written as a type tag, their length and their raw contents. Any other genotype
+ * is written by means of Java serialization. Value fitnesses (simple, composite
+ * and composite value) are written as their double values.
+ *
+ * Serialized genotypes must only be read from trusted sources, because Java
+ * deserialization can run code of any class in the classpath. Data received
+ * from other processes should be read with <code>readGenotype(in, false)</code>,
+ * which only accepts raw arrays.
+ */
+
+public class GenotypeCodec
+{
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Class variables
+	/////////////////////////////////////////////////////////////////
+
+	// Genotype tags
+
+	private static final byte DOUBLE_ARRAY = 1;
+
+	private static final byte INT_ARRAY = 2;
+
+	private static final byte BYTE_ARRAY = 3;
+
+	private static final byte SERIALIZED = 127;
+
+	// Fitness tags
+
+	private static final byte NO_FITNESS = 0;
+
+	private static final byte SIMPLE_VALUE = 1;
+
+	private static final byte COMPOSITE = 2;
+
+	private static final byte COMPOSITE_VALUE = 3;
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Writes a genotype.
+	 *
+	 * @param out Output stream
+	 * @param genotype Genotype to write
+	 *
+	 * @throws IOException if an I/O error occurs
+	 */
+
+	public static final void writeGenotype(DataOutput out, Object genotype) throws IOException
+	{
+		if (genotype instanceof double []) {
+			double [] array = (double []) genotype;
+			out.writeByte(DOUBLE_ARRAY);
+			out.writeInt(array.length);
+			for (double value : array) {
+				out.writeDouble(value);
+			}
+		}
+		else if (genotype instanceof int []) {
+			int [] array = (int []) genotype;
+			out.writeByte(INT_ARRAY);
+			out.writeInt(array.length);
+			for (int value : array) {
+				out.writeInt(value);
+			}
+		}
+		else if (genotype instanceof byte []) {
+			byte [] array = (byte []) genotype;
+			out.writeByte(BYTE_ARRAY);
+			out.writeInt(array.length);
+			out.write(array);
+		}
+		else {
+			byte [] bytes = SerializationUtils.serialize((Serializable) genotype);
+			out.writeByte(SERIALIZED);
+			out.writeInt(bytes.length);
+			out.write(bytes);
+		}
+	}
+
+	/**
+	 * Informs if a genotype is written as a raw array (and not by means
+	 * of Java serialization).
+	 *
+	 * @param genotype Genotype
+	 *
+	 * @return true for <code>double[]</code>, <code>int[]</code> and
+	 *         <code>byte[]</code> genotypes
+	 */
+
+	public static final boolean isRaw(Object genotype)
+	{
+		return genotype instanceof double []
+			|| genotype instanceof int []
+			|| genotype instanceof byte [];
+	}
+
+	/**
+	 * Reads a genotype.
+	 *
+	 * @param in Input stream
+	 *
+	 * @return Genotype read
+	 *
+	 * @throws IOException if an I/O error occurs
+	 */
+
+	public static final Object readGenotype(DataInput in) throws IOException
+	{
+		return readGenotype(in, true);
+	}
+
+	/**
+	 * Reads a genotype.
+	 *
+	 * @param in Input stream
+	 * @param serialized Accept serialized genotypes? (only for trusted
+	 *        sources)
+	 *
+	 * @return Genotype read
+	 *
+	 * @throws IOException if an I/O error occurs, or if a serialized
+	 *         genotype is read and they are not accepted
+	 */
+
+	public static final Object readGenotype(DataInput in, boolean serialized) throws IOException
+	{
+		byte tag = in.readByte();
+		int length = in.readInt();
+		if (length < 0) {
+			throw new IOException("Illegal genotype length: " + length);
+		}
+		if (tag == SERIALIZED && !serialized) {
+			throw new IOException("Serialized genotypes are not accepted");
+		}
+		switch (tag) {
+			case DOUBLE_ARRAY:
+			{
+				double [] array = new double[length];
+				for (int i=0; i<length; i++) {
+					array[i] = in.readDouble();
+				}
+				return array;
+			}
+			case INT_ARRAY:
+			{
+				int [] array = new int[length];
+				for (int i=0; i<length; i++) {
+					array[i] = in.readInt();
+				}
+				return array;
+			}
+			case BYTE_ARRAY:
+			{
+				byte [] array = new byte[length];
+				in.readFully(array);
+				return array;
+			}
+			case SERIALIZED:
+			{
+				byte [] bytes = new byte[length];
+				in.readFully(bytes);
+				return SerializationUtils.deserialize(bytes);
+			}
+			default:
+				throw new IOException("Illegal genotype tag: " + tag);
+		}
+	}
+
+	/**
+	 * Writes a fitness (can be null).
+	 *
+	 * @param out Output stream
+	 * @param fitness Fitness to write
+	 *
+	 * @throws IOException if an I/O error occurs
+	 *
+	 * @throws IllegalArgumentException if fitness is not a value fitness
+	 */
+
+	public static final void writeFitness(DataOutput out, IFitness fitness) throws IOException
+	{
+		if (fitness == null) {
+			out.writeByte(NO_FITNESS);
+		}
+		else if (fitness instanceof ICompositeFitness) {
+			ISimpleFitness [] components = ((ICompositeFitness) fitness).getComponents();
+			if (fitness instanceof IValueFitness) {
+				out.writeByte(COMPOSITE_VALUE);
+				out.writeDouble(((IValueFitness) fitness).getValue());
+			}
+			else {
+				out.writeByte(COMPOSITE);
+			}
+			out.writeInt(components.length);
+			for (ISimpleFitness component : components) {
+				out.writeDouble(value(component));
+			}
+		}
+		else {
+			out.writeByte(SIMPLE_VALUE);
+			out.writeDouble(value(fitness));
+		}
+	}
+
+	/**
+	 * Reads a fitness.
+	 *
+	 * @param in Input stream
+	 *
+	 * @return Fitness read (null if no fitness was written)
+	 *
+	 * @throws IOException if an I/O error occurs
+	 */
+
+	public static final IFitness readFitness(DataInput in) throws IOException
+	{
+		byte tag = in.readByte();
+		switch (tag) {
+			case NO_FITNESS:
+				return null;
+			case SIMPLE_VALUE:
+				return new SimpleValueFitness(in.readDouble());
+			case COMPOSITE:
+				return new CompositeFitness(readComponents(in));
+			case COMPOSITE_VALUE:
+			{
+				double value = in.readDouble();
+				return new CompositeValueFitness(readComponents(in), value);
+			}
+			default:
+				throw new IOException("Illegal fitness tag: " + tag);
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	private static double value(IFitness fitness)
+	{
+		if (fitness instanceof IValueFitness) {
+			return ((IValueFitness) fitness).getValue();
+		}
+		throw new IllegalArgumentException("Unsupported fitness: " + fitness.getClass().getName());
+	}
+
+	private static ISimpleFitness [] readComponents(DataInput in) throws IOException
+	{
+		int length = in.readInt();
+		ISimpleFitness [] components = new ISimpleFitness[length];
+		for (int i=0; i<length; i++) {
+			components[i] = new SimpleValueFitness(in.readDouble());
+		}
+		return components;
+	}
+}
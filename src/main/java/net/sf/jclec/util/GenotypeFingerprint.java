@@ -0,0 +1,384 @@
+package net.sf.jclec.util;
+
+import net.sf.jclec.IIndividual;
+
+import net.sf.jclec.base.AbstractIndividual;
+
+import net.sf.jclec.exprtree.ExprTree;
+
+import net.sf.jclec.syntaxtree.SyntaxTree;
+import net.sf.jclec.syntaxtree.SyntaxTreeNode;
+import net.sf.jclec.syntaxtree.TerminalNode;
+import net.sf.jclec.syntaxtree.NonTerminalNode;
+
+/**
+ * 64-bit fingerprints of individual genotypes.
+ *
+ * Two individuals whose genotypes are equal (in the sense of their
+ * <code>equals()</code> method) have the same fingerprint. Supported genotypes
+ * are <code>double[]</code>, <code>int[]</code>, <code>byte[]</code>, expression
+ * trees, syntax trees and arrays of trees, so this class covers real, integer,
+ * binary, GE, GP and multi-tree individuals.
+ *
+ * Tree primitives are identified by means of their string representation, the
+ * same one used to print the tree, so fingerprints tell apart ephemeral constants
+ * with different values. As primitive <code>equals()</code> methods do not always
+ * compare those values (and some primitives keep <code>Object.toString()</code>),
+ * trees that are equal may have different fingerprints. Fingerprints are meant
+ * to be used as cache keys, not as hash codes.
+ *
+ * Equality fingerprints only depend on what <code>equals()</code> compares, and
+ * are consistent with it: array genotypes are hashed as above, and tree
+ * primitives are identified by their class. This assumes that equal primitives
+ * belong to the same class, which is the case for all primitives in this
+ * library. Individual hash codes are computed from equality fingerprints.
+ */
+
+public class GenotypeFingerprint
+{
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Class variables
+	/////////////////////////////////////////////////////////////////
+
+	/** Initial hash value */
+
+	private static final long SEED = 0xcbf29ce484222325L;
+
+	/** Hash multiplier */
+
+	private static final long PRIME = 0x100000001b3L;
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Informs if the genotype of an individual can be fingerprinted.
+	 *
+	 * @param ind Individual to check
+	 *
+	 * @return true if <code>fingerprint(ind)</code> can be called
+	 */
+
+	public static final boolean isSupported(IIndividual ind)
+	{
+		if (ind instanceof AbstractIndividual<?>) {
+			Object genotype = ((AbstractIndividual<?>) ind).getGenotype();
+			return genotype instanceof double []
+				|| genotype instanceof int []
+				|| genotype instanceof byte []
+				|| genotype instanceof ExprTree
+				|| genotype instanceof SyntaxTree
+				|| genotype instanceof ExprTree []
+				|| genotype instanceof SyntaxTree [];
+		}
+		else {
+			return false;
+		}
+	}
+
+	/**
+	 * Fingerprint of an individual genotype.
+	 *
+	 * @param ind Individual
+	 *
+	 * @return Genotype fingerprint
+	 *
+	 * @throws IllegalArgumentException if genotype type is not supported
+	 */
+
+	public static final long fingerprint(IIndividual ind)
+	{
+		if (isSupported(ind)) {
+			// Cached by the individual
+			return ((AbstractIndividual<?>) ind).getFingerprint();
+		}
+		if (ind instanceof AbstractIndividual<?>) {
+			return fingerprint(((AbstractIndividual<?>) ind).getGenotype());
+		}
+		throw new IllegalArgumentException("Unsupported individual: " + ind.getClass().getName());
+	}
+
+	/**
+	 * Fingerprint of a genotype.
+	 *
+	 * @param genotype Genotype
+	 *
+	 * @return Genotype fingerprint
+	 *
+	 * @throws IllegalArgumentException if genotype type is not supported
+	 */
+
+	public static final long fingerprint(Object genotype)
+	{
+		return fingerprint(genotype, true);
+	}
+
+	/**
+	 * Equality fingerprint of a genotype. Genotypes that are equal have
+	 * the same equality fingerprint.
+	 *
+	 * @param genotype Genotype
+	 *
+	 * @return Genotype equality fingerprint
+	 *
+	 * @throws IllegalArgumentException if genotype type is not supported
+	 */
+
+	public static final long equalityFingerprint(Object genotype)
+	{
+		return fingerprint(genotype, false);
+	}
+
+	/**
+	 * Fingerprint of a real genotype.
+	 *
+	 * @param genotype Genotype
+	 *
+	 * @return Genotype fingerprint
+	 */
+
+	public static final long fingerprint(double [] genotype)
+	{
+		long hash = combine(SEED, genotype.length);
+		for (double gi : genotype) {
+			hash = combine(hash, Double.doubleToLongBits(gi));
+		}
+		return finish(hash);
+	}
+
+	/**
+	 * Fingerprint of a genotype.
+	 *
+	 * @param genotype Genotype
+	 * @param exact Identify tree primitives by their string representation
+	 *        (or by their class)
+	 */
+
+	private static long fingerprint(Object genotype, boolean exact)
+	{
+		if (genotype instanceof double []) {
+			return fingerprint((double []) genotype);
+		}
+		if (genotype instanceof int []) {
+			return fingerprint((int []) genotype);
+		}
+		if (genotype instanceof byte []) {
+			return fingerprint((byte []) genotype);
+		}
+		if (genotype instanceof ExprTree) {
+			return fingerprint((ExprTree) genotype, exact);
+		}
+		if (genotype instanceof SyntaxTree) {
+			return fingerprint((SyntaxTree) genotype, exact);
+		}
+		if (genotype instanceof ExprTree []) {
+			long hash = combine(SEED, ((ExprTree []) genotype).length);
+			for (ExprTree tree : (ExprTree []) genotype) {
+				hash = combine(hash, fingerprint(tree, exact));
+			}
+			return finish(hash);
+		}
+		if (genotype instanceof SyntaxTree []) {
+			long hash = combine(SEED, ((SyntaxTree []) genotype).length);
+			for (SyntaxTree tree : (SyntaxTree []) genotype) {
+				hash = combine(hash, fingerprint(tree, exact));
+			}
+			return finish(hash);
+		}
+		throw new IllegalArgumentException("Unsupported genotype: " + genotype);
+	}
+
+	/**
+	 * Fingerprint of an integer genotype.
+	 *
+	 * @param genotype Genotype
+	 *
+	 * @return Genotype fingerprint
+	 */
+
+	public static final long fingerprint(int [] genotype)
+	{
+		int gl = genotype.length;
+		long hash = combine(SEED, gl);
+		// Two loci per step
+		int i = 0;
+		for (; i+1<gl; i+=2) {
+			hash = combine(hash, ((long) genotype[i] << 32) | (genotype[i+1] & 0xffffffffL));
+		}
+		if (i < gl) {
+			hash = combine(hash, genotype[i]);
+		}
+		return finish(hash);
+	}
+
+	/**
+	 * Fingerprint of a binary genotype.
+	 *
+	 * @param genotype Genotype
+	 *
+	 * @return Genotype fingerprint
+	 */
+
+	public static final long fingerprint(byte [] genotype)
+	{
+		int gl = genotype.length;
+		long hash = combine(SEED, gl);
+		// Eight loci per step
+		long word = 0L;
+		for (int i=0; i<gl; i++) {
+			word = (word << 8) | (genotype[i] & 0xffL);
+			if ((i & 7) == 7) {
+				hash = combine(hash, word);
+				word = 0L;
+			}
+		}
+		if ((gl & 7) != 0) {
+			hash = combine(hash, word);
+		}
+		return finish(hash);
+	}
+
+	/**
+	 * Fingerprint of an expression tree.
+	 *
+	 * @param tree Expression tree
+	 *
+	 * @return Tree fingerprint
+	 */
+
+	public static final long fingerprint(ExprTree tree)
+	{
+		return fingerprint(tree, true);
+	}
+
+	/**
+	 * Fingerprint of a syntax tree.
+	 *
+	 * @param tree Syntax tree
+	 *
+	 * @return Tree fingerprint
+	 */
+
+	public static final long fingerprint(SyntaxTree tree)
+	{
+		return fingerprint(tree, true);
+	}
+
+	/**
+	 * Folds a fingerprint into a hash code.
+	 *
+	 * @param fingerprint Genotype fingerprint
+	 *
+	 * @return Hash code
+	 */
+
+	public static final int hashCode(long fingerprint)
+	{
+		return (int) (fingerprint ^ (fingerprint >>> 32));
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Fingerprint of an expression tree.
+	 */
+
+	private static long fingerprint(ExprTree tree, boolean exact)
+	{
+		int size = tree.size();
+		long hash = combine(SEED, size);
+		for (int i=0; i<size; i++) {
+			hash = combine(hash, primitive(tree.getBlock(i), exact));
+		}
+		return finish(hash);
+	}
+
+	/**
+	 * Fingerprint of a syntax tree.
+	 */
+
+	private static long fingerprint(SyntaxTree tree, boolean exact)
+	{
+		int size = tree.size();
+		long hash = combine(combine(SEED, size), tree.derivSize());
+		for (int i=0; i<size; i++) {
+			SyntaxTreeNode node = tree.getNode(i);
+			hash = combine(hash, fingerprint(node.getSymbol()));
+			if (node instanceof TerminalNode) {
+				hash = combine(hash, primitive(((TerminalNode) node).getCode(), exact));
+			}
+			else if (node instanceof NonTerminalNode) {
+				String [] production = ((NonTerminalNode) node).getProduction();
+				if (production != null) {
+					for (String symbol : production) {
+						hash = combine(hash, fingerprint(symbol));
+					}
+				}
+			}
+		}
+		return finish(hash);
+	}
+
+	/**
+	 * Fingerprint of a tree primitive, either by its string representation
+	 * or by its class.
+	 */
+
+	private static long primitive(Object primitive, boolean exact)
+	{
+		if (exact) {
+			return fingerprint(String.valueOf(primitive));
+		}
+		else {
+			return fingerprint(primitive == null ? null : primitive.getClass().getName());
+		}
+	}
+
+	/**
+	 * 64-bit fingerprint of a string.
+	 */
+
+	private static long fingerprint(String string)
+	{
+		long hash = SEED;
+		if (string != null) {
+			int length = string.length();
+			for (int i=0; i<length; i++) {
+				hash = (hash ^ string.charAt(i)) * PRIME;
+			}
+		}
+		return hash;
+	}
+
+	/**
+	 * Adds a value to a partial hash.
+	 */
+
+	private static long combine(long hash, long value)
+	{
+		return (hash ^ mix(value)) * PRIME;
+	}
+
+	/**
+	 * Final avalanche step.
+	 */
+
+	private static long finish(long hash)
+	{
+		return mix(hash);
+	}
+
+	/**
+	 * 64-bit bit mixer (MurmurHash3 finalizer).
+	 */
+
+	private static long mix(long z)
+	{
+		z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+		z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+		return z ^ (z >>> 33);
+	}
+}
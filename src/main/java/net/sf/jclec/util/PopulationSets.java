@@ -0,0 +1,110 @@
+package net.sf.jclec.util;
+
+import java.util.List;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.ArrayList;
+
+import net.sf.jclec.IIndividual;
+
+/**
+ * Set operations over populations, based on individual hash codes.
+ * 
+ * Individuals are compared by means of their <code>equals()</code> method,
+ * as <code>List.contains()</code> and <code>List.remove()</code> do, but
+ * each operation takes linear time in the size of its arguments.
+ */
+
+public final class PopulationSets
+{
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	private PopulationSets()
+	{
+		super();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Union of two populations. The result contains all individuals in
+	 * the first population followed by those individuals in the second 
+	 * one that are not equal to any individual already added.
+	 * 
+	 * @param first  First population
+	 * @param second Second population
+	 * 
+	 * @return Union of both populations
+	 */
+
+	public static final List<IIndividual> union(List<IIndividual> first, List<IIndividual> second)
+	{
+		List<IIndividual> result = new ArrayList<IIndividual>(first.size() + second.size());
+		HashSet<IIndividual> added = new HashSet<IIndividual>(first);
+		result.addAll(first);
+		for (IIndividual ind : second) {
+			if (added.add(ind)) {
+				result.add(ind);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Individuals in a population that are not equal to any individual
+	 * that precedes them.
+	 * 
+	 * @param population Population
+	 * 
+	 * @return Population without repeated individuals
+	 */
+
+	public static final List<IIndividual> distinct(List<IIndividual> population)
+	{
+		return union(new ArrayList<IIndividual>(), population);
+	}
+
+	/**
+	 * Removes individuals from a population. For every individual in
+	 * <code>removed</code>, the first equal individual still present in
+	 * <code>population</code> is removed, as successive calls to
+	 * <code>population.remove(ind)</code> would do.
+	 * 
+	 * @param population Population to modify
+	 * @param removed    Individuals to remove
+	 */
+
+	public static final void removeEach(List<IIndividual> population, List<IIndividual> removed)
+	{
+		if (removed.isEmpty()) {
+			return;
+		}
+		// Pending removals of every individual
+		HashMap<IIndividual, int []> pending = new HashMap<IIndividual, int []>();
+		for (IIndividual ind : removed) {
+			int [] count = pending.get(ind);
+			if (count == null) {
+				pending.put(ind, new int [] {1});
+			}
+			else {
+				count[0]++;
+			}
+		}
+		List<IIndividual> kept = new ArrayList<IIndividual>(population.size());
+		for (IIndividual ind : population) {
+			int [] count = pending.get(ind);
+			if (count != null && count[0] > 0) {
+				count[0]--;
+			}
+			else {
+				kept.add(ind);
+			}
+		}
+		population.clear();
+		population.addAll(kept);
+	}
+}
@@ -7,6 +7,7 @@ import org.apache.commons.configuration.XMLConfiguration;
 import net.sf.jclec.exprtree.IPrimitive;
 import net.sf.jclec.syntaxtree.NonTerminalNode;
 import net.sf.jclec.syntaxtree.TerminalNode;
+import net.sf.jclec.util.ComponentRegistry;
 
 /**
  * This class parse a grammar file into a set of terminal and non terminal node
@@ -147,8 +148,8 @@ public class GrammarParser
 
 				@SuppressWarnings("unchecked")
 				Class<? extends IPrimitive> termSymbolCodeClass = 
-					(Class<? extends IPrimitive>) Class.forName(termSymbolCodeClassname);
-				terminals[j].setCode(termSymbolCodeClass.newInstance());
+					(Class<? extends IPrimitive>) ComponentRegistry.forName(termSymbolCodeClassname);
+				terminals[j].setCode(ComponentRegistry.newInstance(termSymbolCodeClass));
 			} 
 			catch (ClassNotFoundException e) {
 				e.printStackTrace();
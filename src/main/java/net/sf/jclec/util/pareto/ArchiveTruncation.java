@@ -0,0 +1,178 @@
+package net.sf.jclec.util.pareto;
+
+import java.util.Arrays;
+import java.util.PriorityQueue;
+
+/**
+ * SPEA2 archive truncation.
+ *
+ * Points are removed one at a time until the desired size is reached. The
+ * removed point is the one whose distances to its nearest neighbours are the
+ * smallest in lexicographic order (distance to the nearest neighbour, then to
+ * the second nearest, and so on up to a given depth). Remaining ties are broken
+ * by point index.
+ *
+ * The neighbours of each point are kept in a KdTree, and candidates in a
+ * priority queue. After each removal, only the points that had the removed
+ * point among their nearest neighbours are updated, so N points are truncated
+ * in about O(N log N) queries instead of the O(N^3) of recomputing all the
+ * distances after each removal.
+ */
+
+public final class ArchiveTruncation
+{
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	private ArchiveTruncation()
+	{
+		super();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Truncates a set of points.
+	 *
+	 * @param points Points coordinates (one row per point)
+	 * @param size Number of points to keep
+	 * @param depth Number of neighbours compared
+	 *
+	 * @return Indexes of kept points (in increasing order)
+	 */
+
+	public static int [] truncate(double [][] points, int size, int depth)
+	{
+		int numberOfPoints = points.length;
+		if (size >= numberOfPoints) {
+			int [] result = new int[numberOfPoints];
+			for (int i=0; i<numberOfPoints; i++) {
+				result[i] = i;
+			}
+			return result;
+		}
+		depth = Math.max(1, Math.min(depth, numberOfPoints - 1));
+		KdTree tree = new KdTree(points);
+		// Nearest neighbours of each point
+		int [][] neighbours = new int[numberOfPoints][depth];
+		double [][] distances = new double[numberOfPoints][depth];
+		int [] found = new int[numberOfPoints];
+		// Points that have each point among their neighbours (it may
+		// contain points that have changed their neighbours since)
+		int [][] reverse = new int[numberOfPoints][];
+		int [] reverseSize = new int[numberOfPoints];
+		// Candidates
+		int [] version = new int[numberOfPoints];
+		PriorityQueue<Candidate> candidates = new PriorityQueue<Candidate>(numberOfPoints);
+		for (int i=0; i<numberOfPoints; i++) {
+			found[i] = tree.nearest(i, depth, neighbours[i], distances[i]);
+			for (int n=0; n<found[i]; n++) {
+				reverseSize[neighbours[i][n]] = add(reverse, reverseSize, neighbours[i][n], i);
+			}
+			candidates.add(new Candidate(i, 0, Arrays.copyOf(distances[i], found[i])));
+		}
+		// Remove points
+		for (int remaining=numberOfPoints; remaining>size; remaining--) {
+			// Closest point
+			Candidate closest = candidates.poll();
+			while (tree.isRemoved(closest.point) || closest.version != version[closest.point]) {
+				closest = candidates.poll();
+			}
+			int removed = closest.point;
+			tree.remove(removed);
+			// Update points that had it as neighbour
+			for (int r=0; r<reverseSize[removed]; r++) {
+				int i = reverse[removed][r];
+				if (tree.isRemoved(i) || !contains(neighbours[i], found[i], removed)) {
+					continue;
+				}
+				found[i] = tree.nearest(i, depth, neighbours[i], distances[i]);
+				for (int n=0; n<found[i]; n++) {
+					if (!contains(reverse[neighbours[i][n]], reverseSize[neighbours[i][n]], i)) {
+						reverseSize[neighbours[i][n]] = add(reverse, reverseSize, neighbours[i][n], i);
+					}
+				}
+				candidates.add(new Candidate(i, ++version[i], Arrays.copyOf(distances[i], found[i])));
+			}
+			reverse[removed] = null;
+		}
+		// Kept points
+		int [] result = new int[size];
+		for (int i=0, k=0; i<numberOfPoints; i++) {
+			if (!tree.isRemoved(i)) {
+				result[k++] = i;
+			}
+		}
+		return result;
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	private static boolean contains(int [] array, int size, int value)
+	{
+		for (int n=0; n<size; n++) {
+			if (array[n] == value) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static int add(int [][] lists, int [] sizes, int list, int value)
+	{
+		int size = sizes[list];
+		if (lists[list] == null) {
+			lists[list] = new int[4];
+		}
+		else if (size == lists[list].length) {
+			lists[list] = Arrays.copyOf(lists[list], 2 * size);
+		}
+		lists[list][size] = value;
+		return size + 1;
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------ Inner classes
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Removal candidate (a point and its neighbours distances when the
+	 * candidate was created).
+	 */
+
+	private static final class Candidate implements Comparable<Candidate>
+	{
+		final int point;
+
+		final int version;
+
+		final double [] distances;
+
+		Candidate(int point, int version, double [] distances)
+		{
+			this.point = point;
+			this.version = version;
+			this.distances = distances;
+		}
+
+		public int compareTo(Candidate other)
+		{
+			int length = Math.min(distances.length, other.distances.length);
+			for (int n=0; n<length; n++) {
+				int cmp = Double.compare(distances[n], other.distances[n]);
+				if (cmp != 0) {
+					return cmp;
+				}
+			}
+			if (distances.length != other.distances.length) {
+				return distances.length < other.distances.length ? -1 : 1;
+			}
+			return point < other.point ? -1 : (point > other.point ? 1 : 0);
+		}
+	}
+}
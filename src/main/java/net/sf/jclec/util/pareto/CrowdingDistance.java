@@ -0,0 +1,130 @@
+package net.sf.jclec.util.pareto;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Crowding distance of the solutions in a front (NSGA-II density estimator).
+ *
+ * The crowding distance of a solution is the sum, over all objectives, of the
+ * normalized distance between its two neighbours in the front when the front
+ * is sorted by that objective. Boundary solutions have an infinite distance.
+ * Each objective is sorted once, so a front of size N is processed in
+ * O(M N log N) time.
+ */
+
+public final class CrowdingDistance
+{
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	private CrowdingDistance()
+	{
+		super();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Crowding distances of the members of a front.
+	 *
+	 * @param objectives Objective values (one row per solution)
+	 * @param front Indexes of front members
+	 *
+	 * @return Crowding distance of each front member (in front order)
+	 */
+
+	public static double [] crowding(double [][] objectives, int [] front)
+	{
+		int size = front.length;
+		double [] result = new double[size];
+		if (size == 0) {
+			return result;
+		}
+		int numberOfObjectives = objectives[front[0]].length;
+		for (int j=0; j<numberOfObjectives; j++) {
+			crowding(objectives, front, j, result);
+		}
+		return result;
+	}
+
+	/**
+	 * Front positions sorted by decreasing crowding distance (ties keep
+	 * their order).
+	 *
+	 * @param crowding Crowding distances of front members
+	 *
+	 * @return Sorted positions
+	 */
+
+	public static int [] decreasingOrder(final double [] crowding)
+	{
+		Integer [] order = new Integer[crowding.length];
+		for (int k=0; k<order.length; k++) {
+			order[k] = k;
+		}
+		Arrays.sort(order, new Comparator<Integer>() {
+			public int compare(Integer k1, Integer k2)
+			{
+				return Double.compare(crowding[k2], crowding[k1]);
+			}
+		});
+		int [] result = new int[order.length];
+		for (int k=0; k<result.length; k++) {
+			result[k] = order[k];
+		}
+		return result;
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Adds the crowding distances of front members along an objective.
+	 *
+	 * @param objectives Objective values (one row per solution)
+	 * @param front Indexes of front members (not empty)
+	 * @param j Objective
+	 * @param result Crowding distances of front members
+	 */
+
+	static void crowding(double [][] objectives, int [] front, int j, double [] result)
+	{
+		int size = front.length;
+		// Front positions sorted by this objective
+		Integer [] sorted = sortedPositions(objectives, front, j);
+		double fMin = objectives[front[sorted[0]]][j];
+		double fMax = objectives[front[sorted[size-1]]][j];
+		// Boundary solutions
+		result[sorted[0]] = Double.POSITIVE_INFINITY;
+		result[sorted[size-1]] = Double.POSITIVE_INFINITY;
+		// Inner solutions
+		if (fMin != fMax) {
+			for (int k=1; k<size-1; k++) {
+				double previous = objectives[front[sorted[k-1]]][j];
+				double next = objectives[front[sorted[k+1]]][j];
+				result[sorted[k]] += (next - previous) / (fMax - fMin);
+			}
+		}
+	}
+
+	private static Integer [] sortedPositions(final double [][] objectives, final int [] front, final int objective)
+	{
+		Integer [] result = new Integer[front.length];
+		for (int k=0; k<result.length; k++) {
+			result[k] = k;
+		}
+		Arrays.sort(result, new Comparator<Integer>() {
+			public int compare(Integer k1, Integer k2)
+			{
+				double v1 = objectives[front[k1]][objective], v2 = objectives[front[k2]][objective];
+				return v1 < v2 ? -1 : (v1 > v2 ? 1 : 0);
+			}
+		});
+		return result;
+	}
+}
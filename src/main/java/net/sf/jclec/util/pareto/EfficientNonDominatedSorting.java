@@ -0,0 +1,118 @@
+package net.sf.jclec.util.pareto;
+
+import java.util.Arrays;
+
+/**
+ * Efficient non-dominated sorting (ENS) for any number of objectives.
+ *
+ * Solutions are processed in lexicographic order, so a solution can only be
+ * dominated by the solutions already assigned to a front. A solution that is
+ * dominated by a member of a front is also dominated by a member of each
+ * previous front, so the front of each solution is found by means of a binary
+ * search over the current fronts (ENS-BS). Members of a front are checked from
+ * the last one to the first one. This algorithm is much faster than the
+ * pairwise O(M N^2) comparison for few objectives (3 or 4), and its worst
+ * case is the same.
+ */
+
+public class EfficientNonDominatedSorting implements INonDominatedSorting
+{
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------- Serialization constant
+	/////////////////////////////////////////////////////////////////
+
+	private static final long serialVersionUID = -1725073497164385362L;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Empty constructor
+	 */
+
+	public EfficientNonDominatedSorting()
+	{
+		super();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	// INonDominatedSorting interface
+
+	/**
+	 * {@inheritDoc}
+	 */
+
+	public int [] sort(double [][] objectives)
+	{
+		int size = objectives.length;
+		int [] result = new int[size];
+		// Members of each front
+		int [][] members = new int[size][];
+		int [] sizes = new int[size];
+		int numberOfFronts = 0;
+		for (int i : NonDominatedSorting.lexicographicOrder(objectives)) {
+			// First front that does not dominate solution
+			int low = 0, high = numberOfFronts;
+			while (low < high) {
+				int middle = (low + high) >>> 1;
+				if (dominated(objectives, members[middle], sizes[middle], objectives[i])) {
+					low = middle + 1;
+				}
+				else {
+					high = middle;
+				}
+			}
+			// Add solution to this front
+			if (low == numberOfFronts) {
+				members[low] = new int[4];
+				numberOfFronts++;
+			}
+			else if (sizes[low] == members[low].length) {
+				members[low] = Arrays.copyOf(members[low], 2 * sizes[low]);
+			}
+			members[low][sizes[low]++] = i;
+			result[i] = low;
+		}
+		return result;
+	}
+
+	// java.lang.Object methods
+
+	/**
+	 * {@inheritDoc}
+	 */
+
+	public boolean equals(Object other)
+	{
+		return other instanceof EfficientNonDominatedSorting;
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Checks if a solution is dominated by a member of a front.
+	 *
+	 * @param objectives Objective values
+	 * @param front Front members
+	 * @param size Number of front members
+	 * @param solution Objective values of the solution
+	 *
+	 * @return true if some member dominates solution
+	 */
+
+	private static boolean dominated(double [][] objectives, int [] front, int size, double [] solution)
+	{
+		for (int k=size-1; k>=0; k--) {
+			if (NonDominatedSorting.dominates(objectives[front[k]], solution)) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,27 @@
+package net.sf.jclec.util.pareto;
+
+import net.sf.jclec.JCLEC;
+
+/**
+ * Non-dominated sorting of a set of objective vectors.
+ *
+ * Objectives are given as a matrix with one row per solution and one column
+ * per objective, and all objectives are minimized. A solution dominates
+ * another one if it is not worse in any objective and it is better in at least
+ * one of them, so solutions with equal objective vectors do not dominate each
+ * other and share their front.
+ */
+
+public interface INonDominatedSorting extends JCLEC
+{
+	/**
+	 * Sorts solutions in non-dominated fronts.
+	 *
+	 * @param objectives Objective values (one row per solution)
+	 *
+	 * @return Front of each solution (0 is the front of non-dominated
+	 *         solutions)
+	 */
+
+	public int [] sort(double [][] objectives);
+}
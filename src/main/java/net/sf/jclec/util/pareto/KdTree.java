@@ -0,0 +1,342 @@
+package net.sf.jclec.util.pareto;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * kd-tree over a set of points (e.g. objective vectors), supporting k nearest
+ * neighbours queries and point removal.
+ *
+ * The tree is built once over the point indexes (splitting by the median of
+ * the coordinate with the largest spread) and is stored implicitly in an
+ * array. Removed points are only marked, but subtrees without remaining points
+ * are skipped by queries, so removing points never slows queries down.
+ * Distances are euclidean.
+ */
+
+public class KdTree
+{
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------- Internal variables
+	/////////////////////////////////////////////////////////////////
+
+	/** Points coordinates */
+
+	protected final double [][] points;
+
+	/** Point indexes in tree order (node of a range is its middle) */
+
+	protected final int [] tree;
+
+	/** Split coordinate of each node */
+
+	protected final int [] axis;
+
+	/** Remaining points in the subtree of each node */
+
+	protected final int [] count;
+
+	/** Tree position of each point */
+
+	protected final int [] position;
+
+	/** Removed points */
+
+	protected final boolean [] removed;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Builds a tree over a set of points.
+	 *
+	 * @param points Points coordinates (one row per point)
+	 */
+
+	public KdTree(double [][] points)
+	{
+		super();
+		int size = points.length;
+		this.points = points;
+		this.tree = new int[size];
+		this.axis = new int[size];
+		this.count = new int[size];
+		this.position = new int[size];
+		this.removed = new boolean[size];
+		Integer [] order = new Integer[size];
+		for (int i=0; i<size; i++) {
+			order[i] = i;
+		}
+		build(order, 0, size);
+		for (int p=0; p<size; p++) {
+			tree[p] = order[p];
+			position[order[p]] = p;
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Number of remaining points.
+	 *
+	 * @return Points not removed
+	 */
+
+	public int size()
+	{
+		return tree.length == 0 ? 0 : count[tree.length >>> 1];
+	}
+
+	/**
+	 * Checks if a point has been removed.
+	 *
+	 * @param point Point index
+	 *
+	 * @return true if point has been removed
+	 */
+
+	public boolean isRemoved(int point)
+	{
+		return removed[point];
+	}
+
+	/**
+	 * Removes a point from the tree.
+	 *
+	 * @param point Point index
+	 */
+
+	public void remove(int point)
+	{
+		if (removed[point]) {
+			return;
+		}
+		removed[point] = true;
+		int target = position[point];
+		int low = 0, high = tree.length;
+		while (true) {
+			int middle = (low + high) >>> 1;
+			count[middle]--;
+			if (target == middle) {
+				return;
+			}
+			if (target < middle) {
+				high = middle;
+			}
+			else {
+				low = middle + 1;
+			}
+		}
+	}
+
+	/**
+	 * Euclidean distance between two points.
+	 *
+	 * @param one Point index
+	 * @param other Point index
+	 *
+	 * @return Distance
+	 */
+
+	public double distance(int one, int other)
+	{
+		return Math.sqrt(squaredDistance(points[one], points[other]));
+	}
+
+	/**
+	 * Nearest remaining neighbours of a point (the point itself is
+	 * excluded, but other points with the same coordinates are not).
+	 *
+	 * @param point Point index
+	 * @param k Number of neighbours
+	 * @param neighbours Array where neighbours indexes are stored, in
+	 *        increasing order of distance (length at least k)
+	 * @param distances Array where neighbours distances are stored
+	 *        (length at least k)
+	 *
+	 * @return Number of neighbours found (less than k if there are not
+	 *         enough remaining points)
+	 */
+
+	public int nearest(int point, int k, int [] neighbours, double [] distances)
+	{
+		if (k <= 0) {
+			return 0;
+		}
+		Query query = new Query(point, k);
+		search(query, 0, tree.length);
+		// Sort neighbours (the heap holds the worst one first)
+		int found = query.size;
+		for (int n=found-1; n>=0; n--) {
+			neighbours[n] = query.neighbours[0];
+			distances[n] = Math.sqrt(query.distances[0]);
+			query.pop();
+		}
+		return found;
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	private void build(Integer [] order, int low, int high)
+	{
+		if (low >= high) {
+			return;
+		}
+		int middle = (low + high) >>> 1;
+		count[middle] = high - low;
+		// Coordinate with the largest spread
+		int dimensions = points[order[low]].length;
+		int splitAxis = 0;
+		double largestSpread = -1.0;
+		for (int j=0; j<dimensions; j++) {
+			double min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY;
+			for (int p=low; p<high; p++) {
+				double value = points[order[p]][j];
+				min = Math.min(min, value);
+				max = Math.max(max, value);
+			}
+			if (max - min > largestSpread) {
+				largestSpread = max - min;
+				splitAxis = j;
+			}
+		}
+		axis[middle] = splitAxis;
+		// Median split
+		final int j = splitAxis;
+		Arrays.sort(order, low, high, new Comparator<Integer>() {
+			public int compare(Integer p1, Integer p2)
+			{
+				return Double.compare(points[p1][j], points[p2][j]);
+			}
+		});
+		build(order, low, middle);
+		build(order, middle + 1, high);
+	}
+
+	private void search(Query query, int low, int high)
+	{
+		if (low >= high) {
+			return;
+		}
+		int middle = (low + high) >>> 1;
+		if (count[middle] == 0) {
+			return;
+		}
+		int candidate = tree[middle];
+		double [] target = points[query.point];
+		if (candidate != query.point && !removed[candidate]) {
+			query.offer(candidate, squaredDistance(target, points[candidate]));
+		}
+		double difference = target[axis[middle]] - points[candidate][axis[middle]];
+		if (difference < 0) {
+			search(query, low, middle);
+			if (query.accepts(difference * difference)) {
+				search(query, middle + 1, high);
+			}
+		}
+		else {
+			search(query, middle + 1, high);
+			if (query.accepts(difference * difference)) {
+				search(query, low, middle);
+			}
+		}
+	}
+
+	private static double squaredDistance(double [] one, double [] other)
+	{
+		double result = 0.0;
+		for (int j=0; j<one.length; j++) {
+			double difference = one[j] - other[j];
+			result += difference * difference;
+		}
+		return result;
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------ Inner classes
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * k nearest neighbours query (bounded max-heap of squared distances).
+	 */
+
+	private static final class Query
+	{
+		final int point;
+
+		final int [] neighbours;
+
+		final double [] distances;
+
+		int size;
+
+		Query(int point, int k)
+		{
+			this.point = point;
+			this.neighbours = new int[k];
+			this.distances = new double[k];
+		}
+
+		boolean accepts(double squaredDistance)
+		{
+			return size < distances.length || squaredDistance < distances[0];
+		}
+
+		void offer(int neighbour, double squaredDistance)
+		{
+			if (size < distances.length) {
+				// Sift up
+				int n = size++;
+				while (n > 0) {
+					int parent = (n - 1) >>> 1;
+					if (distances[parent] >= squaredDistance) {
+						break;
+					}
+					neighbours[n] = neighbours[parent];
+					distances[n] = distances[parent];
+					n = parent;
+				}
+				neighbours[n] = neighbour;
+				distances[n] = squaredDistance;
+			}
+			else if (squaredDistance < distances[0]) {
+				siftDown(neighbour, squaredDistance);
+			}
+		}
+
+		void pop()
+		{
+			size--;
+			if (size > 0) {
+				siftDown(neighbours[size], distances[size]);
+			}
+		}
+
+		private void siftDown(int neighbour, double squaredDistance)
+		{
+			int n = 0;
+			while (true) {
+				int child = 2 * n + 1;
+				if (child >= size) {
+					break;
+				}
+				if (child + 1 < size && distances[child + 1] > distances[child]) {
+					child++;
+				}
+				if (distances[child] <= squaredDistance) {
+					break;
+				}
+				neighbours[n] = neighbours[child];
+				distances[n] = distances[child];
+				n = child;
+			}
+			neighbours[n] = neighbour;
+			distances[n] = squaredDistance;
+		}
+	}
+}
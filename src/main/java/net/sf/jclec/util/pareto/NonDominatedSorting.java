@@ -0,0 +1,201 @@
+package net.sf.jclec.util.pareto;
+
+import java.util.List;
+import java.util.Arrays;
+import java.util.Comparator;
+
+import net.sf.jclec.IFitness;
+import net.sf.jclec.IIndividual;
+
+import net.sf.jclec.fitness.IValueFitness;
+import net.sf.jclec.fitness.ICompositeFitness;
+import net.sf.jclec.fitness.ValueFitnessComparator;
+
+/**
+ * Non-dominated sorting utilities.
+ *
+ * The sort() method chooses the sorting algorithm that suits the number of
+ * objectives: a sweep for two objectives and the efficient non-dominated sort
+ * (ENS) for more objectives. The objectives() method builds the objective
+ * matrix of a set of individuals with composite fitness.
+ */
+
+public final class NonDominatedSorting
+{
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	private NonDominatedSorting()
+	{
+		super();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Sorting algorithm for a number of objectives.
+	 *
+	 * @param numberOfObjectives Number of objectives
+	 *
+	 * @return A SweepNonDominatedSorting for two objectives, an
+	 *         EfficientNonDominatedSorting otherwise
+	 */
+
+	public static INonDominatedSorting forObjectives(int numberOfObjectives)
+	{
+		if (numberOfObjectives == 2) {
+			return new SweepNonDominatedSorting();
+		}
+		else {
+			return new EfficientNonDominatedSorting();
+		}
+	}
+
+	/**
+	 * Sorts solutions in non-dominated fronts, using the algorithm that
+	 * suits the number of objectives.
+	 *
+	 * @param objectives Objective values (one row per solution)
+	 *
+	 * @return Front of each solution
+	 */
+
+	public static int [] sort(double [][] objectives)
+	{
+		if (objectives.length == 0) {
+			return new int[0];
+		}
+		return forObjectives(objectives[0].length).sort(objectives);
+	}
+
+	/**
+	 * Groups solutions by front.
+	 *
+	 * @param fronts Front of each solution
+	 *
+	 * @return Indexes of the solutions in each front (in increasing order)
+	 */
+
+	public static int [][] fronts(int [] fronts)
+	{
+		// Front sizes
+		int numberOfFronts = 0;
+		for (int front : fronts) {
+			numberOfFronts = Math.max(numberOfFronts, front+1);
+		}
+		int [] sizes = new int[numberOfFronts];
+		for (int front : fronts) {
+			sizes[front]++;
+		}
+		// Front members
+		int [][] result = new int[numberOfFronts][];
+		for (int k=0; k<numberOfFronts; k++) {
+			result[k] = new int[sizes[k]];
+			sizes[k] = 0;
+		}
+		for (int i=0; i<fronts.length; i++) {
+			result[fronts[i]][sizes[fronts[i]]++] = i;
+		}
+		return result;
+	}
+
+	/**
+	 * Objective matrix of a set of individuals. Fitness of individuals
+	 * must be ICompositeFitness with IValueFitness components, and each
+	 * component comparator must be a ValueFitnessComparator. Components
+	 * that are maximized are negated, so all objectives are minimized.
+	 *
+	 * @param inds Individuals
+	 * @param componentComparators Comparators of fitness components
+	 *
+	 * @return Objective values (one row per individual)
+	 */
+
+	public static double [][] objectives(List<IIndividual> inds, Comparator<IFitness> [] componentComparators)
+	{
+		int numberOfObjectives = componentComparators.length;
+		// Objective signs
+		double [] signs = new double[numberOfObjectives];
+		for (int j=0; j<numberOfObjectives; j++) {
+			if (componentComparators[j] instanceof ValueFitnessComparator) {
+				signs[j] = ((ValueFitnessComparator) componentComparators[j]).isInverse() ? 1.0 : -1.0;
+			}
+			else {
+				throw new IllegalArgumentException("ValueFitnessComparator expected");
+			}
+		}
+		// Objective values
+		double [][] result = new double[inds.size()][numberOfObjectives];
+		for (int i=0; i<result.length; i++) {
+			ICompositeFitness fitness = (ICompositeFitness) inds.get(i).getFitness();
+			for (int j=0; j<numberOfObjectives; j++) {
+				result[i][j] = signs[j] * ((IValueFitness) fitness.getComponent(j)).getValue();
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Pareto dominance (minimization).
+	 *
+	 * @param one Objective values of a solution
+	 * @param other Objective values of other solution
+	 *
+	 * @return true if one dominates other
+	 */
+
+	public static boolean dominates(double [] one, double [] other)
+	{
+		boolean better = false;
+		for (int j=0; j<one.length; j++) {
+			if (one[j] > other[j]) {
+				return false;
+			}
+			if (one[j] < other[j]) {
+				better = true;
+			}
+		}
+		return better;
+	}
+
+	/**
+	 * Indexes of solutions in lexicographic order of their objectives. A
+	 * solution cannot be dominated by the solutions that follow it.
+	 *
+	 * @param objectives Objective values
+	 *
+	 * @return Sorted indexes
+	 */
+
+	public static int [] lexicographicOrder(final double [][] objectives)
+	{
+		Integer [] order = new Integer[objectives.length];
+		for (int i=0; i<order.length; i++) {
+			order[i] = i;
+		}
+		Arrays.sort(order, new Comparator<Integer>() {
+			public int compare(Integer i1, Integer i2)
+			{
+				double [] one = objectives[i1], other = objectives[i2];
+				for (int j=0; j<one.length; j++) {
+					// Zeros of different sign are equal
+					if (one[j] < other[j]) {
+						return -1;
+					}
+					if (one[j] > other[j]) {
+						return 1;
+					}
+				}
+				return 0;
+			}
+		});
+		int [] result = new int[order.length];
+		for (int i=0; i<result.length; i++) {
+			result[i] = order[i];
+		}
+		return result;
+	}
+}
@@ -0,0 +1,399 @@
+package net.sf.jclec.util.pareto;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import net.sf.jclec.IConfigure;
+
+import org.apache.commons.configuration.Configuration;
+import org.apache.commons.configuration.ConfigurationRuntimeException;
+
+import org.apache.commons.lang.builder.EqualsBuilder;
+
+/**
+ * Dominance computations over objective matrices, run in a fork-join pool.
+ *
+ * Rows of the objective matrix are split in blocks of chunkSize rows, and each
+ * block is processed by a task that compares its rows with all solutions.
+ * Tasks only write the entries of their own rows, so results are the same as
+ * those of a sequential computation. Matrices with no more rows than the chunk
+ * size are processed in the calling thread.
+ *
+ * As a non-dominated sorting algorithm, this class implements the fast
+ * non-dominated sort of NSGA-II: dominance relations are computed in parallel
+ * (O(M N^2) comparisons and O(N^2) memory), and fronts are then peeled in
+ * linear time. For a few objectives, the sequential algorithms of this package
+ * are usually faster.
+ */
+
+public class ParallelDominance implements INonDominatedSorting, IConfigure
+{
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------- Serialization constant
+	/////////////////////////////////////////////////////////////////
+
+	private static final long serialVersionUID = 4409710529375812683L;
+
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------------------- Properties
+	/////////////////////////////////////////////////////////////////
+
+	/** Number of worker threads (0 means one per available processor) */
+
+	protected int numberOfThreads;
+
+	/** Rows processed by each task */
+
+	protected int chunkSize = 64;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------- Internal variables
+	/////////////////////////////////////////////////////////////////
+
+	/** Worker threads pool */
+
+	protected transient ForkJoinPool pool;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Empty constructor
+	 */
+
+	public ParallelDominance()
+	{
+		super();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	// Setting and getting properties
+
+	public final int getNumberOfThreads()
+	{
+		return numberOfThreads;
+	}
+
+	/**
+	 * Sets the number of worker threads. Changes take effect the next
+	 * time the worker pool is created.
+	 *
+	 * @param numberOfThreads New number of threads (0 means one per
+	 *        processor)
+	 */
+
+	public final void setNumberOfThreads(int numberOfThreads)
+	{
+		this.numberOfThreads = numberOfThreads;
+		this.pool = null;
+	}
+
+	public final int getChunkSize()
+	{
+		return chunkSize;
+	}
+
+	public final void setChunkSize(int chunkSize)
+	{
+		this.chunkSize = chunkSize;
+	}
+
+	// Dominance computations
+
+	/**
+	 * Strength of each solution, that is, the number of solutions it
+	 * dominates (SPEA2).
+	 *
+	 * @param objectives Objective values (one row per solution)
+	 *
+	 * @return Strength of each solution
+	 */
+
+	public int [] strength(final double [][] objectives)
+	{
+		final int size = objectives.length;
+		final int [] result = new int[size];
+		run(size, chunkSize, new RowBlock() {
+			public void rows(int from, int to)
+			{
+				for (int i=from; i<to; i++) {
+					int count = 0;
+					for (int j=0; j<size; j++) {
+						if (NonDominatedSorting.dominates(objectives[i], objectives[j])) {
+							count++;
+						}
+					}
+					result[i] = count;
+				}
+			}
+		});
+		return result;
+	}
+
+	/**
+	 * Raw fitness of each solution, that is, the sum of the strengths of
+	 * the solutions that dominate it (SPEA2).
+	 *
+	 * @param objectives Objective values (one row per solution)
+	 * @param strength Strength of each solution
+	 *
+	 * @return Raw fitness of each solution
+	 */
+
+	public long [] rawFitness(final double [][] objectives, final int [] strength)
+	{
+		final int size = objectives.length;
+		final long [] result = new long[size];
+		run(size, chunkSize, new RowBlock() {
+			public void rows(int from, int to)
+			{
+				for (int i=from; i<to; i++) {
+					long sum = 0;
+					for (int j=0; j<size; j++) {
+						if (NonDominatedSorting.dominates(objectives[j], objectives[i])) {
+							sum += strength[j];
+						}
+					}
+					result[i] = sum;
+				}
+			}
+		});
+		return result;
+	}
+
+	/**
+	 * Crowding distances of the members of several fronts. Fronts and
+	 * objectives are processed by different tasks, and the result is
+	 * the same as that of CrowdingDistance.crowding() on each front.
+	 *
+	 * @param objectives Objective values (one row per solution)
+	 * @param fronts Indexes of the members of each front
+	 *
+	 * @return Crowding distances of the members of each front
+	 */
+
+	public double [][] crowding(final double [][] objectives, final int [][] fronts)
+	{
+		double [][] result = new double[fronts.length][];
+		int total = 0;
+		for (int [] front : fronts) {
+			total += front.length;
+		}
+		if (total <= chunkSize) {
+			for (int k=0; k<fronts.length; k++) {
+				result[k] = CrowdingDistance.crowding(objectives, fronts[k]);
+			}
+			return result;
+		}
+		// Contribution of every objective to every front
+		final int numberOfObjectives = objectives[0].length;
+		final double [][][] contributions = new double[fronts.length][numberOfObjectives][];
+		run(fronts.length * numberOfObjectives, 1, new RowBlock() {
+			public void rows(int from, int to)
+			{
+				for (int item=from; item<to; item++) {
+					int k = item / numberOfObjectives, j = item % numberOfObjectives;
+					contributions[k][j] = new double[fronts[k].length];
+					if (fronts[k].length > 0) {
+						CrowdingDistance.crowding(objectives, fronts[k], j, contributions[k][j]);
+					}
+				}
+			}
+		});
+		// Contributions are added in objective order
+		for (int k=0; k<fronts.length; k++) {
+			result[k] = new double[fronts[k].length];
+			for (int j=0; j<numberOfObjectives; j++) {
+				for (int p=0; p<result[k].length; p++) {
+					result[k][p] += contributions[k][j][p];
+				}
+			}
+		}
+		return result;
+	}
+
+	// INonDominatedSorting interface
+
+	/**
+	 * {@inheritDoc}
+	 */
+
+	public int [] sort(final double [][] objectives)
+	{
+		final int size = objectives.length;
+		// Solutions dominated by each solution, and number of dominators
+		final int [][] dominated = new int[size][];
+		final int [] counts = new int[size];
+		run(size, chunkSize, new RowBlock() {
+			public void rows(int from, int to)
+			{
+				int [] buffer = new int[size];
+				for (int i=from; i<to; i++) {
+					int numberOfDominated = 0, numberOfDominators = 0;
+					for (int j=0; j<size; j++) {
+						if (NonDominatedSorting.dominates(objectives[i], objectives[j])) {
+							buffer[numberOfDominated++] = j;
+						}
+						else if (NonDominatedSorting.dominates(objectives[j], objectives[i])) {
+							numberOfDominators++;
+						}
+					}
+					dominated[i] = Arrays.copyOf(buffer, numberOfDominated);
+					counts[i] = numberOfDominators;
+				}
+			}
+		});
+		// Fronts are peeled in order
+		int [] result = new int[size];
+		int [] current = new int[size], next = new int[size];
+		int currentSize = 0;
+		for (int i=0; i<size; i++) {
+			if (counts[i] == 0) {
+				current[currentSize++] = i;
+			}
+		}
+		for (int front=0; currentSize>0; front++) {
+			int nextSize = 0;
+			for (int k=0; k<currentSize; k++) {
+				int i = current[k];
+				result[i] = front;
+				for (int j : dominated[i]) {
+					if (--counts[j] == 0) {
+						next[nextSize++] = j;
+					}
+				}
+			}
+			int [] aux = current; current = next; next = aux;
+			currentSize = nextSize;
+		}
+		return result;
+	}
+
+	// IConfigure interface
+
+	/**
+	 * Configuration parameters for ParallelDominance are:
+	 *
+	 * <ul>
+	 * <li>
+	 * <code>[@number-of-threads] int (default 0)</code></p>
+	 * Number of worker threads. 0 means one per available processor
+	 * </li><li>
+	 * <code>[@chunk-size] int (default 64)</code></p>
+	 * Rows processed by each task. Smaller matrices are processed in 
+	 * the calling thread
+	 * </li>
+	 * </ul>
+	 */
+
+	public void configure(Configuration settings)
+	{
+		// Number of threads
+		int numberOfThreads = settings.getInt("[@number-of-threads]", 0);
+		if (numberOfThreads < 0) {
+			throw new ConfigurationRuntimeException("Number of threads must be non-negative");
+		}
+		setNumberOfThreads(numberOfThreads);
+		// Chunk size
+		int chunkSize = settings.getInt("[@chunk-size]", 64);
+		if (chunkSize <= 0) {
+			throw new ConfigurationRuntimeException("Chunk size must be positive");
+		}
+		setChunkSize(chunkSize);
+	}
+
+	// java.lang.Object methods
+
+	/**
+	 * Compare number of threads and chunk size.
+	 *
+	 * {@inheritDoc}
+	 */
+
+	public boolean equals(Object other)
+	{
+		if (other instanceof ParallelDominance) {
+			ParallelDominance o = (ParallelDominance) other;
+			EqualsBuilder eb = new EqualsBuilder();
+			eb.append(numberOfThreads, o.numberOfThreads);
+			eb.append(chunkSize, o.chunkSize);
+			return eb.isEquals();
+		}
+		else {
+			return false;
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Processes rows [0, size) in blocks of chunk rows.
+	 */
+
+	private void run(int size, int chunk, RowBlock block)
+	{
+		if (size <= chunk) {
+			block.rows(0, size);
+		}
+		else {
+			if (pool == null) {
+				pool = new ForkJoinPool(numberOfThreads > 0 ? numberOfThreads : Runtime.getRuntime().availableProcessors());
+			}
+			pool.invoke(new RowTask(block, 0, size, chunk));
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------------- Private classes
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Computation over a block of rows.
+	 */
+
+	private interface RowBlock
+	{
+		void rows(int from, int to);
+	}
+
+	/**
+	 * Splits a range of rows in halves until it fits a chunk.
+	 */
+
+	private static final class RowTask extends RecursiveAction
+	{
+		private static final long serialVersionUID = -2291730718431562406L;
+
+		private final RowBlock block;
+
+		private final int from, to, chunk;
+
+		RowTask(RowBlock block, int from, int to, int chunk)
+		{
+			super();
+			this.block = block;
+			this.from = from;
+			this.to = to;
+			this.chunk = chunk;
+		}
+
+		@Override
+		protected void compute()
+		{
+			if (to - from <= chunk) {
+				block.rows(from, to);
+			}
+			else {
+				int middle = (from + to) >>> 1;
+				invokeAll(new RowTask(block, from, middle, chunk), new RowTask(block, middle, to, chunk));
+			}
+		}
+	}
+}
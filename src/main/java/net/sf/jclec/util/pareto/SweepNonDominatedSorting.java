@@ -0,0 +1,91 @@
+package net.sf.jclec.util.pareto;
+
+/**
+ * Non-dominated sorting for two objectives.
+ *
+ * Solutions are swept in lexicographic order. In this order, the second
+ * objective of the members of a front does not increase, so the last member
+ * of each front is the only one that must be checked, and the fronts that
+ * dominate a solution are the first ones. The front of each solution is found
+ * by means of a binary search, so solutions are sorted in O(N log N) time.
+ */
+
+public class SweepNonDominatedSorting implements INonDominatedSorting
+{
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------- Serialization constant
+	/////////////////////////////////////////////////////////////////
+
+	private static final long serialVersionUID = 6320941846402953770L;
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Empty constructor
+	 */
+
+	public SweepNonDominatedSorting()
+	{
+		super();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	// INonDominatedSorting interface
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @throws IllegalArgumentException if there are not two objectives
+	 */
+
+	public int [] sort(double [][] objectives)
+	{
+		int size = objectives.length;
+		int [] result = new int[size];
+		if (size == 0) {
+			return result;
+		}
+		if (objectives[0].length != 2) {
+			throw new IllegalArgumentException("Two objectives expected");
+		}
+		// Last member of each front
+		int [] last = new int[size];
+		int numberOfFronts = 0;
+		for (int i : NonDominatedSorting.lexicographicOrder(objectives)) {
+			double [] solution = objectives[i];
+			// First front whose last member does not dominate solution
+			int low = 0, high = numberOfFronts;
+			while (low < high) {
+				int middle = (low + high) >>> 1;
+				if (NonDominatedSorting.dominates(objectives[last[middle]], solution)) {
+					low = middle + 1;
+				}
+				else {
+					high = middle;
+				}
+			}
+			result[i] = low;
+			last[low] = i;
+			if (low == numberOfFronts) {
+				numberOfFronts++;
+			}
+		}
+		return result;
+	}
+
+	// java.lang.Object methods
+
+	/**
+	 * {@inheritDoc}
+	 */
+
+	public boolean equals(Object other)
+	{
+		return other instanceof SweepNonDominatedSorting;
+	}
+}
@@ -1,5 +1,9 @@
 package net.sf.jclec.util.random;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
 /**
  * Base implementation of the IRandGen interface.
  *
@@ -153,4 +157,36 @@ public abstract class AbstractRandGen implements IRandGen
     {
     	return cut * Math.pow(raw(), 1.0 / (alpha + 1.0));
     }     
+
+    // Generator state
+
+    /**
+     * Writes the complete state of this generator, so that it can be
+     * restored with readState().
+     *
+     * @param out Output stream
+     *
+     * @throws IOException If an I/O error occurs
+     */
+
+    public void writeState(DataOutput out) throws IOException
+    {
+    	out.writeBoolean(BMoutput != null);
+    	if (BMoutput != null) {
+    		out.writeDouble(BMoutput);
+    	}
+    }
+
+    /**
+     * Restores the state written by writeState().
+     *
+     * @param in Input stream
+     *
+     * @throws IOException If an I/O error occurs
+     */
+
+    public void readState(DataInput in) throws IOException
+    {
+    	BMoutput = in.readBoolean() ? in.readDouble() : null;
+    }
 }
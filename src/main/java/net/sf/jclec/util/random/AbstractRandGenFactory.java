@@ -1,5 +1,17 @@
 package net.sf.jclec.util.random;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import java.lang.ref.WeakReference;
+
+import java.util.List;
+import java.util.ArrayList;
 
 import net.sf.jclec.IConfigure;
 
@@ -21,6 +33,18 @@ public abstract class AbstractRandGenFactory implements IRandGenFactory, IConfig
 	/** Seeds generator */
 	
 	protected SeedGenerator seedGenerator = new SeedGenerator();
+
+	/** Generators created by this factory, still in use */
+
+	protected transient List<CreatedRandGen> createdRandGens;
+
+	/** Number of generators created by this factory */
+
+	protected transient int numberOfCreatedRandGens;
+
+	/** Number of created generators that triggers the next purge */
+
+	private transient int purgeThreshold;
 	
 	/////////////////////////////////////////////////////////////////
 	// ------------------------------------------------- Constructors
@@ -80,4 +104,143 @@ public abstract class AbstractRandGenFactory implements IRandGenFactory, IConfig
 		// Setting seed
 		setSeed(seed);
 	}
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------- Generators state
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Writes the seed of this factory and the state of all generators
+	 * created by it that are still in use. Each generator is identified
+	 * by its creation order.
+	 *
+	 * @param out Output stream
+	 *
+	 * @throws IOException If an I/O error occurs
+	 */
+
+	public synchronized void writeState(DataOutput out) throws IOException
+	{
+		out.writeInt(seedGenerator.getRow());
+		out.writeInt(numberOfCreatedRandGens);
+		List<CreatedRandGen> live = new ArrayList<CreatedRandGen>();
+		List<AbstractRandGen> randGens = new ArrayList<AbstractRandGen>();
+		if (createdRandGens != null) {
+			for (CreatedRandGen created : createdRandGens) {
+				IRandGen randGen = created.get();
+				if (randGen instanceof AbstractRandGen) {
+					live.add(created);
+					randGens.add((AbstractRandGen) randGen);
+				}
+			}
+		}
+		out.writeInt(live.size());
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		for (int i=0; i<live.size(); i++) {
+			buffer.reset();
+			randGens.get(i).writeState(new DataOutputStream(buffer));
+			out.writeInt(live.get(i).index);
+			out.writeInt(buffer.size());
+			out.write(buffer.toByteArray());
+		}
+	}
+
+	/**
+	 * Restores the state written by writeState(). The generators of this
+	 * factory must have been created in the same order than those of the
+	 * factory that wrote the state (that is, the algorithm must have been
+	 * configured in the same way). Generators no longer in use are ignored.
+	 *
+	 * @param in Input stream
+	 *
+	 * @throws IOException If an I/O error occurs
+	 */
+
+	public synchronized void readState(DataInput in) throws IOException
+	{
+		seedGenerator.setRow(in.readInt());
+		int numberOfCreated = in.readInt();
+		int size = in.readInt();
+		for (int i=0; i<size; i++) {
+			int index = in.readInt();
+			byte [] state = new byte[in.readInt()];
+			in.readFully(state);
+			IRandGen randGen = createdRandGen(index);
+			if (randGen instanceof AbstractRandGen) {
+				((AbstractRandGen) randGen).readState(new DataInputStream(new ByteArrayInputStream(state)));
+			}
+		}
+		numberOfCreatedRandGens = Math.max(numberOfCreatedRandGens, numberOfCreated);
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// -------------------------------------------- Protected methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Registers a new generator, so that its state can be saved and
+	 * restored. Generators are weakly referenced.
+	 *
+	 * @param randGen New generator
+	 *
+	 * @return The same generator
+	 */
+
+	protected final synchronized IRandGen register(IRandGen randGen)
+	{
+		if (createdRandGens == null) {
+			createdRandGens = new ArrayList<CreatedRandGen>();
+			purgeThreshold = 64;
+		}
+		createdRandGens.add(new CreatedRandGen(randGen, numberOfCreatedRandGens++));
+		// Remove generators no longer in use
+		if (createdRandGens.size() >= purgeThreshold) {
+			List<CreatedRandGen> live = new ArrayList<CreatedRandGen>();
+			for (CreatedRandGen created : createdRandGens) {
+				if (created.get() != null) {
+					live.add(created);
+				}
+			}
+			createdRandGens = live;
+			purgeThreshold = Math.max(64, 2 * live.size());
+		}
+		return randGen;
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	private IRandGen createdRandGen(int index)
+	{
+		if (createdRandGens != null) {
+			for (CreatedRandGen created : createdRandGens) {
+				if (created.index == index) {
+					return created.get();
+				}
+			}
+		}
+		return null;
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Inner classes
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Weak reference to a created generator, with its creation order.
+	 */
+
+	protected static class CreatedRandGen extends WeakReference<IRandGen>
+	{
+		/** Creation order */
+
+		protected final int index;
+
+		protected CreatedRandGen(IRandGen randGen, int index)
+		{
+			super(randGen);
+			this.index = index;
+		}
+	}
 }
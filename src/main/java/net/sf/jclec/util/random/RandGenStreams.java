@@ -0,0 +1,48 @@
+package net.sf.jclec.util.random;
+
+/**
+ * Independent random generators for parallel tasks.
+ *
+ * When a job is split into chunks that are processed by several threads, each
+ * chunk must draw from its own generator, and these generators must not depend
+ * on the number of threads or on the order in which chunks are processed. The
+ * split() method draws one value from a source generator (in the calling
+ * thread) and derives from it one Ranecu stream per chunk, taking consecutive
+ * seeds from the SeedGenerator table. So, results only depend on the state of
+ * the source generator and on the number of chunks.
+ */
+
+public final class RandGenStreams
+{
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	private RandGenStreams()
+	{
+		super();
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Derives a number of random generators from a source generator.
+	 *
+	 * @param source Source generator (one value is drawn from it)
+	 * @param numberOfStreams Number of generators to create
+	 *
+	 * @return Random generators, one per chunk
+	 */
+
+	public static IRandGen [] split(IRandGen source, int numberOfStreams)
+	{
+		SeedGenerator seeds = new SeedGenerator(source.choose(0, Integer.MAX_VALUE));
+		IRandGen [] result = new IRandGen[numberOfStreams];
+		for (int i=0; i<numberOfStreams; i++) {
+			result[i] = new Ranecu(seeds.nextSeed(), seeds.nextSeed());
+		}
+		return result;
+	}
+}
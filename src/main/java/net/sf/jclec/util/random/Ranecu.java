@@ -1,5 +1,9 @@
 package net.sf.jclec.util.random;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
 import org.apache.commons.lang.builder.EqualsBuilder;
 import org.apache.commons.lang.builder.ToStringBuilder;
 
@@ -168,4 +172,30 @@ public class Ranecu extends AbstractRandGen
             return false;
         }
     }
-}
\ No newline at end of file
+
+    // Generator state
+
+    /**
+     * {@inheritDoc}
+     */
+
+    @Override
+    public void writeState(DataOutput out) throws IOException
+    {
+    	super.writeState(out);
+    	out.writeInt(seed1);
+    	out.writeInt(seed2);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+
+    @Override
+    public void readState(DataInput in) throws IOException
+    {
+    	super.readState(in);
+    	seed1 = in.readInt();
+    	seed2 = in.readInt();
+    }
+}
@@ -41,6 +41,6 @@ public final class RanecuFactory extends AbstractRandGenFactory
 	
 	public final IRandGen createRandGen() 
 	{
-		return new Ranecu(seedGenerator.nextSeed(), seedGenerator.nextSeed());
+		return register(new Ranecu(seedGenerator.nextSeed(), seedGenerator.nextSeed()));
 	}
 }
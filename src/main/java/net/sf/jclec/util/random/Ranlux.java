@@ -1,5 +1,9 @@
 package net.sf.jclec.util.random;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
 import org.apache.commons.lang.builder.EqualsBuilder;
 
 /**
@@ -322,4 +326,50 @@ public class Ranlux extends AbstractRandGen
 		// Init kount
 		kount = 0;
 	}
+
+	// Generator state
+
+	/**
+	 * {@inheritDoc}
+	 */
+
+	@Override
+	public void writeState(DataOutput out) throws IOException
+	{
+		super.writeState(out);
+		out.writeInt(nskip);
+		out.writeFloat(twom24);
+		out.writeFloat(twom12);
+		out.writeInt(i24);
+		out.writeInt(j24);
+		out.writeInt(in24);
+		out.writeInt(kount);
+		out.writeFloat(carry);
+		out.writeInt(seeds.length);
+		for (float value : seeds) {
+			out.writeFloat(value);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+
+	@Override
+	public void readState(DataInput in) throws IOException
+	{
+		super.readState(in);
+		nskip = in.readInt();
+		twom24 = in.readFloat();
+		twom12 = in.readFloat();
+		i24 = in.readInt();
+		j24 = in.readInt();
+		in24 = in.readInt();
+		kount = in.readInt();
+		carry = in.readFloat();
+		seeds = new float[in.readInt()];
+		for (int i=0; i<seeds.length; i++) {
+			seeds[i] = in.readFloat();
+		}
+	}
 }
@@ -89,6 +89,6 @@ public class RanluxFactory extends AbstractRandGenFactory
 	
 	public IRandGen createRandGen() 
 	{
-		return new Ranlux(luxuryLevel, seedGenerator.nextSeed());
+		return register(new Ranlux(luxuryLevel, seedGenerator.nextSeed()));
 	}
 }
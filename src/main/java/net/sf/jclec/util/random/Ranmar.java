@@ -1,5 +1,9 @@
 package net.sf.jclec.util.random;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
 import org.apache.commons.lang.builder.EqualsBuilder;
 
 /**
@@ -219,4 +223,40 @@ public class Ranmar extends AbstractRandGen
 			u[ii] = s;
 		}
 	}	
+
+	// Generator state
+
+	/**
+	 * {@inheritDoc}
+	 */
+
+	@Override
+	public void writeState(DataOutput out) throws IOException
+	{
+		super.writeState(out);
+		out.writeInt(i97);
+		out.writeInt(j97);
+		out.writeDouble(c);
+		out.writeInt(u.length);
+		for (double value : u) {
+			out.writeDouble(value);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+
+	@Override
+	public void readState(DataInput in) throws IOException
+	{
+		super.readState(in);
+		i97 = in.readInt();
+		j97 = in.readInt();
+		c = in.readDouble();
+		u = new double[in.readInt()];
+		for (int i=0; i<u.length; i++) {
+			u[i] = in.readDouble();
+		}
+	}
 }
@@ -39,6 +39,6 @@ public class RanmarFactory extends AbstractRandGenFactory
 	
 	public IRandGen createRandGen() 
 	{
-		return new Ranmar(seedGenerator.nextSeed());
+		return register(new Ranmar(seedGenerator.nextSeed()));
 	}
 }
@@ -1,5 +1,9 @@
 package net.sf.jclec.util.random;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
 import org.apache.commons.lang.builder.EqualsBuilder;
 
 /**
@@ -183,4 +187,36 @@ public class Ranmt extends AbstractRandGen
 	    	//for >32 bit machines
 	    }
 	  }	
+
+	// Generator state
+
+	/**
+	 * {@inheritDoc}
+	 */
+
+	@Override
+	public void writeState(DataOutput out) throws IOException
+	{
+		super.writeState(out);
+		out.writeInt(mti);
+		out.writeInt(mt.length);
+		for (int value : mt) {
+			out.writeInt(value);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+
+	@Override
+	public void readState(DataInput in) throws IOException
+	{
+		super.readState(in);
+		mti = in.readInt();
+		mt = new int[in.readInt()];
+		for (int i=0; i<mt.length; i++) {
+			mt[i] = in.readInt();
+		}
+	}
 }
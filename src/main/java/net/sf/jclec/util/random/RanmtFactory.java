@@ -39,6 +39,6 @@ public class RanmtFactory extends AbstractRandGenFactory
 
 	public IRandGen createRandGen() 
 	{
-		return new Ranmt(seedGenerator.nextSeed());
+		return register(new Ranmt(seedGenerator.nextSeed()));
 	}
 }
@@ -0,0 +1,112 @@
+package net.sf.jclec;
+
+import java.io.File;
+import java.io.IOException;
+
+import java.util.Set;
+import java.util.List;
+import java.util.HashSet;
+
+import junit.framework.TestCase;
+
+import org.apache.commons.configuration.XMLConfiguration;
+
+/**
+ * ExperimentBuilder tests.
+ */
+
+public class ExperimentBuilderTest extends TestCase
+{
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Class variables
+	/////////////////////////////////////////////////////////////////
+
+	private static final String EXPERIMENT = "src/test/resources/net/sf/jclec/ExperimentBuilder.config.xml";
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	public ExperimentBuilderTest(String name)
+	{
+		super(name);
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * All combinations of multi-valued elements and attributes (including
+	 * nested ones) are expanded once
+	 */
+
+	public void testExpandExperiment() throws Exception
+	{
+		List<XMLConfiguration> jobs = new ExperimentBuilder().expandExperiment(EXPERIMENT);
+		// 2 population sizes x 3 recombinators x (2 + 1) mutators
+		assertEquals(18, jobs.size());
+		Set<String> combinations = new HashSet<String>();
+		for (XMLConfiguration job : jobs) {
+			combinations.add(describe(job));
+		}
+		assertEquals(18, combinations.size());
+		assertEquals("10 A 0.9 M1 0.1", describe(jobs.get(0)));
+		assertEquals("10 A 0.9 M1 0.2", describe(jobs.get(1)));
+		assertEquals("10 A 0.9 M2 0.5", describe(jobs.get(2)));
+		assertEquals("20 C 0.9 M2 0.5", describe(jobs.get(17)));
+		// Jobs are independent
+		jobs.get(0).setProperty("process.population-size", 30);
+		assertEquals("10 A 0.9 M1 0.1", describe(jobs.get(0)));
+	}
+
+	/**
+	 * Saved job files contain the expanded configurations
+	 */
+
+	public void testSaveExperiment() throws Exception
+	{
+		File dir = File.createTempFile("experiments", "");
+		dir.delete();
+		try {
+			ExperimentBuilder builder = new ExperimentBuilder();
+			builder.setExperimentsDirectory(dir.getPath());
+			List<XMLConfiguration> jobs = builder.expandExperiment(EXPERIMENT);
+			assertFalse(dir.exists());
+			List<String> files = builder.saveExperiment(jobs);
+			assertEquals(18, files.size());
+			assertEquals(18, dir.listFiles().length);
+			for (int i=0; i<18; i++) {
+				XMLConfiguration saved = new XMLConfiguration(files.get(i));
+				assertEquals(describe(jobs.get(i)), describe(saved));
+				assertEquals(0, saved.getList("process.population-size.population-size").size());
+			}
+		}
+		finally {
+			delete(dir);
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	private static String describe(XMLConfiguration job)
+	{
+		return job.getString("process.population-size") + " "
+			+ job.getString("process.recombinator[@type]") + " "
+			+ job.getString("process.recombinator[@rec-prob]") + " "
+			+ job.getString("process.mutator[@type]") + " "
+			+ job.getString("process.mutator[@mut-prob]");
+	}
+
+	private static void delete(File dir) throws IOException
+	{
+		if (dir.exists()) {
+			for (File file : dir.listFiles()) {
+				file.delete();
+			}
+			dir.delete();
+		}
+	}
+}
@@ -0,0 +1,201 @@
+package net.sf.jclec;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.FileInputStream;
+
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.apache.commons.configuration.XMLConfiguration;
+
+/**
+ * ExperimentRunner tests.
+ */
+
+public class ExperimentRunnerTest extends TestCase
+{
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	public ExperimentRunnerTest(String name)
+	{
+		super(name);
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Jobs executed in parallel write their output to their own log
+	 * files, obtain the same results than sequential jobs, and a failed
+	 * job does not stop the rest
+	 */
+
+	public void testRun() throws Exception
+	{
+		File dir = createTempDirectory();
+		try {
+			// Three SG jobs and three jobs that cannot be executed
+			ExperimentBuilder builder = new ExperimentBuilder();
+			builder.setExperimentsDirectory(dir.getPath());
+			List<XMLConfiguration> jobs =
+				builder.expandExperiment("src/test/resources/net/sf/jclec/ExperimentRunner.config.xml");
+			assertEquals(6, jobs.size());
+			ExperimentRunner runner = new ExperimentRunner(3);
+			assertEquals(3, runner.run(jobs));
+			// All SG jobs have the same configuration and seed
+			String expected = withoutHashCodes(read(logFile(dir, 0)));
+			assertTrue(expected.contains("Generation 20 Report"));
+			for (int i=1; i<3; i++) {
+				assertEquals(expected, withoutHashCodes(read(logFile(dir, i))));
+			}
+			for (int i=3; i<6; i++) {
+				assertTrue(read(logFile(dir, i)).contains("ClassNotFoundException"));
+			}
+			// Job files are not written
+			assertEquals(6, dir.listFiles().length);
+		}
+		finally {
+			for (File file : dir.listFiles()) {
+				file.delete();
+			}
+			dir.delete();
+		}
+	}
+
+	/**
+	 * Parallel jobs that share a report title write their reports and
+	 * populations to their own files
+	 */
+
+	public void testSharedReportTitle() throws Exception
+	{
+		File dir = createTempDirectory();
+		try {
+			ExperimentBuilder builder = new ExperimentBuilder();
+			builder.setExperimentsDirectory(dir.getPath());
+			List<XMLConfiguration> jobs =
+				builder.expandExperiment("src/test/resources/net/sf/jclec/ExperimentRunnerReports.config.xml");
+			assertEquals(3, jobs.size());
+			ExperimentRunner runner = new ExperimentRunner(3);
+			assertEquals(0, runner.run(jobs));
+			for (int i=0; i<3; i++) {
+				String prefix = "ExperimentRunnerReports.config_" + i + ".shared";
+				File report = null, populations = null;
+				for (File file : dir.listFiles()) {
+					if (file.getName().startsWith(prefix)) {
+						if (file.isDirectory()) {
+							populations = file;
+						}
+						else {
+							report = file;
+						}
+					}
+				}
+				assertNotNull(report);
+				assertTrue(report.getName().endsWith(".report.txt"));
+				assertTrue(read(report).contains("Generation 20 Report"));
+				assertNotNull(populations);
+				assertTrue(new File(populations, "generation20.individuals.txt").exists());
+			}
+			// Job prefix is only set while jobs are executed
+			assertEquals("", ExperimentRunner.getJobPrefix());
+		}
+		finally {
+			delete(dir);
+		}
+	}
+
+	/**
+	 * Parallel jobs that share a checkpoint file write their checkpoints
+	 * to their own files, and resume from them
+	 */
+
+	public void testSharedCheckpointFile() throws Exception
+	{
+		File dir = createTempDirectory();
+		try {
+			ExperimentBuilder builder = new ExperimentBuilder();
+			builder.setExperimentsDirectory(dir.getPath());
+			List<XMLConfiguration> jobs =
+				builder.expandExperiment("src/test/resources/net/sf/jclec/ExperimentRunnerCheckpoints.config.xml");
+			assertEquals(3, jobs.size());
+			ExperimentRunner runner = new ExperimentRunner(3);
+			assertEquals(0, runner.run(jobs));
+			for (int i=0; i<3; i++) {
+				File checkpoint = new File(dir, "ExperimentRunnerCheckpoints.config_" + i + ".shared.bin");
+				assertTrue(checkpoint.exists());
+				assertFalse(new File(checkpoint.getPath() + ".tmp").exists());
+			}
+			assertFalse(new File("shared.bin").exists());
+			// Each job resumes from its own checkpoint
+			assertEquals(0, runner.run(jobs));
+			for (int i=0; i<3; i++) {
+				File checkpoint = new File(dir, "ExperimentRunnerCheckpoints.config_" + i + ".shared.bin");
+				File log = new File(dir, "ExperimentRunnerCheckpoints.config_" + i + ".log");
+				assertTrue(read(log).contains("Resuming from " + checkpoint.getPath()));
+			}
+		}
+		finally {
+			delete(dir);
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	private static File createTempDirectory() throws IOException
+	{
+		File dir = File.createTempFile("jobs", "");
+		dir.delete();
+		if (!dir.mkdir()) {
+			throw new IOException("Cannot create " + dir);
+		}
+		return dir;
+	}
+
+	private static void delete(File file)
+	{
+		if (file.isDirectory()) {
+			for (File child : file.listFiles()) {
+				delete(child);
+			}
+		}
+		file.delete();
+	}
+
+	private static File logFile(File dir, int job)
+	{
+		return new File(dir, "ExperimentRunner.config_" + job + ".log");
+	}
+
+	/**
+	 * Reports contain the identity hash codes of individuals
+	 */
+
+	private static String withoutHashCodes(String report)
+	{
+		return report.replaceAll("@[0-9a-f]+", "");
+	}
+
+	private static String read(File file) throws IOException
+	{
+		FileInputStream in = new FileInputStream(file);
+		try {
+			byte [] contents = new byte[(int) file.length()];
+			int length = 0;
+			while (length < contents.length) {
+				length += in.read(contents, length, contents.length - length);
+			}
+			return new String(contents, "UTF-8");
+		}
+		finally {
+			in.close();
+		}
+	}
+}
@@ -0,0 +1,184 @@
+package net.sf.jclec.algorithm;
+
+import java.util.List;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.TestCase;
+
+import net.sf.jclec.IIndividual;
+import net.sf.jclec.algorithm.classic.AsyncSS;
+import net.sf.jclec.base.AsyncEvaluatorAdapter;
+import net.sf.jclec.fitness.SimpleValueFitness;
+import net.sf.jclec.realarray.RealArrayIndividual;
+import net.sf.jclec.realarray.SphereEvaluator;
+
+import org.apache.commons.configuration.XMLConfiguration;
+
+/**
+ * AsyncSS tests.
+ */
+
+public class AsyncSSTest extends TestCase
+{
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	public AsyncSSTest(String name)
+	{
+		super(name);
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * With evaluations of uneven duration, jobs finish out of order, but
+	 * every son is evaluated once, the population size is kept and sons
+	 * are inserted by the replacement of SS
+	 */
+
+	public void testExecute() throws Exception
+	{
+		XMLConfiguration configuration =
+			new XMLConfiguration("src/test/resources/net/sf/jclec/algorithm/AsyncSS.config.xml");
+		TestAsyncSS algorithm = new TestAsyncSS();
+		algorithm.configure(configuration.subset("process"));
+		UnevenEvaluator evaluator = new UnevenEvaluator();
+		algorithm.setEvaluator(evaluator);
+		algorithm.execute();
+		// The evaluator is run through an adapter
+		assertTrue(algorithm.getEvaluator() instanceof AsyncEvaluatorAdapter);
+		assertEquals(100, algorithm.getGeneration());
+		assertEquals(100, algorithm.updates);
+		// Initial population, sons of inserted jobs and sons of the jobs
+		// in flight when the algorithm finished (two sons per job)
+		assertEquals(20 + 2 * (100 + 4), evaluator.calls.get());
+		assertEquals(evaluator.calls.get(), algorithm.getEvaluator().getNumberOfEvaluations());
+		// Some jobs were inserted in a different order than they were bred
+		assertTrue(algorithm.outOfOrder > 0);
+		assertEquals(20, algorithm.getInhabitants().size());
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------------- Internal classes
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Sphere evaluator whose evaluation time depends on the sign of
+	 * the first gene.
+	 */
+
+	private static class UnevenEvaluator extends SphereEvaluator
+	{
+		private static final long serialVersionUID = 1L;
+
+		final AtomicInteger calls = new AtomicInteger();
+
+		@Override
+		public void evaluate(IIndividual ind)
+		{
+			double [] genotype = ((RealArrayIndividual) ind).getGenotype();
+			try {
+				Thread.sleep(genotype[0] < 0.0 ? 20 : 0);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			super.evaluate(ind);
+			calls.incrementAndGet();
+		}
+	}
+
+	/**
+	 * AsyncSS that checks every replacement step.
+	 */
+
+	private static class TestAsyncSS extends AsyncSS
+	{
+		private static final long serialVersionUID = 1L;
+
+		/** Number of replacement steps */
+
+		int updates;
+
+		/** Replacement steps whose sons were not the oldest ones bred */
+
+		int outOfOrder;
+
+		/** Parents of the jobs in flight, in breeding order */
+
+		private final List<List<IIndividual>> pending = new ArrayList<List<IIndividual>>();
+
+		@Override
+		protected void doGeneration()
+		{
+			pending.add(new ArrayList<IIndividual>(pset));
+			super.doGeneration();
+		}
+
+		@Override
+		protected void doReplacement()
+		{
+			int job = pending.indexOf(pset);
+			assertTrue(job >= 0);
+			if (job > 0) {
+				outOfOrder++;
+			}
+			pending.remove(job);
+			super.doReplacement();
+		}
+
+		@Override
+		protected void doUpdate()
+		{
+			List<IIndividual> before = new ArrayList<IIndividual>(bset);
+			List<IIndividual> candidates = new ArrayList<IIndividual>(cset);
+			candidates.addAll(pset);
+			int numberOfSurvivors = pset.size();
+			for (IIndividual son : cset) {
+				assertNotNull(son.getFitness());
+			}
+			super.doUpdate();
+			updates++;
+			// Population size is kept
+			assertEquals(populationSize, bset.size());
+			assertEquals(before, bset.subList(0, before.size()));
+			// The best parents and sons survive
+			List<Double> expected = values(candidates);
+			List<Double> actual = values(bset.subList(before.size(), bset.size()));
+			assertEquals(expected.subList(0, numberOfSurvivors), actual);
+			for (IIndividual survivor : bset.subList(before.size(), bset.size())) {
+				assertTrue(candidates.contains(survivor));
+			}
+		}
+
+		/**
+		 * Waits for the jobs in flight before closing the evaluator.
+		 */
+
+		@Override
+		protected void doClose()
+		{
+			long deadline = System.currentTimeMillis() + 10000;
+			while (finishedJobs.size() < getNumberOfJobs() && System.currentTimeMillis() < deadline) {
+				Thread.yield();
+			}
+			assertEquals(getNumberOfJobs(), finishedJobs.size());
+			super.doClose();
+		}
+
+		private static List<Double> values(List<IIndividual> inds)
+		{
+			List<Double> result = new ArrayList<Double>();
+			for (IIndividual ind : inds) {
+				result.add(((SimpleValueFitness) ind.getFitness()).getValue());
+			}
+			Collections.sort(result);
+			return result;
+		}
+	}
+}
@@ -0,0 +1,120 @@
+package net.sf.jclec.algorithm;
+
+import java.io.File;
+import java.io.DataInputStream;
+import java.io.ByteArrayInputStream;
+
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import net.sf.jclec.IIndividual;
+import net.sf.jclec.listener.CheckpointWriter;
+import net.sf.jclec.realarray.RealArrayIndividual;
+
+import org.apache.commons.configuration.Configuration;
+import org.apache.commons.configuration.XMLConfiguration;
+
+/**
+ * Checkpoint tests.
+ */
+
+public class CheckpointTest extends TestCase
+{
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	public CheckpointTest(String name)
+	{
+		super(name);
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * A run resumed from a checkpoint must be identical to an
+	 * uninterrupted run
+	 */
+
+	public void testResume() throws Exception
+	{
+		// Uninterrupted run
+		PopulationAlgorithm expected = createAlgorithm(20);
+		expected.execute();
+		// Interrupted run
+		PopulationAlgorithm interrupted = createAlgorithm(10);
+		interrupted.execute();
+		byte [] checkpoint = Checkpoint.encode(interrupted);
+		// Resumed run
+		PopulationAlgorithm resumed = createAlgorithm(20);
+		Checkpoint.read(resumed, new DataInputStream(new ByteArrayInputStream(checkpoint)));
+		assertEquals(10, resumed.getGeneration());
+		assertEquals(interrupted.getEvaluator().getNumberOfEvaluations(),
+			resumed.getEvaluator().getNumberOfEvaluations());
+		resumed.execute();
+		assertEquals(20, resumed.getGeneration());
+		assertEquals(expected.getEvaluator().getNumberOfEvaluations(),
+			resumed.getEvaluator().getNumberOfEvaluations());
+		assertSameInhabitants(expected.getInhabitants(), resumed.getInhabitants());
+	}
+
+	/**
+	 * Unit test for CheckpointWriter
+	 */
+
+	public void testCheckpointWriter() throws Exception
+	{
+		File file = File.createTempFile("jclec", ".ckpt");
+		try {
+			PopulationAlgorithm expected = createAlgorithm(20);
+			expected.execute();
+			// Run with checkpoints
+			PopulationAlgorithm interrupted = createAlgorithm(12);
+			CheckpointWriter writer = new CheckpointWriter();
+			writer.setCheckpointFile(file.getPath());
+			writer.setCheckpointFrequency(5);
+			interrupted.addListener(writer);
+			interrupted.execute();
+			// Resume from last checkpoint
+			PopulationAlgorithm resumed = createAlgorithm(20);
+			Checkpoint.restore(resumed, file);
+			assertEquals(12, resumed.getGeneration());
+			resumed.execute();
+			assertSameInhabitants(expected.getInhabitants(), resumed.getInhabitants());
+		}
+		finally {
+			file.delete();
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	private PopulationAlgorithm createAlgorithm(int maxOfGenerations) throws Exception
+	{
+		Configuration configuration =
+			new XMLConfiguration("src/test/resources/net/sf/jclec/algorithm/Checkpoint.config.xml").subset("process");
+		configuration.setProperty("max-of-generations", maxOfGenerations);
+		PopulationAlgorithm algorithm = (PopulationAlgorithm)
+			Class.forName(configuration.getString("[@algorithm-type]")).newInstance();
+		algorithm.configure(configuration);
+		return algorithm;
+	}
+
+	private void assertSameInhabitants(List<IIndividual> expected, List<IIndividual> actual)
+	{
+		assertEquals(expected.size(), actual.size());
+		for (int i=0; i<expected.size(); i++) {
+			double [] expectedGenotype = ((RealArrayIndividual) expected.get(i)).getGenotype();
+			double [] actualGenotype = ((RealArrayIndividual) actual.get(i)).getGenotype();
+			for (int j=0; j<expectedGenotype.length; j++) {
+				assertEquals(Double.doubleToLongBits(expectedGenotype[j]), Double.doubleToLongBits(actualGenotype[j]));
+			}
+			assertEquals(expected.get(i).getFitness(), actual.get(i).getFitness());
+		}
+	}
+}
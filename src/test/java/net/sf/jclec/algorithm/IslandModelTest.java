@@ -0,0 +1,136 @@
+package net.sf.jclec.algorithm;
+
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+
+import net.sf.jclec.IIndividual;
+import net.sf.jclec.fitness.SimpleValueFitness;
+import net.sf.jclec.util.random.AbstractRandGenFactory;
+
+import org.apache.commons.configuration.Configuration;
+import org.apache.commons.configuration.XMLConfiguration;
+import org.apache.commons.configuration.ConfigurationRuntimeException;
+
+/**
+ * IslandModel tests.
+ */
+
+public class IslandModelTest extends TestCase
+{
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	public IslandModelTest(String name)
+	{
+		super(name);
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Unit test for the configure() method
+	 */
+
+	public void testConfigure() throws Exception
+	{
+		IslandModel algorithm = createAlgorithm();
+		assertEquals(4, algorithm.getIslands().size());
+		assertEquals(5, algorithm.getMigrationInterval());
+		assertEquals(2, algorithm.getNumberOfMigrants());
+		assertEquals(IslandModel.TORUS, algorithm.getTopology());
+		// Each island has its own seed
+		int seed = seed(algorithm.getIslands().get(0));
+		for (int i=1; i<4; i++) {
+			assertEquals(seed + i * IslandModel.SEED_STRIDE, seed(algorithm.getIslands().get(i)));
+		}
+		assertEquals(4, algorithm.getMigrantSelectors().size());
+	}
+
+	/**
+	 * Migration interval must be positive, and number of migrants must
+	 * be non-negative
+	 */
+
+	public void testConfigureMigration() throws Exception
+	{
+		for (String [] setting : new String [][] {{"migration-interval", "0"}, {"migration-interval", "-1"}, {"number-of-migrants", "-1"}}) {
+			Configuration configuration =
+				new XMLConfiguration("src/test/resources/net/sf/jclec/algorithm/IslandModel.config.xml").subset("process");
+			configuration.setProperty(setting[0], setting[1]);
+			try {
+				new IslandModel().configure(configuration);
+				fail();
+			}
+			catch (ConfigurationRuntimeException e) {
+				// Expected
+			}
+		}
+	}
+
+	/**
+	 * Unit test for the execute() method
+	 */
+
+	public void testExecute() throws Exception
+	{
+		IslandModel algorithm = createAlgorithm();
+		algorithm.execute();
+		assertEquals(30, algorithm.getGeneration());
+		assertEquals(80, algorithm.getInhabitants().size());
+		for (PopulationAlgorithm island : algorithm.getIslands()) {
+			assertEquals(30, island.getGeneration());
+			assertEquals(20, island.getInhabitants().size());
+		}
+		int evaluations = 0;
+		for (PopulationAlgorithm island : algorithm.getIslands()) {
+			evaluations += island.getEvaluator().getNumberOfEvaluations();
+		}
+		assertEquals(evaluations, algorithm.getEvaluator().getNumberOfEvaluations());
+		// Migrants arrived and entered island populations
+		assertTrue(algorithm.getNumberOfImmigrants() > 0);
+		for (IIndividual ind : algorithm.getInhabitants()) {
+			assertTrue(((SimpleValueFitness) ind.getFitness()).getValue() < 75.0);
+		}
+	}
+
+	/**
+	 * Unit test for the migration topologies
+	 */
+
+	public void testDestinations()
+	{
+		IslandModel algorithm = new IslandModel();
+		algorithm.setTopology(IslandModel.RING);
+		assertTrue(Arrays.equals(new int [] {1}, algorithm.destinations(0, 4)));
+		assertTrue(Arrays.equals(new int [] {0}, algorithm.destinations(3, 4)));
+		algorithm.setTopology(IslandModel.TORUS);
+		// 2x3 grid
+		assertTrue(Arrays.equals(new int [] {3, 2, 1}, algorithm.destinations(0, 6)));
+		assertTrue(Arrays.equals(new int [] {1, 3, 5}, algorithm.destinations(4, 6)));
+		algorithm.setTopology(IslandModel.RANDOM);
+		assertTrue(Arrays.equals(new int [] {0, 1, 3}, algorithm.destinations(2, 4)));
+		assertEquals(0, algorithm.destinations(0, 1).length);
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	private IslandModel createAlgorithm() throws Exception
+	{
+		XMLConfiguration configuration =
+			new XMLConfiguration("src/test/resources/net/sf/jclec/algorithm/IslandModel.config.xml");
+		IslandModel algorithm = new IslandModel();
+		algorithm.configure(configuration.subset("process"));
+		return algorithm;
+	}
+
+	private int seed(PopulationAlgorithm island)
+	{
+		return ((AbstractRandGenFactory) island.getRandGenFactory()).getSeed();
+	}
+}
@@ -0,0 +1,281 @@
+package net.sf.jclec.algorithm;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.InputStreamReader;
+
+import java.net.Socket;
+import java.net.ServerSocket;
+import java.net.InetSocketAddress;
+
+import java.util.List;
+import java.util.ArrayList;
+
+import junit.framework.TestCase;
+
+import net.sf.jclec.AlgorithmEvent;
+import net.sf.jclec.IIndividual;
+import net.sf.jclec.IAlgorithmListener;
+
+import net.sf.jclec.exprtree.ExprTree;
+import net.sf.jclec.exprtree.ExprTreeIndividual;
+
+import net.sf.jclec.realarray.RealArrayIndividual;
+
+import org.apache.commons.configuration.Configuration;
+import org.apache.commons.configuration.XMLConfiguration;
+import org.apache.commons.configuration.ConfigurationRuntimeException;
+
+/**
+ * NetworkIsland tests. The main method of this class runs one island of a
+ * multi-process ring, and is used as a local test harness.
+ */
+
+public class NetworkIslandTest extends TestCase
+{
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Class variables
+	/////////////////////////////////////////////////////////////////
+
+	private static final String CONFIGURATION =
+		"src/test/resources/net/sf/jclec/algorithm/NetworkIsland.config.xml";
+
+	/** Number of island processes */
+
+	private static final int NUMBER_OF_PROCESSES = 3;
+
+	/**
+	 * Class that is not an individual. Receivers must never create it.
+	 */
+
+	public static class Probe
+	{
+		static int created;
+
+		public Probe()
+		{
+			created++;
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	public NetworkIslandTest(String name)
+	{
+		super(name);
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Main program
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Runs one island of a ring of processes. It finishes once it has
+	 * sent migrants and received immigrants into its population, and
+	 * prints its statistics.
+	 *
+	 * @param args Island index followed by the ports of all islands
+	 */
+
+	public static void main(String [] args) throws Exception
+	{
+		int index = Integer.parseInt(args[0]);
+		int numberOfIslands = args.length - 1;
+		final NetworkIsland algorithm = createAlgorithm(index,
+			Integer.parseInt(args[1 + index]), Integer.parseInt(args[1 + (index + 1) % numberOfIslands]));
+		final long [] statistics = new long[2];
+		algorithm.addListener(new IAlgorithmListener() {
+			public void algorithmStarted(AlgorithmEvent event) {
+			}
+			public void iterationCompleted(AlgorithmEvent event) {
+				MigrationTransport transport = algorithm.getTransport();
+				statistics[0] = transport.getNumberOfSent();
+				statistics[1] = transport.getNumberOfReceived();
+				if (statistics[0] > 0 && algorithm.getNumberOfImmigrants() > 0 && algorithm.getGeneration() >= 50) {
+					algorithm.terminate();
+				}
+			}
+			public void algorithmFinished(AlgorithmEvent event) {
+			}
+			public void algorithmTerminated(AlgorithmEvent event) {
+			}
+		});
+		algorithm.execute();
+		System.out.println(statistics[0] + " " + statistics[1] + " " + algorithm.getInhabitants().size() + " " + algorithm.getNumberOfImmigrants());
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Unit test for the configure() method
+	 */
+
+	public void testConfigure() throws Exception
+	{
+		NetworkIsland algorithm = createAlgorithm(1, 7001, 7002);
+		assertEquals(7001, algorithm.getPort());
+		assertEquals(1, algorithm.getPeers().size());
+		assertEquals("localhost:7002", algorithm.getPeers().get(0));
+		assertEquals(5, algorithm.getMigrationInterval());
+		assertEquals(2, algorithm.getNumberOfMigrants());
+		assertEquals(20, algorithm.getPopulationSize());
+		// Migration interval must be positive
+		Configuration configuration = new XMLConfiguration(CONFIGURATION).subset("process");
+		configuration.setProperty("migration-interval", 0);
+		try {
+			new NetworkIsland().configure(configuration);
+			fail();
+		}
+		catch (ConfigurationRuntimeException e) {
+			// Expected
+		}
+	}
+
+	/**
+	 * Receivers drop connections that send classes that are not 
+	 * individuals or serialized genotypes, and senders only accept
+	 * individuals with array genotypes
+	 */
+
+	public void testUntrustedPeers() throws Exception
+	{
+		MigrationTransport transport = new MigrationTransport(0, new ArrayList<InetSocketAddress>(), 10);
+		transport.start();
+		try {
+			// Not an individual
+			assertClosed(writeBatch(transport.getLocalPort(), Probe.class.getName(), (byte) 1));
+			// Serialized genotype
+			assertClosed(writeBatch(transport.getLocalPort(), RealArrayIndividual.class.getName(), (byte) 127));
+			assertEquals(0, Probe.created);
+			assertEquals(0, transport.getNumberOfReceived());
+			// Valid migrant
+			Socket socket = writeBatch(transport.getLocalPort(), RealArrayIndividual.class.getName(), (byte) 1);
+			for (int i=0; i<100 && transport.getNumberOfReceived() == 0; i++) {
+				Thread.sleep(50);
+			}
+			socket.close();
+			List<IIndividual> received = transport.receive();
+			assertEquals(1, received.size());
+			assertEquals(new RealArrayIndividual(new double [] {1.0}), received.get(0));
+			// Tree genotypes are not sent
+			List<IIndividual> migrants = new ArrayList<IIndividual>();
+			migrants.add(new ExprTreeIndividual(new ExprTree()));
+			try {
+				transport.send(migrants);
+				fail();
+			}
+			catch (IllegalArgumentException e) {
+				// Expected
+			}
+		}
+		finally {
+			transport.close();
+		}
+	}
+
+	/**
+	 * Runs a ring of islands, each one in its own JVM with a small heap,
+	 * and checks that all of them send and receive migrants
+	 */
+
+	public void testProcesses() throws Exception
+	{
+		// Island ports
+		String [] ports = new String[NUMBER_OF_PROCESSES];
+		for (int i=0; i<NUMBER_OF_PROCESSES; i++) {
+			ServerSocket socket = new ServerSocket(0);
+			ports[i] = String.valueOf(socket.getLocalPort());
+			socket.close();
+		}
+		// Start island processes
+		List<Process> processes = new ArrayList<Process>();
+		try {
+			for (int i=0; i<NUMBER_OF_PROCESSES; i++) {
+				List<String> command = new ArrayList<String>();
+				command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+				command.add("-Xmx32m");
+				command.add("-cp");
+				command.add(System.getProperty("java.class.path"));
+				command.add(NetworkIslandTest.class.getName());
+				command.add(String.valueOf(i));
+				for (String port : ports) {
+					command.add(port);
+				}
+				processes.add(new ProcessBuilder(command).redirectErrorStream(true).start());
+			}
+			for (Process process : processes) {
+				BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
+				String last = null;
+				for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+					last = line;
+				}
+				assertEquals(0, process.waitFor());
+				String [] statistics = last.split(" ");
+				assertTrue(Long.parseLong(statistics[0]) > 0);
+				assertTrue(Long.parseLong(statistics[1]) > 0);
+				assertEquals("20", statistics[2]);
+				// Migrants crossed the process boundary and entered the population
+				assertTrue(Long.parseLong(statistics[3]) > 0);
+			}
+		}
+		finally {
+			for (Process process : processes) {
+				process.destroy();
+			}
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Sends a batch with one individual, whose genotype has the given tag.
+	 */
+
+	private static Socket writeBatch(int port, String classname, byte tag) throws IOException
+	{
+		Socket socket = new Socket("localhost", port);
+		DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+		out.writeInt(1);
+		out.writeUTF(classname);
+		out.writeByte(tag);
+		out.writeInt(1);
+		out.writeDouble(1.0);
+		out.writeByte(0);
+		out.flush();
+		return socket;
+	}
+
+	/**
+	 * Checks that the receiver closes a connection.
+	 */
+
+	private static void assertClosed(Socket socket) throws IOException
+	{
+		try {
+			socket.setSoTimeout(5000);
+			assertEquals(-1, socket.getInputStream().read());
+		}
+		finally {
+			socket.close();
+		}
+	}
+
+	private static NetworkIsland createAlgorithm(int index, int port, int peer) throws Exception
+	{
+		Configuration configuration = new XMLConfiguration(CONFIGURATION).subset("process");
+		configuration.setProperty("port", port);
+		configuration.setProperty("peer", "localhost:" + peer);
+		configuration.setProperty("island.rand-gen-factory[@seed]", 987654321 + index * IslandModel.SEED_STRIDE);
+		NetworkIsland algorithm = new NetworkIsland();
+		algorithm.configure(configuration);
+		return algorithm;
+	}
+}
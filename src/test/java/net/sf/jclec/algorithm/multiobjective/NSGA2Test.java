@@ -0,0 +1,188 @@
+package net.sf.jclec.algorithm.multiobjective;
+
+import java.util.List;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+
+import net.sf.jclec.IIndividual;
+import net.sf.jclec.fitness.CompositeFitness;
+import net.sf.jclec.fitness.ISimpleFitness;
+import net.sf.jclec.fitness.SimpleValueFitness;
+import net.sf.jclec.realarray.RealArrayIndividual;
+import net.sf.jclec.util.random.AbstractRandGen;
+import net.sf.jclec.util.random.RanecuFactory;
+
+/**
+ * NSGA2 tests.
+ */
+
+public class NSGA2Test extends TestCase
+{
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	public NSGA2Test(String name)
+	{
+		super(name);
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * The new population is made of the first fronts of parents and
+	 * children, the last one truncated by crowding distance, and the
+	 * binary tournament prefers lower fronts and then larger distances
+	 */
+
+	public void testUpdateAndSelect()
+	{
+		// Fronts (objectives are minimized):
+		// 0: a(1,5) b(2,3) c(4,1)
+		// 1: d(3,4) j(3.5,3.8) i(4,3) e(5,2)
+		// 2: f(4,5) g(6,3)
+		// 3: h(7,6), 4: k(8,8), 5: l(9,9)
+		IIndividual a = ind(1, 5), b = ind(2, 3), c = ind(4, 1);
+		IIndividual d = ind(3, 4), j = ind(3.5, 3.8), i = ind(4, 3), e = ind(5, 2);
+		IIndividual f = ind(4, 5), g = ind(6, 3), h = ind(7, 6), k = ind(8, 8), l = ind(9, 9);
+		TestNSGA2 algorithm = createAlgorithm();
+		algorithm.setInhabitants(list(a, d, f, h, j, k));
+		algorithm.update(list(b, c, e, g, i, l));
+		// First front, plus d, e and i (j is the most crowded in front 1)
+		assertIdentical(list(a, c, b, d, e, i), algorithm.getInhabitants());
+		assertTrue(Arrays.equals(new int [] {0, 0, 0, 1, 1, 1}, algorithm.rank));
+		assertCrowding(new double [] {INF, INF, 2.0, INF, INF, 1.65}, algorithm.crowding);
+		assertIdentical(list(a, b, c), algorithm.gePareto());
+		// Tournaments: (i,b) (d,i) (i,e) (c,i) (i,a), then the remaining one
+		algorithm.randgen = new ScriptedRandGen(5, 2, 3, 5, 5, 4, 3, 5, 5, 4);
+		algorithm.setGeneration(2);
+		assertIdentical(list(b, d, e, c, a, i), algorithm.select());
+	}
+
+	/**
+	 * Fronts and crowding distances are computed again when inhabitants
+	 * are set (as when resuming from a checkpoint)
+	 */
+
+	public void testSelectAfterSetInhabitants()
+	{
+		IIndividual a = ind(1, 5), b = ind(2, 3), c = ind(4, 1);
+		IIndividual d = ind(3, 4), i = ind(4, 3), e = ind(5, 2);
+		// Missing fronts
+		TestNSGA2 algorithm = createAlgorithm();
+		algorithm.setInhabitants(list(i, e, d, b, c, a));
+		algorithm.setGeneration(2);
+		assertEquals(6, algorithm.select().size());
+		assertTrue(Arrays.equals(new int [] {1, 1, 1, 0, 0, 0}, algorithm.rank));
+		assertCrowding(new double [] {2.0, INF, INF, 2.0, INF, INF}, algorithm.crowding);
+		// Stale fronts
+		algorithm.setInhabitants(list(a, b, d, c, e, i));
+		algorithm.select();
+		assertTrue(Arrays.equals(new int [] {0, 0, 1, 0, 1, 1}, algorithm.rank));
+		assertCrowding(new double [] {INF, 2.0, INF, INF, INF, 2.0}, algorithm.crowding);
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	private static final double INF = Double.POSITIVE_INFINITY;
+
+	private static TestNSGA2 createAlgorithm()
+	{
+		TestNSGA2 algorithm = new TestNSGA2();
+		algorithm.setMaximize(false);
+		algorithm.setRandGenFactory(new RanecuFactory());
+		// Sets the objective comparators
+		algorithm.setEvaluator(null);
+		return algorithm;
+	}
+
+	private static IIndividual ind(double f1, double f2)
+	{
+		ISimpleFitness [] components = {new SimpleValueFitness(f1), new SimpleValueFitness(f2)};
+		return new RealArrayIndividual(new double [] {f1, f2}, new CompositeFitness(components));
+	}
+
+	private static List<IIndividual> list(IIndividual ... inds)
+	{
+		return new ArrayList<IIndividual>(Arrays.asList(inds));
+	}
+
+	private static void assertIdentical(List<IIndividual> expected, List<IIndividual> actual)
+	{
+		assertEquals(expected.size(), actual.size());
+		for (int i=0; i<expected.size(); i++) {
+			assertSame(expected.get(i), actual.get(i));
+		}
+	}
+
+	private static void assertCrowding(double [] expected, double [] actual)
+	{
+		assertEquals(expected.length, actual.length);
+		for (int i=0; i<expected.length; i++) {
+			assertEquals(expected[i], actual[i], 1.e-9);
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------------- Internal classes
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * NSGA2 with access to its update and selection steps.
+	 */
+
+	private static class TestNSGA2 extends NSGA2
+	{
+		private static final long serialVersionUID = 1L;
+
+		void update(List<IIndividual> children)
+		{
+			cset = children;
+			doUpdate();
+		}
+
+		List<IIndividual> select()
+		{
+			doSelection();
+			return pset;
+		}
+	}
+
+	/**
+	 * Random generator that chooses a fixed sequence of values.
+	 */
+
+	private static class ScriptedRandGen extends AbstractRandGen
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final int [] choices;
+
+		private int next;
+
+		ScriptedRandGen(int ... choices)
+		{
+			super();
+			this.choices = choices;
+		}
+
+		public double raw()
+		{
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public int choose(int lo, int hi)
+		{
+			int choice = choices[next++];
+			assertTrue(lo <= choice && choice <= hi);
+			return choice;
+		}
+	}
+}
@@ -0,0 +1,93 @@
+package net.sf.jclec.base;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase;
+
+import net.sf.jclec.IEvaluationCallback;
+import net.sf.jclec.IIndividual;
+import net.sf.jclec.fitness.SimpleValueFitness;
+import net.sf.jclec.realarray.RealArrayIndividual;
+import net.sf.jclec.realarray.SphereEvaluator;
+
+/**
+ * AsyncEvaluatorAdapter tests.
+ */
+
+public class AsyncEvaluatorAdapterTest extends TestCase
+{
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	public AsyncEvaluatorAdapterTest(String name)
+	{
+		super(name);
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Unit test for the submit() method
+	 */
+
+	public void testSubmit() throws Exception
+	{
+		AsyncEvaluatorAdapter evaluator = new AsyncEvaluatorAdapter(new SphereEvaluator());
+		evaluator.setNumberOfThreads(2);
+		final CountDownLatch latch = new CountDownLatch(10);
+		final List<IIndividual> completed = new ArrayList<IIndividual>();
+		IEvaluationCallback callback = new IEvaluationCallback() {
+			public void evaluationCompleted(IIndividual ind)
+			{
+				synchronized (completed) {
+					completed.add(ind);
+				}
+				latch.countDown();
+			}
+
+			public void evaluationFailed(IIndividual ind, Throwable cause)
+			{
+				fail();
+			}
+		};
+		List<Future<IIndividual>> futures = new ArrayList<Future<IIndividual>>();
+		for (int i=0; i<10; i++) {
+			futures.add(evaluator.submit(new RealArrayIndividual(new double [] {i, 1.0}), callback));
+		}
+		assertTrue(latch.await(10, TimeUnit.SECONDS));
+		for (int i=0; i<10; i++) {
+			IIndividual ind = futures.get(i).get();
+			assertEquals(i*i + 1.0, ((SimpleValueFitness) ind.getFitness()).getValue());
+			assertTrue(completed.contains(ind));
+		}
+		assertEquals(10, evaluator.getNumberOfEvaluations());
+		evaluator.close();
+	}
+
+	/**
+	 * Unit test for the evaluate() method
+	 */
+
+	public void testEvaluate()
+	{
+		AsyncEvaluatorAdapter evaluator = new AsyncEvaluatorAdapter(new SphereEvaluator());
+		evaluator.setUseReplicas(true);
+		List<IIndividual> inds = new ArrayList<IIndividual>();
+		for (int i=0; i<20; i++) {
+			inds.add(new RealArrayIndividual(new double [] {i}));
+		}
+		evaluator.evaluate(inds);
+		for (int i=0; i<20; i++) {
+			assertEquals((double) i*i, ((SimpleValueFitness) inds.get(i).getFitness()).getValue());
+		}
+		assertEquals(20, evaluator.getNumberOfEvaluations());
+		evaluator.close();
+	}
+}
@@ -0,0 +1,119 @@
+package net.sf.jclec.base;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import net.sf.jclec.IIndividual;
+import net.sf.jclec.binarray.BinArrayIndividual;
+import net.sf.jclec.fitness.SimpleValueFitness;
+import net.sf.jclec.realarray.RealArrayIndividual;
+import net.sf.jclec.realarray.SphereEvaluator;
+import net.sf.jclec.util.GenotypeFingerprint;
+
+/**
+ * CachedEvaluator tests.
+ */
+
+public class CachedEvaluatorTest extends TestCase
+{
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	public CachedEvaluatorTest(String name)
+	{
+		super(name);
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Unit test for the evaluate() method
+	 */
+
+	public void testEvaluate()
+	{
+		CachedEvaluator evaluator = new CachedEvaluator(new SphereEvaluator());
+		evaluator.setCacheSize(2);
+		// Repeated genotypes in the same batch are evaluated once
+		List<IIndividual> inds = new ArrayList<IIndividual>();
+		inds.add(new RealArrayIndividual(new double [] {1.0, 2.0}));
+		inds.add(new RealArrayIndividual(new double [] {1.0, 2.0}));
+		inds.add(new RealArrayIndividual(new double [] {3.0, 0.0}));
+		evaluator.evaluate(inds);
+		assertEquals(2, evaluator.getNumberOfEvaluations());
+		assertEquals(1, evaluator.getNumberOfHits());
+		assertEquals(inds.get(0).getFitness(), inds.get(1).getFitness());
+		assertNotSame(inds.get(0).getFitness(), inds.get(1).getFitness());
+		// Cached genotypes are not evaluated again
+		inds.clear();
+		inds.add(new RealArrayIndividual(new double [] {3.0, 0.0}));
+		inds.add(new RealArrayIndividual(new double [] {0.0, 1.0}));
+		evaluator.evaluate(inds);
+		assertEquals(3, evaluator.getNumberOfEvaluations());
+		assertEquals(2, evaluator.getNumberOfHits());
+		assertEquals(3, evaluator.getNumberOfMisses());
+		// Least recently used genotype was evicted
+		inds.clear();
+		inds.add(new RealArrayIndividual(new double [] {1.0, 2.0}));
+		evaluator.evaluate(inds);
+		assertEquals(4, evaluator.getNumberOfEvaluations());
+	}
+
+	/**
+	 * Different genotypes with the same fingerprint do not share their
+	 * fitness
+	 */
+
+	public void testCollisions()
+	{
+		CachedEvaluator evaluator = new CachedEvaluator(new SphereEvaluator()) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected long fingerprint(IIndividual ind)
+			{
+				return 0L;
+			}
+		};
+		// Collision in the same batch
+		List<IIndividual> inds = new ArrayList<IIndividual>();
+		inds.add(new RealArrayIndividual(new double [] {1.0, 2.0}));
+		inds.add(new RealArrayIndividual(new double [] {1.0, 2.0}));
+		inds.add(new RealArrayIndividual(new double [] {3.0, 0.0}));
+		evaluator.evaluate(inds);
+		assertEquals(2, evaluator.getNumberOfEvaluations());
+		assertEquals(1, evaluator.getNumberOfHits());
+		assertEquals(new SimpleValueFitness(5.0), inds.get(1).getFitness());
+		assertEquals(new SimpleValueFitness(9.0), inds.get(2).getFitness());
+		// Collision with a cached genotype
+		inds.clear();
+		inds.add(new RealArrayIndividual(new double [] {0.0, 1.0}));
+		inds.add(new RealArrayIndividual(new double [] {1.0, 2.0}));
+		evaluator.evaluate(inds);
+		assertEquals(3, evaluator.getNumberOfEvaluations());
+		assertEquals(new SimpleValueFitness(1.0), inds.get(0).getFitness());
+		assertEquals(new SimpleValueFitness(5.0), inds.get(1).getFitness());
+	}
+
+	/**
+	 * Unit test for genotype fingerprints
+	 */
+
+	public void testFingerprint()
+	{
+		assertEquals(
+			GenotypeFingerprint.fingerprint(new BinArrayIndividual(new byte [] {1, 0, 1, 1, 0, 0, 1, 0, 1})),
+			GenotypeFingerprint.fingerprint(new BinArrayIndividual(new byte [] {1, 0, 1, 1, 0, 0, 1, 0, 1})));
+		assertFalse(
+			GenotypeFingerprint.fingerprint(new BinArrayIndividual(new byte [] {1, 0, 1, 1, 0, 0, 1, 0, 1})) ==
+			GenotypeFingerprint.fingerprint(new BinArrayIndividual(new byte [] {1, 0, 1, 1, 0, 0, 1, 0, 0})));
+		assertFalse(
+			GenotypeFingerprint.fingerprint(new int [] {1, 2, 3}) ==
+			GenotypeFingerprint.fingerprint(new int [] {1, 2, 3, 0}));
+	}
+}
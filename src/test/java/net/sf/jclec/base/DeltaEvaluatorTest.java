@@ -0,0 +1,115 @@
+package net.sf.jclec.base;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import net.sf.jclec.IFitness;
+import net.sf.jclec.IIndividual;
+import net.sf.jclec.IDeltaEvaluator;
+import net.sf.jclec.Population;
+import net.sf.jclec.binarray.BinArrayIndividual;
+import net.sf.jclec.binarray.BinArrayIndividualSpecies;
+import net.sf.jclec.binarray.mut.UniformMutator;
+import net.sf.jclec.fitness.SimpleValueFitness;
+import net.sf.jclec.fitness.ValueFitnessComparator;
+import net.sf.jclec.util.random.DummyRandGenFactory;
+
+/**
+ * Mutation records and IDeltaEvaluator tests.
+ */
+
+public class DeltaEvaluatorTest extends TestCase
+{
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	public DeltaEvaluatorTest(String name)
+	{
+		super(name);
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Unit test for delta evaluation of mutants
+	 */
+
+	public void testEvaluateDelta()
+	{
+		// Mutator context
+		Population pop = new Population();
+		DummyRandGenFactory randGenFactory = new DummyRandGenFactory();
+		randGenFactory.setDummySequence(new double [] {0.1, 0.2, 0.3, 0.4, 0.5, 0.6, 0.7, 0.8, 0.9});
+		pop.setRandGenFactory(randGenFactory);
+		pop.setSpecies(new BinArrayIndividualSpecies(new byte[] {-1, -1, -1, -1, -1, -1}));
+		UniformMutator mutator = new UniformMutator();
+		mutator.setLocusMutationProb(0.4);
+		mutator.contextualize(pop);
+		// Evaluated parent
+		OneMaxEvaluator evaluator = new OneMaxEvaluator();
+		List<IIndividual> parents = new ArrayList<IIndividual>();
+		parents.add(new BinArrayIndividual(new byte [] {1, 1, 1, 1, 1, 1}));
+		evaluator.evaluate(parents);
+		// Mutant records its parent and changed loci
+		List<IIndividual> sons = mutator.mutate(parents);
+		MutationRecord record = ((BinArrayIndividual) sons.get(0)).getMutationRecord();
+		assertSame(parents.get(0), record.getParent());
+		assertEquals(3, record.getChangedLoci().length);
+		assertEquals(0, record.getChangedLoci()[0]);
+		assertEquals(2, record.getChangedLoci()[2]);
+		// Mutant is evaluated incrementally
+		evaluator.evaluate(sons);
+		assertEquals(3.0, ((SimpleValueFitness) sons.get(0).getFitness()).getValue());
+		assertEquals(1, evaluator.fullEvaluations);
+		assertEquals(2, evaluator.getNumberOfEvaluations());
+		assertNull(((BinArrayIndividual) sons.get(0)).getMutationRecord());
+		// Records are discarded when the genotype changes
+		sons = mutator.mutate(parents);
+		BinArrayIndividual son = (BinArrayIndividual) sons.get(0);
+		son.setGenotype(son.getGenotype());
+		assertNull(son.getMutationRecord());
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------- Evaluator under test
+	/////////////////////////////////////////////////////////////////
+
+	@SuppressWarnings("serial")
+	private static class OneMaxEvaluator extends AbstractEvaluator implements IDeltaEvaluator
+	{
+		int fullEvaluations;
+
+		protected void evaluate(IIndividual ind)
+		{
+			fullEvaluations++;
+			double value = 0.0;
+			for (byte locus : ((BinArrayIndividual) ind).getGenotype()) {
+				value += locus;
+			}
+			ind.setFitness(new SimpleValueFitness(value));
+		}
+
+		public boolean evaluateDelta(IIndividual ind, IIndividual parent, int [] changedLoci)
+		{
+			byte [] genotype = ((BinArrayIndividual) ind).getGenotype();
+			byte [] pgenotype = ((BinArrayIndividual) parent).getGenotype();
+			double value = ((SimpleValueFitness) parent.getFitness()).getValue();
+			for (int locus : changedLoci) {
+				value += genotype[locus] - pgenotype[locus];
+			}
+			ind.setFitness(new SimpleValueFitness(value));
+			return true;
+		}
+
+		public Comparator<IFitness> getComparator()
+		{
+			return new ValueFitnessComparator();
+		}
+	}
+}
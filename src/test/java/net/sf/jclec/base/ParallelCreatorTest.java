@@ -0,0 +1,204 @@
+package net.sf.jclec.base;
+
+import java.util.List;
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+
+import net.sf.jclec.ISpecies;
+import net.sf.jclec.IIndividual;
+import net.sf.jclec.Population;
+
+import net.sf.jclec.binarray.BinArrayCreator;
+import net.sf.jclec.binarray.BinArrayIndividualSpecies;
+
+import net.sf.jclec.exprtree.IPrimitive;
+import net.sf.jclec.exprtree.ExprTreeCreator;
+import net.sf.jclec.exprtree.ExprTreeIndividual;
+import net.sf.jclec.exprtree.ExprTreeIndividualSpecies;
+import net.sf.jclec.exprtree.fun.X;
+import net.sf.jclec.exprtree.fun.Y;
+import net.sf.jclec.exprtree.fun.Z;
+import net.sf.jclec.exprtree.fun.Add;
+import net.sf.jclec.exprtree.fun.Mul;
+import net.sf.jclec.exprtree.fun.Sub;
+
+import net.sf.jclec.ge.GESchema;
+import net.sf.jclec.ge.GEIndividual;
+import net.sf.jclec.ge.GEIndividualSpecies;
+import net.sf.jclec.ge.cre.RampedHalfAndHalf;
+
+import net.sf.jclec.syntaxtree.TerminalNode;
+import net.sf.jclec.syntaxtree.NonTerminalNode;
+
+import net.sf.jclec.util.intset.Closure;
+import net.sf.jclec.util.intset.Interval;
+import net.sf.jclec.util.intset.IIntegerSet;
+import net.sf.jclec.util.random.RanecuFactory;
+
+/**
+ * ParallelCreator tests.
+ */
+
+public class ParallelCreatorTest extends TestCase
+{
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	public ParallelCreatorTest(String name)
+	{
+		super(name);
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Individuals do not depend on the number of threads
+	 */
+
+	public void testProvide()
+	{
+		List<IIndividual> expected = createCreator(1).provide(101);
+		assertEquals(101, expected.size());
+		for (int numberOfThreads : new int [] {2, 4}) {
+			List<IIndividual> result = createCreator(numberOfThreads).provide(101);
+			assertEquals(expected, result);
+		}
+		// Empty provision
+		assertTrue(createCreator(2).provide(0).isEmpty());
+	}
+
+	/**
+	 * Generators of successive calls are different
+	 */
+
+	public void testStreams()
+	{
+		ParallelCreator creator = createCreator(3);
+		List<IIndividual> first = creator.provide(40);
+		List<IIndividual> second = creator.provide(40);
+		assertEquals(40, second.size());
+		assertFalse(first.equals(second));
+	}
+
+	/**
+	 * Ramped half-and-half depths depend on the individual index, not on
+	 * the chunk that creates it
+	 */
+
+	public void testRampedHalfAndHalf()
+	{
+		String [] expected = {
+			"[5, 4, 8, 8, 4, 6, 2, 6] ( -> 0 false",
+			"[7, 2, 5, 5, 9, 1, 7, 7] (expr arg X) -> 2 true",
+			"[3, 2, 7, 6, 9, 5, 4, 0] (expr arg X) -> 2 true",
+			"[2, 6, 4, 3, 4, 8, 4, 9] (expr arg X) -> 2 true",
+			"[7, 7, 9, 4, 0, 0, 3, 9] (expr * expr arg Y expr arg X) -> 5 true",
+			"[0, 2, 1, 4, 3, 4, 9, 2] ( -> 0 false",
+			"[1, 0, 5, 2, 2, 6, 3, 2] ( -> 0 false",
+			"[0, 8, 8, 9, 0, 7, 9, 8] (expr arg X) -> 2 true"
+		};
+		for (int numberOfThreads : new int [] {1, 3}) {
+			List<IIndividual> result =
+				createCreator(createGESpecies(), new RampedHalfAndHalf(), numberOfThreads, 3).provide(8);
+			assertEquals(expected.length, result.size());
+			for (int i=0; i<expected.length; i++) {
+				GEIndividual ind = (GEIndividual) result.get(i);
+				assertEquals(expected[i], Arrays.toString(ind.getGenotype()) + " " 
+					+ ind.getPhenotype() + " " + ind.isFeasible());
+			}
+		}
+	}
+
+	/**
+	 * Expression trees do not depend on the number of threads
+	 */
+
+	public void testExprTreeCreator()
+	{
+		String [] expected = {
+			"(* Z Z)", "(- X Y)", "(- + Y Y - X Z)", "(- Y Y)", 
+			"(- Y Z)", "(Z)", "(X)", "(+ X Y)"
+		};
+		for (int numberOfThreads : new int [] {1, 3}) {
+			List<IIndividual> result =
+				createCreator(createExprTreeSpecies(), new ExprTreeCreator(), numberOfThreads, 3).provide(8);
+			assertEquals(expected.length, result.size());
+			for (int i=0; i<expected.length; i++) {
+				assertEquals(expected[i], ((ExprTreeIndividual) result.get(i)).getGenotype().toString());
+			}
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	private static ParallelCreator createCreator(int numberOfThreads)
+	{
+		byte [] schema = new byte[20];
+		Arrays.fill(schema, (byte) -1);
+		return createCreator(new BinArrayIndividualSpecies(schema), new BinArrayCreator(), numberOfThreads, 7);
+	}
+
+	private static ParallelCreator createCreator(ISpecies species, AbstractCreator decorated, int numberOfThreads, int chunkSize)
+	{
+		// Context
+		Population context = new Population();
+		RanecuFactory randGenFactory = new RanecuFactory();
+		randGenFactory.setSeed(987654321);
+		context.setRandGenFactory(randGenFactory);
+		context.setSpecies(species);
+		// Creator
+		ParallelCreator creator = new ParallelCreator();
+		creator.setDecorated(decorated);
+		creator.contextualize(context);
+		creator.setNumberOfThreads(numberOfThreads);
+		creator.setChunkSize(chunkSize);
+		return creator;
+	}
+
+	/**
+	 * expr := + expr expr | * expr expr | arg, arg := X | Y
+	 */
+
+	private static GEIndividualSpecies createGESpecies()
+	{
+		GESchema schema = new GESchema();
+		schema.setTerminals(new TerminalNode [] {
+				new TerminalNode("X", new X()),
+				new TerminalNode("Y", new Y()),
+				new TerminalNode("+", new Add()),
+				new TerminalNode("*", new Mul())
+		});
+		schema.setNonTerminals(new NonTerminalNode [] {
+				new NonTerminalNode("expr", new String [] {"+", "expr", "expr"}),
+				new NonTerminalNode("expr", new String [] {"*", "expr", "expr"}),
+				new NonTerminalNode("expr", new String [] {"arg"}),
+				new NonTerminalNode("arg", new String [] {"X"}),
+				new NonTerminalNode("arg", new String [] {"Y"})
+		});
+		schema.setRootSymbol("expr");
+		schema.setMaxDepthSize(5);
+		IIntegerSet [] loci = new IIntegerSet[8];
+		for (int i=0; i<loci.length; i++) {
+			loci[i] = new Interval(0, 9, Closure.ClosedClosed);
+		}
+		schema.setIndividualArrayGenotype(loci);
+		return new GEIndividualSpecies(schema);
+	}
+
+	private static ExprTreeIndividualSpecies createExprTreeSpecies()
+	{
+		ExprTreeIndividualSpecies species = new ExprTreeIndividualSpecies();
+		species.setMinTreeSize(1);
+		species.setMaxTreeSize(9);
+		species.setRootType(Double.class);
+		species.setFunctions(new IPrimitive [] {new Add(), new Mul(), new Sub()});
+		species.setTerminals(new IPrimitive [] {new X(), new Y(), new Z()});
+		return species;
+	}
+}
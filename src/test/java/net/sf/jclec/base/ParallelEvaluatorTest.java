@@ -0,0 +1,168 @@
+package net.sf.jclec.base;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import net.sf.jclec.IFitness;
+import net.sf.jclec.IIndividual;
+import net.sf.jclec.fitness.SimpleValueFitness;
+import net.sf.jclec.fitness.ValueFitnessComparator;
+import net.sf.jclec.realarray.RealArrayIndividual;
+import net.sf.jclec.util.EvaluationDeadline;
+
+/**
+ * AbstractParallelEvaluator tests.
+ */
+
+public class ParallelEvaluatorTest extends TestCase
+{
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	public ParallelEvaluatorTest(String name)
+	{
+		super(name);
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Unit test for the evaluate() method
+	 */
+
+	public void testEvaluate()
+	{
+		ParallelSphereEvaluator evaluator = new ParallelSphereEvaluator();
+		evaluator.setNumberOfThreads(3);
+		evaluator.setChunkSize(7);
+		evaluator.setUseReplicas(true);
+		// First generation
+		List<IIndividual> inds = createIndividuals(100);
+		evaluator.evaluate(inds);
+		for (IIndividual ind : inds) {
+			assertEquals(sphere(ind), ((SimpleValueFitness) ind.getFitness()).getValue());
+		}
+		assertEquals(100, evaluator.getNumberOfEvaluations());
+		// Evaluated individuals are not evaluated again
+		inds.addAll(createIndividuals(10));
+		evaluator.evaluate(inds);
+		assertEquals(110, evaluator.getNumberOfEvaluations());
+		// Evaluator can be used after being closed
+		evaluator.close();
+		evaluator.evaluate(createIndividuals(5));
+		assertEquals(115, evaluator.getNumberOfEvaluations());
+		evaluator.close();
+	}
+
+	/**
+	 * Unit test for evaluation timeouts
+	 */
+
+	public void testTimeout()
+	{
+		SlowSphereEvaluator evaluator = new SlowSphereEvaluator();
+		evaluator.setNumberOfThreads(2);
+		evaluator.setChunkSize(4);
+		evaluator.setEvaluationTimeout(50);
+		List<IIndividual> inds = createIndividuals(10);
+		// Runaway evaluation that checks its deadline
+		inds.add(new RealArrayIndividual(new double [] {1.0, 1.0, SlowSphereEvaluator.COOPERATIVE}));
+		// Runaway evaluation that ignores its deadline
+		inds.add(new RealArrayIndividual(new double [] {1.0, 1.0, SlowSphereEvaluator.RUNAWAY}));
+		inds.addAll(createIndividuals(5));
+		// The runaway evaluation only ends when it is released, so this
+		// call returns because its worker thread is abandoned
+		SlowSphereEvaluator.released = false;
+		try {
+			evaluator.evaluate(inds);
+			assertEquals(17, evaluator.getNumberOfEvaluations());
+			assertEquals(2, evaluator.getNumberOfTimeouts());
+			for (int i=0; i<inds.size(); i++) {
+				double value = ((SimpleValueFitness) inds.get(i).getFitness()).getValue();
+				if (i == 10 || i == 11) {
+					assertEquals(Double.MAX_VALUE, value);
+				}
+				else {
+					assertEquals(sphere(inds.get(i)), value);
+				}
+			}
+		}
+		finally {
+			SlowSphereEvaluator.released = true;
+			evaluator.close();
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	private static List<IIndividual> createIndividuals(int size)
+	{
+		List<IIndividual> inds = new ArrayList<IIndividual>();
+		for (int i=0; i<size; i++) {
+			inds.add(new RealArrayIndividual(new double [] {0.1*i, -0.2*i, 1.0}));
+		}
+		return inds;
+	}
+
+	private static double sphere(IIndividual ind)
+	{
+		double fvalue = 0.0;
+		for (double gi : ((RealArrayIndividual) ind).getGenotype()) fvalue += gi*gi;
+		return fvalue;
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------- Evaluator under test
+	/////////////////////////////////////////////////////////////////
+
+	@SuppressWarnings("serial")
+	public static class ParallelSphereEvaluator extends AbstractParallelEvaluator
+	{
+		private static final Comparator<IFitness> COMPARATOR = new ValueFitnessComparator(true);
+
+		protected void evaluate(IIndividual ind)
+		{
+			ind.setFitness(new SimpleValueFitness(sphere(ind)));
+		}
+
+		public Comparator<IFitness> getComparator()
+		{
+			return COMPARATOR;
+		}
+	}
+
+	@SuppressWarnings("serial")
+	public static class SlowSphereEvaluator extends ParallelSphereEvaluator
+	{
+		static final double COOPERATIVE = -1.0;
+
+		static final double RUNAWAY = -2.0;
+
+		static volatile boolean released = true;
+
+		protected void evaluate(IIndividual ind)
+		{
+			double marker = ((RealArrayIndividual) ind).getGenotype()[2];
+			if (marker == COOPERATIVE) {
+				while (true) {
+					EvaluationDeadline.check();
+				}
+			}
+			if (marker == RUNAWAY) {
+				while (!released) {
+					Thread.interrupted();
+					Thread.yield();
+				}
+			}
+			super.evaluate(ind);
+		}
+	}
+}
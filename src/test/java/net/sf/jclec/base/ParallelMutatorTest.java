@@ -0,0 +1,112 @@
+package net.sf.jclec.base;
+
+import java.util.List;
+import java.util.Arrays;
+import java.util.ArrayList;
+
+import junit.framework.TestCase;
+
+import net.sf.jclec.IIndividual;
+import net.sf.jclec.Population;
+
+import net.sf.jclec.binarray.BinArrayIndividual;
+import net.sf.jclec.binarray.BinArrayIndividualSpecies;
+import net.sf.jclec.binarray.mut.UniformMutator;
+
+import net.sf.jclec.util.random.Ranecu;
+import net.sf.jclec.util.random.IRandGen;
+import net.sf.jclec.util.random.RanecuFactory;
+
+/**
+ * ParallelMutator tests.
+ */
+
+public class ParallelMutatorTest extends TestCase
+{
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	public ParallelMutatorTest(String name)
+	{
+		super(name);
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Mutants do not depend on the number of threads
+	 */
+
+	public void testMutate()
+	{
+		List<IIndividual> parents = createParents(101);
+		List<IIndividual> expected = mutate(parents, 1);
+		assertEquals(101, expected.size());
+		for (int numberOfThreads : new int [] {2, 4}) {
+			List<IIndividual> result = mutate(parents, numberOfThreads);
+			assertEquals(expected, result);
+		}
+		// Parents are not modified
+		assertEquals(createParents(101), parents);
+	}
+
+	/**
+	 * Generators of successive calls are different
+	 */
+
+	public void testStreams()
+	{
+		List<IIndividual> parents = createParents(40);
+		ParallelMutator mutator = createMutator(3);
+		List<IIndividual> first = mutator.mutate(parents);
+		List<IIndividual> second = mutator.mutate(parents);
+		assertEquals(first.size(), second.size());
+		assertFalse(first.equals(second));
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	private static List<IIndividual> mutate(List<IIndividual> parents, int numberOfThreads)
+	{
+		return createMutator(numberOfThreads).mutate(parents);
+	}
+
+	private static ParallelMutator createMutator(int numberOfThreads)
+	{
+		// Context
+		Population context = new Population();
+		RanecuFactory randGenFactory = new RanecuFactory();
+		randGenFactory.setSeed(987654321);
+		context.setRandGenFactory(randGenFactory);
+		byte [] schema = new byte[20];
+		Arrays.fill(schema, (byte) -1);
+		context.setSpecies(new BinArrayIndividualSpecies(schema));
+		// Mutator
+		UniformMutator decorated = new UniformMutator();
+		decorated.setLocusMutationProb(0.2);
+		ParallelMutator mutator = new ParallelMutator(context);
+		mutator.setDecorated(decorated);
+		mutator.setNumberOfThreads(numberOfThreads);
+		mutator.setChunkSize(3);
+		return mutator;
+	}
+
+	private static List<IIndividual> createParents(int size)
+	{
+		IRandGen randgen = new Ranecu(1234, 5678);
+		List<IIndividual> result = new ArrayList<IIndividual>();
+		for (int i=0; i<size; i++) {
+			byte [] genotype = new byte[20];
+			for (int j=0; j<20; j++) {
+				genotype[j] = randgen.coin() ? (byte) 1 : (byte) 0;
+			}
+			result.add(new BinArrayIndividual(genotype));
+		}
+		return result;
+	}
+}
@@ -0,0 +1,113 @@
+package net.sf.jclec.base;
+
+import java.util.List;
+import java.util.Arrays;
+import java.util.ArrayList;
+
+import junit.framework.TestCase;
+
+import net.sf.jclec.IIndividual;
+import net.sf.jclec.Population;
+
+import net.sf.jclec.binarray.BinArrayIndividual;
+import net.sf.jclec.binarray.BinArrayIndividualSpecies;
+import net.sf.jclec.binarray.rec.UniformCrossover;
+
+import net.sf.jclec.util.random.Ranecu;
+import net.sf.jclec.util.random.IRandGen;
+import net.sf.jclec.util.random.RanecuFactory;
+
+/**
+ * ParallelRecombinator tests.
+ */
+
+public class ParallelRecombinatorTest extends TestCase
+{
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	public ParallelRecombinatorTest(String name)
+	{
+		super(name);
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Sons do not depend on the number of threads
+	 */
+
+	public void testRecombine()
+	{
+		List<IIndividual> parents = createParents(101);
+		List<IIndividual> expected = recombine(parents, 1);
+		// Odd parent is not recombined
+		assertEquals(100, expected.size());
+		for (int numberOfThreads : new int [] {2, 4}) {
+			List<IIndividual> result = recombine(parents, numberOfThreads);
+			assertEquals(expected, result);
+		}
+		// Parents are not modified
+		assertEquals(createParents(101), parents);
+	}
+
+	/**
+	 * Generators of successive calls are different
+	 */
+
+	public void testStreams()
+	{
+		List<IIndividual> parents = createParents(40);
+		ParallelRecombinator recombinator = createRecombinator(3);
+		List<IIndividual> first = recombinator.recombine(parents);
+		List<IIndividual> second = recombinator.recombine(parents);
+		assertEquals(first.size(), second.size());
+		assertFalse(first.equals(second));
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	private static List<IIndividual> recombine(List<IIndividual> parents, int numberOfThreads)
+	{
+		return createRecombinator(numberOfThreads).recombine(parents);
+	}
+
+	private static ParallelRecombinator createRecombinator(int numberOfThreads)
+	{
+		// Context
+		Population context = new Population();
+		RanecuFactory randGenFactory = new RanecuFactory();
+		randGenFactory.setSeed(987654321);
+		context.setRandGenFactory(randGenFactory);
+		byte [] schema = new byte[20];
+		Arrays.fill(schema, (byte) -1);
+		context.setSpecies(new BinArrayIndividualSpecies(schema));
+		// Recombinator
+		UniformCrossover decorated = new UniformCrossover();
+		decorated.setLocusCrossoverProb(0.5);
+		ParallelRecombinator recombinator = new ParallelRecombinator(context);
+		recombinator.setDecorated(decorated);
+		recombinator.setNumberOfThreads(numberOfThreads);
+		recombinator.setChunkSize(3);
+		return recombinator;
+	}
+
+	private static List<IIndividual> createParents(int size)
+	{
+		IRandGen randgen = new Ranecu(1234, 5678);
+		List<IIndividual> result = new ArrayList<IIndividual>();
+		for (int i=0; i<size; i++) {
+			byte [] genotype = new byte[20];
+			for (int j=0; j<20; j++) {
+				genotype[j] = randgen.coin() ? (byte) 1 : (byte) 0;
+			}
+			result.add(new BinArrayIndividual(genotype));
+		}
+		return result;
+	}
+}
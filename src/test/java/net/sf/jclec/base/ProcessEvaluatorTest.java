@@ -0,0 +1,115 @@
+package net.sf.jclec.base;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import net.sf.jclec.IIndividual;
+import net.sf.jclec.fitness.SimpleValueFitness;
+import net.sf.jclec.realarray.RealArrayIndividual;
+import net.sf.jclec.realarray.SphereEvaluator;
+
+/**
+ * ProcessEvaluator tests.
+ */
+
+public class ProcessEvaluatorTest extends TestCase
+{
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	public ProcessEvaluatorTest(String name)
+	{
+		super(name);
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Unit test for the evaluate() method, including the restart of
+	 * a dead worker process
+	 */
+
+	public void testEvaluate() throws Exception
+	{
+		ProcessEvaluator evaluator = new ProcessEvaluator(new SphereEvaluator());
+		evaluator.setNumberOfWorkers(2);
+		evaluator.setBatchSize(3);
+		try {
+			List<IIndividual> inds = createIndividuals(10);
+			evaluator.evaluate(inds);
+			assertFitness(inds);
+			assertEquals(10, evaluator.getNumberOfEvaluations());
+			// Kill the worker processes
+			for (ProcessEvaluator.Worker worker : evaluator.workers) {
+				worker.process.destroy();
+				worker.process.waitFor();
+			}
+			inds = createIndividuals(5);
+			evaluator.evaluate(inds);
+			assertFitness(inds);
+			assertEquals(15, evaluator.getNumberOfEvaluations());
+		}
+		finally {
+			evaluator.close();
+		}
+	}
+
+	/**
+	 * Worker processes exit normally when they are stopped, and when
+	 * their standard input is closed
+	 */
+
+	public void testStop() throws Exception
+	{
+		ProcessEvaluator evaluator = new ProcessEvaluator(new SphereEvaluator());
+		evaluator.setNumberOfWorkers(2);
+		evaluator.setBatchSize(3);
+		List<Process> processes = new ArrayList<Process>();
+		try {
+			evaluator.evaluate(createIndividuals(10));
+			ProcessEvaluator.Worker started = null;
+			for (ProcessEvaluator.Worker worker : evaluator.workers) {
+				if (worker.process != null) {
+					processes.add(worker.process);
+					started = worker;
+				}
+			}
+			assertNotNull(started);
+			// Pipe closed without the end of batches
+			started.out.close();
+			assertEquals(0, started.process.waitFor());
+		}
+		finally {
+			evaluator.close();
+		}
+		for (Process process : processes) {
+			assertEquals(0, process.waitFor());
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	private List<IIndividual> createIndividuals(int size)
+	{
+		List<IIndividual> inds = new ArrayList<IIndividual>();
+		for (int i=0; i<size; i++) {
+			inds.add(new RealArrayIndividual(new double [] {i, 0.5 * i, -1.0}));
+		}
+		return inds;
+	}
+
+	private void assertFitness(List<IIndividual> inds)
+	{
+		for (int i=0; i<inds.size(); i++) {
+			double expected = i * i + 0.25 * i * i + 1.0;
+			assertEquals(expected, ((SimpleValueFitness) inds.get(i).getFitness()).getValue(), 1e-12);
+		}
+	}
+}
@@ -1,5 +1,6 @@
 package net.sf.jclec.binarray;
 
+import java.util.List;
 import java.util.ArrayList;
 
 import net.sf.jclec.ISystem;
@@ -9,6 +10,8 @@ import net.sf.jclec.IMutatorTest;
 
 import net.sf.jclec.util.random.DummyRandGenFactory;
 
+import net.sf.jclec.fitness.SimpleValueFitness;
+
 /**
  * Unitary test for class that extends BinArrayMutator.
  * 
@@ -55,4 +58,32 @@ public abstract class BinArrayMutatorTest<M extends BinArrayMutator> extends IMu
 		parents = new ArrayList<IIndividual> ();
 		parents.add(new BinArrayIndividual(new byte [] {1, 1, 1, 1, 1, 1}));
 	}
+
+	/**
+	 * Unit test for the mutate() method with recycled individuals
+	 */
+
+	public void testMutateRecycled()
+	{
+		// Recycled individuals (evaluated copies of parents)
+		List<IIndividual> recycled = new ArrayList<IIndividual> ();
+		for (IIndividual parent : parents) {
+			IIndividual ind = parent.copy();
+			ind.setFitness(new SimpleValueFitness(0.0));
+			recycled.add(ind);
+		}
+		// Mutate parents
+		List<IIndividual> sons = new ArrayList<IIndividual> ();
+		List<IIndividual> result = tool.mutate(parents, recycled, sons);
+		assertSame(sons, result);
+		// Mutants are expected, and recycled individuals are reused first
+		assertEquals(expected.size(), result.size());
+		for (int i=0; i<expected.size(); i++) {
+			assertEquals(expected.get(i), result.get(i));
+			assertNull(result.get(i).getFitness());
+			if (i < recycled.size()) {
+				assertSame(recycled.get(i), result.get(i));
+			}
+		}
+	}
 }
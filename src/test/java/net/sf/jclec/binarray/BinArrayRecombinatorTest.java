@@ -1,5 +1,6 @@
 package net.sf.jclec.binarray;
 
+import java.util.List;
 import java.util.ArrayList;
 
 import net.sf.jclec.IIndividual;
@@ -8,6 +9,8 @@ import net.sf.jclec.ISystem;
 import net.sf.jclec.Population;
 import net.sf.jclec.util.random.DummyRandGenFactory;
 
+import net.sf.jclec.fitness.SimpleValueFitness;
+
 public abstract class BinArrayRecombinatorTest<R extends BinArrayRecombinator> extends IRecombinatorTest<R> 
 {
 	public BinArrayRecombinatorTest(Class<R> toolClass, String testName) 
@@ -41,4 +44,32 @@ public abstract class BinArrayRecombinatorTest<R extends BinArrayRecombinator> e
 		parents.add(new BinArrayIndividual(new byte [] {0,0,0,0,0,0}));
 		parents.add(new BinArrayIndividual(new byte [] {1,1,1,1,1,1}));
 	}
+
+	/**
+	 * Unit test for the recombine() method with recycled individuals
+	 */
+
+	public void testRecombineRecycled()
+	{
+		// Recycled individuals (evaluated copies of parents)
+		List<IIndividual> recycled = new ArrayList<IIndividual> ();
+		for (IIndividual parent : parents) {
+			IIndividual ind = parent.copy();
+			ind.setFitness(new SimpleValueFitness(0.0));
+			recycled.add(ind);
+		}
+		// Recombine parents
+		List<IIndividual> sons = new ArrayList<IIndividual> ();
+		List<IIndividual> result = tool.recombine(parents, recycled, sons);
+		assertSame(sons, result);
+		// Sons are expected, and recycled individuals are reused first
+		assertEquals(expected.size(), result.size());
+		for (int i=0; i<expected.size(); i++) {
+			assertEquals(expected.get(i), result.get(i));
+			assertNull(result.get(i).getFitness());
+			if (i < recycled.size()) {
+				assertSame(recycled.get(i), result.get(i));
+			}
+		}
+	}
 }
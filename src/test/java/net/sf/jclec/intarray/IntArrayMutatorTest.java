@@ -1,5 +1,6 @@
 package net.sf.jclec.intarray;
 
+import java.util.List;
 import java.util.ArrayList;
 
 import net.sf.jclec.ISystem;
@@ -13,6 +14,8 @@ import net.sf.jclec.util.intset.IIntegerSet;
 
 import net.sf.jclec.util.random.DummyRandGenFactory;
 
+import net.sf.jclec.fitness.SimpleValueFitness;
+
 /**
  * Unitary test for class that extends BinArrayMutator.
  * 
@@ -68,4 +71,32 @@ public abstract class IntArrayMutatorTest<M extends IntArrayMutator> extends IMu
 		parents = new ArrayList<IIndividual> ();
 		parents.add(new IntArrayIndividual(new int [] {1, 1, 1, 1, 1, 1}));
 	}
+
+	/**
+	 * Unit test for the mutate() method with recycled individuals
+	 */
+
+	public void testMutateRecycled()
+	{
+		// Recycled individuals (evaluated copies of parents)
+		List<IIndividual> recycled = new ArrayList<IIndividual> ();
+		for (IIndividual parent : parents) {
+			IIndividual ind = parent.copy();
+			ind.setFitness(new SimpleValueFitness(0.0));
+			recycled.add(ind);
+		}
+		// Mutate parents
+		List<IIndividual> sons = new ArrayList<IIndividual> ();
+		List<IIndividual> result = tool.mutate(parents, recycled, sons);
+		assertSame(sons, result);
+		// Mutants are expected, and recycled individuals are reused first
+		assertEquals(expected.size(), result.size());
+		for (int i=0; i<expected.size(); i++) {
+			assertEquals(expected.get(i), result.get(i));
+			assertNull(result.get(i).getFitness());
+			if (i < recycled.size()) {
+				assertSame(recycled.get(i), result.get(i));
+			}
+		}
+	}
 }
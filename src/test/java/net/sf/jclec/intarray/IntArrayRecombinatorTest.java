@@ -1,5 +1,6 @@
 package net.sf.jclec.intarray;
 
+import java.util.List;
 import java.util.ArrayList;
 
 import net.sf.jclec.IIndividual;
@@ -11,6 +12,8 @@ import net.sf.jclec.util.intset.IIntegerSet;
 import net.sf.jclec.util.intset.Interval;
 import net.sf.jclec.util.random.DummyRandGenFactory;
 
+import net.sf.jclec.fitness.SimpleValueFitness;
+
 public abstract class IntArrayRecombinatorTest<R extends IntArrayRecombinator> extends IRecombinatorTest<R> 
 {
 	public IntArrayRecombinatorTest(Class<R> toolClass, String testName) 
@@ -53,4 +56,32 @@ public abstract class IntArrayRecombinatorTest<R extends IntArrayRecombinator> e
 		parents.add(new IntArrayIndividual(new int [] {0,0,0,0,0,0}));
 		parents.add(new IntArrayIndividual(new int [] {1,1,1,1,1,1}));
 	}
+
+	/**
+	 * Unit test for the recombine() method with recycled individuals
+	 */
+
+	public void testRecombineRecycled()
+	{
+		// Recycled individuals (evaluated copies of parents)
+		List<IIndividual> recycled = new ArrayList<IIndividual> ();
+		for (IIndividual parent : parents) {
+			IIndividual ind = parent.copy();
+			ind.setFitness(new SimpleValueFitness(0.0));
+			recycled.add(ind);
+		}
+		// Recombine parents
+		List<IIndividual> sons = new ArrayList<IIndividual> ();
+		List<IIndividual> result = tool.recombine(parents, recycled, sons);
+		assertSame(sons, result);
+		// Sons are expected, and recycled individuals are reused first
+		assertEquals(expected.size(), result.size());
+		for (int i=0; i<expected.size(); i++) {
+			assertEquals(expected.get(i), result.get(i));
+			assertNull(result.get(i).getFitness());
+			if (i < recycled.size()) {
+				assertSame(recycled.get(i), result.get(i));
+			}
+		}
+	}
 }
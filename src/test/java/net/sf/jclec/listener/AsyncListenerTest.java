@@ -0,0 +1,216 @@
+package net.sf.jclec.listener;
+
+import java.util.List;
+import java.util.ArrayList;
+
+import junit.framework.TestCase;
+
+import net.sf.jclec.IIndividual;
+import net.sf.jclec.AlgorithmEvent;
+import net.sf.jclec.IAlgorithmListener;
+
+import net.sf.jclec.algorithm.PopulationAlgorithm;
+import net.sf.jclec.algorithm.PopulationSnapshot;
+
+import net.sf.jclec.fitness.IValueFitness;
+
+import net.sf.jclec.util.IndividualStatistics;
+
+import org.apache.commons.configuration.Configuration;
+import org.apache.commons.configuration.XMLConfiguration;
+
+/**
+ * AsyncListener tests.
+ */
+
+public class AsyncListenerTest extends TestCase
+{
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	public AsyncListenerTest(String name)
+	{
+		super(name);
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Configuration of the decorated listener
+	 */
+
+	public void testConfigure() throws Exception
+	{
+		AsyncListener listener = new AsyncListener();
+		listener.configure(createConfiguration().subset("listener"));
+		assertEquals(4, listener.getBufferSize());
+		assertEquals(AsyncListener.BLOCK, listener.getOverflowPolicy());
+		PopulationReporter reporter = (PopulationReporter) listener.getDecorated();
+		assertEquals(10, reporter.getReportFrequency());
+	}
+
+	/**
+	 * With the block policy, the decorated listener receives the same
+	 * states that a synchronous listener
+	 */
+
+	public void testBlock() throws Exception
+	{
+		PopulationAlgorithm algorithm = createAlgorithm();
+		Recorder expected = new Recorder(0);
+		Recorder actual = new Recorder(1);
+		AsyncListener listener = new AsyncListener(actual);
+		listener.setBufferSize(2);
+		listener.setOverflowPolicy(AsyncListener.BLOCK);
+		algorithm.addListener(expected);
+		algorithm.addListener(listener);
+		algorithm.execute();
+		assertTrue(actual.finished);
+		assertEquals(0, listener.getNumberOfDroppedEvents());
+		assertEquals(expected.generations, actual.generations);
+		assertEquals(expected.bestFitness, actual.bestFitness);
+		assertEquals(51, expected.generations.size());
+	}
+
+	/**
+	 * With drop policies, slow listeners lose iterations, but not the
+	 * last event
+	 */
+
+	public void testDrop() throws Exception
+	{
+		for (String policy : new String [] {AsyncListener.DROP_OLDEST, AsyncListener.DROP_NEWEST}) {
+			PopulationAlgorithm algorithm = createAlgorithm();
+			Recorder expected = new Recorder(0);
+			Recorder actual = new Recorder(5);
+			AsyncListener listener = new AsyncListener(actual);
+			listener.setBufferSize(2);
+			listener.setOverflowPolicy(policy);
+			algorithm.addListener(expected);
+			algorithm.addListener(listener);
+			algorithm.execute();
+			assertTrue(actual.finished);
+			assertTrue(listener.getNumberOfDroppedEvents() > 0);
+			assertEquals(expected.generations.size(),
+				actual.generations.size() + listener.getNumberOfDroppedEvents());
+			// Received states are correct and in order
+			assertEquals(Integer.valueOf(0), actual.generations.get(0));
+			assertEquals(Integer.valueOf(50), actual.generations.get(actual.generations.size()-1));
+			for (int i=0; i<actual.generations.size(); i++) {
+				int generation = actual.generations.get(i);
+				assertEquals(expected.bestFitness.get(generation), actual.bestFitness.get(i));
+				if (i > 0) {
+					assertTrue(generation > actual.generations.get(i-1));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Snapshots do not change when the algorithm modifies its individuals
+	 */
+
+	public void testSnapshotCopies() throws Exception
+	{
+		PopulationAlgorithm algorithm = createAlgorithm();
+		algorithm.execute();
+		List<IIndividual> inhabitants = algorithm.getInhabitants();
+		double [] avgvar = IndividualStatistics.averageFitnessAndFitnessVariance(inhabitants);
+		PopulationSnapshot snapshot = new PopulationSnapshot(algorithm);
+		double [] values = snapshot.getFitnessValues();
+		assertEquals(avgvar[0], snapshot.getAverageFitness(), 1e-9);
+		assertEquals(avgvar[1], snapshot.getFitnessVariance(), 1e-9);
+		assertEquals(IndividualStatistics.worstIndividual(inhabitants, snapshot.getComparator()),
+			snapshot.getWorstIndividual());
+		// Modify fitness objects in place
+		for (IIndividual ind : inhabitants) {
+			((IValueFitness) ind.getFitness()).setValue(-1.0);
+		}
+		for (int i=0; i<values.length; i++) {
+			IIndividual copy = snapshot.getInhabitants().get(i);
+			assertNotSame(inhabitants.get(i), copy);
+			assertEquals(values[i], ((IValueFitness) copy.getFitness()).getValue(), 0.0);
+		}
+		assertEquals(avgvar[0], snapshot.getAverageFitness(), 1e-9);
+		assertEquals(values[snapshot.getInhabitants().indexOf(snapshot.getBestIndividual())],
+			((IValueFitness) snapshot.getBestIndividual().getFitness()).getValue(), 0.0);
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	private Configuration createConfiguration() throws Exception
+	{
+		return new XMLConfiguration("src/test/resources/net/sf/jclec/listener/AsyncListener.config.xml").subset("process");
+	}
+
+	private PopulationAlgorithm createAlgorithm() throws Exception
+	{
+		Configuration configuration = createConfiguration();
+		PopulationAlgorithm algorithm = (PopulationAlgorithm)
+			Class.forName(configuration.getString("[@algorithm-type]")).newInstance();
+		algorithm.configure(configuration);
+		return algorithm;
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------------- Private classes
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Listener that records generations and best fitness values.
+	 */
+
+	private static class Recorder implements IAlgorithmListener
+	{
+		final List<Integer> generations = new ArrayList<Integer>();
+
+		final List<Double> bestFitness = new ArrayList<Double>();
+
+		final long delay;
+
+		volatile boolean finished;
+
+		Recorder(long delay)
+		{
+			this.delay = delay;
+		}
+
+		public void algorithmStarted(AlgorithmEvent event)
+		{
+			record(event);
+		}
+
+		public void iterationCompleted(AlgorithmEvent event)
+		{
+			record(event);
+		}
+
+		public void algorithmFinished(AlgorithmEvent event)
+		{
+			record(event);
+			finished = true;
+		}
+
+		public void algorithmTerminated(AlgorithmEvent event)
+		{
+		}
+
+		private void record(AlgorithmEvent event)
+		{
+			PopulationSnapshot snapshot = PopulationSnapshot.of(event);
+			generations.add(snapshot.getGeneration());
+			bestFitness.add(snapshot.getFitnessValues()[snapshot.getInhabitants().indexOf(snapshot.getBestIndividual())]);
+			try {
+				Thread.sleep(delay);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+}
@@ -23,6 +23,8 @@ public class AllRealArrayTests
 		TestSuite suite = new TestSuite("Test for net.sf.jclec.realarray");
 		//$JUnit-BEGIN$
 		suite.addTestSuite(RealArrayIndividualSpeciesTest.class);
+		suite.addTestSuite(RealArrayBatchEvaluatorTest.class);
+		suite.addTestSuite(SurrogateEvaluatorTest.class);
 		
 		suite.addTestSuite(FlatCrossoverTest.class);
 		suite.addTestSuite(WrightCrossoverTest.class);
@@ -0,0 +1,92 @@
+package net.sf.jclec.realarray;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import net.sf.jclec.IFitness;
+import net.sf.jclec.IIndividual;
+import net.sf.jclec.fitness.SimpleValueFitness;
+import net.sf.jclec.fitness.ValueFitnessComparator;
+
+/**
+ * RealArrayBatchEvaluator tests.
+ */
+
+public class RealArrayBatchEvaluatorTest extends TestCase
+{
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	public RealArrayBatchEvaluatorTest(String name)
+	{
+		super(name);
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Unit test for the evaluate() method
+	 */
+
+	public void testEvaluate()
+	{
+		SphereBatchEvaluator evaluator = new SphereBatchEvaluator();
+		SphereEvaluator reference = new SphereEvaluator();
+		List<IIndividual> inds = new ArrayList<IIndividual>();
+		List<IIndividual> refs = new ArrayList<IIndividual>();
+		for (int i=0; i<7; i++) {
+			double [] genotype = {i, -0.5 * i, 2.0, 1.0 / (i + 1)};
+			inds.add(new RealArrayIndividual(genotype));
+			refs.add(new RealArrayIndividual(genotype.clone()));
+		}
+		// Evaluated individuals are skipped
+		inds.get(3).setFitness(new SimpleValueFitness(-1.0));
+		evaluator.evaluate(inds);
+		reference.evaluate(refs);
+		assertEquals(6, evaluator.getNumberOfEvaluations());
+		assertEquals(1, evaluator.batches);
+		for (int i=0; i<7; i++) {
+			double value = ((SimpleValueFitness) inds.get(i).getFitness()).getValue();
+			if (i == 3) {
+				assertEquals(-1.0, value);
+			}
+			else {
+				assertEquals(((SimpleValueFitness) refs.get(i).getFitness()).getValue(), value, 1e-12);
+			}
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------ Inner classes
+	/////////////////////////////////////////////////////////////////
+
+	@SuppressWarnings("serial")
+	private static class SphereBatchEvaluator extends RealArrayBatchEvaluator
+	{
+		int batches;
+
+		@Override
+		protected void evaluate(double [] genotypes, int size, int length, double [] fitness)
+		{
+			batches++;
+			for (int i=0, k=0; i<size; i++) {
+				double value = 0.0;
+				for (int j=0; j<length; j++, k++) {
+					value += genotypes[k] * genotypes[k];
+				}
+				fitness[i] = value;
+			}
+		}
+
+		public Comparator<IFitness> getComparator()
+		{
+			return new ValueFitnessComparator(true);
+		}
+	}
+}
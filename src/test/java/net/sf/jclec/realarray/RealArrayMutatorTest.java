@@ -1,5 +1,6 @@
 package net.sf.jclec.realarray;
 
+import java.util.List;
 import java.util.ArrayList;
 
 import net.sf.jclec.ISystem;
@@ -16,6 +17,8 @@ import net.sf.jclec.util.random.Ranecu;
 import net.sf.jclec.util.random.IRandGen;
 import net.sf.jclec.util.random.IRandGenFactory;
 
+import net.sf.jclec.fitness.SimpleValueFitness;
+
 /**
  * Unit tests for all RealArrayMutator subclasses
  *  
@@ -77,4 +80,32 @@ public abstract class RealArrayMutatorTest<M extends RealArrayMutator> extends I
 		parents = new ArrayList<IIndividual>();
 		parents.add(new RealArrayIndividual(new double [] {-4.5, -3.9, 2.1, 4.5}));
 	}
+
+	/**
+	 * Unit test for the mutate() method with recycled individuals
+	 */
+
+	public void testMutateRecycled()
+	{
+		// Recycled individuals (evaluated copies of parents)
+		List<IIndividual> recycled = new ArrayList<IIndividual> ();
+		for (IIndividual parent : parents) {
+			IIndividual ind = parent.copy();
+			ind.setFitness(new SimpleValueFitness(0.0));
+			recycled.add(ind);
+		}
+		// Mutate parents
+		List<IIndividual> sons = new ArrayList<IIndividual> ();
+		List<IIndividual> result = tool.mutate(parents, recycled, sons);
+		assertSame(sons, result);
+		// Mutants are expected, and recycled individuals are reused first
+		assertEquals(expected.size(), result.size());
+		for (int i=0; i<expected.size(); i++) {
+			assertEquals(expected.get(i), result.get(i));
+			assertNull(result.get(i).getFitness());
+			if (i < recycled.size()) {
+				assertSame(recycled.get(i), result.get(i));
+			}
+		}
+	}
 }
@@ -1,5 +1,6 @@
 package net.sf.jclec.realarray;
 
+import java.util.List;
 import java.util.ArrayList;
 
 import net.sf.jclec.ISystem;
@@ -15,6 +16,8 @@ import net.sf.jclec.util.random.Ranecu;
 import net.sf.jclec.util.random.IRandGen;
 import net.sf.jclec.util.random.IRandGenFactory;
 
+import net.sf.jclec.fitness.SimpleValueFitness;
+
 /**
  * Unit tests for all RealArrayRecombinator subclasses
  *  
@@ -73,4 +76,32 @@ public abstract class RealArrayRecombinatorTest<R extends RealArrayRecombinator>
 		// Return result
 		return pop;	
 	}
+
+	/**
+	 * Unit test for the recombine() method with recycled individuals
+	 */
+
+	public void testRecombineRecycled()
+	{
+		// Recycled individuals (evaluated copies of parents)
+		List<IIndividual> recycled = new ArrayList<IIndividual> ();
+		for (IIndividual parent : parents) {
+			IIndividual ind = parent.copy();
+			ind.setFitness(new SimpleValueFitness(0.0));
+			recycled.add(ind);
+		}
+		// Recombine parents
+		List<IIndividual> sons = new ArrayList<IIndividual> ();
+		List<IIndividual> result = tool.recombine(parents, recycled, sons);
+		assertSame(sons, result);
+		// Sons are expected, and recycled individuals are reused first
+		assertEquals(expected.size(), result.size());
+		for (int i=0; i<expected.size(); i++) {
+			assertEquals(expected.get(i), result.get(i));
+			assertNull(result.get(i).getFitness());
+			if (i < recycled.size()) {
+				assertSame(recycled.get(i), result.get(i));
+			}
+		}
+	}
 }
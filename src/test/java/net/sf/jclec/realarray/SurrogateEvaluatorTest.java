@@ -0,0 +1,77 @@
+package net.sf.jclec.realarray;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import net.sf.jclec.IIndividual;
+import net.sf.jclec.fitness.ApproximateValueFitness;
+import net.sf.jclec.fitness.SimpleValueFitness;
+
+/**
+ * SurrogateEvaluator tests.
+ */
+
+public class SurrogateEvaluatorTest extends TestCase
+{
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	public SurrogateEvaluatorTest(String name)
+	{
+		super(name);
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Unit test for the evaluate() method
+	 */
+
+	public void testEvaluate()
+	{
+		SurrogateEvaluator evaluator = new SurrogateEvaluator(new SphereEvaluator());
+		evaluator.setNumberOfNeighbors(3);
+		evaluator.setEvaluatedFraction(0.4);
+		// Archive is filled with real evaluations
+		List<IIndividual> inds = new ArrayList<IIndividual>();
+		for (int i=0; i<10; i++) {
+			inds.add(new RealArrayIndividual(new double [] {i - 5.0, 0.5 * i}));
+		}
+		evaluator.evaluate(inds);
+		assertEquals(10, evaluator.getNumberOfEvaluations());
+		assertEquals(0, evaluator.getNumberOfPredictions());
+		// Only the most promising individuals are evaluated
+		inds.clear();
+		for (int i=0; i<10; i++) {
+			inds.add(new RealArrayIndividual(new double [] {4.0 - i, 0.5 * i + 0.25}));
+		}
+		// This genotype is archived, so it is predicted exactly
+		inds.add(new RealArrayIndividual(new double [] {4.0, 4.5}));
+		evaluator.evaluate(inds);
+		assertEquals(15, evaluator.getNumberOfEvaluations());
+		assertEquals(6, evaluator.getNumberOfPredictions());
+		assertFalse(Double.isNaN(evaluator.getMeanPredictionError()));
+		int approximate = 0;
+		double worstEvaluated = 0.0, bestPredicted = Double.MAX_VALUE;
+		for (IIndividual ind : inds) {
+			double value = ((SimpleValueFitness) ind.getFitness()).getValue();
+			if (ind.getFitness() instanceof ApproximateValueFitness) {
+				approximate++;
+				bestPredicted = Math.min(bestPredicted, value);
+			}
+			else {
+				worstEvaluated = Math.max(worstEvaluated, value);
+			}
+		}
+		assertEquals(6, approximate);
+		assertEquals(16.0 + 20.25, ((SimpleValueFitness) inds.get(10).getFitness()).getValue());
+		assertTrue(inds.get(10).getFitness() instanceof ApproximateValueFitness);
+		assertTrue(bestPredicted > 0.0);
+		assertTrue(worstEvaluated >= 0.0);
+	}
+}
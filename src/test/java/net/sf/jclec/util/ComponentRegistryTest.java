@@ -0,0 +1,95 @@
+package net.sf.jclec.util;
+
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import net.sf.jclec.IConfigure;
+import net.sf.jclec.algorithm.PopulationAlgorithm;
+import net.sf.jclec.realarray.RealArrayIndividualSpecies;
+import net.sf.jclec.util.range.Interval;
+
+import org.apache.commons.configuration.Configuration;
+import org.apache.commons.configuration.XMLConfiguration;
+
+/**
+ * ComponentRegistry tests.
+ */
+
+public class ComponentRegistryTest extends TestCase
+{
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	public ComponentRegistryTest(String name)
+	{
+		super(name);
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Classes are resolved and instantiated as Class.forName() and
+	 * Class.newInstance() do
+	 */
+
+	public void testNewInstance() throws Exception
+	{
+		Class<?> intervalClass = ComponentRegistry.forName("net.sf.jclec.util.range.Interval");
+		assertSame(Interval.class, intervalClass);
+		assertSame(intervalClass, ComponentRegistry.forName("net.sf.jclec.util.range.Interval"));
+		Object interval = ComponentRegistry.newInstance(intervalClass);
+		assertTrue(interval instanceof Interval);
+		assertNotSame(interval, ComponentRegistry.newInstance(intervalClass));
+		try {
+			ComponentRegistry.forName("net.sf.jclec.NoSuchComponent");
+			fail();
+		}
+		catch (ClassNotFoundException e) {
+			// Expected
+		}
+		try {
+			ComponentRegistry.newInstance(IConfigure.class);
+			fail();
+		}
+		catch (InstantiationException e) {
+			// Expected
+		}
+		try {
+			ComponentRegistry.newInstance(PopulationAlgorithm.class);
+			fail();
+		}
+		catch (InstantiationException e) {
+			// Expected
+		}
+	}
+
+	/**
+	 * Component settings views contain the same values than subsets
+	 */
+
+	public void testSubset() throws Exception
+	{
+		Configuration process =
+			new XMLConfiguration("src/test/resources/net/sf/jclec/algorithm/Checkpoint.config.xml").subset("process");
+		Configuration copy = process.subset("rand-gen-factory");
+		Configuration view = ComponentRegistry.subset(process, "rand-gen-factory");
+		assertEquals(copy.getString("[@type]"), view.getString("[@type]"));
+		assertEquals(copy.getInt("[@seed]"), view.getInt("[@seed]"));
+		// Missing components have empty settings
+		assertTrue(ComponentRegistry.subset(process, "no-such-component").isEmpty());
+		// Genotype schema loci
+		List<Configuration> loci = ComponentRegistry.subsets(process, "species.genotype-schema.locus");
+		assertEquals(3, loci.size());
+		for (int i=0; i<3; i++) {
+			assertEquals(-5.0, loci.get(i).getDouble("[@left]"));
+			assertEquals("net.sf.jclec.util.range.Interval", loci.get(i).getString("[@type]"));
+		}
+		RealArrayIndividualSpecies species = new RealArrayIndividualSpecies();
+		species.configure(ComponentRegistry.subset(process, "species"));
+		assertEquals(3, species.getGenotypeLength());
+	}
+}
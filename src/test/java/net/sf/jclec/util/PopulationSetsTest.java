@@ -0,0 +1,249 @@
+package net.sf.jclec.util;
+
+import java.util.List;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+
+import net.sf.jclec.IIndividual;
+import net.sf.jclec.base.AbstractSelector;
+import net.sf.jclec.exprtree.ExprTree;
+import net.sf.jclec.exprtree.ExprTreeIndividual;
+import net.sf.jclec.exprtree.fun.AbstractPrimitive;
+import net.sf.jclec.exprtree.fun.ExprTreeFunction;
+import net.sf.jclec.intarray.IntArrayIndividual;
+import net.sf.jclec.realarray.RealArrayIndividual;
+import net.sf.jclec.util.random.IRandGen;
+import net.sf.jclec.util.random.Ranecu;
+
+/**
+ * PopulationSets and individual hash codes tests.
+ */
+
+public class PopulationSetsTest extends TestCase
+{
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	public PopulationSetsTest(String name)
+	{
+		super(name);
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Equal individuals have equal hash codes, and setting a genotype
+	 * updates the fingerprint
+	 */
+
+	public void testHashCode()
+	{
+		RealArrayIndividual one = new RealArrayIndividual(new double [] {1.0, 2.0, 3.0});
+		RealArrayIndividual other = new RealArrayIndividual(new double [] {1.0, 2.0, 3.0});
+		assertEquals(one, other);
+		assertEquals(one.hashCode(), other.hashCode());
+		assertEquals(one.getFingerprint(), GenotypeFingerprint.fingerprint(one.getGenotype()));
+		other.setGenotype(new double [] {1.0, 2.0, 4.0});
+		assertFalse(one.equals(other));
+		assertEquals(other.getFingerprint(), GenotypeFingerprint.fingerprint(other.getGenotype()));
+		assertEquals(one.copy().hashCode(), one.hashCode());
+		IntArrayIndividual ione = new IntArrayIndividual(new int [] {1, 2, 3});
+		IntArrayIndividual iother = new IntArrayIndividual(new int [] {1, 2, 3});
+		assertEquals(ione, iother);
+		assertEquals(ione.hashCode(), iother.hashCode());
+	}
+
+	/**
+	 * Tree hash codes are consistent with equals(), even for primitives
+	 * whose string representation is not compared by equals()
+	 */
+
+	public void testTreeHashCode()
+	{
+		ExprTreeIndividual one = new ExprTreeIndividual(tree(new Constant(1.0), new Opaque()));
+		ExprTreeIndividual other = new ExprTreeIndividual(tree(new Constant(2.0), new Opaque()));
+		assertEquals(one, other);
+		assertEquals(other, one);
+		assertEquals(one.hashCode(), other.hashCode());
+		assertEquals(1, PopulationSets.distinct(Arrays.<IIndividual>asList(one, other)).size());
+		// Fingerprints tell constants apart (they are used as cache keys)
+		assertFalse(one.getFingerprint() == other.getFingerprint());
+		other.setGenotype(tree(new Constant(1.0), new Constant(1.0)));
+		assertFalse(one.equals(other));
+	}
+
+	/**
+	 * Union, distinct and removeEach give the same result as the
+	 * List.contains() and List.remove() based versions
+	 */
+
+	public void testSetOperations()
+	{
+		IRandGen randgen = new Ranecu(1234, 5678);
+		for (int round=0; round<20; round++) {
+			List<IIndividual> first = createPopulation(30, randgen);
+			List<IIndividual> second = createPopulation(30, randgen);
+			// Union
+			List<IIndividual> expected = new ArrayList<IIndividual>(first);
+			for (IIndividual ind : second) {
+				if (!expected.contains(ind)) {
+					expected.add(ind);
+				}
+			}
+			assertIdentical(expected, PopulationSets.union(first, second));
+			// Distinct
+			expected = new ArrayList<IIndividual>();
+			for (IIndividual ind : second) {
+				if (!expected.contains(ind)) {
+					expected.add(ind);
+				}
+			}
+			assertIdentical(expected, PopulationSets.distinct(second));
+			// Remove each
+			expected = new ArrayList<IIndividual>(first);
+			for (IIndividual ind : second) {
+				expected.remove(ind);
+			}
+			List<IIndividual> actual = new ArrayList<IIndividual>(first);
+			PopulationSets.removeEach(actual, second);
+			assertIdentical(expected, actual);
+		}
+	}
+
+	/**
+	 * Selection without repetition ends when the source set has less
+	 * distinct individuals than requested
+	 */
+
+	public void testSelectWithoutRepetition()
+	{
+		final List<IIndividual> src = new ArrayList<IIndividual>();
+		src.add(new IntArrayIndividual(new int [] {1}));
+		src.add(new IntArrayIndividual(new int [] {2}));
+		src.add(new IntArrayIndividual(new int [] {1}));
+		src.add(new IntArrayIndividual(new int [] {3}));
+		AbstractSelector selector = new AbstractSelector() {
+			private static final long serialVersionUID = 1L;
+			private int next;
+			protected void prepareSelection() {
+				next = 0;
+			}
+			protected IIndividual selectNext() {
+				return actsrc.get(next++ % actsrcsz);
+			}
+		};
+		List<IIndividual> selected = selector.select(src, 3, false);
+		assertIdentical(PopulationSets.distinct(src), selected);
+		selected = selector.select(src, 5, false);
+		assertEquals(5, selected.size());
+		assertIdentical(PopulationSets.distinct(src), selected.subList(0, 3));
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	private static List<IIndividual> createPopulation(int size, IRandGen randgen)
+	{
+		List<IIndividual> result = new ArrayList<IIndividual>();
+		for (int i=0; i<size; i++) {
+			// Few distinct genotypes, so there are many repeated individuals
+			result.add(new IntArrayIndividual(new int [] {randgen.choose(0, 4), randgen.choose(0, 4)}));
+		}
+		return result;
+	}
+
+	private static ExprTree tree(AbstractPrimitive ... blocks)
+	{
+		ExprTree result = new ExprTree();
+		for (AbstractPrimitive block : blocks) {
+			result.addBlock(block);
+		}
+		return result;
+	}
+
+	private static void assertIdentical(List<IIndividual> expected, List<IIndividual> actual)
+	{
+		assertEquals(expected.size(), actual.size());
+		for (int i=0; i<expected.size(); i++) {
+			assertSame(expected.get(i), actual.get(i));
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// --------------------------------------------- Internal classes
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Ephemeral constant: prints its value, but equals() only compares
+	 * the class.
+	 */
+
+	private static class Constant extends AbstractPrimitive
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final double value;
+
+		Constant(double value)
+		{
+			super(new Class<?> [] {}, Double.class);
+			this.value = value;
+		}
+
+		protected void evaluate(ExprTreeFunction context)
+		{
+			push(context, value);
+		}
+
+		public boolean equals(Object other)
+		{
+			return other instanceof Constant;
+		}
+
+		public int hashCode()
+		{
+			return Constant.class.hashCode();
+		}
+
+		public String toString()
+		{
+			return String.valueOf(value);
+		}
+	}
+
+	/**
+	 * Primitive that keeps Object.toString(), but equals() only compares
+	 * the class.
+	 */
+
+	private static class Opaque extends AbstractPrimitive
+	{
+		private static final long serialVersionUID = 1L;
+
+		Opaque()
+		{
+			super(new Class<?> [] {}, Double.class);
+		}
+
+		protected void evaluate(ExprTreeFunction context)
+		{
+			push(context, 0.0);
+		}
+
+		public boolean equals(Object other)
+		{
+			return other instanceof Opaque;
+		}
+
+		public int hashCode()
+		{
+			return Opaque.class.hashCode();
+		}
+	}
+}
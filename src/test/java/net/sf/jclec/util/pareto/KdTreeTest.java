@@ -0,0 +1,154 @@
+package net.sf.jclec.util.pareto;
+
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+
+import net.sf.jclec.util.random.Ranecu;
+import net.sf.jclec.util.random.IRandGen;
+
+/**
+ * KdTree and ArchiveTruncation tests.
+ */
+
+public class KdTreeTest extends TestCase
+{
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	public KdTreeTest(String name)
+	{
+		super(name);
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Nearest neighbours distances are those of a linear search, also
+	 * after removing points
+	 */
+
+	public void testNearest()
+	{
+		double [][] points = createPoints(200, 3, new Ranecu(1234, 5678));
+		KdTree tree = new KdTree(points);
+		boolean [] removed = new boolean[points.length];
+		int [] neighbours = new int[5];
+		double [] distances = new double[5];
+		for (int step=0; step<3; step++) {
+			for (int i=0; i<points.length; i++) {
+				int found = tree.nearest(i, 5, neighbours, distances);
+				double [] expected = sortedDistances(points, removed, i);
+				assertEquals(Math.min(5, expected.length), found);
+				for (int n=0; n<found; n++) {
+					assertEquals(expected[n], distances[n], 1e-12);
+					assertEquals(distances[n], tree.distance(i, neighbours[n]), 1e-12);
+					assertFalse(removed[neighbours[n]]);
+				}
+			}
+			// Remove a third of the remaining points
+			for (int i=step; i<points.length; i+=3) {
+				tree.remove(i);
+				removed[i] = true;
+			}
+		}
+		int remaining = 0;
+		for (boolean r : removed) {
+			remaining += r ? 0 : 1;
+		}
+		assertEquals(remaining, tree.size());
+	}
+
+	/**
+	 * Truncation removes the same points as the naive procedure
+	 */
+
+	public void testTruncate()
+	{
+		IRandGen randgen = new Ranecu(4321, 8765);
+		for (int depth : new int [] {1, 2, 4}) {
+			double [][] points = createPoints(120, 2, randgen);
+			// Some equal points
+			points[7] = points[3].clone();
+			points[50] = points[3].clone();
+			int [] expected = naiveTruncate(points, 40, depth);
+			assertTrue(Arrays.equals(expected, ArchiveTruncation.truncate(points, 40, depth)));
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	private static double [][] createPoints(int size, int dimensions, IRandGen randgen)
+	{
+		double [][] result = new double[size][dimensions];
+		for (double [] point : result) {
+			for (int j=0; j<dimensions; j++) {
+				// Coarse values, so there are equal distances
+				point[j] = randgen.choose(0, 50) / 10.0;
+			}
+		}
+		return result;
+	}
+
+	private static double [] sortedDistances(double [][] points, boolean [] removed, int i)
+	{
+		double [] result = new double[points.length];
+		int size = 0;
+		for (int j=0; j<points.length; j++) {
+			if (j != i && !removed[j]) {
+				double distance = 0.0;
+				for (int d=0; d<points[i].length; d++) {
+					distance += (points[i][d] - points[j][d]) * (points[i][d] - points[j][d]);
+				}
+				result[size++] = Math.sqrt(distance);
+			}
+		}
+		result = Arrays.copyOf(result, size);
+		Arrays.sort(result);
+		return result;
+	}
+
+	private static int [] naiveTruncate(double [][] points, int size, int depth)
+	{
+		boolean [] removed = new boolean[points.length];
+		for (int remaining=points.length; remaining>size; remaining--) {
+			int closest = -1;
+			double [] closestDistances = null;
+			for (int i=0; i<points.length; i++) {
+				if (removed[i]) {
+					continue;
+				}
+				double [] distances = sortedDistances(points, removed, i);
+				distances = Arrays.copyOf(distances, Math.min(depth, distances.length));
+				if (closest == -1 || compare(distances, closestDistances) < 0) {
+					closest = i;
+					closestDistances = distances;
+				}
+			}
+			removed[closest] = true;
+		}
+		int [] result = new int[size];
+		for (int i=0, k=0; i<points.length; i++) {
+			if (!removed[i]) {
+				result[k++] = i;
+			}
+		}
+		return result;
+	}
+
+	private static int compare(double [] one, double [] other)
+	{
+		for (int n=0; n<one.length; n++) {
+			int cmp = Double.compare(one[n], other[n]);
+			if (cmp != 0) {
+				return cmp;
+			}
+		}
+		return 0;
+	}
+}
@@ -0,0 +1,104 @@
+package net.sf.jclec.util.pareto;
+
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+
+import net.sf.jclec.util.random.Ranecu;
+import net.sf.jclec.util.random.IRandGen;
+
+/**
+ * Non-dominated sorting tests.
+ */
+
+public class NonDominatedSortingTest extends TestCase
+{
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	public NonDominatedSortingTest(String name)
+	{
+		super(name);
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Small example with equal solutions and zeros of different sign
+	 */
+
+	public void testExample()
+	{
+		double [][] objectives = {
+			{1.0, 4.0}, {2.0, 2.0}, {4.0, 1.0}, {2.0, 3.0},
+			{2.0, 2.0}, {3.0, 3.0}, {0.0, 5.0}, {-0.0, 6.0}
+		};
+		int [] expected = {0, 0, 0, 1, 0, 2, 0, 1};
+		assertTrue(Arrays.equals(expected, new SweepNonDominatedSorting().sort(objectives)));
+		assertTrue(Arrays.equals(expected, new EfficientNonDominatedSorting().sort(objectives)));
+		int [][] fronts = NonDominatedSorting.fronts(expected);
+		assertEquals(3, fronts.length);
+		assertTrue(Arrays.equals(new int [] {0, 1, 2, 4, 6}, fronts[0]));
+		assertTrue(Arrays.equals(new int [] {3, 7}, fronts[1]));
+		assertTrue(Arrays.equals(new int [] {5}, fronts[2]));
+	}
+
+	/**
+	 * Fronts are the same as those of the pairwise algorithm
+	 */
+
+	public void testRandom()
+	{
+		IRandGen randgen = new Ranecu(1234, 5678);
+		for (int numberOfObjectives : new int [] {2, 3, 5}) {
+			// Few different values, so there are many equal objectives
+			double [][] objectives = new double[300][numberOfObjectives];
+			for (double [] solution : objectives) {
+				for (int j=0; j<numberOfObjectives; j++) {
+					solution[j] = randgen.choose(0, 10);
+				}
+			}
+			int [] expected = pairwiseSort(objectives);
+			if (numberOfObjectives == 2) {
+				assertTrue(Arrays.equals(expected, new SweepNonDominatedSorting().sort(objectives)));
+			}
+			assertTrue(Arrays.equals(expected, new EfficientNonDominatedSorting().sort(objectives)));
+			assertTrue(Arrays.equals(expected, NonDominatedSorting.sort(objectives)));
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Peels non-dominated fronts one after another
+	 */
+
+	private static int [] pairwiseSort(double [][] objectives)
+	{
+		int size = objectives.length;
+		int [] result = new int[size];
+		Arrays.fill(result, -1);
+		for (int front=0, sorted=0; sorted<size; front++) {
+			boolean [] dominated = new boolean[size];
+			for (int i=0; i<size; i++) {
+				for (int j=0; j<size; j++) {
+					if (result[i] == -1 && result[j] == -1 && NonDominatedSorting.dominates(objectives[j], objectives[i])) {
+						dominated[i] = true;
+					}
+				}
+			}
+			for (int i=0; i<size; i++) {
+				if (result[i] == -1 && !dominated[i]) {
+					result[i] = front;
+					sorted++;
+				}
+			}
+		}
+		return result;
+	}
+}
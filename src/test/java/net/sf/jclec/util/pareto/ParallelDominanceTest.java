@@ -0,0 +1,116 @@
+package net.sf.jclec.util.pareto;
+
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+
+import net.sf.jclec.util.random.Ranecu;
+import net.sf.jclec.util.random.IRandGen;
+
+/**
+ * ParallelDominance tests.
+ */
+
+public class ParallelDominanceTest extends TestCase
+{
+	/////////////////////////////////////////////////////////////////
+	// ------------------------------------------------- Constructors
+	/////////////////////////////////////////////////////////////////
+
+	public ParallelDominanceTest(String name)
+	{
+		super(name);
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ----------------------------------------------- Public methods
+	/////////////////////////////////////////////////////////////////
+
+	/**
+	 * Strength and raw fitness are those of the pairwise loops
+	 */
+
+	public void testStrengthAndRawFitness()
+	{
+		IRandGen randgen = new Ranecu(1234, 5678);
+		for (int size : new int [] {0, 1, 5, 150}) {
+			double [][] objectives = createObjectives(size, 3, randgen);
+			int [] strength = new int[size];
+			long [] rawFitness = new long[size];
+			for (int i=0; i<size; i++) {
+				for (int j=0; j<size; j++) {
+					if (NonDominatedSorting.dominates(objectives[i], objectives[j])) {
+						strength[i]++;
+					}
+				}
+			}
+			for (int i=0; i<size; i++) {
+				for (int j=0; j<size; j++) {
+					if (NonDominatedSorting.dominates(objectives[j], objectives[i])) {
+						rawFitness[i] += strength[j];
+					}
+				}
+			}
+			ParallelDominance dominance = createDominance();
+			assertTrue(Arrays.equals(strength, dominance.strength(objectives)));
+			assertTrue(Arrays.equals(rawFitness, dominance.rawFitness(objectives, strength)));
+		}
+	}
+
+	/**
+	 * Fronts are the same as those of the efficient non-dominated sort
+	 */
+
+	public void testSort()
+	{
+		IRandGen randgen = new Ranecu(4321, 8765);
+		for (int numberOfObjectives=2; numberOfObjectives<=4; numberOfObjectives++) {
+			for (int size : new int [] {0, 1, 5, 200}) {
+				double [][] objectives = createObjectives(size, numberOfObjectives, randgen);
+				int [] expected = new EfficientNonDominatedSorting().sort(objectives);
+				assertTrue(Arrays.equals(expected, createDominance().sort(objectives)));
+			}
+		}
+	}
+
+	/**
+	 * Crowding distances are equal to the sequential ones
+	 */
+
+	public void testCrowding()
+	{
+		IRandGen randgen = new Ranecu(1111, 2222);
+		double [][] objectives = createObjectives(300, 3, randgen);
+		int [][] fronts = NonDominatedSorting.fronts(NonDominatedSorting.sort(objectives));
+		double [][] crowding = createDominance().crowding(objectives, fronts);
+		assertEquals(fronts.length, crowding.length);
+		for (int k=0; k<fronts.length; k++) {
+			assertTrue(Arrays.equals(CrowdingDistance.crowding(objectives, fronts[k]), crowding[k]));
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////
+	// ---------------------------------------------- Private methods
+	/////////////////////////////////////////////////////////////////
+
+	private static ParallelDominance createDominance()
+	{
+		ParallelDominance result = new ParallelDominance();
+		// Small chunks, so tasks are forked
+		result.setNumberOfThreads(3);
+		result.setChunkSize(7);
+		return result;
+	}
+
+	private static double [][] createObjectives(int size, int numberOfObjectives, IRandGen randgen)
+	{
+		double [][] result = new double[size][numberOfObjectives];
+		for (double [] point : result) {
+			for (int j=0; j<numberOfObjectives; j++) {
+				// Coarse values, so there are equal solutions
+				point[j] = randgen.choose(0, 20);
+			}
+		}
+		return result;
+	}
+}